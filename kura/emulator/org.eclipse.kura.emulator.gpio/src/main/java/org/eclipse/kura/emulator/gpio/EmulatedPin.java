@@ -12,6 +12,9 @@
 package org.eclipse.kura.emulator.gpio;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.kura.gpio.KuraClosedDeviceException;
 import org.eclipse.kura.gpio.KuraGPIODeviceException;
@@ -24,17 +27,25 @@ import org.eclipse.kura.gpio.PinStatusListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Emulated GPIO pin.
+ * <p>
+ * Setting the value of an input pin simulates an external signal change, the registered {@link PinStatusListener}
+ * instances are notified according to the configured {@link KuraGPIOTrigger}. This allows to exercise the GPIO input
+ * event path on a PC.
+ */
 public class EmulatedPin implements KuraGPIOPin {
 
     private static final Logger logger = LoggerFactory.getLogger(EmulatedPin.class);
 
-    private boolean internalValue = false;
+    private volatile boolean internalValue = false;
+    private final List<PinStatusListener> listeners = new CopyOnWriteArrayList<>();
     String pinName = null;
     int pinIndex = -1;
 
-    private KuraGPIODirection direction = KuraGPIODirection.OUTPUT;
-    private KuraGPIOMode mode = KuraGPIOMode.OUTPUT_OPEN_DRAIN;
-    private KuraGPIOTrigger trigger = KuraGPIOTrigger.NONE;
+    private volatile KuraGPIODirection direction = KuraGPIODirection.OUTPUT;
+    private volatile KuraGPIOMode mode = KuraGPIOMode.OUTPUT_OPEN_DRAIN;
+    private volatile KuraGPIOTrigger trigger = KuraGPIOTrigger.NONE;
 
     public EmulatedPin(String pinName) {
         super();
@@ -62,12 +73,49 @@ public class EmulatedPin implements KuraGPIOPin {
         this.trigger = trigger;
     }
 
+    /**
+     * Changes the configuration of the pin, the value and the registered listeners are preserved.
+     */
+    void configure(KuraGPIODirection direction, KuraGPIOMode mode, KuraGPIOTrigger trigger) {
+        this.direction = direction;
+        this.mode = mode;
+        this.trigger = trigger;
+    }
+
     @Override
     public void setValue(boolean active) throws KuraUnavailableDeviceException, KuraClosedDeviceException, IOException {
+        final long timestampMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        final boolean previousValue = this.internalValue;
+
         this.internalValue = active;
 
         logger.debug("Emulated GPIO Pin {} changed to {}", this.pinName != null ? this.pinName : this.pinIndex,
                 active ? "on" : "off");
+
+        if (this.direction == KuraGPIODirection.INPUT && this.trigger != null && isTriggered(previousValue, active)) {
+            for (PinStatusListener listener : this.listeners) {
+                listener.pinStatusChange(active, timestampMicros);
+            }
+        }
+    }
+
+    private boolean isTriggered(boolean previousValue, boolean value) {
+        switch (this.trigger) {
+        case BOTH_EDGES:
+            return previousValue != value;
+        case RAISING_EDGE:
+            return !previousValue && value;
+        case FALLING_EDGE:
+            return previousValue && !value;
+        case BOTH_LEVELS:
+            return true;
+        case HIGH_LEVEL:
+            return value;
+        case LOW_LEVEL:
+            return !value;
+        default:
+            return false;
+        }
     }
 
     @Override
@@ -77,10 +125,14 @@ public class EmulatedPin implements KuraGPIOPin {
 
     @Override
     public void addPinStatusListener(PinStatusListener listener) throws KuraClosedDeviceException, IOException {
+        if (!this.listeners.contains(listener)) {
+            this.listeners.add(listener);
+        }
     }
 
     @Override
     public void removePinStatusListener(PinStatusListener listener) throws KuraClosedDeviceException, IOException {
+        this.listeners.remove(listener);
     }
 
     @Override
@@ -90,6 +142,7 @@ public class EmulatedPin implements KuraGPIOPin {
 
     @Override
     public void close() throws IOException {
+        this.listeners.clear();
         logger.info("Emulated GPIO Pin {} closed.", this.pinName != null ? this.pinName : this.pinIndex);
     }
 
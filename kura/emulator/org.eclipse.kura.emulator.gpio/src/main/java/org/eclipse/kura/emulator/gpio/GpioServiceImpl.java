@@ -13,6 +13,7 @@ package org.eclipse.kura.emulator.gpio;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.kura.gpio.GPIOService;
 import org.eclipse.kura.gpio.KuraGPIODirection;
@@ -29,6 +30,10 @@ public class GpioServiceImpl implements GPIOService {
 
     private final HashMap<Integer, String> pins = new HashMap<Integer, String>();
 
+    // the same instance is returned to all callers, so that values and listeners are shared like on real hardware
+    private final Map<String, EmulatedPin> pinsByName = new ConcurrentHashMap<>();
+    private final Map<Integer, EmulatedPin> pinsByTerminal = new ConcurrentHashMap<>();
+
     protected void activate(ComponentContext componentContext) {
         logger.debug("activating emulated GPIOService");
     }
@@ -39,24 +44,37 @@ public class GpioServiceImpl implements GPIOService {
 
     @Override
     public KuraGPIOPin getPinByName(String pinName) {
-        return new EmulatedPin(pinName);
+        return this.pinsByName.computeIfAbsent(pinName, EmulatedPin::new);
     }
 
     @Override
     public KuraGPIOPin getPinByName(String pinName, KuraGPIODirection direction, KuraGPIOMode mode,
             KuraGPIOTrigger trigger) {
-        return new EmulatedPin(pinName, direction, mode, trigger);
+        return this.pinsByName.compute(pinName, (name, pin) -> {
+            if (pin == null) {
+                return new EmulatedPin(name, direction, mode, trigger);
+            }
+            // reconfigure the existing pin, replacing it would drop the registered listeners
+            pin.configure(direction, mode, trigger);
+            return pin;
+        });
     }
 
     @Override
     public KuraGPIOPin getPinByTerminal(int terminal) {
-        return new EmulatedPin(terminal);
+        return this.pinsByTerminal.computeIfAbsent(terminal, EmulatedPin::new);
     }
 
     @Override
     public KuraGPIOPin getPinByTerminal(int terminal, KuraGPIODirection direction, KuraGPIOMode mode,
             KuraGPIOTrigger trigger) {
-        return new EmulatedPin(terminal, direction, mode, trigger);
+        return this.pinsByTerminal.compute(terminal, (index, pin) -> {
+            if (pin == null) {
+                return new EmulatedPin(index, direction, mode, trigger);
+            }
+            pin.configure(direction, mode, trigger);
+            return pin;
+        });
     }
 
     @Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2016 Eurotech and/or its affiliates
+ * Copyright (c) 2011, 2020 Eurotech and/or its affiliates
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -11,7 +11,13 @@
  *******************************************************************************/
 package org.eclipse.kura.crypto;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -20,6 +26,7 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
 
+import org.eclipse.kura.KuraErrorCode;
 import org.eclipse.kura.KuraException;
 import org.osgi.annotation.versioning.ProviderType;
 
@@ -52,6 +59,80 @@ public interface CryptoService {
      */
     public char[] decryptAes(char[] encryptedValue) throws KuraException;
 
+    /**
+     * Returns an {@link OutputStream} that AES encrypts the data written to it and writes the result to the provided
+     * stream, Base64 encoded. The result is the same as the one of {@link #encryptAes(char[])} for the same data
+     * encoded in UTF-8, so it can be decrypted by both {@link #decryptAes(char[])} and
+     * {@link #aesDecryptingStream(InputStream)}.
+     * <p>
+     * The encryption is completed when the returned stream is closed, this also closes the provided stream.
+     * <p>
+     * The default implementation buffers the whole data in memory and encrypts it with {@link #encryptAes(char[])},
+     * implementations should override it to encrypt the data as it is written.
+     *
+     * @param destination
+     *            the stream the encrypted data is written to.
+     * @return the stream to write the data to be encrypted to.
+     * @throws KuraException
+     *             if the encryption cannot be initialized.
+     * @since 2.2
+     */
+    public default OutputStream aesEncryptingStream(final OutputStream destination) throws KuraException {
+        return new ByteArrayOutputStream() {
+
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (this.closed) {
+                    return;
+                }
+                this.closed = true;
+                try (OutputStream out = destination) {
+                    char[] encrypted = encryptAes(new String(toByteArray(), UTF_8).toCharArray());
+                    out.write(new String(encrypted).getBytes(UTF_8));
+                } catch (KuraException e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns an {@link InputStream} that provides the AES decrypted content of the provided stream, that contains
+     * Base64 encoded data encrypted by {@link #aesEncryptingStream(OutputStream)} or {@link #encryptAes(char[])}.
+     * Decryption errors are reported as {@link IOException}s by the returned stream.
+     * <p>
+     * Closing the returned stream also closes the provided stream.
+     * <p>
+     * The default implementation reads and decrypts the whole content with {@link #decryptAes(char[])},
+     * implementations should override it to decrypt the data as it is read.
+     *
+     * @param source
+     *            the stream providing the encrypted data.
+     * @return the stream providing the decrypted data.
+     * @throws KuraException
+     *             if the decryption cannot be initialized.
+     * @since 2.2
+     */
+    public default InputStream aesDecryptingStream(final InputStream source) throws KuraException {
+        try (InputStream in = source) {
+            ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+            byte[] buf = new byte[4096];
+            int rd;
+            while ((rd = in.read(buf)) != -1) {
+                encrypted.write(buf, 0, rd);
+            }
+            char[] decrypted = decryptAes(new String(encrypted.toByteArray(), UTF_8).toCharArray());
+            if (decrypted == null) {
+                throw new KuraException(KuraErrorCode.DECODER_ERROR, "value");
+            }
+            return new ByteArrayInputStream(new String(decrypted).getBytes(UTF_8));
+        } catch (IOException e) {
+            throw new KuraException(KuraErrorCode.DECODER_ERROR, e, "value");
+        }
+    }
+
     /**
      * Returns an AES encrypted string based on the provided value.
      *
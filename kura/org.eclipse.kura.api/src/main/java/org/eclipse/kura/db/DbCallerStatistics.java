@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.db;
+
+import static java.util.Objects.requireNonNull;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * The usage statistics of a database service instance by a single caller.
+ *
+ * @see H2DbService#getStatistics()
+ * @since 2.2
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+@ProviderType
+public final class DbCallerStatistics {
+
+    private final String callerId;
+    private final DbLatencyHistogram connectionAcquisition;
+    private final DbLatencyHistogram query;
+    private final DbLatencyHistogram commit;
+    private final DbLatencyHistogram lockHold;
+    private final long activeConnections;
+    private final long failures;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param callerId
+     *            the identifier of the caller
+     * @param connectionAcquisition
+     *            the time needed to acquire a connection, including the time spent waiting for the database to become
+     *            available
+     * @param query
+     *            the execution time of the statements
+     * @param commit
+     *            the execution time of the commits
+     * @param lockHold
+     *            the time the database service lock has been held, that prevents the database from being
+     *            reconfigured or defragmented
+     * @param activeConnections
+     *            the number of connections currently acquired and not yet closed
+     * @param failures
+     *            the number of tasks that failed with an exception
+     */
+    public DbCallerStatistics(final String callerId, final DbLatencyHistogram connectionAcquisition,
+            final DbLatencyHistogram query, final DbLatencyHistogram commit, final DbLatencyHistogram lockHold,
+            final long activeConnections, final long failures) {
+        this.callerId = requireNonNull(callerId, "Caller id cannot be null");
+        this.connectionAcquisition = requireNonNull(connectionAcquisition);
+        this.query = requireNonNull(query);
+        this.commit = requireNonNull(commit);
+        this.lockHold = requireNonNull(lockHold);
+        this.activeConnections = activeConnections;
+        this.failures = failures;
+    }
+
+    /**
+     * @return the identifier of the caller, usually the kura.service.pid of the calling component
+     */
+    public String getCallerId() {
+        return this.callerId;
+    }
+
+    /**
+     * @return the latencies of the connection acquisitions, the count is the number of acquired connections
+     */
+    public DbLatencyHistogram getConnectionAcquisition() {
+        return this.connectionAcquisition;
+    }
+
+    /**
+     * @return the latencies of the executed statements
+     */
+    public DbLatencyHistogram getQuery() {
+        return this.query;
+    }
+
+    /**
+     * @return the latencies of the commits
+     */
+    public DbLatencyHistogram getCommit() {
+        return this.commit;
+    }
+
+    /**
+     * @return the times the database service lock has been held, for the whole task if the connection has been
+     *         obtained through {@link H2DbService#withConnection(String, H2DbService.ConnectionCallable)}
+     */
+    public DbLatencyHistogram getLockHold() {
+        return this.lockHold;
+    }
+
+    /**
+     * @return the number of connections currently acquired and not yet closed
+     */
+    public long getActiveConnections() {
+        return this.activeConnections;
+    }
+
+    /**
+     * @return the number of tasks that failed with an exception
+     */
+    public long getFailures() {
+        return this.failures;
+    }
+}
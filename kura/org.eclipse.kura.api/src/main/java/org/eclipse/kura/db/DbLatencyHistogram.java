@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.db;
+
+import java.util.Arrays;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * An immutable histogram of the latencies of a database operation.
+ * <p>
+ * The latencies are counted in buckets, the bucket {@code i} counts the latencies greater than the upper bound of the
+ * bucket {@code i - 1} and lower than or equal to its own upper bound. The upper bound of the last bucket is
+ * {@link Long#MAX_VALUE}.
+ *
+ * @since 2.2
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+@ProviderType
+public final class DbLatencyHistogram {
+
+    private final long[] bucketUpperBoundsMicros;
+    private final long[] bucketCounts;
+    private final long count;
+    private final long totalTimeMicros;
+    private final long maxTimeMicros;
+
+    /**
+     * Creates a new histogram.
+     *
+     * @param bucketUpperBoundsMicros
+     *            the increasing upper bounds of the buckets, in microseconds
+     * @param bucketCounts
+     *            the number of latencies counted in each bucket
+     * @param totalTimeMicros
+     *            the sum of the latencies, in microseconds
+     * @param maxTimeMicros
+     *            the maximum latency, in microseconds
+     * @throws IllegalArgumentException
+     *             if the bounds and the counts have a different length
+     */
+    public DbLatencyHistogram(final long[] bucketUpperBoundsMicros, final long[] bucketCounts,
+            final long totalTimeMicros, final long maxTimeMicros) {
+        if (bucketUpperBoundsMicros.length != bucketCounts.length) {
+            throw new IllegalArgumentException("The number of bounds and counts must be the same");
+        }
+        this.bucketUpperBoundsMicros = bucketUpperBoundsMicros.clone();
+        this.bucketCounts = bucketCounts.clone();
+        this.count = Arrays.stream(bucketCounts).sum();
+        this.totalTimeMicros = totalTimeMicros;
+        this.maxTimeMicros = maxTimeMicros;
+    }
+
+    /**
+     * @return the number of recorded latencies
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * @return the sum of the recorded latencies, in microseconds
+     */
+    public long getTotalTimeMicros() {
+        return this.totalTimeMicros;
+    }
+
+    /**
+     * @return the maximum recorded latency, in microseconds
+     */
+    public long getMaxTimeMicros() {
+        return this.maxTimeMicros;
+    }
+
+    /**
+     * @return the mean of the recorded latencies in microseconds, or zero if no latency has been recorded
+     */
+    public long getMeanTimeMicros() {
+        return this.count == 0 ? 0 : this.totalTimeMicros / this.count;
+    }
+
+    /**
+     * Returns an estimate of the given percentile of the recorded latencies, that is the upper bound of the bucket
+     * containing the percentile, or the maximum latency if it is lower.
+     *
+     * @param percentile
+     *            the percentile, between 0 and 100
+     * @return the estimated percentile in microseconds, or zero if no latency has been recorded
+     */
+    public long getPercentileMicros(final double percentile) {
+        if (this.count == 0) {
+            return 0;
+        }
+        final double rank = Math.max(1, Math.ceil(this.count * percentile / 100));
+        long cumulative = 0;
+        for (int i = 0; i < this.bucketCounts.length; i++) {
+            cumulative += this.bucketCounts[i];
+            if (cumulative >= rank) {
+                return Math.min(this.bucketUpperBoundsMicros[i], this.maxTimeMicros);
+            }
+        }
+        return this.maxTimeMicros;
+    }
+
+    /**
+     * @return the upper bounds of the buckets, in microseconds
+     */
+    public long[] getBucketUpperBoundsMicros() {
+        return this.bucketUpperBoundsMicros.clone();
+    }
+
+    /**
+     * @return the number of latencies counted in each bucket
+     */
+    public long[] getBucketCounts() {
+        return this.bucketCounts.clone();
+    }
+}
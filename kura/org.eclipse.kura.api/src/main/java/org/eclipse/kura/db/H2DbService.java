@@ -14,6 +14,8 @@ package org.eclipse.kura.db;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
 
 import org.osgi.annotation.versioning.ProviderType;
 
@@ -31,6 +33,9 @@ import org.osgi.annotation.versioning.ProviderType;
  *
  * As an alternative, it is possible to use the {@link H2DbService#withConnection(ConnectionCallable)} method.
  *
+ * For file based databases using the MVStore storage, the defragmentation can be replaced by an online compaction that
+ * reclaims the free space in short steps without closing the existing connections.
+ *
  *
  * @since 1.3
  * @noimplement This interface is not intended to be implemented by clients.
@@ -40,6 +45,13 @@ public interface H2DbService extends BaseDbService {
 
     public static final String DEFAULT_INSTANCE_PID = "org.eclipse.kura.db.H2DbService";
 
+    /**
+     * The caller identifier used in the statistics for the connections acquired without specifying a caller.
+     *
+     * @since 2.2
+     */
+    public static final String UNKNOWN_CALLER = "unknown";
+
     /**
      * Executes the provided {@link ConnectionCallable} task on the current thread, and returns the result.
      * It is not necessary to close the {@link Connection} received as argument. If an exception is thrown by the task,
@@ -59,6 +71,37 @@ public interface H2DbService extends BaseDbService {
      */
     public <T> T withConnection(ConnectionCallable<T> task) throws SQLException;
 
+    /**
+     * Executes the provided {@link ConnectionCallable} task like {@link #withConnection(ConnectionCallable)}, the
+     * usage of the database by the task is accounted to the given caller in the statistics returned by
+     * {@link #getStatistics()}.
+     *
+     * @param callerId
+     *            the identifier of the caller, usually the kura.service.pid of the calling component.
+     * @param task
+     *            the task to be executed.
+     * @return the result of the executed task.
+     * @throws SQLException
+     *             if the provided task throws a {@link SQLException}.
+     * @since 2.2
+     */
+    public default <T> T withConnection(String callerId, ConnectionCallable<T> task) throws SQLException {
+        return withConnection(task);
+    }
+
+    /**
+     * Returns the usage statistics collected by this instance since its activation, one entry for each caller.
+     * The connections acquired using {@link #getConnection()} or {@link #withConnection(ConnectionCallable)} are
+     * accounted to {@link #UNKNOWN_CALLER}.
+     *
+     * @return the statistics sorted by caller identifier, or an empty list if this instance does not collect
+     *         statistics.
+     * @since 2.2
+     */
+    public default List<DbCallerStatistics> getStatistics() {
+        return Collections.emptyList();
+    }
+
     /**
      * Represents a task that can be executed using the {@link H2DbService#withConnection(ConnectionCallable)} method.
      *
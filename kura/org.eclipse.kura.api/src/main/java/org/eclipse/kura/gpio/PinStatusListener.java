@@ -27,4 +27,21 @@ public interface PinStatusListener {
      *            The new value of the pin.
      */
     public void pinStatusChange(boolean value);
+
+    /**
+     * Invoked when the status of the attached input pin changes, providing the time at which the change has been
+     * detected.<br>
+     * Implementations that are able to obtain the timestamp from the underlying driver (e.g. the time the interrupt
+     * has been serviced by the kernel) should call this method instead of {@link #pinStatusChange(boolean)}.
+     * The default implementation discards the timestamp and calls {@link #pinStatusChange(boolean)}.
+     *
+     * @param value
+     *            The new value of the pin.
+     * @param timestampMicros
+     *            The time at which the change has been detected, expressed in microseconds since the epoch.
+     * @since 2.2
+     */
+    public default void pinStatusChange(boolean value, long timestampMicros) {
+        pinStatusChange(value);
+    }
 }
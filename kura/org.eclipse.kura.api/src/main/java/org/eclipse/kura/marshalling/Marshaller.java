@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Eurotech and/or its affiliates
+ * Copyright (c) 2017, 2020 Eurotech and/or its affiliates
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -11,6 +11,12 @@
  *******************************************************************************/
 package org.eclipse.kura.marshalling;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.eclipse.kura.KuraErrorCode;
 import org.eclipse.kura.KuraException;
 import org.osgi.annotation.versioning.ProviderType;
 
@@ -33,4 +39,28 @@ public interface Marshaller {
      *             when the marshalling operation fails.
      */
     public String marshal(Object object) throws KuraException;
+
+    /**
+     * Writes the representation of the {@link Object} passed as input to the provided {@link OutputStream}, encoded
+     * in UTF-8. The stream is not closed.
+     * <p>
+     * The default implementation writes the result of {@link #marshal(Object)}, implementations can override it to
+     * avoid building the whole representation in memory.
+     *
+     * @param object
+     *            the object that will be marshalled.
+     * @param out
+     *            the stream the representation is written to.
+     * @throws KuraException
+     *             when the marshalling operation fails.
+     * @since 2.2
+     */
+    public default void marshal(Object object, OutputStream out) throws KuraException {
+        String result = marshal(object);
+        try {
+            out.write(result.getBytes(UTF_8));
+        } catch (IOException e) {
+            throw new KuraException(KuraErrorCode.ENCODE_ERROR, e, "value");
+        }
+    }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Eurotech and/or its affiliates
+ * Copyright (c) 2017, 2020 Eurotech and/or its affiliates
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -11,6 +11,13 @@
  *******************************************************************************/
 package org.eclipse.kura.marshalling;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.eclipse.kura.KuraErrorCode;
 import org.eclipse.kura.KuraException;
 import org.osgi.annotation.versioning.ProviderType;
 
@@ -35,4 +42,34 @@ public interface Unmarshaller {
      *             when the unmarshaling operation fails.
      */
     public <T> T unmarshal(String string, Class<T> clazz) throws KuraException;
+
+    /**
+     * This method reads a representation encoded in UTF-8 from the provided {@link InputStream} and uses the class
+     * passed as reference to construct the result. The stream is not closed.
+     * <p>
+     * The default implementation reads the whole stream and calls {@link #unmarshal(String, Class)},
+     * implementations can override it to avoid holding the whole representation in memory.
+     *
+     * @param in
+     *            the input stream
+     * @param clazz
+     *            the class representing the type of object expected for the result
+     * @return an object that is constructed from the content of the stream
+     * @throws KuraException
+     *             when the unmarshaling operation fails.
+     * @since 2.2
+     */
+    public default <T> T unmarshal(InputStream in, Class<T> clazz) throws KuraException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        try {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new KuraException(KuraErrorCode.DECODER_ERROR, e, "value");
+        }
+        return unmarshal(new String(content.toByteArray(), UTF_8), clazz);
+    }
 }
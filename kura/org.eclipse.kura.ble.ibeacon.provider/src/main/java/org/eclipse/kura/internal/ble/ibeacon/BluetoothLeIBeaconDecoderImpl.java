@@ -9,7 +9,6 @@
  *******************************************************************************/
 package org.eclipse.kura.internal.ble.ibeacon;
 
-import java.util.Arrays;
 import java.util.UUID;
 
 import org.eclipse.kura.ble.ibeacon.BluetoothLeIBeacon;
@@ -25,6 +24,8 @@ public class BluetoothLeIBeaconDecoderImpl implements BluetoothLeIBeaconDecoder
     private static final byte[] BEACON_ID = { (byte) 0x02, (byte) 0x15 };
     private static final byte[] COMPANY_CODE = { (byte) 0x00, (byte) 0x4c };
     private static final byte[] IBEACON_PREFIX = { COMPANY_CODE[1], COMPANY_CODE[0], BEACON_ID[0], BEACON_ID[1] };
+    // UUID (16 bytes), major (2 bytes), minor (2 bytes), tx power (1 byte)
+    private static final int IBEACON_DATA_LENGTH = 21;
 
     protected void activate(ComponentContext context) {
         logger.info("Activating Bluetooth Le IBeacon Codec...");
@@ -66,8 +67,8 @@ public class BluetoothLeIBeaconDecoderImpl implements BluetoothLeIBeaconDecoder
             byte dataType = b[ptr + 1];
 
             if (dataType == (byte) 0xFF // Data-Type: Manufacturer-Specific
-                    && Arrays.equals(IBEACON_PREFIX, Arrays.copyOfRange(b, ptr + 2, ptr + 2 + IBEACON_PREFIX.length))
-                    && ptr > 0) {
+                    && hasPrefix(b, ptr + 2) && ptr > 0
+                    && ptr + 2 + IBEACON_PREFIX.length + IBEACON_DATA_LENGTH <= b.length) {
 
                 BluetoothLeIBeacon beacon = new BluetoothLeIBeacon();
 
@@ -81,13 +82,7 @@ public class BluetoothLeIBeaconDecoderImpl implements BluetoothLeIBeaconDecoder
                 int majorPtr = uuidPtr + 16;
                 int minorPtr = uuidPtr + 18;
 
-                StringBuilder uuid = new StringBuilder();
-                for (byte ub : Arrays.copyOfRange(b, uuidPtr, majorPtr)) {
-                    uuid.append(String.format("%02X", ub));
-                }
-                beacon.setUuid(UUID.fromString(uuid.toString().replaceFirst(
-                        "(\\p{XDigit}{8})(\\p{XDigit}{4})(\\p{XDigit}{4})(\\p{XDigit}{4})(\\p{XDigit}+)",
-                        "$1-$2-$3-$4-$5")));
+                beacon.setUuid(new UUID(getLong(b, uuidPtr), getLong(b, uuidPtr + 8)));
 
                 int majorl = b[majorPtr + 1] & 0xFF;
                 int majorh = b[majorPtr] & 0xFF;
@@ -105,4 +100,24 @@ public class BluetoothLeIBeaconDecoderImpl implements BluetoothLeIBeaconDecoder
         return null;
     }
 
+    private static boolean hasPrefix(byte[] b, int offset) {
+        if (offset + IBEACON_PREFIX.length > b.length) {
+            return false;
+        }
+        for (int i = 0; i < IBEACON_PREFIX.length; i++) {
+            if (b[offset + i] != IBEACON_PREFIX[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long getLong(byte[] b, int offset) {
+        long result = 0;
+        for (int i = 0; i < 8; i++) {
+            result = result << 8 | b[offset + i] & 0xFF;
+        }
+        return result;
+    }
+
 }
@@ -10,11 +10,17 @@
 package org.eclipse.kura.internal.ble.beacon;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Dictionary;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
@@ -23,7 +29,6 @@ import org.eclipse.kura.KuraBluetoothBeaconAdvertiserNotAvailable;
 import org.eclipse.kura.KuraBluetoothCommandException;
 import org.eclipse.kura.KuraException;
 import org.eclipse.kura.bluetooth.le.BluetoothLeAdapter;
-import org.eclipse.kura.bluetooth.le.beacon.AdvertisingReportRecord;
 import org.eclipse.kura.bluetooth.le.beacon.BluetoothLeBeacon;
 import org.eclipse.kura.bluetooth.le.beacon.BluetoothLeBeaconAdvertiser;
 import org.eclipse.kura.bluetooth.le.beacon.BluetoothLeBeaconDecoder;
@@ -32,6 +37,9 @@ import org.eclipse.kura.bluetooth.le.beacon.BluetoothLeBeaconManager;
 import org.eclipse.kura.bluetooth.le.beacon.BluetoothLeBeaconScanner;
 import org.eclipse.kura.bluetooth.le.beacon.listener.BluetoothLeBeaconListener;
 import org.eclipse.kura.executor.CommandExecutorService;
+import org.eclipse.kura.internal.ble.util.AdvertisingDataFilter;
+import org.eclipse.kura.internal.ble.util.AdvertisingDataFilters;
+import org.eclipse.kura.internal.ble.util.AdvertisingReportParser;
 import org.eclipse.kura.internal.ble.util.BTSnoopListener;
 import org.eclipse.kura.internal.ble.util.BluetoothLeUtil;
 import org.eclipse.kura.internal.ble.util.BluetoothProcess;
@@ -55,6 +63,15 @@ public class BluetoothLeBeaconManagerImpl
     private static final String CMD = "cmd";
     private static final String TWO_CHAR_REGEX = "(?<=\\G..)";
 
+    // Comma separated lists of iBeacon UUIDs and Eddystone-UID namespaces (hex strings), if at least one of them is
+    // provided, only the matching advertising reports are decoded
+    private static final String IBEACON_UUIDS_FILTER_PROP_NAME = "scan.filter.ibeacon.uuids";
+    private static final String EDDYSTONE_NAMESPACES_FILTER_PROP_NAME = "scan.filter.eddystone.namespaces";
+
+    @SuppressWarnings("checkstyle:constantName")
+    private static final ThreadLocal<AdvertisingReportParser> reportParser = ThreadLocal
+            .withInitial(AdvertisingReportParser::new);
+
     private static Map<String, BluetoothLeBeaconAdvertiserImpl<BluetoothLeBeacon>> advertisers = new HashMap<>();
     private static Map<String, List<BluetoothLeBeaconScannerImpl<BluetoothLeBeacon>>> scanners = new HashMap<>();
 
@@ -62,6 +79,7 @@ public class BluetoothLeBeaconManagerImpl
     private BluetoothProcess hcitoolProc;
     private Map<BluetoothLeBeaconListener<BluetoothLeBeacon>, Class<?>> listeners;
     private CommandExecutorService executorService;
+    private volatile AdvertisingDataFilter reportFilter = AdvertisingDataFilter.ACCEPT_ALL;
 
     public void setExecutorService(CommandExecutorService executorService) {
         this.executorService = executorService;
@@ -74,6 +92,76 @@ public class BluetoothLeBeaconManagerImpl
     protected void activate(ComponentContext context) {
         logger.info("Activating Bluetooth Le Beacon Manager...");
         this.listeners = new HashMap<>();
+        if (context != null && context.getProperties() != null) {
+            updated(toMap(context.getProperties()));
+        }
+    }
+
+    protected void updated(Map<String, Object> properties) {
+        final List<AdvertisingDataFilter> filters = new ArrayList<>();
+
+        final List<UUID> uuids = new ArrayList<>();
+        for (String uuid : getListProperty(properties, IBEACON_UUIDS_FILTER_PROP_NAME)) {
+            try {
+                uuids.add(UUID.fromString(uuid));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring invalid iBeacon UUID filter {}", uuid);
+            }
+        }
+        if (!uuids.isEmpty()) {
+            filters.add(AdvertisingDataFilters.iBeaconUuids(uuids));
+        }
+
+        final List<byte[]> namespaces = new ArrayList<>();
+        for (String namespace : getListProperty(properties, EDDYSTONE_NAMESPACES_FILTER_PROP_NAME)) {
+            final byte[] value = parseHex(namespace);
+            if (value != null && value.length == 10) {
+                namespaces.add(value);
+            } else {
+                logger.warn("Ignoring invalid Eddystone namespace filter {}", namespace);
+            }
+        }
+        if (!namespaces.isEmpty()) {
+            filters.add(AdvertisingDataFilters.eddystoneNamespaces(namespaces));
+        }
+
+        this.reportFilter = AdvertisingDataFilters.anyOf(filters);
+    }
+
+    private static Map<String, Object> toMap(Dictionary<String, Object> dictionary) {
+        final Map<String, Object> result = new HashMap<>();
+        final Enumeration<String> keys = dictionary.keys();
+        while (keys.hasMoreElements()) {
+            final String key = keys.nextElement();
+            result.put(key, dictionary.get(key));
+        }
+        return result;
+    }
+
+    private static List<String> getListProperty(Map<String, Object> properties, String key) {
+        final Object value = properties.get(key);
+        if (!(value instanceof String)) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(((String) value).split(",")).map(String::trim).filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static byte[] parseHex(String value) {
+        final String hex = value.startsWith("0x") ? value.substring(2) : value;
+        if (hex.length() % 2 != 0) {
+            return null;
+        }
+        final byte[] result = new byte[hex.length() / 2];
+        for (int i = 0; i < result.length; i++) {
+            final int high = Character.digit(hex.charAt(i * 2), 16);
+            final int low = Character.digit(hex.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0) {
+                return null;
+            }
+            result[i] = (byte) (high << 4 | low);
+        }
+        return result;
     }
 
     protected void deactivate(ComponentContext context) {
@@ -363,33 +451,66 @@ public class BluetoothLeBeaconManagerImpl
 
     @Override
     public void processBTSnoopRecord(byte[] record) {
-        // Extract raw advertisement data
-        List<AdvertisingReportRecord> reportRecords = BluetoothLeUtil.parseLEAdvertisement(record);
-        if (!reportRecords.isEmpty()) {
-
-            // Get the active decoders
-            List<BluetoothLeBeaconDecoder<BluetoothLeBeacon>> decoders = scanners.values().stream()
-                    .flatMap(List::stream).filter(BluetoothLeBeaconScannerImpl<BluetoothLeBeacon>::isScanning)
-                    .map(BluetoothLeBeaconScannerImpl<BluetoothLeBeacon>::getDecoder).distinct()
-                    .collect(Collectors.toList());
-
-            List<BluetoothLeBeacon> beacons = new ArrayList<>();
-            for (AdvertisingReportRecord report : reportRecords) {
-                for (BluetoothLeBeaconDecoder<BluetoothLeBeacon> decoder : decoders) {
-                    BluetoothLeBeacon beacon = decoder.decode(report.getReportData());
-                    if (beacon != null) {
-                        beacon.setAddress(report.getAddress());
-                        beacon.setRssi(report.getRssi());
-                        beacons.add(beacon);
+        processBTSnoopRecord(ByteBuffer.wrap(record));
+    }
+
+    @Override
+    public void processBTSnoopRecord(ByteBuffer record) {
+        // Walk the raw advertisement data in place
+        final AdvertisingReportParser parser = reportParser.get();
+        if (!parser.reset(record)) {
+            return;
+        }
+
+        final AdvertisingDataFilter filter = this.reportFilter;
+        List<BluetoothLeBeaconDecoder<BluetoothLeBeacon>> decoders = null;
+        List<BluetoothLeBeacon> beacons = null;
+
+        while (parser.next()) {
+            if (!filter.accept(record, parser.getDataOffset(), parser.getDataLength())) {
+                continue;
+            }
+
+            if (decoders == null) {
+                // Get the active decoders
+                decoders = getActiveDecoders();
+            }
+            if (decoders.isEmpty()) {
+                return;
+            }
+
+            final byte[] reportData = parser.getReportData();
+            String address = null;
+
+            for (BluetoothLeBeaconDecoder<BluetoothLeBeacon> decoder : decoders) {
+                BluetoothLeBeacon beacon = decoder.decode(reportData);
+                if (beacon != null) {
+                    if (address == null) {
+                        address = parser.getAddress();
+                    }
+                    beacon.setAddress(address);
+                    beacon.setRssi(parser.getRssi());
+                    if (beacons == null) {
+                        beacons = new ArrayList<>();
                     }
+                    beacons.add(beacon);
                 }
             }
+        }
 
+        if (beacons != null) {
             // Notify listeners
             notifyListeners(beacons);
         }
     }
 
+    private List<BluetoothLeBeaconDecoder<BluetoothLeBeacon>> getActiveDecoders() {
+        return scanners.values().stream().flatMap(List::stream)
+                .filter(BluetoothLeBeaconScannerImpl<BluetoothLeBeacon>::isScanning)
+                .map(BluetoothLeBeaconScannerImpl<BluetoothLeBeacon>::getDecoder).distinct()
+                .collect(Collectors.toList());
+    }
+
     private void notifyListeners(List<BluetoothLeBeacon> beacons) {
         if (!beacons.isEmpty() && !this.listeners.isEmpty()) {
             for (Entry<BluetoothLeBeaconListener<BluetoothLeBeacon>, Class<?>> entry : this.listeners.entrySet()) {
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ *******************************************************************************/
+package org.eclipse.kura.internal.ble.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decides whether the data of an advertising report is worth decoding, operating directly on the packet buffer.
+ * <p>
+ * The report data is a sequence of EIR structures, see Bluetooth Core 4.0; 8 EXTENDED INQUIRY RESPONSE DATA FORMAT.
+ *
+ * @see AdvertisingDataFilters
+ */
+@FunctionalInterface
+public interface AdvertisingDataFilter {
+
+    public static final AdvertisingDataFilter ACCEPT_ALL = (buffer, offset, length) -> true;
+
+    /**
+     * Checks the report data
+     *
+     * @param buffer
+     *            the buffer containing the report data
+     * @param offset
+     *            the absolute index of the first byte of the report data
+     * @param length
+     *            the length of the report data
+     * @return true if the report should be decoded
+     */
+    public boolean accept(ByteBuffer buffer, int offset, int length);
+}
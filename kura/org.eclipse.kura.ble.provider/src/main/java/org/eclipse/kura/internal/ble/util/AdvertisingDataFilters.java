@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ *******************************************************************************/
+package org.eclipse.kura.internal.ble.util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Provides {@link AdvertisingDataFilter} implementations that recognize the most common beacon formats without
+ * decoding them.
+ */
+public final class AdvertisingDataFilters {
+
+    private AdvertisingDataFilters() {
+    }
+
+    /**
+     * Returns a filter that accepts the reports accepted by any of the provided filters.
+     *
+     * @param filters
+     *            the filters, if empty, the returned filter will accept all reports
+     * @return the filter
+     */
+    public static AdvertisingDataFilter anyOf(final Collection<AdvertisingDataFilter> filters) {
+        if (filters.isEmpty()) {
+            return AdvertisingDataFilter.ACCEPT_ALL;
+        }
+
+        final AdvertisingDataFilter[] filterArray = filters.toArray(new AdvertisingDataFilter[filters.size()]);
+
+        return (buffer, offset, length) -> {
+            for (final AdvertisingDataFilter filter : filterArray) {
+                if (filter.accept(buffer, offset, length)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    /**
+     * Returns a filter that accepts the iBeacon reports whose proximity UUID is one of the provided ones.
+     *
+     * @param uuids
+     *            the UUIDs
+     * @return the filter
+     */
+    public static AdvertisingDataFilter iBeaconUuids(final Collection<UUID> uuids) {
+        final long[] msbs = new long[uuids.size()];
+        final long[] lsbs = new long[uuids.size()];
+
+        int i = 0;
+        for (final UUID uuid : uuids) {
+            msbs[i] = uuid.getMostSignificantBits();
+            lsbs[i] = uuid.getLeastSignificantBits();
+            i++;
+        }
+
+        return (buffer, offset, length) -> {
+            final int end = offset + length;
+            int ptr = offset;
+
+            while (ptr < end) {
+                final int structSize = buffer.get(ptr) & 0xff;
+                if (structSize == 0 || ptr + structSize >= end) {
+                    break;
+                }
+
+                // Manufacturer-Specific data, company 0x004C, beacon id 0x0215, followed by the 16 bytes UUID
+                if (structSize >= 21 && buffer.get(ptr + 1) == (byte) 0xFF && buffer.get(ptr + 2) == (byte) 0x4C
+                        && buffer.get(ptr + 3) == 0x00 && buffer.get(ptr + 4) == 0x02
+                        && buffer.get(ptr + 5) == 0x15) {
+                    final long msb = getLong(buffer, ptr + 6);
+                    final long lsb = getLong(buffer, ptr + 14);
+
+                    for (int j = 0; j < msbs.length; j++) {
+                        if (msbs[j] == msb && lsbs[j] == lsb) {
+                            return true;
+                        }
+                    }
+                }
+
+                ptr += structSize + 1;
+            }
+
+            return false;
+        };
+    }
+
+    /**
+     * Returns a filter that accepts the Eddystone-UID reports whose namespace is one of the provided ones.
+     *
+     * @param namespaces
+     *            the 10 bytes namespaces
+     * @return the filter
+     */
+    public static AdvertisingDataFilter eddystoneNamespaces(final Collection<byte[]> namespaces) {
+        final List<byte[]> namespaceList = new ArrayList<>();
+        for (final byte[] namespace : namespaces) {
+            if (namespace.length != 10) {
+                throw new IllegalArgumentException("Eddystone namespaces must be 10 bytes long");
+            }
+            namespaceList.add(Arrays.copyOf(namespace, namespace.length));
+        }
+
+        return (buffer, offset, length) -> {
+            final int end = offset + length;
+            int ptr = offset;
+
+            while (ptr < end) {
+                final int structSize = buffer.get(ptr) & 0xff;
+                if (structSize == 0 || ptr + structSize >= end) {
+                    break;
+                }
+
+                // Service Data, service 0xFEAA, UID frame (0x00), tx power, followed by the 10 bytes namespace
+                if (structSize >= 15 && buffer.get(ptr + 1) == 0x16 && buffer.get(ptr + 2) == (byte) 0xAA
+                        && buffer.get(ptr + 3) == (byte) 0xFE && buffer.get(ptr + 4) == 0x00
+                        && matchesAny(buffer, ptr + 6, namespaceList)) {
+                    return true;
+                }
+
+                ptr += structSize + 1;
+            }
+
+            return false;
+        };
+    }
+
+    private static boolean matchesAny(final ByteBuffer buffer, final int offset, final List<byte[]> candidates) {
+        for (final byte[] candidate : candidates) {
+            boolean matches = true;
+            for (int i = 0; i < candidate.length; i++) {
+                if (buffer.get(offset + i) != candidate[i]) {
+                    matches = false;
+                    break;
+                }
+            }
+            if (matches) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long getLong(final ByteBuffer buffer, final int offset) {
+        long result = 0;
+        for (int i = 0; i < 8; i++) {
+            result = result << 8 | buffer.get(offset + i) & 0xff;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ *******************************************************************************/
+package org.eclipse.kura.internal.ble.util;
+
+import java.nio.ByteBuffer;
+
+import org.eclipse.kura.bluetooth.le.beacon.AdvertisingReportRecord;
+
+/**
+ * Iterates over the reports contained in a HCI LE Advertising Report event without copying them.
+ * <p>
+ * A single instance can be reused for multiple packets, see {@link #reset(ByteBuffer)}. The accessors refer to the
+ * current report and the offsets they return are absolute indexes in the packet buffer, they are valid until the next
+ * call to {@link #next()} or {@link #reset(ByteBuffer)}. Objects are allocated only by {@link #getAddress()},
+ * {@link #getReportData()} and {@link #toAdvertisingReportRecord()}.
+ * <p>
+ * Truncated or malformed reports terminate the iteration.
+ */
+public class AdvertisingReportParser {
+
+    // HCI Packet Type : HCI Event (0x04)
+    private static final byte HCI_EVENT = 0x04;
+    // Event Code : LE Meta Event (0x3E)
+    private static final byte LE_META_EVENT = 0x3E;
+    // Subevent Code : LE Advertising Report (0x02)
+    private static final byte LE_ADVERTISING_REPORT = 0x02;
+
+    private static final int EVENT_HEADER_SIZE = 5;
+    // event type, address type, address, data length
+    private static final int REPORT_HEADER_SIZE = 9;
+    private static final int ADDRESS_SIZE = 6;
+
+    private ByteBuffer packet;
+    private int remainingReports;
+    private int ptr;
+
+    private int eventType;
+    private int addressType;
+    private int addressOffset;
+    private int dataOffset;
+    private int dataLength;
+    private int rssi;
+
+    /**
+     * Prepares the parser for iterating over the reports contained in the provided packet. The remaining bytes of the
+     * buffer must contain a HCI packet, as captured by btsnoop.
+     *
+     * @param packet
+     *            the packet
+     * @return true if the packet is a LE Advertising Report event containing at least one report
+     */
+    public boolean reset(final ByteBuffer packet) {
+        this.packet = packet;
+        this.remainingReports = 0;
+
+        final int base = packet.position();
+
+        if (packet.limit() - base < EVENT_HEADER_SIZE || packet.get(base) != HCI_EVENT
+                || packet.get(base + 1) != LE_META_EVENT || packet.get(base + 3) != LE_ADVERTISING_REPORT) {
+            return false;
+        }
+
+        this.remainingReports = packet.get(base + 4) & 0xff;
+        this.ptr = base + EVENT_HEADER_SIZE;
+
+        return this.remainingReports > 0;
+    }
+
+    /**
+     * Moves to the next report.
+     *
+     * @return true if a report is available, false if there are no more reports or if the packet is truncated
+     */
+    public boolean next() {
+        if (this.remainingReports <= 0) {
+            return false;
+        }
+
+        final int limit = this.packet.limit();
+
+        if (this.ptr + REPORT_HEADER_SIZE > limit) {
+            this.remainingReports = 0;
+            return false;
+        }
+
+        final int newDataLength = this.packet.get(this.ptr + REPORT_HEADER_SIZE - 1) & 0xff;
+        final int newDataOffset = this.ptr + REPORT_HEADER_SIZE;
+
+        // the rssi follows the report data
+        if (newDataOffset + newDataLength >= limit) {
+            this.remainingReports = 0;
+            return false;
+        }
+
+        this.eventType = this.packet.get(this.ptr);
+        this.addressType = this.packet.get(this.ptr + 1);
+        this.addressOffset = this.ptr + 2;
+        this.dataOffset = newDataOffset;
+        this.dataLength = newDataLength;
+        this.rssi = this.packet.get(newDataOffset + newDataLength);
+
+        this.ptr = newDataOffset + newDataLength + 1;
+        this.remainingReports--;
+
+        return true;
+    }
+
+    public ByteBuffer getPacket() {
+        return this.packet;
+    }
+
+    public int getEventType() {
+        return this.eventType;
+    }
+
+    public int getAddressType() {
+        return this.addressType;
+    }
+
+    public int getDataOffset() {
+        return this.dataOffset;
+    }
+
+    public int getDataLength() {
+        return this.dataLength;
+    }
+
+    public int getRssi() {
+        return this.rssi;
+    }
+
+    /**
+     * Returns the address of the current report, the address is transmitted in little endian byte order.
+     *
+     * @return the address in the XX:XX:XX:XX:XX:XX format
+     */
+    public String getAddress() {
+        final char[] result = new char[ADDRESS_SIZE * 3 - 1];
+
+        for (int i = 0; i < ADDRESS_SIZE; i++) {
+            final int b = this.packet.get(this.addressOffset + ADDRESS_SIZE - 1 - i) & 0xff;
+            final int pos = i * 3;
+
+            if (i > 0) {
+                result[pos - 1] = ':';
+            }
+            result[pos] = Character.toUpperCase(Character.forDigit(b >> 4, 16));
+            result[pos + 1] = Character.toUpperCase(Character.forDigit(b & 0xf, 16));
+        }
+
+        return new String(result);
+    }
+
+    public byte[] getReportData() {
+        final byte[] result = new byte[this.dataLength];
+
+        for (int i = 0; i < this.dataLength; i++) {
+            result[i] = this.packet.get(this.dataOffset + i);
+        }
+
+        return result;
+    }
+
+    public AdvertisingReportRecord toAdvertisingReportRecord() {
+        final AdvertisingReportRecord result = new AdvertisingReportRecord();
+
+        result.setEventType(this.eventType);
+        result.setAddressType(this.addressType);
+        result.setAddress(getAddress());
+        if (this.dataLength > 1) {
+            result.setLength(this.packet.get(this.dataOffset + 1));
+        }
+        result.setReportData(getReportData());
+        result.setRssi(this.rssi);
+
+        return result;
+    }
+}
@@ -9,6 +9,8 @@
  *******************************************************************************/
 package org.eclipse.kura.internal.ble.util;
 
+import java.nio.ByteBuffer;
+
 /**
  * For listening to btsnoop streams
  */
@@ -21,6 +23,20 @@ public interface BTSnoopListener {
      */
     public void processBTSnoopRecord(byte[] record);
 
+    /**
+     * Process a BTSnoop Record stored in a buffer.
+     * The buffer is reused by the caller, implementations must not keep a reference to it after returning.
+     * The default implementation copies the record and invokes {@link #processBTSnoopRecord(byte[])}.
+     *
+     * @param record
+     *            a buffer whose remaining bytes are the record
+     */
+    public default void processBTSnoopRecord(ByteBuffer record) {
+        final byte[] copy = new byte[record.remaining()];
+        record.duplicate().get(copy);
+        processBTSnoopRecord(copy);
+    }
+
     /**
      * Process a BTSnoop error stream
      *
@@ -11,6 +11,7 @@ package org.eclipse.kura.internal.ble.util;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.apache.commons.io.IOUtils;
 
@@ -19,9 +20,17 @@ import org.apache.commons.io.IOUtils;
  */
 public class BTSnoopParser {
 
+    private static final int FILE_HEADER_SIZE = 16;
+    private static final int RECORD_HEADER_SIZE = 24;
+    private static final int INITIAL_RECORD_CAPACITY = 512;
+
     private InputStream is;
     private boolean gotHeader = false;
 
+    private final byte[] recordHeader = new byte[RECORD_HEADER_SIZE];
+    private byte[] recordData = new byte[INITIAL_RECORD_CAPACITY];
+    private ByteBuffer record = ByteBuffer.wrap(this.recordData);
+
     public BTSnoopParser() {
         // Do nothing
     }
@@ -31,32 +40,50 @@ public class BTSnoopParser {
     }
 
     public byte[] readRecord() throws IOException {
+        final ByteBuffer buffer = nextRecord();
+        final byte[] packetData = new byte[buffer.remaining()];
+        buffer.get(packetData);
+        return packetData;
+    }
+
+    /**
+     * Reads the next record from the stream into an internal buffer that is reused across calls.
+     *
+     * @return a buffer whose remaining bytes are the packet data of the record, the buffer content is valid only until
+     *         the next call to this method
+     * @throws IOException
+     *             if the stream cannot be read
+     */
+    public ByteBuffer nextRecord() throws IOException {
         if (!this.gotHeader) {
             // Read past the 16-byte header
-            IOUtils.readFully(this.is, new byte[16]);
+            IOUtils.skipFully(this.is, FILE_HEADER_SIZE);
             this.gotHeader = true;
         }
 
-        readInt();
-        int includedLength = readInt();
-        readInt();
-        readInt();
-        readInt();
-        readInt();
-        byte[] packetData = new byte[includedLength];
-
-        // bluetooth record
-        IOUtils.readFully(this.is, packetData);
+        // original length, included length, flags, cumulative drops, timestamp
+        IOUtils.readFully(this.is, this.recordHeader);
+        final int includedLength = getInt(this.recordHeader, 4);
 
-        return packetData;
-    }
+        if (includedLength < 0) {
+            throw new IOException("Invalid btsnoop record length: " + includedLength);
+        }
 
-    private int readInt() throws IOException {
+        if (includedLength > this.recordData.length) {
+            this.recordData = new byte[Math.max(includedLength, this.recordData.length * 2)];
+            this.record = ByteBuffer.wrap(this.recordData);
+        }
 
-        byte[] intBytes = new byte[4];
+        // bluetooth record
+        IOUtils.readFully(this.is, this.recordData, 0, includedLength);
 
-        IOUtils.readFully(this.is, intBytes);
+        this.record.clear();
+        this.record.limit(includedLength);
+        return this.record;
+    }
 
-        return intBytes[0] << 24 | intBytes[1] << 16 | intBytes[2] << 8 | intBytes[3];
+    private static int getInt(byte[] b, int offset) {
+        return (b[offset] & 0xff) << 24 | (b[offset + 1] & 0xff) << 16 | (b[offset + 2] & 0xff) << 8
+                | b[offset + 3] & 0xff;
     }
-}
\ No newline at end of file
+}
@@ -11,6 +11,7 @@ package org.eclipse.kura.internal.ble.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -156,51 +157,11 @@ public class BluetoothLeUtil {
 
         List<AdvertisingReportRecord> reportRecords = new ArrayList<>();
 
-        // HCI Packet Type : HCI Event (0x04)
-        // Event Code : LE Advertising Report (0x3E)
-        if (b[0] != 0x04 || b[1] != 0x3E) {
-            // Not an Advertisement Packet
-            return reportRecords;
-        }
-
-        // Subevent Code : LE Advertisement Subevent (0x02)
-        if (b[3] != 0x02) {
-            // Not an Advertisement Sub Event
-            return reportRecords;
-        }
-
-        // Number of reports in this advertisement
-        int reportRecordsNumber = b[4];
-
-        // Parse each report
-        int ptr = 5;
-        for (int nr = 0; nr < reportRecordsNumber; nr++) {
-
-            AdvertisingReportRecord arr = new AdvertisingReportRecord();
-            arr.setEventType(b[ptr++]);
-            arr.setAddressType(b[ptr++]);
-
-            // Extract remote address
-            String address = String.format("%02X:%02X:%02X:%02X:%02X:%02X", b[ptr + 5], b[ptr + 4], b[ptr + 3],
-                    b[ptr + 2], b[ptr + 1], b[ptr + 0]);
-
-            arr.setAddress(address);
-
-            ptr += 6;
-
-            int arrDataLength = b[ptr++];
-
-            if (arrDataLength > 0) {
-                arr.setLength(b[ptr + 1]);
+        AdvertisingReportParser parser = new AdvertisingReportParser();
+        if (parser.reset(ByteBuffer.wrap(b))) {
+            while (parser.next()) {
+                reportRecords.add(parser.toAdvertisingReportRecord());
             }
-            byte[] arrData = new byte[arrDataLength];
-            System.arraycopy(b, ptr, arrData, 0, arrDataLength);
-            arr.setReportData(arrData);
-            arr.setRssi(b[ptr + arrDataLength]);
-
-            reportRecords.add(arr);
-
-            ptr += arrDataLength;
         }
 
         return reportRecords;
@@ -161,8 +161,7 @@ public class BluetoothProcess {
         this.parser.setInputStream(is);
         while (this.btSnoopReady) {
             if (is != null) {
-                byte[] packet = this.parser.readRecord();
-                listener.processBTSnoopRecord(packet);
+                listener.processBTSnoopRecord(this.parser.nextRecord());
             }
         }
         closeStreams();
@@ -17,6 +17,7 @@ import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
+import java.util.Collections;
 import java.util.Enumeration;
 
 import org.eclipse.kura.KuraErrorCode;
@@ -117,14 +118,15 @@ public class CertificatesManager implements CertificatesService {
 
     protected Certificate getCertificateFromKeyStore(char[] keyStorePassword, String alias)
             throws NoSuchAlgorithmException, CertificateException, KeyStoreException, IOException {
-        KeyStore ks = KeyStoreManagement.loadKeyStore(keyStorePassword);
+        KeyStore ks = KeyStoreManagement.getCachedKeyStore(keyStorePassword);
         return ks.getCertificate(alias);
     }
 
     protected Enumeration<String> getAliasesFromKeyStore(char[] keyStorePassword)
             throws NoSuchAlgorithmException, CertificateException, KeyStoreException, IOException {
-        KeyStore ks = KeyStoreManagement.loadKeyStore(keyStorePassword);
-        return ks.aliases();
+        KeyStore ks = KeyStoreManagement.getCachedKeyStore(keyStorePassword);
+        // the aliases are copied, the key store is shared
+        return Collections.enumeration(Collections.list(ks.aliases()));
     }
 
     private Enumeration<String> listStoredCertificatesAliases() {
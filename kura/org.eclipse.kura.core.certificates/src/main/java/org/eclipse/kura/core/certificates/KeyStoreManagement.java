@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2016 Eurotech and/or its affiliates
+ * Copyright (c) 2011, 2020 Eurotech and/or its affiliates
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -14,11 +14,14 @@ package org.eclipse.kura.core.certificates;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.security.GeneralSecurityException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 
+import org.eclipse.kura.core.util.KeyStoreCache;
+
 final class KeyStoreManagement {
 
     private static final String ENV_JAVA_KEYSTORE = System.getenv("JAVA_HOME") + "/jre/lib/security/cacerts";
@@ -42,6 +45,20 @@ final class KeyStoreManagement {
         return loadKeyStore(ENV_JAVA_KEYSTORE, new String(password).toCharArray());
     }
 
+    /*
+     * Returns the key store shared through the KeyStoreCache, that must not be modified
+     */
+    static KeyStore getCachedKeyStore(char[] password)
+            throws NoSuchAlgorithmException, CertificateException, KeyStoreException, IOException {
+        try {
+            return KeyStoreCache.getInstance().getKeyStore(ENV_JAVA_KEYSTORE, password);
+        } catch (NoSuchAlgorithmException | CertificateException | KeyStoreException e) {
+            throw e;
+        } catch (GeneralSecurityException e) {
+            throw new KeyStoreException(e);
+        }
+    }
+
     static void saveKeyStore(KeyStore keystore, char[] password)
             throws KeyStoreException, NoSuchAlgorithmException, CertificateException, IOException {
         saveKeyStore(keystore, ENV_JAVA_KEYSTORE, new String(password).toCharArray());
@@ -75,6 +92,7 @@ final class KeyStoreManagement {
             if (fos != null) {
                 fos.close();
             }
+            KeyStoreCache.getInstance().invalidate(location);
         }
     }
 
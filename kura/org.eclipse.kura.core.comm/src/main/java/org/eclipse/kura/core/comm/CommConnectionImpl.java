@@ -23,12 +23,14 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
 
 import javax.comm.CommPort;
 import javax.comm.CommPortIdentifier;
 import javax.comm.NoSuchPortException;
 import javax.comm.PortInUseException;
 import javax.comm.SerialPort;
+import javax.comm.UnsupportedCommOperationException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -42,6 +44,10 @@ public class CommConnectionImpl implements CommConnection, Closeable {
     private static final String JAVA_EXT_DIRS = "java.ext.dirs";
     private static final String KURA_EXT_DIR = "kura.ext.dir";
 
+    // the native timer used by the serial driver does not support timeouts of 1 second or more
+    private static final int MAX_RECEIVE_TIMEOUT = 500;
+    private static final int FLUSH_TIMEOUT = 50;
+
     private static final Logger logger = LogManager.getLogger(CommConnectionImpl.class);
 
     // set up the appropriate ext dir for RXTX extra device nodes
@@ -67,6 +73,10 @@ public class CommConnectionImpl implements CommConnection, Closeable {
     private InputStream inputStream;
     private OutputStream outputStream;
 
+    private int receiveTimeout;
+    private int currentReceiveTimeout;
+    private boolean blockingReadSupported = true;
+
     public CommConnectionImpl(CommURI commUri, int mode, boolean timeouts)
             throws IOException, NoSuchPortException, PortInUseException {
 
@@ -97,12 +107,7 @@ public class CommConnectionImpl implements CommConnection, Closeable {
 
                 this.serialPort.setSerialPortParams(baudRate, dataBits, stopBits, parity);
                 this.serialPort.setFlowControlMode(flowControl);
-                if (receiveTimeout > 0) {
-                    this.serialPort.enableReceiveTimeout(receiveTimeout);
-                    if (!this.serialPort.isReceiveTimeoutEnabled()) {
-                        throw new IOException("Serial receive timeout not supported by driver");
-                    }
-                }
+                initReceiveTimeout(receiveTimeout);
             } else {
                 throw new IOException("Unsupported Port Type");
             }
@@ -113,6 +118,37 @@ public class CommConnectionImpl implements CommConnection, Closeable {
         }
     }
 
+    /* default */ CommConnectionImpl(CommURI commUri, SerialPort serialPort) {
+        requireNonNull(commUri);
+        requireNonNull(serialPort);
+
+        this.commUri = commUri;
+        this.serialPort = serialPort;
+        initReceiveTimeout(commUri.getReceiveTimeout());
+    }
+
+    /**
+     * Enables the receive timeout of the serial port. If the driver does not support it, the port is used anyway and
+     * the reads fall back to polling the input stream.
+     */
+    private void initReceiveTimeout(final int receiveTimeout) {
+        this.receiveTimeout = receiveTimeout;
+        this.currentReceiveTimeout = receiveTimeout;
+        if (receiveTimeout <= 0) {
+            return;
+        }
+        try {
+            this.serialPort.enableReceiveTimeout(receiveTimeout);
+        } catch (UnsupportedCommOperationException e) {
+            logger.debug("Failed to enable the serial receive timeout", e);
+        }
+        if (!this.serialPort.isReceiveTimeoutEnabled()) {
+            logger.warn("Serial receive timeout not supported by driver for port {}, falling back to polling",
+                    this.commUri.getPort());
+            this.blockingReadSupported = false;
+        }
+    }
+
     @Override
     public CommURI getURI() {
         return this.commUri;
@@ -208,7 +244,7 @@ public class CommConnectionImpl implements CommConnection, Closeable {
             openInputStream();
         }
 
-        byte[] dataInBuffer = flushSerialBuffer();
+        byte[] dataInBuffer = discardInput();
         if (dataInBuffer != null && dataInBuffer.length > 0) {
             logger.warn("eating bytes in the serial buffer input stream before sending command: {}",
                     getBytesAsString(dataInBuffer));
@@ -216,7 +252,12 @@ public class CommConnectionImpl implements CommConnection, Closeable {
         this.outputStream.write(command, 0, command.length);
         this.outputStream.flush();
 
-        ByteBuffer buffer = getResponse(timeout);
+        ByteBuffer buffer;
+        try {
+            buffer = getResponse(timeout);
+        } finally {
+            restoreReceiveTimeout();
+        }
         if (buffer != null) {
             byte[] response = new byte[buffer.limit()];
             buffer.get(response, 0, response.length);
@@ -243,7 +284,7 @@ public class CommConnectionImpl implements CommConnection, Closeable {
             openInputStream();
         }
 
-        byte[] dataInBuffer = flushSerialBuffer();
+        byte[] dataInBuffer = discardInput();
         if (dataInBuffer != null && dataInBuffer.length > 0) {
             logger.warn("eating bytes in the serial buffer input stream before sending command: {}",
                     getBytesAsString(dataInBuffer));
@@ -251,7 +292,12 @@ public class CommConnectionImpl implements CommConnection, Closeable {
         this.outputStream.write(command, 0, command.length);
         this.outputStream.flush();
 
-        ByteBuffer buffer = getResponse(timeout, demark);
+        ByteBuffer buffer;
+        try {
+            buffer = getResponse(timeout, demark);
+        } finally {
+            restoreReceiveTimeout();
+        }
         if (buffer != null) {
             byte[] response = new byte[buffer.limit()];
             buffer.get(response, 0, response.length);
@@ -265,7 +311,12 @@ public class CommConnectionImpl implements CommConnection, Closeable {
     public synchronized byte[] flushSerialBuffer() throws KuraException, IOException {
         checkIfClosed();
 
-        ByteBuffer buffer = getResponse(50);
+        ByteBuffer buffer;
+        try {
+            buffer = getResponse(FLUSH_TIMEOUT);
+        } finally {
+            restoreReceiveTimeout();
+        }
         if (buffer != null) {
             byte[] response = new byte[buffer.limit()];
             buffer.get(response, 0, response.length);
@@ -275,21 +326,32 @@ public class CommConnectionImpl implements CommConnection, Closeable {
         }
     }
 
-    private synchronized ByteBuffer getResponse(int timeout) throws IOException {
+    /**
+     * Returns the bytes that have already been received, without waiting for more data.
+     */
+    private byte[] discardInput() throws IOException {
         ByteBuffer buffer = ByteBuffer.allocate(4096);
-        long start = System.currentTimeMillis();
+        readAvailable(buffer);
+        buffer.flip();
 
-        while (this.inputStream.available() < 1 && System.currentTimeMillis() - start < timeout) {
-            try {
-                Thread.sleep(10);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+        if (buffer.limit() == 0) {
+            return null;
         }
 
-        while (this.inputStream.available() >= 1) {
-            int c = this.inputStream.read();
-            buffer.put((byte) c);
+        byte[] result = new byte[buffer.limit()];
+        buffer.get(result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Waits up to {@code timeout} milliseconds for the first bytes of the response and then returns as soon as the
+     * bytes already received have been read.
+     */
+    private synchronized ByteBuffer getResponse(int timeout) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        if (read(buffer, timeout) > 0) {
+            readAvailable(buffer);
         }
 
         buffer.flip();
@@ -297,8 +359,69 @@ public class CommConnectionImpl implements CommConnection, Closeable {
         return buffer.limit() > 0 ? buffer : null;
     }
 
+    /**
+     * Waits up to {@code timeout} milliseconds for the first bytes of the response, then keeps reading until no byte
+     * is received for {@code demark} milliseconds.
+     */
     private synchronized ByteBuffer getResponse(int timeout, int demark) throws IOException {
         ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        if (read(buffer, timeout) > 0) {
+            while (buffer.hasRemaining() && read(buffer, demark) > 0) {
+                // keep reading until the end of the frame
+            }
+        }
+
+        buffer.flip();
+
+        return buffer.limit() > 0 ? buffer : null;
+    }
+
+    private void readAvailable(ByteBuffer buffer) throws IOException {
+        int available;
+        while (buffer.hasRemaining() && (available = this.inputStream.available()) > 0) {
+            int count = this.inputStream.read(buffer.array(), buffer.position(),
+                    Math.min(available, buffer.remaining()));
+            if (count <= 0) {
+                break;
+            }
+            buffer.position(buffer.position() + count);
+        }
+    }
+
+    /**
+     * Blocks until some bytes are received or {@code timeout} milliseconds elapse, the received bytes are appended to
+     * the provided buffer. If the serial driver supports receive timeouts, the calling thread is woken up by the
+     * driver as soon as data is available, otherwise the input stream is polled.
+     *
+     * @return the number of bytes read, 0 if the timeout expired
+     */
+    private int read(ByteBuffer buffer, int timeout) throws IOException {
+        if (!this.blockingReadSupported || timeout <= 0) {
+            return pollingRead(buffer, timeout);
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        long remaining = timeout;
+
+        while (remaining > 0) {
+            if (!setReceiveTimeout((int) Math.min(remaining, MAX_RECEIVE_TIMEOUT))) {
+                return pollingRead(buffer, (int) remaining);
+            }
+
+            int count = this.inputStream.read(buffer.array(), buffer.position(), buffer.remaining());
+            if (count > 0) {
+                buffer.position(buffer.position() + count);
+                return count;
+            }
+
+            remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        }
+
+        return 0;
+    }
+
+    private int pollingRead(ByteBuffer buffer, int timeout) throws IOException {
         long start = System.currentTimeMillis();
 
         while (this.inputStream.available() < 1 && System.currentTimeMillis() - start < timeout) {
@@ -306,21 +429,40 @@ public class CommConnectionImpl implements CommConnection, Closeable {
                 Thread.sleep(10);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
+                break;
             }
         }
 
-        start = System.currentTimeMillis();
-        do {
-            if (this.inputStream.available() > 0) {
-                start = System.currentTimeMillis();
-                int c = this.inputStream.read();
-                buffer.put((byte) c);
-            }
-        } while (System.currentTimeMillis() - start < demark);
+        final int position = buffer.position();
+        readAvailable(buffer);
+        return buffer.position() - position;
+    }
 
-        buffer.flip();
+    private boolean setReceiveTimeout(int timeout) {
+        if (timeout == this.currentReceiveTimeout) {
+            return true;
+        }
+        try {
+            this.serialPort.enableReceiveTimeout(timeout);
+            this.currentReceiveTimeout = timeout;
+            return true;
+        } catch (UnsupportedCommOperationException e) {
+            logger.info("Serial receive timeout not supported by driver, falling back to polling");
+            this.blockingReadSupported = false;
+            return false;
+        }
+    }
 
-        return buffer.limit() > 0 ? buffer : null;
+    private void restoreReceiveTimeout() {
+        if (this.serialPort == null || this.currentReceiveTimeout == this.receiveTimeout) {
+            return;
+        }
+        if (this.receiveTimeout > 0) {
+            setReceiveTimeout(this.receiveTimeout);
+        } else {
+            this.serialPort.disableReceiveTimeout();
+            this.currentReceiveTimeout = 0;
+        }
     }
 
     /* default */ static String getBytesAsString(byte[] bytes) {
@@ -14,22 +14,29 @@ package org.eclipse.kura.core.configuration;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FileReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.UnsupportedEncodingException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.Dictionary;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -37,6 +44,19 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -71,6 +91,8 @@ import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
 import org.osgi.service.cm.Configuration;
 import org.osgi.service.cm.ConfigurationAdmin;
+import org.osgi.service.cm.ConfigurationEvent;
+import org.osgi.service.cm.ConfigurationListener;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.ComponentException;
 import org.osgi.service.component.runtime.ServiceComponentRuntime;
@@ -85,10 +107,21 @@ import org.slf4j.LoggerFactory;
 /**
  * Implementation of ConfigurationService.
  */
-public class ConfigurationServiceImpl implements ConfigurationService, OCDService {
+public class ConfigurationServiceImpl implements ConfigurationService, OCDService, ConfigurationListener {
 
     private static final Logger logger = LoggerFactory.getLogger(ConfigurationServiceImpl.class);
 
+    // a full snapshot is written after this number of snapshots written as changes to the previous one
+    private static final int MAX_SNAPSHOT_DELTAS = 20;
+
+    // the snapshots requested by configuration updates within this delay, in milliseconds, are saved as one snapshot
+    private static final String SNAPSHOT_WRITE_DELAY_PROPNAME = "kura.snapshots.write.delay";
+    private static final long DEFAULT_SNAPSHOT_WRITE_DELAY = 500;
+
+    // maximum number of threads decoding the snapshots and pushing the latest one to ConfigurationAdmin at startup
+    private static final int MAX_SNAPSHOT_LOADER_THREADS = 4;
+    private static final long SNAPSHOT_LOADER_KEEP_ALIVE = 60;
+
     private ComponentContext ctx;
     private BundleContext bundleContext;
 
@@ -124,6 +157,36 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
     // maps the kura.service.pid to the associated service.pid
     private final Map<String, String> servicePidByPid;
 
+    // writes the requested snapshots and compacts the snapshot journal
+    private final ScheduledExecutorService snapshotExecutor;
+    private long snapshotWriteDelay = DEFAULT_SNAPSHOT_WRITE_DELAY;
+
+    // decodes the journaled snapshot changes and pushes the latest snapshot to ConfigurationAdmin at startup
+    private final ExecutorService snapshotLoaderExecutor;
+
+    // guards the snapshot files, the snapshot journal and the state of the last saved snapshot
+    private final Object snapshotLock = new Object();
+
+    // the snapshot requested by the configuration updates and not saved yet, see requestSnapshot()
+    private final Object snapshotRequestLock = new Object();
+    private List<ComponentConfiguration> requestedSnapshotConfigs;
+    private boolean snapshotRequested;
+
+    // journal of the snapshots written as changes, see saveSnapshot()
+    private SnapshotJournal snapshotJournal;
+    private final Object snapshotJournalLock = new Object();
+    private final AtomicBoolean snapshotJournalCompactionPending;
+
+    // configurations of the configurable components read from ConfigurationAdmin, by service.pid.
+    // An entry is dropped when the configuration changes, the version discards the entries read meanwhile.
+    private final Map<String, CachedConfiguration> configurationCache = new HashMap<>();
+    private long configurationCacheVersion;
+
+    // properties of the configurations in the last saved snapshot, by pid
+    private Map<String, Map<String, Object>> lastSnapshotProperties;
+    private long lastSnapshotId;
+    private int snapshotDeltaCount;
+
     // ----------------------------------------------------------------
     //
     // Dependencies
@@ -187,6 +250,18 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
     }
 
     public ConfigurationServiceImpl() {
+        this(Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "SnapshotWriter");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    ConfigurationServiceImpl(ScheduledExecutorService snapshotExecutor) {
+        this(snapshotExecutor, newSnapshotLoaderExecutor());
+    }
+
+    ConfigurationServiceImpl(ScheduledExecutorService snapshotExecutor, ExecutorService snapshotLoaderExecutor) {
         this.allActivatedPids = new HashSet<>();
         this.activatedSelfConfigComponents = new HashSet<>();
         this.pendingDeletePids = new HashSet<>();
@@ -194,6 +269,24 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         this.factoryPids = new HashSet<>();
         this.factoryPidByPid = new HashMap<>();
         this.servicePidByPid = new HashMap<>();
+        this.snapshotExecutor = snapshotExecutor;
+        this.snapshotLoaderExecutor = snapshotLoaderExecutor;
+        this.snapshotJournalCompactionPending = new AtomicBoolean();
+    }
+
+    /*
+     * The threads are created when needed and stop when idle, as the executor is mostly used at startup
+     */
+    private static ExecutorService newSnapshotLoaderExecutor() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_SNAPSHOT_LOADER_THREADS, MAX_SNAPSHOT_LOADER_THREADS,
+                SNAPSHOT_LOADER_KEEP_ALIVE, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "SnapshotLoader-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     // ----------------------------------------------------------------
@@ -209,6 +302,8 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         this.ctx = componentContext;
         this.bundleContext = componentContext.getBundleContext();
 
+        this.snapshotWriteDelay = getSnapshotWriteDelay();
+
         // Load the latest snapshot and push it to ConfigurationAdmin
         try {
             loadLatestSnapshotInConfigAdmin();
@@ -281,6 +376,15 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
             this.bundleTracker.close();
             this.bundleTracker = null;
         }
+
+        // save the snapshot requested by the last configuration updates
+        try {
+            flushSnapshot(null);
+        } catch (KuraException e) {
+            logger.error("Failed to save the requested snapshot", e);
+        }
+        this.snapshotExecutor.shutdown();
+        this.snapshotLoaderExecutor.shutdown();
     }
 
     // ----------------------------------------------------------------
@@ -341,7 +445,10 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
     // Don't perform internal calls to this method
     @Override
     public ComponentConfiguration getComponentConfiguration(String pid) throws KuraException {
-        ComponentConfiguration tempConfig = getComponentConfigurationInternal(pid);
+        if (!this.activatedSelfConfigComponents.contains(pid)) {
+            return getConfigurableComponentConfiguration(pid, true);
+        }
+        ComponentConfiguration tempConfig = getSelfConfiguringComponentConfiguration(pid);
         if (tempConfig != null && tempConfig.getConfigurationProperties() != null) {
             decryptConfigurationProperties(tempConfig.getConfigurationProperties());
         }
@@ -410,31 +517,7 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         }
 
         try {
-            // Second argument in createFactoryConfiguration is a bundle location. If left null the new bundle location
-            // will be bound to the location of the first bundle that registers a Managed Service Factory with a
-            // corresponding PID
-            logger.info("Creating new configuration for factory pid {} and pid {}", factoryPid, pid);
-            String servicePid = this.configurationAdmin.createFactoryConfiguration(factoryPid, null).getPid();
-
-            logger.info("Updating newly created configuration for pid {}", pid);
-
-            Map<String, Object> mergedProperties = new HashMap<>();
-            if (properties != null) {
-                mergedProperties.putAll(properties);
-            }
-
-            OCD ocd = this.ocds.get(factoryPid);
-            mergeWithDefaults(ocd, mergedProperties);
-
-            mergedProperties.put(ConfigurationService.KURA_SERVICE_PID, pid);
-
-            Dictionary<String, Object> dict = CollectionsUtil.mapToDictionary(mergedProperties);
-            Configuration config = this.configurationAdmin.getConfiguration(servicePid, "?");
-            config.update(dict);
-
-            registerComponentConfiguration(pid, servicePid, factoryPid);
-
-            this.pendingDeletePids.remove(pid);
+            createFactoryConfigurationInternal(factoryPid, pid, properties);
 
             if (takeSnapshot) {
                 snapshot();
@@ -473,7 +556,9 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
 
             logger.info("Deleting factory configuration for component with pid {}...", pid);
 
+            final String servicePid = config.get().getPid();
             config.get().delete();
+            invalidateConfiguration(servicePid);
 
             unregisterComponentConfiguration(pid);
 
@@ -498,13 +583,20 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
     public long snapshot() throws KuraException {
         logger.info("Writing snapshot - Getting component configurations...");
 
-        List<ComponentConfiguration> configs = buildCurrentConfiguration(null);
+        List<ComponentConfiguration> configs;
+        synchronized (this) {
+            configs = buildCurrentConfiguration(null);
+            this.pendingDeletePids.clear();
+        }
 
-        return saveSnapshot(configs);
+        return flushSnapshot(configs);
     }
 
     @Override
     public long rollback() throws KuraException {
+        // save the requested snapshot, if any, so that it is the last one
+        flushSnapshot(null);
+
         // get the second-last most recent snapshot
         // and rollback to that one.
         Set<Long> ids = getSnapshots();
@@ -602,7 +694,8 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         // might be the old one not the one just loaded from the snapshot and
         // updated through
         // the Configuration Admin. Instead just make a copy of the snapshot.
-        saveSnapshot(configs);
+        this.pendingDeletePids.clear();
+        flushSnapshot(configs);
     }
 
     @Override
@@ -638,6 +731,12 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
     // Package APIs
     //
     // ----------------------------------------------------------------
+    @Override
+    public void configurationEvent(ConfigurationEvent event) {
+        // the configurations changed through ConfigurationAdmin by other bundles are read again
+        invalidateConfiguration(event.getPid());
+    }
+
     synchronized void registerComponentOCD(String metatypePid, Tocd ocd, boolean isFactory, final Bundle provider)
             throws KuraException {
         // metatypePid is either the 'pid' or 'factoryPid' attribute of the MetaType Designate element
@@ -645,6 +744,7 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         logger.info("Registering metatype pid: {} ...", metatypePid);
 
         this.ocds.put(metatypePid, ocd);
+        invalidateConfigurations();
 
         if (isFactory) {
             registerFactoryComponentOCD(metatypePid, ocd, provider);
@@ -716,7 +816,7 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
             return;
         }
         logger.info("Removing component configuration for pid {}", pid);
-        this.servicePidByPid.remove(pid);
+        invalidateConfiguration(this.servicePidByPid.remove(pid));
         this.factoryPidByPid.remove(pid);
         this.activatedSelfConfigComponents.remove(pid);
         this.allActivatedPids.remove(pid);
@@ -788,6 +888,45 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
     //
     // ----------------------------------------------------------------
 
+    /*
+     * Only the registration of the new configuration holds the lock, the configurations of different pids can be
+     * created concurrently in ConfigurationAdmin
+     */
+    private void createFactoryConfigurationInternal(String factoryPid, String pid, Map<String, Object> properties)
+            throws KuraException, IOException {
+        // Second argument in createFactoryConfiguration is a bundle location. If left null the new bundle location
+        // will be bound to the location of the first bundle that registers a Managed Service Factory with a
+        // corresponding PID
+        logger.info("Creating new configuration for factory pid {} and pid {}", factoryPid, pid);
+        String servicePid = this.configurationAdmin.createFactoryConfiguration(factoryPid, null).getPid();
+
+        logger.info("Updating newly created configuration for pid {}", pid);
+
+        Map<String, Object> mergedProperties = new HashMap<>();
+        if (properties != null) {
+            mergedProperties.putAll(properties);
+        }
+
+        OCD ocd;
+        synchronized (this) {
+            ocd = this.ocds.get(factoryPid);
+        }
+        mergeWithDefaults(ocd, mergedProperties);
+
+        mergedProperties.put(ConfigurationService.KURA_SERVICE_PID, pid);
+
+        Dictionary<String, Object> dict = CollectionsUtil.mapToDictionary(mergedProperties);
+        Configuration config = this.configurationAdmin.getConfiguration(servicePid, "?");
+        config.update(dict);
+        invalidateConfiguration(servicePid);
+
+        synchronized (this) {
+            registerComponentConfiguration(pid, servicePid, factoryPid);
+
+            this.pendingDeletePids.remove(pid);
+        }
+    }
+
     private synchronized void updateConfigurationsInternal(List<ComponentConfiguration> configsToUpdate,
             boolean takeSnapshot) throws KuraException {
         boolean snapshotOnConfirmation = false;
@@ -831,7 +970,7 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         }
 
         if (takeSnapshot && configs != null && !configs.isEmpty()) {
-            saveSnapshot(configs);
+            requestSnapshot(configs);
         }
 
         if (!causes.isEmpty()) {
@@ -865,7 +1004,7 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
     private ComponentConfiguration getComponentConfigurationInternal(String pid) throws KuraException {
         ComponentConfiguration cc;
         if (!this.activatedSelfConfigComponents.contains(pid)) {
-            cc = getConfigurableComponentConfiguration(pid);
+            cc = getConfigurableComponentConfiguration(pid, false);
         } else {
             cc = getSelfConfiguringComponentConfiguration(pid);
         }
@@ -893,6 +1032,7 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
             mergeWithDefaults(ocd, props);
 
             config.update(CollectionsUtil.mapToDictionary(props));
+            invalidateConfiguration(servicePid);
             logger.info("Seeding updated configuration for pid: {}", pid);
         }
     }
@@ -1011,13 +1151,21 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
     }
 
     private void encryptPlainSnapshots() throws KuraException, IOException {
-        Set<Long> snapshotIDs = getSnapshots();
+        encryptPlainSnapshots(getSnapshots());
+    }
+
+    private void encryptPlainSnapshots(Set<Long> snapshotIDs) throws KuraException, IOException {
         if (snapshotIDs == null || snapshotIDs.isEmpty()) {
             return;
         }
         Long[] snapshots = snapshotIDs.toArray(new Long[] {});
 
         for (Long snapshot : snapshots) {
+            SnapshotJournal journal = getSnapshotJournal(getSnapshotsDirectory());
+            if (journal != null && journal.getRecord(snapshot) != null) {
+                // journaled snapshots are always encrypted
+                continue;
+            }
             File fSnapshot = getSnapshotFile(snapshot);
             if (fSnapshot == null || !fSnapshot.exists()) {
                 throw new KuraException(KuraErrorCode.CONFIGURATION_ERROR, snapshot);
@@ -1033,7 +1181,128 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         }
     }
 
-    private synchronized long saveSnapshot(List<ComponentConfiguration> configs) throws KuraException {
+    /*
+     * Encrypts the given plain snapshots in the snapshot writer. The snapshots removed in the meantime are skipped and
+     * the ones saved in the meantime are already encrypted.
+     */
+    private void encryptPlainSnapshotsLater(Set<Long> plainSnapshotIDs) {
+        final Set<Long> snapshotIDs = new TreeSet<>(plainSnapshotIDs);
+        try {
+            this.snapshotExecutor.execute(() -> {
+                synchronized (this.snapshotLock) {
+                    try {
+                        Set<Long> currentSnapshotIDs = getSnapshots();
+                        if (currentSnapshotIDs != null) {
+                            snapshotIDs.retainAll(currentSnapshotIDs);
+                            encryptPlainSnapshots(snapshotIDs);
+                            logger.info("Encrypted {} plain snapshots", snapshotIDs.size());
+                        }
+                    } catch (Exception e) {
+                        logger.warn("Failed to encrypt the plain snapshots", e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Failed to schedule the encryption of the plain snapshots", e);
+        }
+    }
+
+    /*
+     * Requests a snapshot of the given configurations, that is saved by the snapshot writer after the snapshot write
+     * delay. The snapshots requested within the delay are saved as a single snapshot of the last configurations.
+     * The latest configurations are returned by getLatestSnapshotConfigurations() until the snapshot is saved.
+     */
+    private void requestSnapshot(List<ComponentConfiguration> configs) {
+        // the configurations being deleted are not part of the requested snapshot
+        this.pendingDeletePids.clear();
+
+        synchronized (this.snapshotRequestLock) {
+            this.requestedSnapshotConfigs = configs;
+            if (this.snapshotRequested) {
+                return;
+            }
+
+            this.snapshotRequested = true;
+            try {
+                this.snapshotExecutor.schedule(() -> {
+                    try {
+                        flushSnapshot(null);
+                    } catch (Exception e) {
+                        logger.error("Failed to save the requested snapshot", e);
+                    }
+                }, this.snapshotWriteDelay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Snapshot writer not available, the requested snapshot is not saved");
+                this.snapshotRequested = false;
+            }
+        }
+    }
+
+    /*
+     * Saves a snapshot of the given configurations or, if null, of the requested ones. The pending snapshot request,
+     * if any, is satisfied by the saved snapshot. Returns null if there is nothing to save.
+     */
+    private Long flushSnapshot(List<ComponentConfiguration> configs) throws KuraException {
+        synchronized (this.snapshotLock) {
+            List<ComponentConfiguration> snapshotConfigs;
+            synchronized (this.snapshotRequestLock) {
+                final boolean requested = this.snapshotRequested;
+                this.snapshotRequested = false;
+                if (configs != null) {
+                    this.requestedSnapshotConfigs = configs;
+                } else if (!requested) {
+                    return null;
+                }
+                snapshotConfigs = this.requestedSnapshotConfigs;
+            }
+
+            long sid = saveSnapshot(snapshotConfigs);
+            synchronized (this.snapshotRequestLock) {
+                // keep the configurations of a newer request
+                if (this.requestedSnapshotConfigs == snapshotConfigs) {
+                    this.requestedSnapshotConfigs = null;
+                }
+            }
+            return sid;
+        }
+    }
+
+    /*
+     * Returns the configurations of the last requested snapshot, if not saved yet, or the ones of the latest saved
+     * snapshot.
+     */
+    private List<ComponentConfiguration> getLatestSnapshotConfigurations() throws KuraException {
+        synchronized (this.snapshotRequestLock) {
+            if (this.requestedSnapshotConfigs != null) {
+                return new ArrayList<>(this.requestedSnapshotConfigs);
+            }
+        }
+        return loadLatestSnapshotConfigurations();
+    }
+
+    private long getSnapshotWriteDelay() {
+        if (this.systemService == null || this.systemService.getProperties() == null) {
+            return DEFAULT_SNAPSHOT_WRITE_DELAY;
+        }
+        String delay = this.systemService.getProperties().getProperty(SNAPSHOT_WRITE_DELAY_PROPNAME);
+        if (delay == null) {
+            return DEFAULT_SNAPSHOT_WRITE_DELAY;
+        }
+        try {
+            return Math.max(0, Long.parseLong(delay.trim()));
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid {} value: {}", SNAPSHOT_WRITE_DELAY_PROPNAME, delay);
+            return DEFAULT_SNAPSHOT_WRITE_DELAY;
+        }
+    }
+
+    long saveSnapshot(List<ComponentConfiguration> configs) throws KuraException {
+        synchronized (this.snapshotLock) {
+            return saveSnapshotInternal(configs);
+        }
+    }
+
+    private long saveSnapshotInternal(List<ComponentConfiguration> configs) throws KuraException {
         // Build the XML structure
         XmlComponentConfigurations conf = new XmlComponentConfigurations();
         conf.setConfigurations(configs);
@@ -1043,9 +1312,10 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
 
         // Do not save the snapshot in the past
         Set<Long> snapshotIDs = getSnapshots();
+        Long lastestID = null;
         if (snapshotIDs != null && !snapshotIDs.isEmpty()) {
             Long[] snapshots = snapshotIDs.toArray(new Long[] {});
-            Long lastestID = snapshots[snapshotIDs.size() - 1];
+            lastestID = snapshots[snapshotIDs.size() - 1];
 
             if (lastestID != null && sid <= lastestID) {
                 logger.warn("Snapshot ID: {} is in the past. Adjusting ID to: {} + 1", sid, lastestID);
@@ -1053,87 +1323,292 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
             }
         }
 
-        // Write snapshot
-        writeSnapshot(sid, conf);
-
-        this.pendingDeletePids.clear();
+        // Write the changes to the previous snapshot, or a full snapshot if they cannot be journaled
+        if (lastestID == null || !writeSnapshotDelta(sid, lastestID, configs)) {
+            writeSnapshot(sid, conf);
+            this.snapshotDeltaCount = 0;
+        }
+        this.lastSnapshotProperties = toPropertiesByPid(configs);
+        this.lastSnapshotId = sid;
 
         // Garbage Collector for number of Snapshots Saved
         garbageCollectionOldSnapshots();
         return sid;
     }
 
-    private void writeSnapshot(long sid, XmlComponentConfigurations conf) throws KuraException {
-        File fSnapshot = getSnapshotFile(sid);
-        if (fSnapshot == null) {
-            throw new KuraException(KuraErrorCode.CONFIGURATION_SNAPSHOT_NOT_FOUND);
+    /*
+     * Appends to the snapshot journal the configurations that changed since the last saved snapshot and the pids of
+     * the removed ones. Returns false if a full snapshot has to be written instead: the first time, periodically, when
+     * most of the configurations changed or if the previous snapshot is not the one last saved.
+     */
+    private boolean writeSnapshotDelta(long sid, long previousSid, List<ComponentConfiguration> configs) {
+        SnapshotJournal journal = getSnapshotJournal(getSnapshotsDirectory());
+        if (journal == null || this.lastSnapshotProperties == null || this.lastSnapshotId != previousSid
+                || this.snapshotDeltaCount >= MAX_SNAPSHOT_DELTAS) {
+            return false;
+        }
+
+        List<ComponentConfiguration> changedConfigs = new ArrayList<>();
+        Set<String> removedPids = new HashSet<>(this.lastSnapshotProperties.keySet());
+        for (ComponentConfiguration config : configs) {
+            removedPids.remove(config.getPid());
+            Map<String, Object> lastProperties = this.lastSnapshotProperties.get(config.getPid());
+            if (lastProperties == null || !propertiesEqual(lastProperties, config.getConfigurationProperties())) {
+                changedConfigs.add(config);
+            }
+        }
+        if (changedConfigs.size() + removedPids.size() > configs.size() / 2) {
+            return false;
         }
 
-        // Marshall the configuration into an XML
-        String xmlResult;
         try {
-            xmlResult = marshal(conf);
-            if (xmlResult == null || xmlResult.trim().isEmpty()) {
-                throw new KuraException(KuraErrorCode.INVALID_PARAMETER, conf);
+            XmlComponentConfigurations changes = new XmlComponentConfigurations();
+            changes.setConfigurations(changedConfigs);
+
+            StringBuilder sb = new StringBuilder();
+            for (String removedPid : removedPids) {
+                sb.append(removedPid).append('\n');
             }
-        } catch (KuraException e) {
-            throw e;
+            sb.append('\n').append(marshal(changes));
+
+            String encryptedChanges = new String(this.cryptoService.encryptAes(sb.toString().toCharArray()));
+            if (encryptedChanges.indexOf('\n') >= 0 || encryptedChanges.indexOf('\r') >= 0) {
+                return false;
+            }
+
+            logger.info("Writing snapshot - Saving {} changed configurations as snapshot {}...", changedConfigs.size(),
+                    sid);
+            journal.append(sid, previousSid, encryptedChanges);
+            this.snapshotDeltaCount++;
+            return true;
         } catch (Exception e) {
-            throw new KuraException(KuraErrorCode.INTERNAL_ERROR, e);
+            logger.warn("Failed to write the snapshot changes, writing a full snapshot", e);
+            return false;
         }
+    }
 
-        // Encrypt the XML
-        char[] encryptedXML = this.cryptoService.encryptAes(xmlResult.toCharArray());
+    private static Map<String, Map<String, Object>> toPropertiesByPid(List<ComponentConfiguration> configs) {
+        Map<String, Map<String, Object>> result = new HashMap<>();
+        for (ComponentConfiguration config : configs) {
+            Map<String, Object> properties = config.getConfigurationProperties();
+            result.put(config.getPid(), properties != null ? new HashMap<>(properties) : null);
+        }
+        return result;
+    }
 
-        // Write the snapshot
-        FileOutputStream fos = null;
-        OutputStreamWriter osw = null;
-        try {
-            logger.info("Writing snapshot - Saving {}...", fSnapshot.getAbsolutePath());
-            fos = new FileOutputStream(fSnapshot);
-            osw = new OutputStreamWriter(fos, "UTF-8");
-            osw.append(new String(encryptedXML));
-            osw.flush();
-            fos.flush();
-            fos.getFD().sync();
-            logger.info("Writing snapshot - Saving {}... Done.", fSnapshot.getAbsolutePath());
-        } catch (FileNotFoundException e) {
-            throw new KuraException(KuraErrorCode.INTERNAL_ERROR, e);
-        } catch (UnsupportedEncodingException e) {
-            throw new KuraException(KuraErrorCode.INTERNAL_ERROR, e);
-        } catch (IOException e) {
-            throw new KuraException(KuraErrorCode.INTERNAL_ERROR, e);
-        } finally {
-            if (osw != null) {
-                try {
-                    osw.close();
-                } catch (IOException e) {
+    private static boolean propertiesEqual(Map<String, Object> properties, Map<String, Object> otherProperties) {
+        if (properties == null || otherProperties == null) {
+            return properties == otherProperties;
+        }
+        if (!properties.keySet().equals(otherProperties.keySet())) {
+            return false;
+        }
+        for (Entry<String, Object> entry : properties.entrySet()) {
+            if (!valueEquals(entry.getValue(), otherProperties.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
 
+    private static boolean valueEquals(Object value, Object otherValue) {
+        if (value instanceof Password && otherValue instanceof Password) {
+            return Arrays.equals(((Password) value).getPassword(), ((Password) otherValue).getPassword());
+        }
+        if (value instanceof Object[] && otherValue instanceof Object[]) {
+            Object[] values = (Object[]) value;
+            Object[] otherValues = (Object[]) otherValue;
+            if (values.length != otherValues.length) {
+                return false;
+            }
+            for (int i = 0; i < values.length; i++) {
+                if (!valueEquals(values[i], otherValues[i])) {
+                    return false;
                 }
             }
-            if (fos != null) {
+            return true;
+        }
+        return Objects.deepEquals(value, otherValue);
+    }
+
+    /*
+     * Rebuilds a journaled snapshot applying the changes recorded in the journal to the full snapshot it is based on
+     */
+    private XmlComponentConfigurations loadJournaledSnapshot(SnapshotJournal journal, long snapshotID)
+            throws KuraException {
+        Deque<SnapshotJournal.Record> records = new ArrayDeque<>();
+        long baseID = snapshotID;
+        SnapshotJournal.Record record;
+        while ((record = journal.getRecord(baseID)) != null) {
+            records.push(record);
+            baseID = record.getPreviousId();
+        }
+
+        // the changes are decrypted and parsed in parallel, while the full snapshot is loaded, and applied in order
+        List<CompletableFuture<SnapshotChanges>> changes = new ArrayList<>(records.size());
+        for (SnapshotJournal.Record change : records) {
+            changes.add(CompletableFuture.supplyAsync(() -> {
                 try {
-                    fos.close();
-                } catch (IOException e) {
+                    return decodeSnapshotChanges(change);
+                } catch (KuraException e) {
+                    throw new CompletionException(e);
+                }
+            }, this.snapshotLoaderExecutor));
+        }
 
+        XmlComponentConfigurations baseConfigs = loadEncryptedSnapshotFileContent(baseID);
+        if (baseConfigs == null) {
+            return null;
+        }
+
+        Map<String, ComponentConfiguration> configs = new LinkedHashMap<>();
+        if (baseConfigs.getConfigurations() != null) {
+            for (ComponentConfiguration config : baseConfigs.getConfigurations()) {
+                configs.put(config.getPid(), config);
+            }
+        }
+
+        for (CompletableFuture<SnapshotChanges> change : changes) {
+            SnapshotChanges decodedChanges;
+            try {
+                decodedChanges = change.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof KuraException) {
+                    throw (KuraException) e.getCause();
+                }
+                throw new KuraException(KuraErrorCode.INTERNAL_ERROR, e.getCause());
+            }
+
+            for (String removedPid : decodedChanges.removedPids) {
+                configs.remove(removedPid);
+            }
+            if (decodedChanges.changedConfigs != null) {
+                for (ComponentConfiguration config : decodedChanges.changedConfigs) {
+                    configs.put(config.getPid(), config);
                 }
             }
         }
+
+        XmlComponentConfigurations xmlConfigs = new XmlComponentConfigurations();
+        xmlConfigs.setConfigurations(new ArrayList<>(configs.values()));
+        return xmlConfigs;
+    }
+
+    private SnapshotChanges decodeSnapshotChanges(SnapshotJournal.Record record) throws KuraException {
+        char[] decryptAes = this.cryptoService.decryptAes(record.getChanges().toCharArray());
+        if (decryptAes == null) {
+            throw new KuraException(KuraErrorCode.DECODER_ERROR, "snapshot");
+        }
+        String decryptedChanges = new String(decryptAes);
+
+        List<String> removedPids = new ArrayList<>();
+        int xmlStart = 0;
+        int lineEnd;
+        while ((lineEnd = decryptedChanges.indexOf('\n', xmlStart)) > xmlStart) {
+            removedPids.add(decryptedChanges.substring(xmlStart, lineEnd));
+            xmlStart = lineEnd + 1;
+        }
+
+        XmlComponentConfigurations changedConfigs = unmarshal(decryptedChanges.substring(xmlStart + 1),
+                XmlComponentConfigurations.class);
+        return new SnapshotChanges(removedPids, changedConfigs.getConfigurations());
     }
 
-    private ComponentConfiguration getConfigurableComponentConfiguration(String pid) {
-        ComponentConfiguration cc = null;
+    private SnapshotJournal getSnapshotJournal(String configDir) {
+        if (configDir == null) {
+            return null;
+        }
+        File directory = new File(configDir);
+        synchronized (this.snapshotJournalLock) {
+            if (this.snapshotJournal == null || !this.snapshotJournal.getDirectory().equals(directory)) {
+                this.snapshotJournal = new SnapshotJournal(directory);
+            }
+            return this.snapshotJournal;
+        }
+    }
+
+    private void compactSnapshotJournal(SnapshotJournal journal) {
+        if (!this.snapshotJournalCompactionPending.compareAndSet(false, true)) {
+            return;
+        }
         try {
+            this.snapshotExecutor.execute(() -> {
+                this.snapshotJournalCompactionPending.set(false);
+                // snapshots are not saved while compacting, the journal must match the snapshot files
+                synchronized (this.snapshotLock) {
+                    try {
+                        String configDir = journal.getDirectory().getPath();
+                        for (Long sid : journal.compact(getSnapshotFileIds(configDir))) {
+                            Path fSnapshotPath = toSnapshotFile(configDir, sid).toPath();
+                            if (Files.deleteIfExists(fSnapshotPath)) {
+                                logger.info("Snapshots Garbage Collector. Deleted {}", fSnapshotPath);
+                            }
+                        }
+                    } catch (Exception e) {
+                        logger.warn("Failed to compact the snapshot journal", e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.snapshotJournalCompactionPending.set(false);
+            logger.debug("Snapshot journal compaction skipped, the service is being deactivated");
+        }
+    }
+
+    private void writeSnapshot(long sid, XmlComponentConfigurations conf) throws KuraException {
+        File fSnapshot = getSnapshotFile(sid);
+        if (fSnapshot == null) {
+            throw new KuraException(KuraErrorCode.CONFIGURATION_SNAPSHOT_NOT_FOUND);
+        }
 
-            Tocd ocd = getOCDForPid(pid);
+        // The configuration is marshalled and encrypted while it is written, to a temporary file so that a failure
+        // does not leave a partial snapshot behind
+        File fTmpSnapshot = new File(fSnapshot.getPath() + ".tmp");
+        boolean written = false;
+        try {
+            logger.info("Writing snapshot - Saving {}...", fSnapshot.getAbsolutePath());
+            try (FileOutputStream fos = new FileOutputStream(fTmpSnapshot)) {
+                try (OutputStream out = this.cryptoService.aesEncryptingStream(new BufferedOutputStream(fos) {
 
+                    @Override
+                    public void close() throws IOException {
+                        // the encryption is completed when the stream is closed
+                        try {
+                            flush();
+                            fos.getFD().sync();
+                        } finally {
+                            super.close();
+                        }
+                    }
+                })) {
+                    marshal(conf, out);
+                }
+            }
+            Files.move(fTmpSnapshot.toPath(), fSnapshot.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            written = true;
+            logger.info("Writing snapshot - Saving {}... Done.", fSnapshot.getAbsolutePath());
+        } catch (IOException e) {
+            throw new KuraException(KuraErrorCode.INTERNAL_ERROR, e);
+        } finally {
+            if (!written && fTmpSnapshot.exists() && !fTmpSnapshot.delete()) {
+                logger.warn("Failed to delete {}", fTmpSnapshot.getAbsolutePath());
+            }
+        }
+    }
+
+    private ComponentConfiguration getConfigurableComponentConfiguration(String pid, boolean decrypted) {
+        ComponentConfiguration cc = null;
+        try {
             String servicePid = this.servicePidByPid.get(pid);
 
             if (servicePid != null) {
-                Configuration cfg = this.configurationAdmin.getConfiguration(servicePid, "?");
-                Map<String, Object> props = CollectionsUtil.dictionaryToMap(cfg.getProperties(), ocd);
+                CachedConfiguration cached = getCachedConfiguration(pid, servicePid);
+                Map<String, Object> props = decrypted ? cached.getDecryptedProperties() : cached.properties;
 
-                cc = new ComponentConfigurationImpl(pid, ocd, props);
+                // the cached properties, including the array and password values, are copied: the returned
+                // configuration can be modified by the caller
+                cc = new ComponentConfigurationImpl(pid, cached.ocd, CollectionsUtil.copyProperties(props));
             }
         } catch (Exception e) {
             logger.error("Error getting Configuration for component: " + pid + ". Ignoring it.", e);
@@ -1141,6 +1616,44 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         return cc;
     }
 
+    private CachedConfiguration getCachedConfiguration(String pid, String servicePid) throws IOException {
+        final long version;
+        synchronized (this.configurationCache) {
+            CachedConfiguration cached = this.configurationCache.get(servicePid);
+            if (cached != null && cached.pid.equals(pid)) {
+                return cached;
+            }
+            version = this.configurationCacheVersion;
+        }
+
+        Tocd ocd = getOCDForPid(pid);
+        Configuration cfg = this.configurationAdmin.getConfiguration(servicePid, "?");
+        Map<String, Object> props = CollectionsUtil.dictionaryToMap(cfg.getProperties(), ocd);
+        CachedConfiguration cached = new CachedConfiguration(pid, ocd, props);
+
+        synchronized (this.configurationCache) {
+            // the configuration read could be stale if a configuration changed in the meantime
+            if (version == this.configurationCacheVersion) {
+                this.configurationCache.put(servicePid, cached);
+            }
+        }
+        return cached;
+    }
+
+    private void invalidateConfiguration(String servicePid) {
+        synchronized (this.configurationCache) {
+            this.configurationCacheVersion++;
+            this.configurationCache.remove(servicePid);
+        }
+    }
+
+    private void invalidateConfigurations() {
+        synchronized (this.configurationCache) {
+            this.configurationCacheVersion++;
+            this.configurationCache.clear();
+        }
+    }
+
     private ComponentConfiguration getSelfConfiguringComponentConfiguration(String pid) {
         ComponentConfiguration cc = null;
         try {
@@ -1241,8 +1754,19 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
 
     private TreeSet<Long> getSnapshotsInternal() {
         // keeps the list of snapshots ordered
-        TreeSet<Long> ids = new TreeSet<>();
         String configDir = getSnapshotsDirectory();
+        TreeSet<Long> ids = getSnapshotFileIds(configDir);
+
+        SnapshotJournal journal = getSnapshotJournal(configDir);
+        if (journal != null && !journal.isEmpty()) {
+            ids.removeIf(journal::isRemoved);
+            ids.addAll(journal.getSnapshotIds());
+        }
+        return ids;
+    }
+
+    private static TreeSet<Long> getSnapshotFileIds(String configDir) {
+        TreeSet<Long> ids = new TreeSet<>();
         if (configDir != null) {
             File fConfigDir = new File(configDir);
             File[] files = fConfigDir.listFiles();
@@ -1265,8 +1789,10 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
     }
 
     private File getSnapshotFile(long id) {
-        String configDir = getSnapshotsDirectory();
+        return toSnapshotFile(getSnapshotsDirectory(), id);
+    }
 
+    private static File toSnapshotFile(String configDir, long id) {
         if (configDir == null) {
             return null;
         }
@@ -1282,6 +1808,8 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         // get the current snapshots and compared with the maximum number we
         // need to keep
         TreeSet<Long> sids = getSnapshotsInternal();
+        SnapshotJournal journal = getSnapshotJournal(getSnapshotsDirectory());
+        boolean compactJournal = false;
 
         int currCount = sids.size();
         int maxCount = this.systemService.getKuraSnapshotsCount();
@@ -1295,6 +1823,20 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
                 continue;
             }
 
+            // journaled snapshots and the snapshots they are based on are removed by the journal compaction
+            if (journal != null && !journal.isEmpty()
+                    && (journal.getRecord(sid) != null || journal.hasDependentRecord(sid))) {
+                try {
+                    journal.markRemoved(sid);
+                    logger.info("Snapshots Garbage Collector. Removed {}", sid);
+                    currCount--;
+                    compactJournal = true;
+                } catch (IOException e) {
+                    logger.warn("Snapshots Garbage Collector. Removal failed for {}", sid, e);
+                }
+                continue;
+            }
+
             Path fSnapshotPath = fSnapshot.toPath();
             try {
                 if (Files.deleteIfExists(fSnapshotPath)) {
@@ -1305,51 +1847,86 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
                 logger.warn("Snapshots Garbage Collector. Deletion failed for {}", fSnapshotPath, e);
             }
         }
+
+        if (compactJournal) {
+            compactSnapshotJournal(journal);
+        }
     }
 
     private void loadLatestSnapshotInConfigAdmin() throws KuraException {
+        final long start = System.nanoTime();
+
         //
         // save away initial configuration
         List<ComponentConfiguration> configs = buildCurrentConfiguration(null);
         if (configs == null) {
             return;
         }
-        for (ComponentConfiguration config : configs) {
-            if (config != null) {
-                Map<String, Object> props = config.getConfigurationProperties();
-                if (props != null) {
-                    String factoryPid = (String) props.get(ConfigurationAdmin.SERVICE_FACTORYPID);
 
-                    if (factoryPid != null) {
-                        String pid = config.getPid();
-                        logger.info("Creating configuration with pid: {} and factory pid: {}", pid, factoryPid);
-                        try {
-                            createFactoryConfiguration(factoryPid, pid, props, false);
-                        } catch (KuraException e) {
-                            logger.warn("Error creating configuration with pid: {} and factory pid: {}", pid,
-                                    factoryPid, e);
-                        }
-                    } else {
-                        try {
-                            logger.debug("Pushing config to config admin: {}", config.getPid());
+        final long loaded = System.nanoTime();
+        logger.info("Built the initial configurations in {} ms", TimeUnit.NANOSECONDS.toMillis(loaded - start));
+
+        // The configurations of different pids are independent, they are pushed to ConfigurationAdmin concurrently
+        // since each update is persisted by ConfigurationAdmin before returning
+        try {
+            List<Future<?>> pushes = new ArrayList<>(configs.size());
+            for (ComponentConfiguration config : configs) {
+                if (config != null && config.getConfigurationProperties() != null) {
+                    pushes.add(this.snapshotLoaderExecutor.submit(() -> pushToConfigAdmin(config)));
+                }
+            }
 
-                            // push it to the ConfigAdmin
-                            Configuration cfg = this.configurationAdmin.getConfiguration(config.getPid(), "?");
+            for (Future<?> push : pushes) {
+                push.get();
+            }
 
-                            // set kura.service.pid if missing
-                            Map<String, Object> newProperties = new HashMap<>(props);
-                            if (!newProperties.containsKey(ConfigurationService.KURA_SERVICE_PID)) {
-                                newProperties.put(ConfigurationService.KURA_SERVICE_PID, config.getPid());
-                            }
+            logger.info("Pushed {} configurations to ConfigurationAdmin in {} ms", pushes.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loaded));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KuraException(KuraErrorCode.INTERNAL_ERROR, e);
+        } catch (ExecutionException e) {
+            throw new KuraException(KuraErrorCode.INTERNAL_ERROR, e.getCause());
+        }
+    }
 
-                            cfg.update(CollectionsUtil.mapToDictionary(newProperties));
+    private void pushToConfigAdmin(ComponentConfiguration config) {
+        Map<String, Object> props = config.getConfigurationProperties();
+        String factoryPid = (String) props.get(ConfigurationAdmin.SERVICE_FACTORYPID);
 
-                        } catch (IOException e) {
-                            logger.warn("Error seeding initial properties to ConfigAdmin for pid: {}", config.getPid(),
-                                    e);
-                        }
+        if (factoryPid != null) {
+            String pid = config.getPid();
+            logger.info("Creating configuration with pid: {} and factory pid: {}", pid, factoryPid);
+            try {
+                // the check and the creation are atomic, as in createFactoryConfiguration, so that a pid is created
+                // only once
+                synchronized (this) {
+                    if (this.servicePidByPid.containsKey(pid)) {
+                        throw new KuraException(KuraErrorCode.INVALID_PARAMETER, "pid " + pid + " already exists");
                     }
+                    createFactoryConfigurationInternal(factoryPid, pid, props);
+                }
+            } catch (KuraException | IOException e) {
+                logger.warn("Error creating configuration with pid: {} and factory pid: {}", pid, factoryPid, e);
+            }
+        } else {
+            try {
+                logger.debug("Pushing config to config admin: {}", config.getPid());
+
+                // push it to the ConfigAdmin
+                Configuration cfg = this.configurationAdmin.getConfiguration(config.getPid(), "?");
+
+                // set kura.service.pid if missing
+                Map<String, Object> newProperties = new HashMap<>(props);
+                if (!newProperties.containsKey(ConfigurationService.KURA_SERVICE_PID)) {
+                    newProperties.put(ConfigurationService.KURA_SERVICE_PID, config.getPid());
                 }
+
+                cfg.update(CollectionsUtil.mapToDictionary(newProperties));
+                invalidateConfiguration(config.getPid());
+
+            } catch (IOException e) {
+                logger.warn("Error seeding initial properties to ConfigAdmin for pid: {}", config.getPid(), e);
             }
         }
     }
@@ -1369,6 +1946,8 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         // Unmarshall
         logger.info("Loading init configurations from: {}...", lastestID);
 
+        final long start = System.nanoTime();
+
         List<ComponentConfiguration> configs = null;
         try {
             XmlComponentConfigurations xmlConfigs = loadEncryptedSnapshotFileContent(lastestID);
@@ -1379,45 +1958,72 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
             logger.info("Unable to decrypt snapshot! Fallback to unencrypted snapshots mode.");
             try {
                 if (allSnapshotsUnencrypted()) {
-                    encryptPlainSnapshots();
-                    configs = loadLatestSnapshotConfigurations();
+                    // only the latest snapshot is needed to start, the others are encrypted in background
+                    configs = loadPlainSnapshotConfigurations(lastestID);
+                    encryptPlainSnapshotsLater(snapshotIDs);
                 }
             } catch (Exception ex) {
                 throw new KuraException(KuraErrorCode.INTERNAL_ERROR, ex);
             }
         }
 
+        logger.info("Loading init configurations from: {}...done in {} ms", lastestID,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
         return configs;
     }
 
-    XmlComponentConfigurations loadEncryptedSnapshotFileContent(long snapshotID) throws KuraException {
+    private List<ComponentConfiguration> loadPlainSnapshotConfigurations(long snapshotID)
+            throws KuraException, IOException {
         File fSnapshot = getSnapshotFile(snapshotID);
         if (fSnapshot == null || !fSnapshot.exists()) {
-            throw new KuraException(KuraErrorCode.CONFIGURATION_SNAPSHOT_NOT_FOUND,
-                    fSnapshot != null ? fSnapshot.getAbsolutePath() : "null");
+            throw new KuraException(KuraErrorCode.CONFIGURATION_ERROR, snapshotID);
         }
 
-        final String rawSnapshot;
-        try {
-            rawSnapshot = readFully(fSnapshot);
-        } catch (IOException e) {
-            logger.error("Error loading file from disk", e);
-            return null;
+        final XmlComponentConfigurations xmlConfigs;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(fSnapshot))) {
+            xmlConfigs = unmarshal(in, XmlComponentConfigurations.class);
         }
 
-        // File loaded, try to decrypt and unmarshall
-        char[] decryptAes = this.cryptoService.decryptAes(rawSnapshot.toCharArray());
-        if (decryptAes == null) {
-            throw new KuraException(KuraErrorCode.DECODER_ERROR, "snapshot");
+        List<ComponentConfiguration> configs = xmlConfigs.getConfigurations();
+        encryptConfigs(configs);
+        return configs;
+    }
+
+    XmlComponentConfigurations loadEncryptedSnapshotFileContent(long snapshotID) throws KuraException {
+        String configDir = getSnapshotsDirectory();
+        File fSnapshot = toSnapshotFile(configDir, snapshotID);
+        if (fSnapshot != null && !fSnapshot.exists()) {
+            SnapshotJournal journal = getSnapshotJournal(configDir);
+            if (journal.getRecord(snapshotID) != null) {
+                return loadJournaledSnapshot(journal, snapshotID);
+            }
+        }
+        if (fSnapshot == null || !fSnapshot.exists()) {
+            throw new KuraException(KuraErrorCode.CONFIGURATION_SNAPSHOT_NOT_FOUND,
+                    fSnapshot != null ? fSnapshot.getAbsolutePath() : "null");
         }
-        String decryptedContent = new String(decryptAes);
 
         XmlComponentConfigurations xmlConfigs = null;
 
-        try {
-            xmlConfigs = unmarshal(decryptedContent, XmlComponentConfigurations.class);
-        } catch (KuraException e) {
-            logger.warn("Error parsing xml", e);
+        // The snapshot is decrypted and unmarshalled while it is read
+        try (InputStream fis = new BufferedInputStream(new FileInputStream(fSnapshot))) {
+            InputStream decryptingStream = this.cryptoService.aesDecryptingStream(fis);
+            if (decryptingStream == null) {
+                throw new KuraException(KuraErrorCode.DECODER_ERROR, "snapshot");
+            }
+
+            FailureTrackingInputStream in = new FailureTrackingInputStream(decryptingStream);
+            try {
+                xmlConfigs = unmarshal(in, XmlComponentConfigurations.class);
+            } catch (KuraException e) {
+                if (in.getFailure() != null) {
+                    throw new KuraException(KuraErrorCode.DECODER_ERROR, in.getFailure(), "snapshot");
+                }
+                logger.warn("Error parsing xml", e);
+            }
+        } catch (IOException e) {
+            logger.error("Error loading file from disk", e);
+            return null;
         }
 
         return xmlConfigs;
@@ -1527,8 +2133,10 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
 
         // Update the new properties
         // use ConfigurationAdmin to do the update
-        Configuration config = this.configurationAdmin.getConfiguration(this.servicePidByPid.get(pid), "?");
+        String servicePid = this.servicePidByPid.get(pid);
+        Configuration config = this.configurationAdmin.getConfiguration(servicePid, "?");
         config.update(CollectionsUtil.mapToDictionary(mergedProperties));
+        invalidateConfiguration(servicePid);
 
         if (snapshotOnConfirmation) {
             snapshot();
@@ -1640,17 +2248,14 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
 
         // complete the returned configurations adding the snapshot configurations
         // of those components not yet in the list.
-        List<ComponentConfiguration> snapshotConfigs = loadLatestSnapshotConfigurations();
+        List<ComponentConfiguration> snapshotConfigs = getLatestSnapshotConfigurations();
         if (snapshotConfigs != null) {
+            Set<String> resultPids = new HashSet<>();
+            for (ComponentConfiguration config : result) {
+                resultPids.add(config.getPid());
+            }
             for (ComponentConfiguration snapshotConfig : snapshotConfigs) {
-                boolean found = false;
-                for (ComponentConfiguration config : result) {
-                    if (config.getPid().equals(snapshotConfig.getPid())) {
-                        found = true;
-                        break;
-                    }
-                }
-                if (!found) {
+                if (resultPids.add(snapshotConfig.getPid())) {
                     // Add old configurations (or not yet tracked ones) present
                     result.add(snapshotConfig);
                 }
@@ -1658,13 +2263,8 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         }
 
         // remove configurations being deleted
-        for (String deletedPid : this.pendingDeletePids) {
-            for (ComponentConfiguration config : result) {
-                if (config.getPid().equals(deletedPid)) {
-                    result.remove(config);
-                    break;
-                }
-            }
+        if (!this.pendingDeletePids.isEmpty()) {
+            result.removeIf(config -> this.pendingDeletePids.contains(config.getPid()));
         }
 
         for (final ComponentConfiguration config : result) {
@@ -1769,6 +2369,14 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         }
     }
 
+    protected <T> T unmarshal(final InputStream in, final Class<T> clazz) throws KuraException {
+        try {
+            return requireNonNull(this.xmlUnmarshaller.unmarshal(in, clazz));
+        } catch (final Exception e) {
+            throw new KuraException(KuraErrorCode.DECODER_ERROR, "configuration", e);
+        }
+    }
+
     protected String marshal(final Object object) throws KuraException {
         try {
             return requireNonNull(this.xmlMarshaller.marshal(object));
@@ -1777,6 +2385,105 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         }
     }
 
+    protected void marshal(final Object object, final OutputStream out) throws KuraException {
+        try {
+            this.xmlMarshaller.marshal(object, out);
+        } catch (Exception e) {
+            throw new KuraException(KuraErrorCode.ENCODE_ERROR, "configuration", e);
+        }
+    }
+
+    /*
+     * Keeps the read failures of the decrypting stream, that the unmarshaller reports as parsing errors
+     */
+    private static final class FailureTrackingInputStream extends FilterInputStream {
+
+        private IOException failure;
+
+        FailureTrackingInputStream(final InputStream in) {
+            super(in);
+        }
+
+        IOException getFailure() {
+            return this.failure;
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (IOException e) {
+                this.failure = e;
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            try {
+                return super.read(b, off, len);
+            } catch (IOException e) {
+                this.failure = e;
+                throw e;
+            }
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            try {
+                return super.skip(n);
+            } catch (IOException e) {
+                this.failure = e;
+                throw e;
+            }
+        }
+    }
+
+    /*
+     * The configuration of a configurable component with encrypted passwords, the properties with decrypted
+     * passwords are computed on the first request
+     */
+    private final class CachedConfiguration {
+
+        private final String pid;
+        private final Tocd ocd;
+        private final Map<String, Object> properties;
+        private volatile Map<String, Object> decryptedProperties;
+
+        CachedConfiguration(final String pid, final Tocd ocd, final Map<String, Object> properties) {
+            this.pid = pid;
+            this.ocd = ocd;
+            this.properties = properties;
+        }
+
+        Map<String, Object> getDecryptedProperties() {
+            if (this.properties == null) {
+                return null;
+            }
+            Map<String, Object> result = this.decryptedProperties;
+            if (result == null) {
+                result = new HashMap<>(this.properties);
+                decryptConfigurationProperties(result);
+                this.decryptedProperties = result;
+            }
+            return result;
+        }
+    }
+
+    /*
+     * The decoded changes of a snapshot journal record
+     */
+    private static final class SnapshotChanges {
+
+        private final List<String> removedPids;
+        private final List<ComponentConfiguration> changedConfigs;
+
+        SnapshotChanges(final List<String> removedPids, final List<ComponentConfiguration> changedConfigs) {
+            this.removedPids = removedPids;
+            this.changedConfigs = changedConfigs;
+        }
+    }
+
     private static final class TrackedComponentFactory {
 
         private final String factoryPid;
@@ -0,0 +1,319 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.configuration;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Journal of the snapshots that are stored as changes to the previous snapshot instead of full snapshot files.
+ * <p>
+ * The journal is a text file in the snapshots directory, to which a line is appended for each change:
+ *
+ * <pre>
+ * S &lt;id&gt; &lt;previous id&gt; &lt;encrypted changes&gt;
+ * R &lt;id&gt;
+ * </pre>
+ *
+ * The first kind of line is a snapshot record, the second one marks a snapshot as removed. A removed snapshot is no
+ * longer listed, but its content is kept as long as the snapshots that follow it need it to be rebuilt.
+ * A snapshot record is rebuilt starting from the full snapshot file found walking back the previous ids.
+ * <p>
+ * The journal is compacted by {@link #compact(Set)}, that drops the records and the full snapshot files no longer
+ * needed and rewrites the file.
+ */
+final class SnapshotJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotJournal.class);
+
+    static final String JOURNAL_FILE_NAME = "snapshots.journal";
+
+    private static final String SNAPSHOT_RECORD = "S";
+    private static final String REMOVED_RECORD = "R";
+
+    static final class Record {
+
+        private final long id;
+        private final long previousId;
+        private final String changes;
+
+        Record(long id, long previousId, String changes) {
+            this.id = id;
+            this.previousId = previousId;
+            this.changes = changes;
+        }
+
+        long getId() {
+            return this.id;
+        }
+
+        long getPreviousId() {
+            return this.previousId;
+        }
+
+        String getChanges() {
+            return this.changes;
+        }
+    }
+
+    private final File directory;
+    private final File journalFile;
+
+    private TreeMap<Long, Record> records;
+    private Set<Long> removedIds;
+
+    SnapshotJournal(File directory) {
+        this.directory = directory;
+        this.journalFile = new File(directory, JOURNAL_FILE_NAME);
+    }
+
+    File getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * @return the ids of the snapshot records that have not been removed
+     */
+    synchronized Set<Long> getSnapshotIds() {
+        load();
+        Set<Long> ids = new TreeSet<>(this.records.keySet());
+        ids.removeAll(this.removedIds);
+        return ids;
+    }
+
+    synchronized boolean isRemoved(long id) {
+        load();
+        return this.removedIds.contains(id);
+    }
+
+    synchronized Record getRecord(long id) {
+        load();
+        return this.records.get(id);
+    }
+
+    /**
+     * @return true if the snapshot is needed to rebuild a snapshot record that follows it
+     */
+    synchronized boolean hasDependentRecord(long id) {
+        load();
+        for (Record record : this.records.tailMap(id, false).values()) {
+            if (record.getPreviousId() == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    synchronized boolean isEmpty() {
+        load();
+        return this.records.isEmpty() && this.removedIds.isEmpty();
+    }
+
+    synchronized void append(long id, long previousId, String changes) throws IOException {
+        load();
+        if (previousId >= id || changes.indexOf('\n') >= 0 || changes.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Invalid snapshot record " + id);
+        }
+        appendLine(SNAPSHOT_RECORD + ' ' + id + ' ' + previousId + ' ' + changes);
+        this.records.put(id, new Record(id, previousId, changes));
+    }
+
+    synchronized void markRemoved(long id) throws IOException {
+        load();
+        appendLine(REMOVED_RECORD + ' ' + id);
+        this.removedIds.add(id);
+    }
+
+    /**
+     * Drops the records and the removed snapshot files that are no longer needed to rebuild the remaining snapshots
+     * and rewrites the journal.
+     *
+     * @param fileIds
+     *            the ids of the full snapshot files in the directory
+     * @return the ids of the full snapshot files that can be deleted
+     * @throws IOException
+     *             if the journal cannot be rewritten
+     */
+    synchronized Set<Long> compact(Set<Long> fileIds) throws IOException {
+        load();
+
+        TreeSet<Long> ids = new TreeSet<>(fileIds);
+        ids.addAll(this.records.keySet());
+
+        List<Long> keptIds = new ArrayList<>();
+        Set<Long> obsoleteFileIds = new HashSet<>();
+        List<Long> segment = new ArrayList<>();
+        for (Long id : ids) {
+            if (fileIds.contains(id)) {
+                compactSegment(segment, keptIds, obsoleteFileIds);
+                segment.clear();
+            } else if (segment.isEmpty() || this.records.get(id).getPreviousId() != segment.get(segment.size() - 1)) {
+                logger.warn("Dropping snapshot {}, the previous snapshot is missing", id);
+                continue;
+            }
+            segment.add(id);
+        }
+        compactSegment(segment, keptIds, obsoleteFileIds);
+
+        TreeMap<Long, Record> keptRecords = new TreeMap<>();
+        Set<Long> keptRemovedIds = new HashSet<>();
+        for (Long id : keptIds) {
+            Record record = this.records.get(id);
+            if (record != null) {
+                keptRecords.put(id, record);
+            }
+            if (this.removedIds.contains(id)) {
+                keptRemovedIds.add(id);
+            }
+        }
+
+        if (keptRecords.size() != this.records.size() || keptRemovedIds.size() != this.removedIds.size()) {
+            rewrite(keptRecords, keptRemovedIds);
+            logger.info("Compacted the snapshot journal, {} snapshot records left", keptRecords.size());
+        }
+        return obsoleteFileIds;
+    }
+
+    /*
+     * A segment is a full snapshot file followed by the records built on it, the segment is kept up to its last
+     * snapshot that has not been removed.
+     */
+    private void compactSegment(List<Long> segment, List<Long> keptIds, Set<Long> obsoleteFileIds) {
+        int last = segment.size() - 1;
+        while (last >= 0 && this.removedIds.contains(segment.get(last))) {
+            last--;
+        }
+        if (last < 0 && !segment.isEmpty() && !this.records.containsKey(segment.get(0))) {
+            obsoleteFileIds.add(segment.get(0));
+        }
+        keptIds.addAll(segment.subList(0, last + 1));
+    }
+
+    private void load() {
+        if (this.records != null) {
+            return;
+        }
+        this.records = new TreeMap<>();
+        this.removedIds = new HashSet<>();
+        if (!this.journalFile.exists()) {
+            return;
+        }
+
+        boolean truncated = false;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(this.journalFile.toPath()), UTF_8))) {
+            // an entry is complete only if it is followed by a new line
+            boolean complete = endsWithNewLine();
+            String line = reader.readLine();
+            while (line != null) {
+                String next = reader.readLine();
+                if ((next == null && !complete) || !parseLine(line)) {
+                    logger.warn("Ignoring invalid snapshot journal entry");
+                    truncated = true;
+                }
+                line = next;
+            }
+        } catch (IOException e) {
+            logger.error("Failed to read the snapshot journal {}", this.journalFile, e);
+        }
+
+        // a partially written entry would corrupt the following ones
+        if (truncated) {
+            try {
+                rewrite(this.records, this.removedIds);
+            } catch (IOException e) {
+                logger.error("Failed to rewrite the snapshot journal {}", this.journalFile, e);
+            }
+        }
+    }
+
+    private boolean parseLine(String line) {
+        String[] tokens = line.split(" ", 4);
+        try {
+            if (SNAPSHOT_RECORD.equals(tokens[0]) && tokens.length == 4) {
+                long id = Long.parseLong(tokens[1]);
+                long previousId = Long.parseLong(tokens[2]);
+                if (previousId < id) {
+                    this.records.put(id, new Record(id, previousId, tokens[3]));
+                    return true;
+                }
+            } else if (REMOVED_RECORD.equals(tokens[0]) && tokens.length == 2) {
+                this.removedIds.add(Long.parseLong(tokens[1]));
+                return true;
+            }
+        } catch (NumberFormatException e) {
+            // invalid entry
+        }
+        return false;
+    }
+
+    private boolean endsWithNewLine() throws IOException {
+        long length = this.journalFile.length();
+        if (length == 0) {
+            return true;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(this.journalFile, "r")) {
+            file.seek(length - 1);
+            return file.read() == '\n';
+        }
+    }
+
+    private void appendLine(String line) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(this.journalFile, true);
+                Writer writer = new OutputStreamWriter(fos, UTF_8)) {
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+            fos.getFD().sync();
+        }
+    }
+
+    private void rewrite(TreeMap<Long, Record> newRecords, Set<Long> newRemovedIds) throws IOException {
+        File tmpFile = new File(this.directory, JOURNAL_FILE_NAME + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmpFile);
+                Writer writer = new OutputStreamWriter(fos, UTF_8)) {
+            for (Record record : newRecords.values()) {
+                writer.write(SNAPSHOT_RECORD + ' ' + record.getId() + ' ' + record.getPreviousId() + ' '
+                        + record.getChanges() + '\n');
+            }
+            for (Long id : new TreeSet<>(newRemovedIds)) {
+                writer.write(REMOVED_RECORD + ' ' + id + '\n');
+            }
+            writer.flush();
+            fos.getFD().sync();
+        }
+        Files.move(tmpFile.toPath(), this.journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        this.records = newRecords;
+        this.removedIds = new HashSet<>(newRemovedIds);
+    }
+}
@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.eclipse.kura.core.configuration.util;
 
+import java.lang.reflect.Array;
 import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -101,4 +102,42 @@ public class CollectionsUtil {
         }
         return dictionary;
     }
+
+    /**
+     * Returns a copy of the provided properties that shares no mutable value with them: arrays and {@link Password}
+     * values are copied as well.
+     *
+     * @param properties
+     *            the properties to copy, can be null
+     * @return the copied properties or null if {@code properties} is null
+     */
+    public static Map<String, Object> copyProperties(Map<String, Object> properties) {
+        if (properties == null) {
+            return null;
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            result.put(entry.getKey(), copyValue(entry.getValue()));
+        }
+        return result;
+    }
+
+    private static Object copyValue(Object value) {
+        if (value instanceof Password) {
+            return new Password(((Password) value).getPassword().clone());
+        } else if (value instanceof Object[]) {
+            Object[] array = ((Object[]) value).clone();
+            for (int i = 0; i < array.length; i++) {
+                array[i] = copyValue(array[i]);
+            }
+            return array;
+        } else if (value != null && value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            Object array = Array.newInstance(value.getClass().getComponentType(), length);
+            System.arraycopy(value, 0, array, 0, length);
+            return array;
+        }
+        return value;
+    }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2019 Eurotech and others
+ * Copyright (c) 2011, 2020 Eurotech and others
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -17,17 +17,24 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.Key;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Properties;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.spec.SecretKeySpec;
@@ -46,6 +53,11 @@ public class CryptoServiceImpl implements CryptoService {
     private static final String ALGORITHM = "AES";
     private static final byte[] SECRET_KEY = System
             .getProperty("org.eclipse.kura.core.crypto.secretKey", "rv;ipse329183!@#").getBytes();
+    private static final Key KEY = new SecretKeySpec(SECRET_KEY, ALGORITHM);
+
+    // Cipher instances are not thread safe and costly to look up, each thread reuses its own ones
+    private static final ThreadLocal<Cipher> encryptCipher = new ThreadLocal<>();
+    private static final ThreadLocal<Cipher> decryptCipher = new ThreadLocal<>();
 
     private String keystorePasswordPath;
 
@@ -69,21 +81,15 @@ public class CryptoServiceImpl implements CryptoService {
 
     @Override
     public char[] encryptAes(char[] value) throws KuraException {
-        String encryptedValue = null;
-
         try {
-            Key key = generateKey();
-            Cipher c = Cipher.getInstance(ALGORITHM);
-            c.init(Cipher.ENCRYPT_MODE, key);
-            byte[] encryptedBytes = c.doFinal(new String(value).getBytes());
-            encryptedValue = base64Encode(encryptedBytes);
+            Cipher c = getCipher(encryptCipher, Cipher.ENCRYPT_MODE);
+            byte[] encryptedBytes = doFinal(encryptCipher, c, encode(value));
+            return base64EncodeToChars(encryptedBytes);
         } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
             throw new KuraException(KuraErrorCode.OPERATION_NOT_SUPPORTED, "encrypt");
         } catch (InvalidKeyException | IllegalBlockSizeException | BadPaddingException e) {
             throw new KuraException(KuraErrorCode.ENCODE_ERROR, "value");
         }
-
-        return encryptedValue.toCharArray();
     }
 
     private byte[] base64Decode(String internalStringValue) {
@@ -94,21 +100,48 @@ public class CryptoServiceImpl implements CryptoService {
         return Base64.getEncoder().encodeToString(encryptedBytes);
     }
 
+    private static char[] base64EncodeToChars(byte[] bytes) {
+        byte[] encoded = Base64.getEncoder().encode(bytes);
+        char[] result = new char[encoded.length];
+        for (int i = 0; i < encoded.length; i++) {
+            result[i] = (char) encoded[i];
+        }
+        return result;
+    }
+
+    private static byte[] base64DecodeChars(char[] chars) {
+        byte[] bytes = new byte[chars.length];
+        for (int i = 0; i < chars.length; i++) {
+            // let the decoder reject the characters outside of the Base64 alphabet
+            bytes[i] = chars[i] < 0x80 ? (byte) chars[i] : (byte) '?';
+        }
+        return Base64.getDecoder().decode(bytes);
+    }
+
+    /*
+     * Values are encoded in UTF-8, as done by the encrypting and decrypting streams, so that both paths produce the
+     * same output regardless of the platform charset
+     */
+    private static byte[] encode(char[] value) {
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(CharBuffer.wrap(value));
+        return Arrays.copyOfRange(buffer.array(), buffer.position(), buffer.limit());
+    }
+
+    private static char[] decode(byte[] value) {
+        CharBuffer buffer = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(value));
+        return Arrays.copyOfRange(buffer.array(), buffer.position(), buffer.limit());
+    }
+
     @Override
     public char[] decryptAes(char[] encryptedValue) throws KuraException {
-        Key key = generateKey();
-        Cipher c;
         try {
-            c = Cipher.getInstance(ALGORITHM);
-            c.init(Cipher.DECRYPT_MODE, key);
-            String internalStringValue = new String(encryptedValue);
-            byte[] decodedValue = base64Decode(internalStringValue);
+            Cipher c = getCipher(decryptCipher, Cipher.DECRYPT_MODE);
+            byte[] decodedValue = base64DecodeChars(encryptedValue);
             if (encryptedValue.length > 0 && decodedValue.length == 0) {
                 throw new KuraException(KuraErrorCode.DECODER_ERROR, "value");
             }
-            byte[] decryptedBytes = c.doFinal(decodedValue);
-            String decryptedValue = new String(decryptedBytes);
-            return decryptedValue.toCharArray();
+            byte[] decryptedBytes = doFinal(decryptCipher, c, decodedValue);
+            return decode(decryptedBytes);
         } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
             throw new KuraException(KuraErrorCode.OPERATION_NOT_SUPPORTED, "decrypt");
         } catch (InvalidKeyException | BadPaddingException | IllegalBlockSizeException e) {
@@ -116,6 +149,59 @@ public class CryptoServiceImpl implements CryptoService {
         }
     }
 
+    @Override
+    public OutputStream aesEncryptingStream(OutputStream destination) throws KuraException {
+        // the cipher keeps the state of the stream, a new one is needed for each stream
+        Cipher c = newCipher(Cipher.ENCRYPT_MODE, "encrypt");
+        return new CipherOutputStream(Base64.getEncoder().wrap(destination), c);
+    }
+
+    @Override
+    public InputStream aesDecryptingStream(InputStream source) throws KuraException {
+        Cipher c = newCipher(Cipher.DECRYPT_MODE, "decrypt");
+        return new CipherInputStream(Base64.getDecoder().wrap(source), c);
+    }
+
+    private static Cipher newCipher(int mode, String operation) throws KuraException {
+        try {
+            Cipher c = Cipher.getInstance(ALGORITHM);
+            c.init(mode, KEY);
+            return c;
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new KuraException(KuraErrorCode.OPERATION_NOT_SUPPORTED, operation);
+        } catch (InvalidKeyException e) {
+            throw new KuraException(KuraErrorCode.INTERNAL_ERROR, e);
+        }
+    }
+
+    private static Cipher getCipher(ThreadLocal<Cipher> cipherHolder, int mode)
+            throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException {
+        Cipher c = cipherHolder.get();
+        if (c == null) {
+            c = Cipher.getInstance(ALGORITHM);
+            c.init(mode, KEY);
+            cipherHolder.set(c);
+        }
+        return c;
+    }
+
+    /*
+     * doFinal resets the cipher to its initial state, unless it fails. In that case the cipher is discarded.
+     */
+    private static byte[] doFinal(ThreadLocal<Cipher> cipherHolder, Cipher c, byte[] input)
+            throws IllegalBlockSizeException, BadPaddingException {
+        boolean completed = false;
+        try {
+            byte[] result = c.doFinal(input);
+            completed = true;
+            return result;
+        } finally {
+            if (!completed) {
+                cipherHolder.remove();
+            }
+        }
+    }
+
     @Override
     @Deprecated
     public String encryptAes(String value) throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException,
@@ -243,8 +329,4 @@ public class CryptoServiceImpl implements CryptoService {
     public boolean isFrameworkSecure() {
         return false;
     }
-
-    private static Key generateKey() {
-        return new SecretKeySpec(SECRET_KEY, ALGORITHM);
-    }
 }
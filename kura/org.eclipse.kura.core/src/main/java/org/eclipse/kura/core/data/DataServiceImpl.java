@@ -126,7 +126,7 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
         createThrottle();
         submitPublishingWork();
 
-        this.store = new DbDataStore(pid);
+        this.store = new DbDataStore(pid, pid);
 
         restartDbServiceTracker(this.dataServiceOptions.getDbServiceInstancePid());
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2018 Eurotech and/or its affiliates
+ * Copyright (c) 2011, 2020 Eurotech and/or its affiliates
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -64,6 +64,7 @@ public class DbDataStore implements DataStore {
     private ScheduledFuture<?> houseKeeperTask;
     private int capacity;
 
+    private final String ownerPid;
     private final String tableName;
     private final String sanitizedTableName;
 
@@ -91,10 +92,11 @@ public class DbDataStore implements DataStore {
     private final String sqlCreatePrimaryKey;
 
     // package level constructor to be invoked only by the factory
-    public DbDataStore(String table) {
+    public DbDataStore(String table, String ownerPid) {
         // do not make this static as it may not be thread safe
         this.utcCalendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
 
+        this.ownerPid = ownerPid;
         this.tableName = table;
         this.sanitizedTableName = sanitizeSql(table);
 
@@ -604,7 +606,7 @@ public class DbDataStore implements DataStore {
         }
 
         try {
-            return this.dbService.withConnection(callable);
+            return this.dbService.withConnection(this.ownerPid, callable);
         } catch (final Exception e) {
             throw new KuraStoreException(e, exceptionMessage);
         }
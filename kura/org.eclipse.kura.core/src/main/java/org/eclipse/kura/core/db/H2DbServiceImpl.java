@@ -19,6 +19,7 @@ import java.sql.Statement;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -31,7 +32,9 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.eclipse.kura.KuraException;
 import org.eclipse.kura.configuration.ConfigurableComponent;
+import org.eclipse.kura.core.db.H2DbStatistics.CallerStatistics;
 import org.eclipse.kura.crypto.CryptoService;
+import org.eclipse.kura.db.DbCallerStatistics;
 import org.eclipse.kura.db.H2DbService;
 import org.h2.jdbcx.JdbcConnectionPool;
 import org.h2.jdbcx.JdbcDataSource;
@@ -72,9 +75,11 @@ public class H2DbServiceImpl implements H2DbService, ConfigurableComponent {
 
     private ScheduledFuture<?> checkpointTask;
     private ScheduledFuture<?> defragTask;
+    private ScheduledFuture<?> compactionTask;
 
     private final ReadWriteLock rwLock = new ReentrantReadWriteLock(true);
     private final AtomicInteger pendingUpdates = new AtomicInteger();
+    private final H2DbStatistics statistics = new H2DbStatistics();
 
     // ----------------------------------------------------------------
     //
@@ -135,41 +140,66 @@ public class H2DbServiceImpl implements H2DbService, ConfigurableComponent {
 
     @Override
     public Connection getConnection() throws SQLException {
+        final CallerStatistics callerStatistics = this.statistics.getCallerStatistics(UNKNOWN_CALLER);
+        final long start = System.nanoTime();
+
         if (this.pendingUpdates.get() > 0) {
             syncWithExecutor();
         }
 
         final Lock lock = this.rwLock.readLock();
         lock.lock();
+        final long locked = System.nanoTime();
         try {
-            return getConnectionInternal();
+            final Connection connection = getConnectionInternal();
+            callerStatistics.connectionAcquisition.recordSince(start);
+            return InstrumentedConnectionHandler.wrap(connection, callerStatistics);
         } finally {
+            callerStatistics.lockHold.recordSince(locked);
             lock.unlock();
         }
     }
 
     @Override
     public <T> T withConnection(ConnectionCallable<T> callable) throws SQLException {
+        return withConnection(UNKNOWN_CALLER, callable);
+    }
+
+    @Override
+    public <T> T withConnection(String callerId, ConnectionCallable<T> callable) throws SQLException {
+        final CallerStatistics callerStatistics = this.statistics
+                .getCallerStatistics(callerId != null ? callerId : UNKNOWN_CALLER);
+        final long start = System.nanoTime();
+
         if (this.pendingUpdates.get() > 0) {
             syncWithExecutor();
         }
 
         final Lock lock = this.rwLock.readLock();
         lock.lock();
+        final long locked = System.nanoTime();
         Connection connection = null;
         try {
-            connection = getConnectionInternal();
+            connection = InstrumentedConnectionHandler.wrap(getConnectionInternal(), callerStatistics);
+            callerStatistics.connectionAcquisition.recordSince(start);
             return callable.call(connection);
         } catch (final SQLException e) {
             logger.warn("Db operation failed", e);
+            callerStatistics.recordFailure();
             rollback(connection);
             throw e;
         } finally {
             close(connection);
+            callerStatistics.lockHold.recordSince(locked);
             lock.unlock();
         }
     }
 
+    @Override
+    public List<DbCallerStatistics> getStatistics() {
+        return this.statistics.getStatistics();
+    }
+
     @Override
     public void rollback(Connection conn) {
         try {
@@ -275,8 +305,11 @@ public class H2DbServiceImpl implements H2DbService, ConfigurableComponent {
             }
 
             if (newConfiguration.isFileBased()) {
+                final boolean onlineCompaction = newConfiguration.isOnlineCompactionEnabled()
+                        && isOnlineCompactionAvailable();
                 restartCheckpointTask(newConfiguration);
-                restartDefragTask(newConfiguration);
+                restartDefragTask(newConfiguration, onlineCompaction);
+                restartCompactionTask(newConfiguration, onlineCompaction);
             }
 
             this.configuration = newConfiguration;
@@ -286,6 +319,7 @@ public class H2DbServiceImpl implements H2DbService, ConfigurableComponent {
         } catch (Exception e) {
             disposeConnectionPool();
             stopCheckpointTask();
+            stopCompactionTask();
             logger.error("Database initialization failed", e);
         } finally {
             lock.unlock();
@@ -349,6 +383,7 @@ public class H2DbServiceImpl implements H2DbService, ConfigurableComponent {
         }
 
         stopDefragTask();
+        stopCompactionTask();
         stopCheckpointTask();
 
         Connection conn = null;
@@ -452,13 +487,13 @@ public class H2DbServiceImpl implements H2DbService, ConfigurableComponent {
         }
     }
 
-    private void restartDefragTask(final H2DbServiceOptions config) {
+    private void restartDefragTask(final H2DbServiceOptions config, final boolean onlineCompaction) {
         stopDefragTask();
         final long delayMinutes = config.getDefragIntervalMinutes();
-        if (delayMinutes <= 0) {
+        if (onlineCompaction || delayMinutes <= 0) {
             return;
         }
-        this.checkpointTask = this.executor.scheduleWithFixedDelay(new DefragTask(config), delayMinutes, delayMinutes,
+        this.defragTask = this.executor.scheduleWithFixedDelay(new DefragTask(config), delayMinutes, delayMinutes,
                 TimeUnit.MINUTES);
     }
 
@@ -469,6 +504,34 @@ public class H2DbServiceImpl implements H2DbService, ConfigurableComponent {
         }
     }
 
+    private void restartCompactionTask(final H2DbServiceOptions config, final boolean onlineCompaction) {
+        stopCompactionTask();
+        final long delaySeconds = config.getCompactionCheckIntervalSeconds();
+        if (!onlineCompaction || delaySeconds <= 0) {
+            return;
+        }
+        this.compactionTask = this.executor.scheduleWithFixedDelay(new CompactionTask(config), delaySeconds,
+                delaySeconds, TimeUnit.SECONDS);
+    }
+
+    private void stopCompactionTask() {
+        if (this.compactionTask != null) {
+            this.compactionTask.cancel(false);
+            this.compactionTask = null;
+        }
+    }
+
+    private static boolean isOnlineCompactionAvailable() {
+        try {
+            H2MvStoreCompactor.checkAvailable();
+            return true;
+        } catch (final LinkageError e) {
+            logger.warn("online compaction is not supported by the installed H2 version,"
+                    + " falling back to the periodic defragmentation", e);
+            return false;
+        }
+    }
+
     private class CheckpointTask implements Runnable {
 
         @Override
@@ -522,4 +585,28 @@ public class H2DbServiceImpl implements H2DbService, ConfigurableComponent {
             }
         }
     }
+
+    private class CompactionTask implements Runnable {
+
+        private final H2DbServiceOptions configuration;
+
+        public CompactionTask(final H2DbServiceOptions configuration) {
+            this.configuration = configuration;
+        }
+
+        @Override
+        public void run() {
+            Connection conn = null;
+            try {
+                conn = getConnectionInternal();
+                if (!H2MvStoreCompactor.compact(conn, this.configuration)) {
+                    logger.debug("online compaction is not supported by the database storage");
+                }
+            } catch (final Exception e) {
+                logger.error("online compaction failed", e);
+            } finally {
+                close(conn);
+            }
+        }
+    }
 }
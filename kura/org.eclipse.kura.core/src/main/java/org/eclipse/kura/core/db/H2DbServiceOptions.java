@@ -26,6 +26,16 @@ class H2DbServiceOptions {
     private static final Property<Integer> DEFRAG_INTERVAL_MINUTES_PROP = new Property<>("db.defrag.interval.minutes",
             20);
     private static final Property<Integer> CONNECTION_POOL_MAX_SIZE = new Property<>("db.connection.pool.max.size", 10);
+    private static final Property<Boolean> ONLINE_COMPACTION_ENABLED_PROP = new Property<>(
+            "db.online.compaction.enabled", false);
+    private static final Property<Integer> COMPACTION_CHECK_INTERVAL_SECONDS_PROP = new Property<>(
+            "db.compaction.check.interval.seconds", 60);
+    private static final Property<Integer> COMPACTION_TARGET_FILL_RATE_PROP = new Property<>(
+            "db.compaction.target.fill.rate", 80);
+    private static final Property<Integer> COMPACTION_FREE_SPACE_RATIO_PROP = new Property<>(
+            "db.compaction.free.space.ratio", 20);
+    private static final Property<Integer> COMPACTION_STEP_SIZE_KB_PROP = new Property<>("db.compaction.step.size.kb",
+            512);
 
     private static final Pattern FILE_LOG_LEVEL_PATTERN = generatePatternForProperty("trace_level_file");
     private static final Pattern USER_PATTERN = generatePatternForProperty("user");
@@ -39,6 +49,11 @@ class H2DbServiceOptions {
     private final long checkpointIntervalSeconds;
     private final long defragIntervalMinutes;
     private final int maxConnectionPoolSize;
+    private final boolean onlineCompactionEnabled;
+    private final long compactionCheckIntervalSeconds;
+    private final int compactionTargetFillRate;
+    private final int compactionFreeSpaceRatio;
+    private final int compactionStepSize;
 
     private boolean isInMemory;
     private boolean isFileBased;
@@ -56,6 +71,11 @@ class H2DbServiceOptions {
         this.checkpointIntervalSeconds = CHECKPOINT_INTERVAL_SECONDS_PROP.get(properties);
         this.defragIntervalMinutes = DEFRAG_INTERVAL_MINUTES_PROP.get(properties);
         this.maxConnectionPoolSize = CONNECTION_POOL_MAX_SIZE.get(properties);
+        this.onlineCompactionEnabled = ONLINE_COMPACTION_ENABLED_PROP.get(properties);
+        this.compactionCheckIntervalSeconds = COMPACTION_CHECK_INTERVAL_SECONDS_PROP.get(properties);
+        this.compactionTargetFillRate = toPercentage(COMPACTION_TARGET_FILL_RATE_PROP.get(properties));
+        this.compactionFreeSpaceRatio = toPercentage(COMPACTION_FREE_SPACE_RATIO_PROP.get(properties));
+        this.compactionStepSize = Math.max(1, COMPACTION_STEP_SIZE_KB_PROP.get(properties)) * 1024;
 
         String dbUrlProp = CONNECTOR_URL_PROP.get(properties);
 
@@ -66,6 +86,10 @@ class H2DbServiceOptions {
         computeUrlParts();
     }
 
+    private static int toPercentage(final int value) {
+        return Math.max(0, Math.min(100, value));
+    }
+
     private static Pattern generatePatternForProperty(String property) {
         StringBuilder patternStringBuilder = new StringBuilder();
         patternStringBuilder.append(';');
@@ -181,6 +205,26 @@ class H2DbServiceOptions {
         return this.maxConnectionPoolSize;
     }
 
+    public boolean isOnlineCompactionEnabled() {
+        return this.onlineCompactionEnabled;
+    }
+
+    public long getCompactionCheckIntervalSeconds() {
+        return this.compactionCheckIntervalSeconds;
+    }
+
+    public int getCompactionTargetFillRate() {
+        return this.compactionTargetFillRate;
+    }
+
+    public int getCompactionFreeSpaceRatio() {
+        return this.compactionFreeSpaceRatio;
+    }
+
+    public int getCompactionStepSize() {
+        return this.compactionStepSize;
+    }
+
     public boolean isFileBasedLogLevelSpecified() {
         return this.isFileBasedLogLevelSpecified;
     }
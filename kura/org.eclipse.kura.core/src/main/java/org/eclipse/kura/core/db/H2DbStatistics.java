@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.db;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.eclipse.kura.db.DbCallerStatistics;
+import org.eclipse.kura.db.DbLatencyHistogram;
+
+/**
+ * Collects the usage statistics of a {@link H2DbServiceImpl} instance, grouped by caller.
+ * The recording methods are lock free and can be called concurrently.
+ */
+class H2DbStatistics {
+
+    private static final long[] BUCKET_UPPER_BOUNDS_MICROS = { 100, 250, 500, 1000, 2500, 5000, 10000, 25000, 50000,
+            100000, 250000, 500000, 1000000, 2500000, 5000000, 10000000, Long.MAX_VALUE };
+
+    private final ConcurrentMap<String, CallerStatistics> callers = new ConcurrentHashMap<>();
+
+    CallerStatistics getCallerStatistics(final String callerId) {
+        return this.callers.computeIfAbsent(callerId, id -> new CallerStatistics());
+    }
+
+    List<DbCallerStatistics> getStatistics() {
+        return this.callers.entrySet().stream() //
+                .map(e -> e.getValue().toDbCallerStatistics(e.getKey())) //
+                .sorted(Comparator.comparing(DbCallerStatistics::getCallerId)) //
+                .collect(Collectors.toList());
+    }
+
+    static class CallerStatistics {
+
+        final LatencyRecorder connectionAcquisition = new LatencyRecorder();
+        final LatencyRecorder query = new LatencyRecorder();
+        final LatencyRecorder commit = new LatencyRecorder();
+        final LatencyRecorder lockHold = new LatencyRecorder();
+        private final LongAdder activeConnections = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        void recordFailure() {
+            this.failures.increment();
+        }
+
+        void connectionOpened() {
+            this.activeConnections.increment();
+        }
+
+        void connectionClosed() {
+            this.activeConnections.decrement();
+        }
+
+        private DbCallerStatistics toDbCallerStatistics(final String callerId) {
+            return new DbCallerStatistics(callerId, this.connectionAcquisition.toHistogram(),
+                    this.query.toHistogram(), this.commit.toHistogram(), this.lockHold.toHistogram(),
+                    this.activeConnections.sum(), this.failures.sum());
+        }
+    }
+
+    static class LatencyRecorder {
+
+        private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_UPPER_BOUNDS_MICROS.length);
+        private final LongAdder totalTimeMicros = new LongAdder();
+        private final AtomicLong maxTimeMicros = new AtomicLong();
+
+        void recordSince(final long startNanos) {
+            record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+        }
+
+        void record(final long micros) {
+            int bucket = 0;
+            while (micros > BUCKET_UPPER_BOUNDS_MICROS[bucket]) {
+                bucket++;
+            }
+            this.bucketCounts.incrementAndGet(bucket);
+            this.totalTimeMicros.add(micros);
+            this.maxTimeMicros.accumulateAndGet(micros, Math::max);
+        }
+
+        private DbLatencyHistogram toHistogram() {
+            final long[] counts = new long[BUCKET_UPPER_BOUNDS_MICROS.length];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = this.bucketCounts.get(i);
+            }
+            return new DbLatencyHistogram(BUCKET_UPPER_BOUNDS_MICROS, counts, this.totalTimeMicros.sum(),
+                    this.maxTimeMicros.get());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.engine.Session;
+import org.h2.engine.SessionInterface;
+import org.h2.jdbc.JdbcConnection;
+import org.h2.mvstore.FileStore;
+import org.h2.mvstore.MVStore;
+import org.h2.mvstore.db.MVTableEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reclaims the space of a MVStore based database while it is in use.
+ * <p>
+ * Each run checks the fill rate of the chunks and the free space of the file and does nothing if they are within
+ * the configured limits. Otherwise the live pages of the sparse chunks are rewritten and the chunks at the end of
+ * the file are moved to the free space, so that the file can be truncated. Every step processes at most the
+ * configured amount of bytes and the store is locked only for the duration of a step. A run lasts at most a few
+ * seconds, the remaining work is done by the next runs.
+ * <p>
+ * The MVStore of an open database can only be reached through the H2 engine classes, that are not part of the
+ * public H2 API. The bundle imports them optionally and only for the H2 version this class has been written for,
+ * {@link #checkAvailable()} fails if they are not available.
+ */
+final class H2MvStoreCompactor {
+
+    private static final Logger logger = LoggerFactory.getLogger(H2MvStoreCompactor.class);
+
+    private static final long MAX_RUN_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private H2MvStoreCompactor() {
+    }
+
+    /**
+     * Checks that the H2 classes used by the compaction can be loaded.
+     *
+     * @throws LinkageError
+     *             if the H2 engine packages are not available
+     */
+    static void checkAvailable() {
+        logger.debug("online compaction available, using {}, {}, {}", JdbcConnection.class.getName(),
+                Session.class.getName(), MVTableEngine.Store.class.getName());
+    }
+
+    /**
+     * Compacts the MVStore of the database the provided connection belongs to.
+     *
+     * @param conn
+     *            a connection to the database
+     * @param configuration
+     *            the configuration providing the compaction limits
+     * @return false if the database is not stored in a MVStore file, true otherwise
+     * @throws SQLException
+     *             if the connection cannot be unwrapped
+     */
+    static boolean compact(final Connection conn, final H2DbServiceOptions configuration) throws SQLException {
+        final MVStore store = getMvStore(conn);
+        if (store == null || store.getFileStore() == null) {
+            return false;
+        }
+        compact(store, configuration);
+        return true;
+    }
+
+    private static MVStore getMvStore(final Connection conn) throws SQLException {
+        final SessionInterface session = conn.unwrap(JdbcConnection.class).getSession();
+        if (!(session instanceof Session)) {
+            return null;
+        }
+        final MVTableEngine.Store store = ((Session) session).getDatabase().getStore();
+        return store != null ? store.getMvStore() : null;
+    }
+
+    private static void compact(final MVStore store, final H2DbServiceOptions configuration) {
+        final FileStore fileStore = store.getFileStore();
+        final int targetFillRate = configuration.getCompactionTargetFillRate();
+        final int freeSpaceRatio = configuration.getCompactionFreeSpaceRatio();
+        final int stepSize = configuration.getCompactionStepSize();
+
+        final long deadline = System.nanoTime() + MAX_RUN_NANOS;
+        final long sizeBefore = fileStore.size();
+        final Pauses pauses = new Pauses();
+
+        boolean rewritten = true;
+        while (rewritten && System.nanoTime() < deadline) {
+            final long start = System.nanoTime();
+            rewritten = store.compact(targetFillRate, stepSize);
+            if (rewritten) {
+                pauses.add(start);
+            }
+        }
+        if (pauses.count > 0) {
+            // store the rewritten pages, so that the old chunks can be freed
+            final long start = System.nanoTime();
+            store.commit();
+            pauses.add(start);
+        }
+
+        int fillRate = fileStore.getFillRate();
+        long size = fileStore.size();
+        while (100 - fillRate >= freeSpaceRatio && System.nanoTime() < deadline) {
+            final long start = System.nanoTime();
+            store.compactMoveChunks(100 - freeSpaceRatio, stepSize);
+            pauses.add(start);
+
+            final int newFillRate = fileStore.getFillRate();
+            final long newSize = fileStore.size();
+            if (newFillRate <= fillRate && newSize >= size) {
+                break;
+            }
+            fillRate = newFillRate;
+            size = newSize;
+        }
+
+        if (pauses.count > 0) {
+            logger.info("online compaction...done, steps: {}, file size: {} -> {} bytes, max pause: {} ms, "
+                    + "total pause: {} ms", pauses.count, sizeBefore, fileStore.size(),
+                    TimeUnit.NANOSECONDS.toMillis(pauses.max), TimeUnit.NANOSECONDS.toMillis(pauses.total));
+        } else {
+            logger.debug("online compaction not needed, file fill rate: {}%", fillRate);
+        }
+    }
+
+    private static class Pauses {
+
+        private int count;
+        private long total;
+        private long max;
+
+        void add(final long startNanos) {
+            final long pause = System.nanoTime() - startNanos;
+            this.count++;
+            this.total += pause;
+            this.max = Math.max(this.max, pause);
+        }
+    }
+}
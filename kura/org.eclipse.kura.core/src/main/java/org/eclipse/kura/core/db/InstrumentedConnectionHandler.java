@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.kura.core.db.H2DbStatistics.CallerStatistics;
+
+/**
+ * Wraps the {@link Connection}s handed out by {@link H2DbServiceImpl} and the {@link Statement}s created from them,
+ * recording the execution time of the statements and of the commits and the number of open connections in the
+ * statistics of the caller.
+ */
+final class InstrumentedConnectionHandler implements InvocationHandler {
+
+    private final Connection connection;
+    private final CallerStatistics statistics;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private Connection proxy;
+
+    private InstrumentedConnectionHandler(final Connection connection, final CallerStatistics statistics) {
+        this.connection = connection;
+        this.statistics = statistics;
+    }
+
+    static Connection wrap(final Connection connection, final CallerStatistics statistics) {
+        final InstrumentedConnectionHandler handler = new InstrumentedConnectionHandler(connection, statistics);
+        handler.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, handler);
+        statistics.connectionOpened();
+        return handler.proxy;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        final String name = method.getName();
+        if (isIdentityMethod(method)) {
+            return invokeIdentityMethod(proxy, method, args);
+        }
+
+        if ("close".equals(name) && this.closed.compareAndSet(false, true)) {
+            this.statistics.connectionClosed();
+        }
+
+        if ("commit".equals(name)) {
+            final long start = System.nanoTime();
+            try {
+                return invokeTarget(this.connection, method, args);
+            } finally {
+                this.statistics.commit.recordSince(start);
+            }
+        }
+
+        final Object result = invokeTarget(this.connection, method, args);
+        if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+            return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { method.getReturnType() },
+                    new StatementHandler((Statement) result));
+        }
+        return result;
+    }
+
+    private static boolean isIdentityMethod(final Method method) {
+        return method.getDeclaringClass() == Object.class;
+    }
+
+    private static Object invokeIdentityMethod(final Object proxy, final Method method, final Object[] args) {
+        switch (method.getName()) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        default:
+            return proxy.getClass().getName() + '@' + Integer.toHexString(System.identityHashCode(proxy));
+        }
+    }
+
+    private static Object invokeTarget(final Object target, final Method method, final Object[] args)
+            throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+
+        StatementHandler(final Statement statement) {
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final String name = method.getName();
+            if (isIdentityMethod(method)) {
+                return invokeIdentityMethod(proxy, method, args);
+            }
+            if ("getConnection".equals(name)) {
+                return InstrumentedConnectionHandler.this.proxy;
+            }
+            if (!name.startsWith("execute")) {
+                return invokeTarget(this.statement, method, args);
+            }
+
+            final long start = System.nanoTime();
+            try {
+                return invokeTarget(this.statement, method, args);
+            } finally {
+                InstrumentedConnectionHandler.this.statistics.query.recordSince(start);
+            }
+        }
+    }
+}
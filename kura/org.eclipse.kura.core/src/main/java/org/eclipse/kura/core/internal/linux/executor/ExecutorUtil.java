@@ -50,6 +50,8 @@ public class ExecutorUtil {
     private static final String COMMAND_MESSAGE = "Command ";
     private static final String FAILED_TO_GET_PID_MESSAGE = "Failed to get pid for command '{}'";
     private static final File TEMP_DIR = new File(System.getProperty("java.io.tmpdir"));
+    private static final ProcessTable PROCESS_TABLE = new ProcessTable();
+    private static final boolean IS_PROCESS_TABLE_AVAILABLE = PROCESS_TABLE.isAvailable();
 
     private static String commandUsername = "kura";
 
@@ -128,6 +130,10 @@ public class ExecutorUtil {
     }
 
     public static boolean isRunning(Pid pid) {
+        if (IS_PROCESS_TABLE_AVAILABLE) {
+            return PROCESS_TABLE.isRunning(pid.getPid());
+        }
+
         boolean isRunning = false;
         String pidString = ((Integer) pid.getPid()).toString();
         String psCommand = "ps -p " + pidString;
@@ -158,6 +164,10 @@ public class ExecutorUtil {
     }
 
     public static Map<String, Pid> getPids(String[] commandLine) {
+        if (IS_PROCESS_TABLE_AVAILABLE) {
+            return getPidsFromProcessTable(commandLine);
+        }
+
         Map<String, Pid> pids = new HashMap<>();
         CommandLine psCommandLine = new CommandLine("ps");
         psCommandLine.addArgument("-ax");
@@ -182,6 +192,16 @@ public class ExecutorUtil {
         return pids;
     }
 
+    private static Map<String, Pid> getPidsFromProcessTable(String[] commandLine) {
+        Map<String, Integer> pids = new HashMap<>();
+        for (Map.Entry<Integer, String> process : PROCESS_TABLE.getCommandLines().entrySet()) {
+            if (checkLine(process.getValue(), commandLine)) {
+                pids.put(process.getValue(), process.getKey());
+            }
+        }
+        return sortPids(pids);
+    }
+
     private static Map<String, Pid> parsePids(ByteArrayOutputStream out, String[] commandLine) {
         Map<String, Integer> pids = new HashMap<>();
         String pid;
@@ -199,6 +219,10 @@ public class ExecutorUtil {
                 pids.put(line, Integer.parseInt(pid));
             }
         }
+        return sortPids(pids);
+    }
+
+    private static Map<String, Pid> sortPids(Map<String, Integer> pids) {
         // Sort pids in reverse order (useful when stop processes...)
         return pids.entrySet().stream().sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
                 .collect(Collectors.toMap(Map.Entry::getKey, e -> new LinuxPid(e.getValue()), (e1, e2) -> e1,
@@ -235,6 +259,8 @@ public class ExecutorUtil {
             exitStatus = 1;
             logger.error(COMMAND_MESSAGE + " {} failed", commandLine, e);
         } finally {
+            // the command could have started or terminated other processes
+            PROCESS_TABLE.invalidate();
             commandStatus.setExitStatus(new LinuxExitStatus(exitStatus));
             commandStatus.setTimedout(executor.getWatchdog().killedProcess());
         }
@@ -278,7 +304,10 @@ public class ExecutorUtil {
 
         DefaultExecutor executor = configureExecutor(command);
 
-        LinuxResultHandler resultHandler = new LinuxResultHandler(callback);
+        LinuxResultHandler resultHandler = new LinuxResultHandler(status -> {
+            PROCESS_TABLE.invalidate();
+            callback.accept(status);
+        });
         resultHandler.setStatus(commandStatus);
 
         logger.debug("Executing: {}", commandLine);
@@ -291,6 +320,7 @@ public class ExecutorUtil {
             } else {
                 executor.execute(commandLine, resultHandler);
             }
+            PROCESS_TABLE.invalidate();
         } catch (IOException e) {
             commandStatus.setExitStatus(new LinuxExitStatus(1));
             logger.error(COMMAND_MESSAGE + commandLine + " failed", e);
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.internal.linux.executor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides a view of the running processes obtained by reading the proc filesystem, without forking external
+ * commands.
+ * <p>
+ * The command line of each process is read from {@code /proc/<pid>/cmdline}, with the arguments separated by spaces.
+ * Processes without a command line (kernel threads, zombies) are reported as {@code [comm]}, where {@code comm} is
+ * read from {@code /proc/<pid>/stat}. This is the same format of the COMMAND column of {@code ps -ax}.
+ * <p>
+ * The process list is cached for a short time and shared by concurrent callers, {@link #invalidate()} should be
+ * called when processes are known to have been started or terminated.
+ */
+public class ProcessTable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessTable.class);
+
+    private static final long DEFAULT_MAX_AGE_MS = 500;
+
+    private final Path procRoot;
+    private final long maxAgeNanos;
+    private final Object refreshLock = new Object();
+
+    private final AtomicInteger generation = new AtomicInteger();
+    private volatile Snapshot snapshot;
+
+    public ProcessTable() {
+        this(Paths.get("/proc"), DEFAULT_MAX_AGE_MS);
+    }
+
+    public ProcessTable(final Path procRoot, final long maxAgeMs) {
+        this.procRoot = procRoot;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+    }
+
+    /**
+     * @return true if the proc filesystem can be used on this system
+     */
+    public boolean isAvailable() {
+        return Files.isDirectory(this.procRoot.resolve("self"));
+    }
+
+    /**
+     * Checks whether a process with the given pid exists. The check is always performed on the live proc filesystem.
+     *
+     * @param pid
+     *            the pid
+     * @return true if the process exists
+     */
+    public boolean isRunning(final int pid) {
+        return pid > 0 && Files.isDirectory(this.procRoot.resolve(Integer.toString(pid)));
+    }
+
+    /**
+     * Returns the command lines of the running processes.
+     *
+     * @return an unmodifiable map from pid to command line, sorted by ascending pid
+     */
+    public Map<Integer, String> getCommandLines() {
+        final int currentGeneration = this.generation.get();
+        final long now = System.nanoTime();
+
+        Snapshot current = this.snapshot;
+        if (isValid(current, currentGeneration, now)) {
+            return current.commandLines;
+        }
+
+        synchronized (this.refreshLock) {
+            // another caller could have refreshed the snapshot while this thread was waiting for the lock
+            current = this.snapshot;
+            if (isValid(current, currentGeneration, now)) {
+                return current.commandLines;
+            }
+
+            final int refreshGeneration = this.generation.get();
+            current = new Snapshot(refreshGeneration, System.nanoTime(), readCommandLines());
+            this.snapshot = current;
+            return current.commandLines;
+        }
+    }
+
+    private boolean isValid(final Snapshot current, final int currentGeneration, final long now) {
+        return current != null && current.generation == currentGeneration
+                && now - current.timestamp < this.maxAgeNanos;
+    }
+
+    /**
+     * Discards the cached process list. Snapshots whose creation is in progress are discarded as well.
+     */
+    public void invalidate() {
+        this.generation.incrementAndGet();
+    }
+
+    private Map<Integer, String> readCommandLines() {
+        final Map<Integer, String> result = new TreeMap<>();
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(this.procRoot)) {
+            for (final Path entry : entries) {
+                final int pid = parsePid(entry.getFileName().toString());
+                if (pid <= 0) {
+                    continue;
+                }
+
+                final String commandLine = readCommandLine(entry);
+                if (commandLine != null) {
+                    result.put(pid, commandLine);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to list processes", e);
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static int parsePid(final String name) {
+        if (name.isEmpty() || name.length() > 9) {
+            return -1;
+        }
+
+        int result = 0;
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + c - '0';
+        }
+        return result;
+    }
+
+    /**
+     * @return the command line, or null if the process terminated or is not accessible
+     */
+    static String readCommandLine(final Path processDir) {
+        try {
+            final byte[] cmdline = Files.readAllBytes(processDir.resolve("cmdline"));
+
+            int length = cmdline.length;
+            while (length > 0 && cmdline[length - 1] == 0) {
+                length--;
+            }
+
+            if (length > 0) {
+                for (int i = 0; i < length; i++) {
+                    if (cmdline[i] == 0) {
+                        cmdline[i] = ' ';
+                    }
+                }
+                return new String(cmdline, 0, length, UTF_8);
+            }
+
+            final String stat = new String(Files.readAllBytes(processDir.resolve("stat")), UTF_8);
+            final int start = stat.indexOf('(');
+            final int end = stat.lastIndexOf(')');
+            if (start < 0 || end < start) {
+                return null;
+            }
+            return "[" + stat.substring(start + 1, end) + "]";
+        } catch (IOException e) {
+            logger.trace("Failed to read process information from {}", processDir, e);
+            return null;
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final int generation;
+        private final long timestamp;
+        private final Map<Integer, String> commandLines;
+
+        Snapshot(final int generation, final long timestamp, final Map<Integer, String> commandLines) {
+            this.generation = generation;
+            this.timestamp = timestamp;
+            this.commandLines = commandLines;
+        }
+    }
+}
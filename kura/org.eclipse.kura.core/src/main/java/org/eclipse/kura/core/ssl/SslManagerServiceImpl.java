@@ -52,6 +52,7 @@ import org.eclipse.kura.KuraException;
 import org.eclipse.kura.configuration.ConfigurableComponent;
 import org.eclipse.kura.configuration.ConfigurationService;
 import org.eclipse.kura.configuration.Password;
+import org.eclipse.kura.core.util.KeyStoreCache;
 import org.eclipse.kura.crypto.CryptoService;
 import org.eclipse.kura.ssl.SslManagerService;
 import org.eclipse.kura.ssl.SslServiceListener;
@@ -299,6 +300,8 @@ public class SslManagerServiceImpl implements SslManagerService, ConfigurableCom
             throws KeyStoreException, IOException, NoSuchAlgorithmException, CertificateException {
         try (FileOutputStream tsOutStream = new FileOutputStream(keyStoreFileName);) {
             ks.store(tsOutStream, keyStorePassword);
+        } finally {
+            KeyStoreCache.getInstance().invalidate(keyStoreFileName);
         }
     }
 
@@ -506,13 +509,10 @@ public class SslManagerServiceImpl implements SslManagerService, ConfigurableCom
             File fTrustStore = new File(trustStore);
             if (fTrustStore.exists()) {
 
-                KeyStore ts = KeyStore.getInstance(KeyStore.getDefaultType());
-                InputStream tsReadStream = new FileInputStream(trustStore);
-                ts.load(tsReadStream, keyStorePassword);
+                KeyStore ts = getCachedKeyStore(trustStore, keyStorePassword);
                 tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
                 tmf.init(ts);
                 result = tmf.getTrustManagers();
-                tsReadStream.close();
             }
         }
         return result;
@@ -539,20 +539,31 @@ public class SslManagerServiceImpl implements SslManagerService, ConfigurableCom
             throw new KeyStoreException("The referenced keystore does not exist or is not accessible");
         }
 
-        try (InputStream ksReadStream = new FileInputStream(keyStore);) {
-            KeyStore ks = KeyStore.getInstance(KeyStore.getDefaultType());
-            ks.load(ksReadStream, keyStorePassword);
-
-            // if we have an alias, then build KeyStore with such key
-            if (ks.containsAlias(keyAlias) && ks.isKeyEntry(keyAlias)) {
-                PasswordProtection pp = new PasswordProtection(keyStorePassword);
-                Entry entry = ks.getEntry(keyAlias, pp);
-                ks = KeyStore.getInstance(KeyStore.getDefaultType());
-                ks.load(null, null);
-                ks.setEntry(keyAlias, entry, pp);
-            }
+        KeyStore ks = getCachedKeyStore(keyStore, keyStorePassword);
+
+        // if we have an alias, then build KeyStore with such key, the cached key store is not modified
+        if (ks.containsAlias(keyAlias) && ks.isKeyEntry(keyAlias)) {
+            PasswordProtection pp = new PasswordProtection(keyStorePassword);
+            Entry entry = ks.getEntry(keyAlias, pp);
+            ks = KeyStore.getInstance(KeyStore.getDefaultType());
+            ks.load(null, null);
+            ks.setEntry(keyAlias, entry, pp);
+        }
+
+        return ks;
+    }
 
-            return ks;
+    /*
+     * The returned key store is shared and must not be modified, see KeyStoreCache
+     */
+    private static KeyStore getCachedKeyStore(String keyStore, char[] keyStorePassword)
+            throws KeyStoreException, IOException, NoSuchAlgorithmException, CertificateException {
+        try {
+            return KeyStoreCache.getInstance().getKeyStore(keyStore, keyStorePassword);
+        } catch (KeyStoreException | NoSuchAlgorithmException | CertificateException e) {
+            throw e;
+        } catch (GeneralSecurityException e) {
+            throw new KeyStoreException(e);
         }
     }
 
@@ -562,7 +573,7 @@ public class SslManagerServiceImpl implements SslManagerService, ConfigurableCom
 
     private boolean isKeyStoreAccessible(String location, char[] password) {
         try {
-            loadKeystore(location, password);
+            getCachedKeyStore(location, password);
             return true;
         } catch (Exception e) {
             return false;
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A cache of the key stores loaded from the file system, shared by the services reading the same key store files.
+ * <p>
+ * A key store is loaded again only if the last modified time or the size of its file have changed, or if it is
+ * requested with a different password. The services that save a key store file must call {@link #invalidate(String)}
+ * after having saved it.
+ * <p>
+ * The returned key stores are shared by all the callers and must not be modified, a key store that has to be
+ * changed and saved must be loaded from the file.
+ */
+public final class KeyStoreCache {
+
+    private static final KeyStoreCache INSTANCE = new KeyStoreCache();
+
+    private final Map<Path, CachedKeyStore> keyStores = new HashMap<>();
+    private long version;
+
+    private KeyStoreCache() {
+    }
+
+    public static KeyStoreCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the key store saved in the given file.
+     *
+     * @param location
+     *            the path of the key store file
+     * @param password
+     *            the password of the key store
+     * @return the key store, that must not be modified
+     * @throws IOException
+     *             if the key store file cannot be read or the password is not correct
+     * @throws GeneralSecurityException
+     *             if the key store cannot be loaded
+     */
+    public KeyStore getKeyStore(final String location, final char[] password)
+            throws IOException, GeneralSecurityException {
+        final Path path = Paths.get(location).toAbsolutePath();
+        final byte[] passwordDigest = digest(password);
+
+        // the attributes are read before loading the file, a change while loading causes another load
+        final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+        final long loadVersion;
+        synchronized (this.keyStores) {
+            final CachedKeyStore cached = this.keyStores.get(path);
+            if (cached != null && cached.matches(attributes, passwordDigest)) {
+                return cached.keyStore;
+            }
+            loadVersion = this.version;
+        }
+
+        final KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        try (InputStream in = Files.newInputStream(path)) {
+            keyStore.load(in, password);
+        }
+
+        synchronized (this.keyStores) {
+            // the key store loaded could be stale if a key store has been saved in the meantime
+            if (loadVersion == this.version) {
+                this.keyStores.put(path, new CachedKeyStore(keyStore, attributes, passwordDigest));
+            }
+        }
+        return keyStore;
+    }
+
+    /**
+     * Drops the cached key store saved in the given file, that will be loaded again on the next request.
+     *
+     * @param location
+     *            the path of the key store file
+     */
+    public void invalidate(final String location) {
+        final Path path = Paths.get(location).toAbsolutePath();
+        synchronized (this.keyStores) {
+            this.version++;
+            this.keyStores.remove(path);
+        }
+    }
+
+    private static byte[] digest(final char[] password) throws GeneralSecurityException {
+        if (password == null) {
+            return null;
+        }
+        final ByteBuffer bytes = UTF_8.encode(CharBuffer.wrap(password));
+        final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(bytes);
+        return digest.digest();
+    }
+
+    private static final class CachedKeyStore {
+
+        private final KeyStore keyStore;
+        private final FileTime lastModifiedTime;
+        private final long size;
+        private final byte[] passwordDigest;
+
+        CachedKeyStore(final KeyStore keyStore, final BasicFileAttributes attributes, final byte[] passwordDigest) {
+            this.keyStore = keyStore;
+            this.lastModifiedTime = attributes.lastModifiedTime();
+            this.size = attributes.size();
+            this.passwordDigest = passwordDigest;
+        }
+
+        boolean matches(final BasicFileAttributes attributes, final byte[] otherPasswordDigest) {
+            return this.lastModifiedTime.equals(attributes.lastModifiedTime()) && this.size == attributes.size()
+                    && (this.passwordDigest == null ? otherPasswordDigest == null
+                            : MessageDigest.isEqual(this.passwordDigest, otherPasswordDigest));
+        }
+    }
+}
@@ -28,6 +28,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.eclipse.kura.KuraBluetoothIOException;
 import org.eclipse.kura.KuraException;
@@ -42,10 +44,12 @@ import org.eclipse.kura.configuration.ConfigurableComponent;
 import org.eclipse.kura.driver.ChannelDescriptor;
 import org.eclipse.kura.driver.Driver;
 import org.eclipse.kura.driver.PreparedRead;
+import org.eclipse.kura.internal.driver.ble.sensortag.SensorTagReadCycle.Characteristic;
 import org.eclipse.kura.type.DataType;
 import org.eclipse.kura.type.TypedValue;
 import org.eclipse.kura.type.TypedValues;
 import org.eclipse.kura.util.base.TypeUtil;
+import org.eclipse.kura.util.collection.NotificationCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -80,6 +84,7 @@ public final class SensorTagDriver implements Driver, ConfigurableComponent {
     private BluetoothLeAdapter bluetoothLeAdapter;
     private Map<String, TiSensorTag> tiSensorTagMap;
     private Set<SensorListener> sensorListeners;
+    private Optional<NotificationCache<TiSensorTag, Characteristic>> notifyCache = Optional.empty();
 
     protected synchronized void bindBluetoothLeService(final BluetoothLeService bluetoothLeService) {
         if (isNull(this.bluetoothLeService)) {
@@ -136,6 +141,13 @@ public final class SensorTagDriver implements Driver, ConfigurableComponent {
     private void doUpdate(Map<String, Object> properties) {
 
         extractProperties(properties);
+        // the consumers created by the previous cache must stop updating it
+        this.notifyCache.ifPresent(NotificationCache::clear);
+        if (this.options.isNotifyCacheEnabled()) {
+            this.notifyCache = Optional.of(new NotificationCache<>(this.options.getNotifyCacheMaxAge()));
+        } else {
+            this.notifyCache = Optional.empty();
+        }
         // Get Bluetooth adapter and ensure it is enabled
         this.bluetoothLeAdapter = this.bluetoothLeService.getAdapter(this.options.getBluetoothInterfaceName());
         if (this.bluetoothLeAdapter != null) {
@@ -219,6 +231,7 @@ public final class SensorTagDriver implements Driver, ConfigurableComponent {
             }
         }
         this.tiSensorTagMap.clear();
+        this.notifyCache.ifPresent(NotificationCache::clear);
     }
 
     private void extractProperties(final Map<String, Object> properties) {
@@ -257,13 +270,13 @@ public final class SensorTagDriver implements Driver, ConfigurableComponent {
         }
     }
 
-    private void runReadRequest(SensorTagRequestInfo requestInfo) {
+    private void runReadRequest(SensorTagRequestInfo requestInfo, SensorTagReadCycle cycle) {
 
         ChannelRecord record = requestInfo.channelRecord;
         try {
             TiSensorTag sensorTag = getSensorTag(requestInfo.sensorTagAddress);
             if (sensorTag.isConnected()) {
-                Object readResult = getReadResult(requestInfo.sensorName, sensorTag);
+                Object readResult = getReadResult(requestInfo.sensorName, sensorTag, cycle);
                 final Optional<TypedValue<?>> typedValue = getTypedValue(requestInfo.dataType, readResult);
                 if (!typedValue.isPresent()) {
                     record.setChannelStatus(new ChannelStatus(FAILURE,
@@ -287,41 +300,117 @@ public final class SensorTagDriver implements Driver, ConfigurableComponent {
         }
     }
 
-    private Object getReadResult(SensorName sensorName, TiSensorTag sensorTag) throws KuraBluetoothIOException {
+    private Object getReadResult(SensorName sensorName, TiSensorTag sensorTag, SensorTagReadCycle cycle)
+            throws KuraBluetoothIOException {
         switch (sensorName) {
         case TEMP_AMBIENT:
-            return sensorTag.readTemperature()[0];
+            return readValue(sensorTag, Characteristic.TEMPERATURE, sensorTag::readTemperature, cycle)[0];
         case TEMP_TARGET:
-            return sensorTag.readTemperature()[1];
+            return readValue(sensorTag, Characteristic.TEMPERATURE, sensorTag::readTemperature, cycle)[1];
         case HUMIDITY:
-            return sensorTag.readHumidity();
+            return readValue(sensorTag, Characteristic.HUMIDITY, sensorTag::readHumidity, cycle);
         case ACCELERATION_X:
-            return sensorTag.readAcceleration()[0];
+            return readValue(sensorTag, Characteristic.ACCELERATION, sensorTag::readAcceleration, cycle)[0];
         case ACCELERATION_Y:
-            return sensorTag.readAcceleration()[1];
+            return readValue(sensorTag, Characteristic.ACCELERATION, sensorTag::readAcceleration, cycle)[1];
         case ACCELERATION_Z:
-            return sensorTag.readAcceleration()[2];
+            return readValue(sensorTag, Characteristic.ACCELERATION, sensorTag::readAcceleration, cycle)[2];
         case MAGNETIC_X:
-            return sensorTag.readMagneticField()[0];
+            return readValue(sensorTag, Characteristic.MAGNETIC_FIELD, sensorTag::readMagneticField, cycle)[0];
         case MAGNETIC_Y:
-            return sensorTag.readMagneticField()[1];
+            return readValue(sensorTag, Characteristic.MAGNETIC_FIELD, sensorTag::readMagneticField, cycle)[1];
         case MAGNETIC_Z:
-            return sensorTag.readMagneticField()[2];
+            return readValue(sensorTag, Characteristic.MAGNETIC_FIELD, sensorTag::readMagneticField, cycle)[2];
         case GYROSCOPE_X:
-            return sensorTag.readGyroscope()[0];
+            return readValue(sensorTag, Characteristic.GYROSCOPE, sensorTag::readGyroscope, cycle)[0];
         case GYROSCOPE_Y:
-            return sensorTag.readGyroscope()[1];
+            return readValue(sensorTag, Characteristic.GYROSCOPE, sensorTag::readGyroscope, cycle)[1];
         case GYROSCOPE_Z:
-            return sensorTag.readGyroscope()[2];
+            return readValue(sensorTag, Characteristic.GYROSCOPE, sensorTag::readGyroscope, cycle)[2];
         case LIGHT:
-            return sensorTag.readLight();
+            return readValue(sensorTag, Characteristic.LIGHT, sensorTag::readLight, cycle);
         case PRESSURE:
-            return sensorTag.readPressure();
+            return readValue(sensorTag, Characteristic.PRESSURE, sensorTag::readPressure, cycle);
         default:
             throw new KuraBluetoothIOException("Read is unsupported for sensor " + sensorName.toString());
         }
     }
 
+    private <T> T readValue(TiSensorTag sensorTag, Characteristic characteristic, Supplier<T> reader,
+            SensorTagReadCycle cycle) {
+        if (!this.notifyCache.isPresent()) {
+            return cycle.get(sensorTag, characteristic, reader);
+        }
+
+        final NotificationCache<TiSensorTag, Characteristic> cache = this.notifyCache.get();
+        return cycle.get(sensorTag, characteristic, () -> {
+            if (!cache.isSubscribed(sensorTag, characteristic)) {
+                enableCacheNotifications(cache, sensorTag, characteristic);
+            }
+            return cache.get(sensorTag, characteristic, reader);
+        });
+    }
+
+    private void enableCacheNotifications(NotificationCache<TiSensorTag, Characteristic> cache, TiSensorTag sensorTag,
+            Characteristic characteristic) {
+        switch (characteristic) {
+        case TEMPERATURE:
+            sensorTag.enableTemperatureNotifications(cache.subscribe(sensorTag, characteristic));
+            break;
+        case HUMIDITY:
+            sensorTag.enableHumidityNotifications(cache.subscribe(sensorTag, characteristic));
+            break;
+        case ACCELERATION:
+            sensorTag.enableAccelerationNotifications(cache.subscribe(sensorTag, characteristic));
+            break;
+        case MAGNETIC_FIELD:
+            sensorTag.enableMagneticFieldNotifications(cache.subscribe(sensorTag, characteristic));
+            break;
+        case GYROSCOPE:
+            sensorTag.enableGyroscopeNotifications(cache.subscribe(sensorTag, characteristic));
+            break;
+        case LIGHT:
+            sensorTag.enableLightNotifications(cache.subscribe(sensorTag, characteristic));
+            break;
+        case PRESSURE:
+            sensorTag.enablePressureNotifications(cache.subscribe(sensorTag, characteristic));
+            break;
+        default:
+        }
+    }
+
+    private static Optional<Characteristic> getCharacteristic(String sensorType) {
+        switch (sensorType) {
+        case "TEMP":
+            return Optional.of(Characteristic.TEMPERATURE);
+        case "ACCELERATION":
+            return Optional.of(Characteristic.ACCELERATION);
+        case "GYROSCOPE":
+            return Optional.of(Characteristic.GYROSCOPE);
+        case "MAGNETIC":
+            return Optional.of(Characteristic.MAGNETIC_FIELD);
+        case "HUMIDITY":
+            return Optional.of(Characteristic.HUMIDITY);
+        case "LIGHT":
+            return Optional.of(Characteristic.LIGHT);
+        case "PRESSURE":
+            return Optional.of(Characteristic.PRESSURE);
+        default:
+            return Optional.empty();
+        }
+    }
+
+    private <T> Consumer<T> getNotificationConsumer(SensorListener sensorListener) {
+        final Consumer<T> consumer = SensorListener.getSensorConsumer(sensorListener);
+        final Optional<Characteristic> characteristic = getCharacteristic(sensorListener.getSensorType());
+
+        if (this.notifyCache.isPresent() && characteristic.isPresent()) {
+            // keep the cache up to date with the notifications requested by channel listeners
+            return this.notifyCache.get().subscribe(sensorListener.getSensorTag(), characteristic.get(), consumer);
+        }
+        return consumer;
+    }
+
     private TiSensorTag getSensorTag(String sensorTagAddress) throws KuraBluetoothIOException, ConnectionException {
         requireNonNull(sensorTagAddress);
         if (!this.tiSensorTagMap.containsKey(sensorTagAddress)) {
@@ -343,6 +432,8 @@ public final class SensorTagDriver implements Driver, ConfigurableComponent {
         }
         TiSensorTag sensorTag = this.tiSensorTagMap.get(sensorTagAddress);
         if (!sensorTag.isConnected()) {
+            // notifications do not survive a reconnection
+            this.notifyCache.ifPresent(cache -> cache.invalidate(sensorTag));
             connect(sensorTag);
         }
         sensorTag.init();
@@ -351,8 +442,9 @@ public final class SensorTagDriver implements Driver, ConfigurableComponent {
 
     @Override
     public void read(final List<ChannelRecord> records) throws ConnectionException {
+        final SensorTagReadCycle cycle = new SensorTagReadCycle();
         for (final ChannelRecord record : records) {
-            SensorTagRequestInfo.extract(record).ifPresent(this::runReadRequest);
+            SensorTagRequestInfo.extract(record).ifPresent(requestInfo -> runReadRequest(requestInfo, cycle));
         }
     }
 
@@ -523,40 +615,40 @@ public final class SensorTagDriver implements Driver, ConfigurableComponent {
             sensorListener.getSensorTag().setTermometerPeriod(sensorListener.getPeriod() / 10);
             unregisterTemperatureNotification(sensorListener);
             sensorListener.getSensorTag()
-                    .enableTemperatureNotifications(SensorListener.getSensorConsumer(sensorListener));
+                    .enableTemperatureNotifications(getNotificationConsumer(sensorListener));
             break;
         case "ACCELERATION":
             sensorListener.getSensorTag().setAccelerometerPeriod(sensorListener.getPeriod() / 10);
             unregisterAccelerationNotification(sensorListener);
             sensorListener.getSensorTag()
-                    .enableAccelerationNotifications(SensorListener.getSensorConsumer(sensorListener));
+                    .enableAccelerationNotifications(getNotificationConsumer(sensorListener));
             break;
         case "GYROSCOPE":
             sensorListener.getSensorTag().setGyroscopePeriod(sensorListener.getPeriod() / 10);
             unregisterGyroscopeNotification(sensorListener);
             sensorListener.getSensorTag()
-                    .enableGyroscopeNotifications(SensorListener.getSensorConsumer(sensorListener));
+                    .enableGyroscopeNotifications(getNotificationConsumer(sensorListener));
             break;
         case "MAGNETIC":
             sensorListener.getSensorTag().setMagnetometerPeriod(sensorListener.getPeriod() / 10);
             unregisterMagneticNotification(sensorListener);
             sensorListener.getSensorTag()
-                    .enableMagneticFieldNotifications(SensorListener.getSensorConsumer(sensorListener));
+                    .enableMagneticFieldNotifications(getNotificationConsumer(sensorListener));
             break;
         case "HUMIDITY":
             sensorListener.getSensorTag().setHygrometerPeriod(sensorListener.getPeriod() / 10);
             unregisterHumidityNotification(sensorListener);
-            sensorListener.getSensorTag().enableHumidityNotifications(SensorListener.getSensorConsumer(sensorListener));
+            sensorListener.getSensorTag().enableHumidityNotifications(getNotificationConsumer(sensorListener));
             break;
         case "LIGHT":
             sensorListener.getSensorTag().setLuxometerPeriod(sensorListener.getPeriod() / 10);
             unregisterLightNotification(sensorListener);
-            sensorListener.getSensorTag().enableLightNotifications(SensorListener.getSensorConsumer(sensorListener));
+            sensorListener.getSensorTag().enableLightNotifications(getNotificationConsumer(sensorListener));
             break;
         case "PRESSURE":
             sensorListener.getSensorTag().setBarometerPeriod(sensorListener.getPeriod() / 10);
             unregisterPressureNotification(sensorListener);
-            sensorListener.getSensorTag().enablePressureNotifications(SensorListener.getSensorConsumer(sensorListener));
+            sensorListener.getSensorTag().enablePressureNotifications(getNotificationConsumer(sensorListener));
             break;
         case "KEYS":
             // Register and unregister listeners for buttons too fast can cause problem on native library
@@ -659,6 +751,8 @@ public final class SensorTagDriver implements Driver, ConfigurableComponent {
             default:
 
             }
+            this.notifyCache.ifPresent(cache -> getCharacteristic(sensorListener.getSensorType())
+                    .ifPresent(characteristic -> cache.invalidate(sensorListener.getSensorTag(), characteristic)));
         } else {
             logger.info("Listener unregistation failed: TiSensorTag not connected");
         }
@@ -671,8 +765,9 @@ public final class SensorTagDriver implements Driver, ConfigurableComponent {
 
         @Override
         public synchronized List<ChannelRecord> execute() throws ConnectionException {
+            final SensorTagReadCycle cycle = new SensorTagReadCycle();
             for (SensorTagRequestInfo requestInfo : this.requestInfos) {
-                runReadRequest(requestInfo);
+                runReadRequest(requestInfo, cycle);
             }
 
             return Collections.unmodifiableList(this.channelRecords);
@@ -24,11 +24,19 @@ import java.util.Map;
  * The different properties to configure a BLE SensorTag Driver are as follows:
  * <ul>
  * <li>iname</li>
+ * <li>notify.cache.enabled</li>
+ * <li>notify.cache.max.age</li>
  * </ul>
  */
 final class SensorTagOptions {
 
     private static final String INAME = "iname";
+    private static final String NOTIFY_CACHE_ENABLED = "notify.cache.enabled";
+    private static final String NOTIFY_CACHE_MAX_AGE = "notify.cache.max.age";
+
+    private static final boolean NOTIFY_CACHE_ENABLED_DEFAULT = false;
+    private static final long NOTIFY_CACHE_MAX_AGE_DEFAULT = 5000;
+
     private final Map<String, Object> properties;
 
     /**
@@ -59,4 +67,30 @@ final class SensorTagOptions {
         return interfaceName;
     }
 
+    /**
+     * Returns whether asset reads should be served from the values received through GATT notifications
+     *
+     * @return true if the notify cache is enabled
+     */
+    boolean isNotifyCacheEnabled() {
+        final Object enabled = this.properties.get(NOTIFY_CACHE_ENABLED);
+        if (enabled instanceof Boolean) {
+            return (Boolean) enabled;
+        }
+        return NOTIFY_CACHE_ENABLED_DEFAULT;
+    }
+
+    /**
+     * Returns the maximum age of a notified value that can be returned by a read
+     *
+     * @return the maximum age in milliseconds
+     */
+    long getNotifyCacheMaxAge() {
+        final Object maxAge = this.properties.get(NOTIFY_CACHE_MAX_AGE);
+        if (maxAge instanceof Number) {
+            return ((Number) maxAge).longValue();
+        }
+        return NOTIFY_CACHE_MAX_AGE_DEFAULT;
+    }
+
 }
@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ */
+
+package org.eclipse.kura.internal.driver.ble.sensortag;
+
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Keeps track of the characteristic values read from each SensorTag during a single driver read operation.
+ * <p>
+ * Several channels can be bound to the same GATT characteristic (e.g. the three acceleration axes), the value of each
+ * characteristic is read only once per operation and then shared between all the involved channels.
+ */
+class SensorTagReadCycle {
+
+    enum Characteristic {
+        TEMPERATURE,
+        HUMIDITY,
+        ACCELERATION,
+        MAGNETIC_FIELD,
+        GYROSCOPE,
+        LIGHT,
+        PRESSURE
+    }
+
+    private final Map<TiSensorTag, Map<Characteristic, Object>> values = new IdentityHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    <T> T get(final TiSensorTag sensorTag, final Characteristic characteristic, final Supplier<T> reader) {
+        return (T) this.values.computeIfAbsent(sensorTag, tag -> new EnumMap<>(Characteristic.class))
+                .computeIfAbsent(characteristic, c -> reader.get());
+    }
+}
@@ -41,6 +41,9 @@ public class Xdk {
 
     private static final int SERVICE_TIMEOUT = 10000;
 
+    private static final byte MESSAGE_ONE = 0x01;
+    private static final byte MESSAGE_TWO = 0x02;
+
     private final byte[] value = { 0x01 };
     private final byte[] sensorFusion = { 0x00 };
 
@@ -204,6 +207,23 @@ public class Xdk {
         }
     }
 
+    public void enableLowNotifications(Consumer<Integer[]> messageOneCallback, Consumer<Integer[]> messageTwoCallback) {
+        Consumer<byte[]> callbackLow = valueBytes -> {
+            if (valueBytes[0] == MESSAGE_ONE) {
+                messageOneCallback.accept(calculateLowData(valueBytes, MESSAGE_ONE));
+            } else if (valueBytes[0] == MESSAGE_TWO) {
+                messageTwoCallback.accept(calculateLowData(valueBytes, MESSAGE_TWO));
+            }
+        };
+        try {
+            this.gattResources.get(LOW_PRIORITY_ARRAY).getGattService()
+                    .findCharacteristic(XdkGatt.UUID_XDK_HIGH_DATA_RATE_LOW_PRIORITY_ARREY)
+                    .enableValueNotifications(callbackLow);
+        } catch (KuraException e) {
+            logger.error("Notification enable failed", e);
+        }
+    }
+
     public void disableHighNotifications() {
         try {
             this.gattResources.get(HIGH_PRIORITY_ARRAY).getGattService()
@@ -28,6 +28,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.eclipse.kura.KuraBluetoothIOException;
 import org.eclipse.kura.KuraException;
@@ -42,10 +44,12 @@ import org.eclipse.kura.configuration.ConfigurableComponent;
 import org.eclipse.kura.driver.ChannelDescriptor;
 import org.eclipse.kura.driver.Driver;
 import org.eclipse.kura.driver.PreparedRead;
+import org.eclipse.kura.internal.driver.ble.xdk.XdkReadCycle.Characteristic;
 import org.eclipse.kura.type.DataType;
 import org.eclipse.kura.type.TypedValue;
 import org.eclipse.kura.type.TypedValues;
 import org.eclipse.kura.util.base.TypeUtil;
+import org.eclipse.kura.util.collection.NotificationCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,6 +70,7 @@ public class XdkDriver implements Driver, ConfigurableComponent {
     private BluetoothLeAdapter bluetoothLeAdapter;
     private Map<String, Xdk> xdkMap;
     private Set<SensorListener> sensorListeners;
+    private Optional<NotificationCache<Xdk, Characteristic>> notifyCache = Optional.empty();
 
     protected synchronized void bindBluetoothLeService(final BluetoothLeService bluetoothLeService) {
         if (isNull(this.bluetoothLeService)) {
@@ -122,6 +127,14 @@ public class XdkDriver implements Driver, ConfigurableComponent {
 
         extractProperties(properties);
 
+        // the consumers created by the previous cache must stop updating it
+        this.notifyCache.ifPresent(NotificationCache::clear);
+        if (this.options.isNotifyCacheEnabled()) {
+            this.notifyCache = Optional.of(new NotificationCache<>(this.options.getNotifyCacheMaxAge()));
+        } else {
+            this.notifyCache = Optional.empty();
+        }
+
         this.enableQuaternion = this.options.isEnableRotationQuaternion();
 
         this.configSampleRate = 1000 / this.options.isConfigSampleRate();
@@ -170,6 +183,7 @@ public class XdkDriver implements Driver, ConfigurableComponent {
             }
         }
         this.xdkMap.clear();
+        this.notifyCache.ifPresent(NotificationCache::clear);
     }
 
     private void extractProperties(final Map<String, Object> properties) {
@@ -208,13 +222,13 @@ public class XdkDriver implements Driver, ConfigurableComponent {
         }
     }
 
-    private void runReadRequest(XdkRequestInfo requestInfo) {
+    private void runReadRequest(XdkRequestInfo requestInfo, XdkReadCycle cycle) {
 
         ChannelRecord record = requestInfo.channelRecord;
         try {
             Xdk xdk = getXdk(requestInfo.xdkAddress);
             if (xdk.isConnected()) { /* Read the data */
-                Object readResult = getReadResult(requestInfo.sensorName, xdk);
+                Object readResult = getReadResult(requestInfo.sensorName, xdk, cycle);
                 final Optional<TypedValue<?>> typedValue = getTypedValue(requestInfo.dataType, readResult);
                 if (!typedValue.isPresent()) {
                     record.setChannelStatus(new ChannelStatus(FAILURE,
@@ -236,63 +250,99 @@ public class XdkDriver implements Driver, ConfigurableComponent {
         }
     }
 
-    private Object getReadResult(SensorName sensorName, Xdk xdk) throws KuraBluetoothIOException {
+    private Object getReadResult(SensorName sensorName, Xdk xdk, XdkReadCycle cycle)
+            throws KuraBluetoothIOException {
 
         switch (sensorName) {
         // High Priority Data
         case ACCELERATION_X:
-            return xdk.readHighData()[0];
+            return readHighData(xdk, cycle)[0];
         case ACCELERATION_Y:
-            return xdk.readHighData()[1];
+            return readHighData(xdk, cycle)[1];
         case ACCELERATION_Z:
-            return xdk.readHighData()[2];
+            return readHighData(xdk, cycle)[2];
         case GYROSCOPE_X:
-            return xdk.readHighData()[3];
+            return readHighData(xdk, cycle)[3];
         case GYROSCOPE_Y:
-            return xdk.readHighData()[4];
+            return readHighData(xdk, cycle)[4];
         case GYROSCOPE_Z:
-            return xdk.readHighData()[5];
+            return readHighData(xdk, cycle)[5];
         // Low Priority Data - Message 1
         case LIGHT:
-            return xdk.readLowData(MESSAGE_ONE)[0];
+            return readLowData(xdk, cycle, MESSAGE_ONE)[0];
         case NOISE:
-            return xdk.readLowData(MESSAGE_ONE)[1];
+            return readLowData(xdk, cycle, MESSAGE_ONE)[1];
         case PRESSURE:
-            return xdk.readLowData(MESSAGE_ONE)[2];
+            return readLowData(xdk, cycle, MESSAGE_ONE)[2];
         case TEMPERATURE:
-            return xdk.readLowData(MESSAGE_ONE)[3];
+            return readLowData(xdk, cycle, MESSAGE_ONE)[3];
         case HUMIDITY:
-            return xdk.readLowData(MESSAGE_ONE)[4];
+            return readLowData(xdk, cycle, MESSAGE_ONE)[4];
         case SD_CARD_DETECT_STATUS:
-            return xdk.readLowData(MESSAGE_ONE)[5];
+            return readLowData(xdk, cycle, MESSAGE_ONE)[5];
         case BUTTON_STATUS:
-            return xdk.readLowData(MESSAGE_ONE)[6];
+            return readLowData(xdk, cycle, MESSAGE_ONE)[6];
         // Low Priority Data - Message 2
         case MAGNETIC_X:
-            return xdk.readLowData(MESSAGE_TWO)[0];
+            return readLowData(xdk, cycle, MESSAGE_TWO)[0];
         case MAGNETIC_Y:
-            return xdk.readLowData(MESSAGE_TWO)[1];
+            return readLowData(xdk, cycle, MESSAGE_TWO)[1];
         case MAGNETIC_Z:
-            return xdk.readLowData(MESSAGE_TWO)[2];
+            return readLowData(xdk, cycle, MESSAGE_TWO)[2];
         case MAGNETOMETER_RESISTANCE:
-            return xdk.readLowData(MESSAGE_TWO)[3];
+            return readLowData(xdk, cycle, MESSAGE_TWO)[3];
         case LED_STATUS:
-            return xdk.readLowData(MESSAGE_TWO)[4];
+            return readLowData(xdk, cycle, MESSAGE_TWO)[4];
         case VOLTAGE_LEM:
-            return xdk.readLowData(MESSAGE_TWO)[5];
+            return readLowData(xdk, cycle, MESSAGE_TWO)[5];
         case QUATERNION_M:
-            return xdk.readHighData()[6];
+            return readHighData(xdk, cycle)[6];
         case QUATERNION_X:
-            return xdk.readHighData()[7];
+            return readHighData(xdk, cycle)[7];
         case QUATERNION_Y:
-            return xdk.readHighData()[8];
+            return readHighData(xdk, cycle)[8];
         case QUATERNION_Z:
-            return xdk.readHighData()[9];
+            return readHighData(xdk, cycle)[9];
         default:
             throw new KuraBluetoothIOException("Read is unsupported for sensor " + sensorName.toString());
         }
     }
 
+    private float[] readHighData(Xdk xdk, XdkReadCycle cycle) {
+        return readValue(xdk, Characteristic.HIGH_PRIORITY_ARRAY, xdk::readHighData, cycle);
+    }
+
+    private Integer[] readLowData(Xdk xdk, XdkReadCycle cycle, byte id) {
+        final Characteristic characteristic = id == MESSAGE_ONE ? Characteristic.LOW_PRIORITY_MESSAGE_ONE
+                : Characteristic.LOW_PRIORITY_MESSAGE_TWO;
+        return readValue(xdk, characteristic, () -> xdk.readLowData(id), cycle);
+    }
+
+    private <T> T readValue(Xdk xdk, Characteristic characteristic, Supplier<T> reader, XdkReadCycle cycle) {
+        if (!this.notifyCache.isPresent()) {
+            return cycle.get(xdk, characteristic, reader);
+        }
+
+        final NotificationCache<Xdk, Characteristic> cache = this.notifyCache.get();
+        return cycle.get(xdk, characteristic, () -> {
+            if (!cache.isSubscribed(xdk, characteristic)) {
+                enableCacheNotifications(cache, xdk, characteristic);
+            }
+            return cache.get(xdk, characteristic, reader);
+        });
+    }
+
+    private void enableCacheNotifications(NotificationCache<Xdk, Characteristic> cache, Xdk xdk,
+            Characteristic characteristic) {
+        if (characteristic == Characteristic.HIGH_PRIORITY_ARRAY) {
+            xdk.enableHighNotifications(cache.subscribe(xdk, characteristic));
+        } else {
+            // both low priority messages are delivered by the same characteristic
+            xdk.enableLowNotifications(cache.subscribe(xdk, Characteristic.LOW_PRIORITY_MESSAGE_ONE),
+                    cache.subscribe(xdk, Characteristic.LOW_PRIORITY_MESSAGE_TWO));
+        }
+    }
+
     private Xdk getXdk(String xdkAddress) throws KuraBluetoothIOException, ConnectionException {
         requireNonNull(xdkAddress);
         if (!this.xdkMap.containsKey(xdkAddress)) {
@@ -314,6 +364,8 @@ public class XdkDriver implements Driver, ConfigurableComponent {
         }
         Xdk xdk = this.xdkMap.get(xdkAddress);
         if (!xdk.isConnected()) {
+            // notifications do not survive a reconnection
+            this.notifyCache.ifPresent(cache -> cache.invalidate(xdk));
             connect(xdk);
         }
         xdk.init();
@@ -322,8 +374,9 @@ public class XdkDriver implements Driver, ConfigurableComponent {
 
     @Override
     public void read(final List<ChannelRecord> records) throws ConnectionException {
+        final XdkReadCycle cycle = new XdkReadCycle();
         for (final ChannelRecord record : records) {
-            XdkRequestInfo.extract(record).ifPresent(this::runReadRequest);
+            XdkRequestInfo.extract(record).ifPresent(requestInfo -> runReadRequest(requestInfo, cycle));
         }
     }
 
@@ -454,7 +507,8 @@ public class XdkDriver implements Driver, ConfigurableComponent {
         case "QUATERNION_Y":
         case "QUATERNION_Z":
             sensorListener.getXdk().disableHighNotifications();
-            sensorListener.getXdk().enableHighNotifications(SensorListener.getSensorConsumer(sensorListener));
+            sensorListener.getXdk().enableHighNotifications(
+                    getNotificationConsumer(sensorListener, Characteristic.HIGH_PRIORITY_ARRAY));
             break;
         case "LIGHT":
         case "NOISE":
@@ -464,8 +518,7 @@ public class XdkDriver implements Driver, ConfigurableComponent {
         case "SD_CARD_DETECT_STATUS":
         case "BUTTON_STATUS":
             sensorListener.getXdk().disableLowNotifications();
-            sensorListener.getXdk().enableLowNotifications(SensorListener.getSensorConsumer(sensorListener),
-                    MESSAGE_ONE);
+            enableLowNotifications(sensorListener, MESSAGE_ONE);
             break;
         case "MAGNETIC_X":
         case "MAGNETIC_Y":
@@ -474,19 +527,56 @@ public class XdkDriver implements Driver, ConfigurableComponent {
         case "LED_STATUS":
         case "VOLTAGE_LEM":
             sensorListener.getXdk().disableLowNotifications();
-            sensorListener.getXdk().enableLowNotifications(SensorListener.getSensorConsumer(sensorListener),
-                    MESSAGE_TWO);
+            enableLowNotifications(sensorListener, MESSAGE_TWO);
             break;
         default:
 
         }
     }
 
+    private void enableLowNotifications(SensorListener sensorListener, byte id) {
+        final Xdk xdk = sensorListener.getXdk();
+
+        if (!this.notifyCache.isPresent()) {
+            xdk.enableLowNotifications(SensorListener.getSensorConsumer(sensorListener), id);
+            return;
+        }
+
+        // keep the cache up to date for both messages, the listener only receives the requested one
+        final NotificationCache<Xdk, Characteristic> cache = this.notifyCache.get();
+        final Consumer<Integer[]> listenerConsumer = SensorListener.getSensorConsumer(sensorListener);
+
+        if (id == MESSAGE_ONE) {
+            xdk.enableLowNotifications(
+                    cache.subscribe(xdk, Characteristic.LOW_PRIORITY_MESSAGE_ONE, listenerConsumer),
+                    cache.subscribe(xdk, Characteristic.LOW_PRIORITY_MESSAGE_TWO));
+        } else {
+            xdk.enableLowNotifications(cache.subscribe(xdk, Characteristic.LOW_PRIORITY_MESSAGE_ONE),
+                    cache.subscribe(xdk, Characteristic.LOW_PRIORITY_MESSAGE_TWO, listenerConsumer));
+        }
+    }
+
+    private <T> Consumer<T> getNotificationConsumer(SensorListener sensorListener, Characteristic characteristic) {
+        final Consumer<T> consumer = SensorListener.getSensorConsumer(sensorListener);
+
+        if (this.notifyCache.isPresent()) {
+            // keep the cache up to date with the notifications requested by channel listeners
+            return this.notifyCache.get().subscribe(sensorListener.getXdk(), characteristic, consumer);
+        }
+        return consumer;
+    }
+
     private void unregisterSensorNotification(SensorListener sensorListener) {
         if (sensorListener.getXdk().isHighNotifying()) {
             sensorListener.getXdk().disableHighNotifications();
+            this.notifyCache.ifPresent(
+                    cache -> cache.invalidate(sensorListener.getXdk(), Characteristic.HIGH_PRIORITY_ARRAY));
         } else if (sensorListener.getXdk().isLowNotifying()) {
             sensorListener.getXdk().disableLowNotifications();
+            this.notifyCache.ifPresent(cache -> {
+                cache.invalidate(sensorListener.getXdk(), Characteristic.LOW_PRIORITY_MESSAGE_ONE);
+                cache.invalidate(sensorListener.getXdk(), Characteristic.LOW_PRIORITY_MESSAGE_TWO);
+            });
         }
     }
 
@@ -505,8 +595,9 @@ public class XdkDriver implements Driver, ConfigurableComponent {
 
         @Override
         public synchronized List<ChannelRecord> execute() throws ConnectionException {
+            final XdkReadCycle cycle = new XdkReadCycle();
             for (XdkRequestInfo requestInfo : this.requestInfos) {
-                runReadRequest(requestInfo);
+                runReadRequest(requestInfo, cycle);
             }
 
             return Collections.unmodifiableList(this.channelRecords);
@@ -27,8 +27,16 @@ public class XdkOptions {
     private static final String PROPERTY_SAMPLE_RATE = "configureSampleRateHz";
     private static final int PROPERTY_SAMPLE_RATE_DEFAULT = 10;
 
+    private static final String PROPERTY_NOTIFY_CACHE_ENABLED = "notify.cache.enabled";
+    private static final boolean PROPERTY_NOTIFY_CACHE_ENABLED_DEFAULT = false;
+
+    private static final String PROPERTY_NOTIFY_CACHE_MAX_AGE = "notify.cache.max.age";
+    private static final long PROPERTY_NOTIFY_CACHE_MAX_AGE_DEFAULT = 5000L;
+
     private final boolean enableQuaternion;
     private final int configSampleRate;
+    private final boolean notifyCacheEnabled;
+    private final long notifyCacheMaxAge;
 
     /**
      * Instantiates a new BLE Xdk options.
@@ -46,6 +54,10 @@ public class XdkOptions {
 
         this.enableQuaternion = getProperty(properties, PROPERTY_QUATERNION, PROPERTY_QUATERNION_DEFAULT);
         this.configSampleRate = getProperty(properties, PROPERTY_SAMPLE_RATE, PROPERTY_SAMPLE_RATE_DEFAULT);
+        this.notifyCacheEnabled = getProperty(properties, PROPERTY_NOTIFY_CACHE_ENABLED,
+                PROPERTY_NOTIFY_CACHE_ENABLED_DEFAULT);
+        this.notifyCacheMaxAge = getProperty(properties, PROPERTY_NOTIFY_CACHE_MAX_AGE,
+                PROPERTY_NOTIFY_CACHE_MAX_AGE_DEFAULT);
     }
 
     /**
@@ -70,6 +82,14 @@ public class XdkOptions {
         return this.configSampleRate;
     }
 
+    public boolean isNotifyCacheEnabled() {
+        return this.notifyCacheEnabled;
+    }
+
+    public long getNotifyCacheMaxAge() {
+        return this.notifyCacheMaxAge;
+    }
+
     @SuppressWarnings("unchecked")
     private <T> T getProperty(Map<String, Object> properties, String propertyName, T defaultValue) {
         Object prop = properties.getOrDefault(propertyName, defaultValue);
@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eurotech
+ */
+package org.eclipse.kura.internal.driver.ble.xdk;
+
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Keeps track of the data arrays read from each XDK during a single driver read operation.
+ * <p>
+ * All the sensor values are packed in the high priority array and in the two messages of the low priority array,
+ * each of them is read only once per operation and then shared between all the channels that refer to it.
+ */
+class XdkReadCycle {
+
+    enum Characteristic {
+        HIGH_PRIORITY_ARRAY,
+        LOW_PRIORITY_MESSAGE_ONE,
+        LOW_PRIORITY_MESSAGE_TWO
+    }
+
+    private final Map<Xdk, Map<Characteristic, Object>> values = new IdentityHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    <T> T get(final Xdk xdk, final Characteristic characteristic, final Supplier<T> reader) {
+        return (T) this.values.computeIfAbsent(xdk, x -> new EnumMap<>(Characteristic.class))
+                .computeIfAbsent(characteristic, c -> reader.get());
+    }
+}
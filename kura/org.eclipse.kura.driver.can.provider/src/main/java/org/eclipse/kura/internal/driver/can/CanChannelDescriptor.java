@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eurotech
+ */
+package org.eclipse.kura.internal.driver.can;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.kura.core.configuration.metatype.Tad;
+import org.eclipse.kura.core.configuration.metatype.Toption;
+import org.eclipse.kura.core.configuration.metatype.Tscalar;
+import org.eclipse.kura.driver.ChannelDescriptor;
+import org.eclipse.kura.internal.driver.can.CanSignal.ByteOrder;
+
+/**
+ * CAN specific channel descriptor. Each channel describes a signal contained in a CAN message, using the same
+ * parameters of a DBC signal definition.
+ *
+ * <ul>
+ * <li>message.id</li> denotes the identifier of the CAN message containing the signal
+ * <li>signal.start.bit</li> denotes the start bit of the signal
+ * <li>signal.length</li> denotes the length of the signal in bits
+ * <li>signal.byte.order</li> denotes the byte order of the signal
+ * <li>signal.signed</li> denotes whether the signal is signed
+ * <li>signal.factor</li> denotes the factor applied to the raw value
+ * <li>signal.offset</li> denotes the offset added to the scaled value
+ * </ul>
+ *
+ * Channels with {@code BYTE_ARRAY} value type ignore the signal definition and return the whole message payload.
+ */
+public final class CanChannelDescriptor implements ChannelDescriptor {
+
+    private static final String MESSAGE_ID = "message.id";
+    private static final String SIGNAL_START_BIT = "signal.start.bit";
+    private static final String SIGNAL_LENGTH = "signal.length";
+    private static final String SIGNAL_BYTE_ORDER = "signal.byte.order";
+    private static final String SIGNAL_SIGNED = "signal.signed";
+    private static final String SIGNAL_FACTOR = "signal.factor";
+    private static final String SIGNAL_OFFSET = "signal.offset";
+
+    private static Tad newTad(final String id, final Tscalar type, final String defaultValue) {
+        final Tad result = new Tad();
+        result.setName(id);
+        result.setId(id);
+        result.setDescription(id);
+        result.setType(type);
+        result.setRequired(true);
+        result.setDefault(defaultValue);
+        return result;
+    }
+
+    @Override
+    public Object getDescriptor() {
+        final List<Tad> elements = new ArrayList<>();
+
+        final Tad messageId = newTad(MESSAGE_ID, Tscalar.INTEGER, "0");
+        messageId.setMin("0");
+        elements.add(messageId);
+
+        final Tad startBit = newTad(SIGNAL_START_BIT, Tscalar.INTEGER, "0");
+        startBit.setMin("0");
+        startBit.setMax("63");
+        elements.add(startBit);
+
+        final Tad length = newTad(SIGNAL_LENGTH, Tscalar.INTEGER, "8");
+        length.setMin("1");
+        length.setMax("64");
+        elements.add(length);
+
+        final Tad byteOrder = newTad(SIGNAL_BYTE_ORDER, Tscalar.STRING, ByteOrder.LITTLE_ENDIAN.name());
+        for (ByteOrder value : ByteOrder.values()) {
+            Toption option = new Toption();
+            option.setLabel(value.name());
+            option.setValue(value.name());
+            byteOrder.getOption().add(option);
+        }
+        elements.add(byteOrder);
+
+        elements.add(newTad(SIGNAL_SIGNED, Tscalar.BOOLEAN, "false"));
+        elements.add(newTad(SIGNAL_FACTOR, Tscalar.DOUBLE, "1.0"));
+        elements.add(newTad(SIGNAL_OFFSET, Tscalar.DOUBLE, "0.0"));
+
+        return elements;
+    }
+
+    private static Number getNumber(final Map<String, Object> properties, final String key, final Number defaultValue) {
+        final Object value = properties.get(key);
+        if (value instanceof Number) {
+            return (Number) value;
+        } else if (value instanceof String) {
+            try {
+                // allows hexadecimal identifiers
+                return Long.decode(((String) value).trim());
+            } catch (NumberFormatException e) {
+                return Double.parseDouble((String) value);
+            }
+        }
+        return defaultValue;
+    }
+
+    static int getMessageId(final Map<String, Object> properties) {
+        return getNumber(properties, MESSAGE_ID, 0).intValue();
+    }
+
+    static CanSignal getSignal(final Map<String, Object> properties) {
+        final Object byteOrder = properties.get(SIGNAL_BYTE_ORDER);
+        final Object signed = properties.get(SIGNAL_SIGNED);
+
+        return new CanSignal(getNumber(properties, SIGNAL_START_BIT, 0).intValue(),
+                getNumber(properties, SIGNAL_LENGTH, 8).intValue(),
+                byteOrder instanceof String ? ByteOrder.valueOf((String) byteOrder) : ByteOrder.LITTLE_ENDIAN,
+                signed instanceof Boolean ? (Boolean) signed : Boolean.parseBoolean(String.valueOf(signed)),
+                getNumber(properties, SIGNAL_FACTOR, 1.0).doubleValue(),
+                getNumber(properties, SIGNAL_OFFSET, 0.0).doubleValue());
+    }
+}
@@ -0,0 +1,418 @@
+/**
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eurotech
+ */
+package org.eclipse.kura.internal.driver.can;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.requireNonNull;
+import static org.eclipse.kura.channel.ChannelFlag.FAILURE;
+import static org.eclipse.kura.channel.ChannelFlag.SUCCESS;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.kura.channel.ChannelRecord;
+import org.eclipse.kura.channel.ChannelStatus;
+import org.eclipse.kura.channel.listener.ChannelEvent;
+import org.eclipse.kura.channel.listener.ChannelListener;
+import org.eclipse.kura.configuration.ConfigurableComponent;
+import org.eclipse.kura.driver.ChannelDescriptor;
+import org.eclipse.kura.driver.Driver;
+import org.eclipse.kura.driver.PreparedRead;
+import org.eclipse.kura.protocol.can.CanMessage;
+import org.eclipse.kura.protocol.can.CanReceiver;
+import org.eclipse.kura.type.DataType;
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.type.TypedValues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Class {@link CanDriver} is a CAN Driver implementation for
+ * Kura Asset-Driver Topology.
+ * <br/>
+ * <br/>
+ * Each channel describes a signal of a CAN message, see {@link CanChannelDescriptor}. The driver receives the
+ * messages referenced by the channels using a {@link CanReceiver}, that filters them in the kernel, and keeps the last
+ * frame received for each message. Reads do not generate traffic on the bus, they decode the signal values from the
+ * last received frames. Channel listeners are notified with the last frame of each message received in a batch.
+ * The kernel filter covers the messages of the registered listeners and of the channels read since the last connection,
+ * it is recomputed when a listener is unregistered.
+ * <br/>
+ * <br/>
+ * Since the driver only relies on SocketCAN, it can be tested on a PC using a virtual CAN interface (vcan).
+ * The driver connection specific properties are enlisted in {@link CanOptions}.
+ *
+ * @see Driver
+ * @see CanChannelDescriptor
+ */
+public final class CanDriver implements Driver, ConfigurableComponent {
+
+    private static final Logger logger = LoggerFactory.getLogger(CanDriver.class);
+
+    private CanOptions options = new CanOptions(Collections.emptyMap());
+    private CanReceiver receiver;
+
+    private final Set<Integer> readIds = new HashSet<>();
+    private final Map<Integer, CanMessage> latestMessages = new ConcurrentHashMap<>();
+    private final List<CanListener> canListeners = new CopyOnWriteArrayList<>();
+
+    protected synchronized void activate(final Map<String, Object> properties) {
+        logger.debug("Activating CAN Driver...");
+        this.options = new CanOptions(properties);
+        logger.debug("Activating CAN Driver... Done");
+    }
+
+    protected synchronized void deactivate() {
+        logger.debug("Deactivating CAN Driver...");
+        this.canListeners.clear();
+        doDisconnect();
+        logger.debug("Deactivating CAN Driver... Done");
+    }
+
+    public synchronized void updated(final Map<String, Object> properties) {
+        logger.debug("Updating CAN Driver...");
+        this.options = new CanOptions(properties);
+        doDisconnect();
+
+        if (!this.canListeners.isEmpty()) {
+            try {
+                connect();
+            } catch (final ConnectionException e) {
+                logger.warn("Unable to reconnect CAN Driver", e);
+            }
+        }
+        logger.debug("Updating CAN Driver... Done");
+    }
+
+    @Override
+    public synchronized void connect() throws ConnectionException {
+        if (this.receiver != null) {
+            return;
+        }
+
+        final CanReceiver newReceiver = new CanReceiver(this.options.getInterfaceName(),
+                this.options.getReceiveQueueSize(), this::onMessages);
+
+        try {
+            newReceiver.setCanIds(getCanIds());
+            newReceiver.start();
+        } catch (final IOException e) {
+            throw new ConnectionException("Unable to open CAN interface " + this.options.getInterfaceName(), e);
+        }
+
+        this.receiver = newReceiver;
+    }
+
+    @Override
+    public synchronized void disconnect() throws ConnectionException {
+        doDisconnect();
+    }
+
+    private void doDisconnect() {
+        if (this.receiver != null) {
+            this.receiver.close();
+            this.receiver = null;
+        }
+        this.readIds.clear();
+        this.latestMessages.clear();
+    }
+
+    private Set<Integer> getCanIds() {
+        final Set<Integer> result = new HashSet<>(this.readIds);
+
+        for (final CanListener canListener : this.canListeners) {
+            result.add(canListener.info.messageId);
+        }
+
+        return result;
+    }
+
+    private void updateFilter() throws ConnectionException {
+        if (this.receiver == null) {
+            return;
+        }
+
+        try {
+            this.receiver.setCanIds(getCanIds());
+        } catch (final IOException e) {
+            throw new ConnectionException("Unable to update CAN filter", e);
+        }
+    }
+
+    private void onMessages(final List<CanMessage> messages) {
+        final Map<Integer, CanMessage> batchMessages = new HashMap<>();
+
+        for (final CanMessage message : messages) {
+            batchMessages.put(message.getCanId(), message);
+        }
+
+        this.latestMessages.putAll(batchMessages);
+
+        for (final CanListener canListener : this.canListeners) {
+            final CanMessage message = batchMessages.get(canListener.info.messageId);
+            if (message != null) {
+                canListener.deliver(message);
+            }
+        }
+    }
+
+    @Override
+    public ChannelDescriptor getChannelDescriptor() {
+        return new CanChannelDescriptor();
+    }
+
+    @Override
+    public synchronized void read(final List<ChannelRecord> records) throws ConnectionException {
+        final List<CanRequestInfo> requestInfos = new ArrayList<>();
+
+        for (final ChannelRecord record : records) {
+            CanRequestInfo.extract(record).ifPresent(requestInfos::add);
+        }
+
+        runReadRequests(requestInfos);
+    }
+
+    private void runReadRequests(final List<CanRequestInfo> requestInfos) throws ConnectionException {
+        final Set<Integer> messageIds = new HashSet<>();
+        for (final CanRequestInfo requestInfo : requestInfos) {
+            messageIds.add(requestInfo.messageId);
+        }
+
+        if (this.readIds.addAll(messageIds)) {
+            updateFilter();
+        }
+        connect();
+
+        for (final CanRequestInfo requestInfo : requestInfos) {
+            final CanMessage message = this.latestMessages.get(requestInfo.messageId);
+
+            if (message == null) {
+                requestInfo.fail("No frame received for message " + requestInfo.messageId);
+            } else {
+                requestInfo.update(message);
+            }
+        }
+    }
+
+    @Override
+    public void write(final List<ChannelRecord> records) throws ConnectionException {
+        for (final ChannelRecord record : records) {
+            record.setChannelStatus(new ChannelStatus(FAILURE, "CAN write operation is not supported", null));
+            record.setTimestamp(System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public synchronized PreparedRead prepareRead(final List<ChannelRecord> channelRecords) {
+        requireNonNull(channelRecords, "Channel Record list cannot be null");
+
+        final CanPreparedRead preparedRead = new CanPreparedRead(channelRecords);
+
+        for (final ChannelRecord record : channelRecords) {
+            CanRequestInfo.extract(record).ifPresent(preparedRead.requestInfos::add);
+        }
+
+        return preparedRead;
+    }
+
+    @Override
+    public synchronized void registerChannelListener(final Map<String, Object> channelConfig,
+            final ChannelListener listener) throws ConnectionException {
+        final ChannelRecord record = ChannelRecord.createReadRecord((String) channelConfig.get("+name"),
+                DataType.getDataType((String) channelConfig.get("+value.type")));
+        record.setChannelConfig(channelConfig);
+
+        final Optional<CanRequestInfo> requestInfo = CanRequestInfo.extract(record);
+        if (!requestInfo.isPresent()) {
+            throw new ConnectionException("Invalid channel configuration for channel " + record.getChannelName());
+        }
+
+        this.canListeners.add(new CanListener(requestInfo.get(), listener));
+
+        updateFilter();
+        connect();
+    }
+
+    @Override
+    public synchronized void unregisterChannelListener(final ChannelListener listener) throws ConnectionException {
+        if (!this.canListeners.removeIf(canListener -> canListener.listener == listener)) {
+            return;
+        }
+
+        if (getCanIds().isEmpty()) {
+            // an empty filter would receive every frame on the bus
+            doDisconnect();
+        } else {
+            updateFilter();
+        }
+    }
+
+    private static Optional<TypedValue<?>> getTypedValue(final DataType dataType, final double value) {
+        switch (dataType) {
+        case BOOLEAN:
+            return Optional.of(TypedValues.newBooleanValue(value != 0));
+        case INTEGER:
+            return Optional.of(TypedValues.newIntegerValue((int) Math.round(value)));
+        case LONG:
+            return Optional.of(TypedValues.newLongValue(Math.round(value)));
+        case FLOAT:
+            return Optional.of(TypedValues.newFloatValue((float) value));
+        case DOUBLE:
+            return Optional.of(TypedValues.newDoubleValue(value));
+        case STRING:
+            if (value == Math.rint(value) && Math.abs(value) < Long.MAX_VALUE) {
+                return Optional.of(TypedValues.newStringValue(Long.toString((long) value)));
+            }
+            return Optional.of(TypedValues.newStringValue(Double.toString(value)));
+        default:
+            return Optional.empty();
+        }
+    }
+
+    private static class CanRequestInfo {
+
+        private final ChannelRecord channelRecord;
+        private final DataType dataType;
+        private final int messageId;
+        private final CanSignal signal;
+
+        private CanRequestInfo(final ChannelRecord channelRecord, final DataType dataType, final int messageId,
+                final CanSignal signal) {
+            this.channelRecord = channelRecord;
+            this.dataType = dataType;
+            this.messageId = messageId;
+            this.signal = signal;
+        }
+
+        private static void fail(final ChannelRecord record, final String message) {
+            record.setChannelStatus(new ChannelStatus(FAILURE, message, null));
+            record.setTimestamp(System.currentTimeMillis());
+        }
+
+        static Optional<CanRequestInfo> extract(final ChannelRecord record) {
+            final Map<String, Object> channelConfig = record.getChannelConfig();
+            final DataType dataType = record.getValueType();
+
+            if (isNull(dataType)) {
+                fail(record, "Error while retrieving value type");
+                return Optional.empty();
+            }
+
+            try {
+                final CanSignal signal = dataType == DataType.BYTE_ARRAY ? null
+                        : CanChannelDescriptor.getSignal(channelConfig);
+
+                return Optional.of(new CanRequestInfo(record, dataType,
+                        CanChannelDescriptor.getMessageId(channelConfig), signal));
+            } catch (final IllegalArgumentException e) {
+                fail(record, "Invalid channel configuration: " + e.getMessage());
+                return Optional.empty();
+            }
+        }
+
+        void fail(final String message) {
+            fail(this.channelRecord, message);
+        }
+
+        Optional<TypedValue<?>> decode(final CanMessage message) {
+            if (this.dataType == DataType.BYTE_ARRAY) {
+                final byte[] data = message.getData();
+                return Optional.of(TypedValues.newByteArrayValue(Arrays.copyOf(data, data.length)));
+            }
+            return getTypedValue(this.dataType, this.signal.decode(message.getData()));
+        }
+
+        void update(final CanMessage message) {
+            update(this.channelRecord, message);
+        }
+
+        void update(final ChannelRecord record, final CanMessage message) {
+            final Optional<TypedValue<?>> typedValue;
+
+            try {
+                typedValue = decode(message);
+            } catch (final IllegalArgumentException e) {
+                fail(record, e.getMessage());
+                return;
+            }
+
+            if (!typedValue.isPresent()) {
+                fail(record, "Error while converting the retrieved value to the defined typed");
+                return;
+            }
+
+            record.setValue(typedValue.get());
+            record.setChannelStatus(new ChannelStatus(SUCCESS));
+            record.setTimestamp(message.getTimestamp());
+        }
+    }
+
+    private class CanPreparedRead implements PreparedRead {
+
+        private final List<CanRequestInfo> requestInfos = new ArrayList<>();
+        private final List<ChannelRecord> channelRecords;
+
+        CanPreparedRead(final List<ChannelRecord> channelRecords) {
+            this.channelRecords = channelRecords;
+        }
+
+        @Override
+        public List<ChannelRecord> execute() throws ConnectionException {
+            synchronized (CanDriver.this) {
+                runReadRequests(this.requestInfos);
+            }
+
+            return Collections.unmodifiableList(this.channelRecords);
+        }
+
+        @Override
+        public List<ChannelRecord> getChannelRecords() {
+            return Collections.unmodifiableList(this.channelRecords);
+        }
+
+        @Override
+        public void close() {
+            // no resources to release
+        }
+    }
+
+    private static class CanListener {
+
+        private final CanRequestInfo info;
+        private final ChannelListener listener;
+
+        CanListener(final CanRequestInfo info, final ChannelListener listener) {
+            this.info = info;
+            this.listener = listener;
+        }
+
+        void deliver(final CanMessage message) {
+            final ChannelRecord record = ChannelRecord.createReadRecord(this.info.channelRecord.getChannelName(),
+                    this.info.dataType);
+            this.info.update(record, message);
+
+            if (record.getChannelStatus().getChannelFlag() == SUCCESS) {
+                this.listener.onChannelEvent(new ChannelEvent(record));
+            }
+        }
+    }
+}
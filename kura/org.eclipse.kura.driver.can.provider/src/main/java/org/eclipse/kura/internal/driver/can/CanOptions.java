@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eurotech
+ */
+package org.eclipse.kura.internal.driver.can;
+
+import java.util.Map;
+
+import org.eclipse.kura.util.configuration.Property;
+
+final class CanOptions {
+
+    private static final Property<String> INTERFACE_NAME_PROP = new Property<>("interface.name", "can0");
+    private static final Property<Integer> RECEIVE_QUEUE_SIZE_PROP = new Property<>("receive.queue.size", 1000);
+
+    private final String interfaceName;
+    private final int receiveQueueSize;
+
+    CanOptions(final Map<String, Object> properties) {
+        this.interfaceName = INTERFACE_NAME_PROP.get(properties);
+        this.receiveQueueSize = Math.max(1, RECEIVE_QUEUE_SIZE_PROP.get(properties));
+    }
+
+    String getInterfaceName() {
+        return this.interfaceName;
+    }
+
+    int getReceiveQueueSize() {
+        return this.receiveQueueSize;
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eurotech
+ */
+package org.eclipse.kura.internal.driver.can;
+
+/**
+ * A signal contained in the payload of a CAN frame, described as in a DBC file.
+ * <p>
+ * For {@link ByteOrder#LITTLE_ENDIAN} (Intel) signals the start bit is the position of the least significant bit, for
+ * {@link ByteOrder#BIG_ENDIAN} (Motorola) signals it is the position of the most significant bit. Bit positions are
+ * numbered from 0 (least significant bit of the first byte) to 63 (most significant bit of the eighth byte). The
+ * physical value is computed as {@code raw * factor + offset}.
+ */
+final class CanSignal {
+
+    enum ByteOrder {
+        LITTLE_ENDIAN,
+        BIG_ENDIAN
+    }
+
+    private final int startBit;
+    private final int length;
+    private final ByteOrder byteOrder;
+    private final boolean signed;
+    private final double factor;
+    private final double offset;
+
+    CanSignal(final int startBit, final int length, final ByteOrder byteOrder, final boolean signed,
+            final double factor, final double offset) {
+        if (startBit < 0 || startBit > 63) {
+            throw new IllegalArgumentException("Invalid start bit: " + startBit);
+        }
+        if (length < 1 || length > 64) {
+            throw new IllegalArgumentException("Invalid signal length: " + length);
+        }
+        this.startBit = startBit;
+        this.length = length;
+        this.byteOrder = byteOrder;
+        this.signed = signed;
+        this.factor = factor;
+        this.offset = offset;
+    }
+
+    /**
+     * Extracts the raw value of the signal, sign extended if the signal is signed.
+     *
+     * @param data
+     *            the frame payload
+     * @return the raw value
+     * @throws IllegalArgumentException
+     *             if the payload is too short to contain the signal
+     */
+    long decodeRaw(final byte[] data) {
+        long raw = 0;
+
+        if (this.byteOrder == ByteOrder.LITTLE_ENDIAN) {
+            for (int i = 0; i < this.length; i++) {
+                raw |= (long) getBit(data, this.startBit + i) << i;
+            }
+        } else {
+            int position = this.startBit;
+            for (int i = 0; i < this.length; i++) {
+                raw = raw << 1 | getBit(data, position);
+                // move to the next less significant bit, wrapping to the next byte
+                position = position % 8 == 0 ? position + 15 : position - 1;
+            }
+        }
+
+        if (this.signed && this.length < 64 && (raw >>> this.length - 1 & 1) != 0) {
+            raw |= -1L << this.length;
+        }
+
+        return raw;
+    }
+
+    /**
+     * Computes the physical value of the signal.
+     *
+     * @param data
+     *            the frame payload
+     * @return the physical value
+     * @throws IllegalArgumentException
+     *             if the payload is too short to contain the signal
+     */
+    double decode(final byte[] data) {
+        final long raw = decodeRaw(data);
+
+        final double value;
+        if (!this.signed && raw < 0) {
+            // unsigned 64 bit value
+            value = (raw >>> 1) * 2.0 + (raw & 1);
+        } else {
+            value = raw;
+        }
+
+        return value * this.factor + this.offset;
+    }
+
+    private static int getBit(final byte[] data, final int position) {
+        final int index = position / 8;
+        if (index >= data.length) {
+            throw new IllegalArgumentException("The frame payload is too short for the signal");
+        }
+        return data[index] >> position % 8 & 1;
+    }
+}
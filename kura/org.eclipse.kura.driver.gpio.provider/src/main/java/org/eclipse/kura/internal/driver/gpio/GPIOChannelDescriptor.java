@@ -32,6 +32,8 @@ import org.eclipse.kura.gpio.KuraGPIOTrigger;
  * <li>resource.name</li> denotes the GPIO number/identifier
  * <li>resource.direction</li> denotes the GPIO direction
  * <li>resource.trigger</li> denotes the GPIO event that triggers a listener
+ * <li>listener.mode</li> denotes the value delivered to the listeners, see {@link GPIOListenerMode}
+ * <li>listener.debounce</li> denotes the minimum time in microseconds between two edges delivered to a listener
  * </ul>
  */
 public final class GPIOChannelDescriptor implements ChannelDescriptor {
@@ -42,6 +44,8 @@ public final class GPIOChannelDescriptor implements ChannelDescriptor {
     private static final String RESOURCE_NAME = "resource.name";
     private static final String RESOURCE_DIRECTION = "resource.direction";
     private static final String RESOURCE_TRIGGER = "resource.trigger";
+    private static final String LISTENER_MODE = "listener.mode";
+    private static final String LISTENER_DEBOUNCE = "listener.debounce";
 
     private List<GPIOService> gpioServices;
 
@@ -120,6 +124,26 @@ public final class GPIOChannelDescriptor implements ChannelDescriptor {
         addOptions(resourceTriggers, KuraGPIOTrigger.values(), null);
         elements.add(resourceTriggers);
 
+        final Tad listenerMode = new Tad();
+        listenerMode.setName(LISTENER_MODE);
+        listenerMode.setId(LISTENER_MODE);
+        listenerMode.setDescription(LISTENER_MODE);
+        listenerMode.setType(Tscalar.STRING);
+        listenerMode.setRequired(true);
+        listenerMode.setDefault(GPIOListenerMode.EDGE.name());
+        addOptions(listenerMode, GPIOListenerMode.values(), null);
+        elements.add(listenerMode);
+
+        final Tad listenerDebounce = new Tad();
+        listenerDebounce.setName(LISTENER_DEBOUNCE);
+        listenerDebounce.setId(LISTENER_DEBOUNCE);
+        listenerDebounce.setDescription(LISTENER_DEBOUNCE);
+        listenerDebounce.setType(Tscalar.INTEGER);
+        listenerDebounce.setRequired(true);
+        listenerDebounce.setDefault("0");
+        listenerDebounce.setMin("0");
+        elements.add(listenerDebounce);
+
         return elements;
     }
 
@@ -140,4 +164,22 @@ public final class GPIOChannelDescriptor implements ChannelDescriptor {
         return KuraGPIOTrigger.valueOf((String) properties.get(RESOURCE_TRIGGER));
     }
 
+    static GPIOListenerMode getListenerMode(Map<String, Object> properties) {
+        final Object mode = properties.get(LISTENER_MODE);
+        if (mode instanceof String) {
+            return GPIOListenerMode.valueOf((String) mode);
+        }
+        return GPIOListenerMode.EDGE;
+    }
+
+    static long getListenerDebounce(Map<String, Object> properties) {
+        final Object debounce = properties.get(LISTENER_DEBOUNCE);
+        if (debounce instanceof Number) {
+            return ((Number) debounce).longValue();
+        } else if (debounce instanceof String) {
+            return Long.parseLong((String) debounce);
+        }
+        return 0;
+    }
+
 }
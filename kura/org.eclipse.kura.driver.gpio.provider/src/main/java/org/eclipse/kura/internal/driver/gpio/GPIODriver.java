@@ -26,6 +26,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.kura.channel.ChannelFlag;
 import org.eclipse.kura.channel.ChannelRecord;
@@ -45,6 +49,7 @@ import org.eclipse.kura.gpio.KuraGPIOPin;
 import org.eclipse.kura.gpio.KuraGPIOTrigger;
 import org.eclipse.kura.gpio.KuraUnavailableDeviceException;
 import org.eclipse.kura.gpio.PinStatusListener;
+import org.eclipse.kura.internal.driver.gpio.GPIOEdgeCounter.Snapshot;
 import org.eclipse.kura.type.DataType;
 import org.eclipse.kura.type.TypedValue;
 import org.eclipse.kura.type.TypedValues;
@@ -62,6 +67,12 @@ import org.slf4j.LoggerFactory;
  * <br/>
  * <br/>
  * The required properties are enlisted in {@link GPIOChannelDescriptor}.
+ * <br/>
+ * <br/>
+ * Input channel listeners either receive an event for each edge, timestamped with the time reported by the
+ * {@link GPIOService}, or periodically receive aggregated values (state, edge count, frequency), see
+ * {@link GPIOListenerMode}. The aggregated values are delivered at the interval configured in
+ * {@link GPIODriverOptions}.
  *
  * @see Driver
  * @see GPIOChannelDescriptor
@@ -77,6 +88,10 @@ public final class GPIODriver implements Driver, ConfigurableComponent {
     private Set<GPIOListener> gpioListeners;
     private final List<GPIOService> gpioServices = new ArrayList<>();
 
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> deliveryTask;
+    private GPIODriverOptions options;
+
     protected synchronized void bindGPIOService(final GPIOService gpioService) {
         if (!this.gpioServices.contains(gpioService)) {
             this.gpioServices.add(gpioService);
@@ -91,20 +106,54 @@ public final class GPIODriver implements Driver, ConfigurableComponent {
         logger.debug("Activating GPIO Driver...");
         this.gpioNames = new HashSet<>();
         this.gpioListeners = new HashSet<>();
+        this.executor = Executors.newSingleThreadScheduledExecutor();
+        doUpdate(properties);
         logger.debug("Activating GPIO Driver... Done");
     }
 
     protected synchronized void deactivate() {
         logger.debug("Deactivating GPIO Driver...");
         doDeactivate();
+        this.executor.shutdown();
         logger.debug("Deactivating GPIO Driver... Done");
     }
 
     protected synchronized void update(final Map<String, Object> properties) {
         logger.debug("Updating GPIO Driver...");
+        doUpdate(properties);
         logger.debug("Updating GPIO Driver... Done");
     }
 
+    private void doUpdate(final Map<String, Object> properties) {
+        this.options = new GPIODriverOptions(properties);
+
+        if (this.deliveryTask != null) {
+            this.deliveryTask.cancel(false);
+        }
+
+        final long interval = this.options.getListenerDeliveryInterval();
+        this.deliveryTask = this.executor.scheduleAtFixedRate(this::deliverAggregatedEvents, interval, interval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void deliverAggregatedEvents() {
+        final List<GPIOListener> listeners;
+
+        synchronized (this) {
+            listeners = new ArrayList<>(this.gpioListeners);
+        }
+
+        final long now = System.nanoTime();
+
+        for (final GPIOListener gpioListener : listeners) {
+            try {
+                gpioListener.deliverAggregatedEvent(now);
+            } catch (final Exception e) {
+                logger.warn("Unable to deliver event for channel {}", gpioListener.channelName, e);
+            }
+        }
+    }
+
     private void doDeactivate() {
         for (GPIOListener gpioListener : this.gpioListeners) {
             KuraGPIOPin pin = gpioListener.getPin();
@@ -199,7 +248,9 @@ public final class GPIODriver implements Driver, ConfigurableComponent {
             }
             if (pin != null) {
                 GPIOListener gpioListener = new GPIOListener(pin, (String) channelConfig.get("+name"),
-                        DataType.getDataType((String) channelConfig.get("+value.type")), listener);
+                        DataType.getDataType((String) channelConfig.get("+value.type")), listener,
+                        GPIOChannelDescriptor.getListenerMode(channelConfig),
+                        GPIOChannelDescriptor.getListenerDebounce(channelConfig));
                 this.gpioListeners.add(gpioListener);
                 try {
                     pin.addPinStatusListener(gpioListener);
@@ -301,6 +352,25 @@ public final class GPIODriver implements Driver, ConfigurableComponent {
         }
     }
 
+    private Optional<TypedValue<?>> getTypedValue(final DataType expectedValueType, final Number containedValue) {
+        switch (expectedValueType) {
+        case LONG:
+            return Optional.of(TypedValues.newLongValue(containedValue.longValue()));
+        case FLOAT:
+            return Optional.of(TypedValues.newFloatValue(containedValue.floatValue()));
+        case DOUBLE:
+            return Optional.of(TypedValues.newDoubleValue(containedValue.doubleValue()));
+        case INTEGER:
+            return Optional.of(TypedValues.newIntegerValue(containedValue.intValue()));
+        case BOOLEAN:
+            return Optional.of(TypedValues.newBooleanValue(containedValue.doubleValue() != 0));
+        case STRING:
+            return Optional.of(TypedValues.newStringValue(containedValue.toString()));
+        default:
+            return Optional.empty();
+        }
+    }
+
     private TypedValue<Boolean> getBooleanValue(TypedValue<?> value) {
         try {
             switch (value.getType()) {
@@ -438,12 +508,17 @@ public final class GPIODriver implements Driver, ConfigurableComponent {
         private final String channelName;
         private final KuraGPIOPin pin;
         private final DataType dataType;
+        private final GPIOListenerMode mode;
+        private final GPIOEdgeCounter counter;
 
-        public GPIOListener(KuraGPIOPin pin, String channelName, DataType dataType, ChannelListener listener) {
+        public GPIOListener(KuraGPIOPin pin, String channelName, DataType dataType, ChannelListener listener,
+                GPIOListenerMode mode, long debounceMicros) {
             this.pin = pin;
             this.channelName = channelName;
             this.dataType = dataType;
             this.listener = listener;
+            this.mode = mode;
+            this.counter = new GPIOEdgeCounter(debounceMicros, System.nanoTime());
         }
 
         public KuraGPIOPin getPin() {
@@ -456,8 +531,48 @@ public final class GPIODriver implements Driver, ConfigurableComponent {
 
         @Override
         public void pinStatusChange(boolean value) {
+            pinStatusChange(value, TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+        }
+
+        @Override
+        public void pinStatusChange(boolean value, long timestampMicros) {
+            if (!this.counter.edge(value, timestampMicros) || this.mode.isAggregated()) {
+                return;
+            }
+
+            deliver(getTypedValue(this.dataType, value), TimeUnit.MICROSECONDS.toMillis(timestampMicros));
+        }
+
+        void deliverAggregatedEvent(long nowNanos) {
+            if (!this.mode.isAggregated()) {
+                return;
+            }
+
+            final Snapshot snapshot = this.counter.snapshot(nowNanos);
+
+            switch (this.mode) {
+            case STATE:
+                if (snapshot.getCount() > 0) {
+                    deliver(getTypedValue(this.dataType, snapshot.getState()),
+                            TimeUnit.MICROSECONDS.toMillis(snapshot.getLastEdgeMicros()));
+                }
+                break;
+            case EDGE_COUNT:
+                deliver(getTypedValue(this.dataType, snapshot.getCount()), System.currentTimeMillis());
+                break;
+            case TOTAL_EDGE_COUNT:
+                deliver(getTypedValue(this.dataType, snapshot.getTotalCount()), System.currentTimeMillis());
+                break;
+            case FREQUENCY:
+                deliver(getTypedValue(this.dataType, snapshot.getFrequency()), System.currentTimeMillis());
+                break;
+            default:
+                break;
+            }
+        }
+
+        private void deliver(Optional<TypedValue<?>> typedValue, long timestamp) {
             ChannelRecord record = ChannelRecord.createReadRecord(this.channelName, this.dataType);
-            final Optional<TypedValue<?>> typedValue = getTypedValue(this.dataType, value);
             if (!typedValue.isPresent()) {
                 record.setChannelStatus(new ChannelStatus(FAILURE,
                         "Error while converting the retrieved value to the defined typed", null));
@@ -467,7 +582,7 @@ public final class GPIODriver implements Driver, ConfigurableComponent {
 
             record.setValue(typedValue.get());
             record.setChannelStatus(new ChannelStatus(SUCCESS));
-            record.setTimestamp(System.currentTimeMillis());
+            record.setTimestamp(timestamp);
             this.listener.onChannelEvent(new ChannelEvent(record));
         }
 
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eurotech
+ */
+package org.eclipse.kura.internal.driver.gpio;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+
+/**
+ * The Class {@link GPIODriverOptions} is responsible to provide all the required
+ * configurable options for the GPIO Driver.<br/>
+ * <br/>
+ *
+ * The different properties to configure a GPIO Driver are as follows:
+ * <ul>
+ * <li>listener.delivery.interval</li>
+ * </ul>
+ */
+final class GPIODriverOptions {
+
+    private static final String LISTENER_DELIVERY_INTERVAL = "listener.delivery.interval";
+
+    private static final long LISTENER_DELIVERY_INTERVAL_DEFAULT = 1000;
+
+    private final Map<String, Object> properties;
+
+    /**
+     * Instantiates a new GPIO Driver options.
+     *
+     * @param properties
+     *            the properties
+     * @throws NullPointerException
+     *             if any of the arguments is null
+     */
+    GPIODriverOptions(final Map<String, Object> properties) {
+        requireNonNull(properties, "Properties cannot be null");
+
+        this.properties = properties;
+    }
+
+    /**
+     * Returns the interval at which the aggregated input events are delivered to the channel listeners
+     *
+     * @return the interval in milliseconds
+     */
+    long getListenerDeliveryInterval() {
+        final Object interval = this.properties.get(LISTENER_DELIVERY_INTERVAL);
+        if (interval instanceof Number && ((Number) interval).longValue() > 0) {
+            return ((Number) interval).longValue();
+        }
+        return LISTENER_DELIVERY_INTERVAL_DEFAULT;
+    }
+
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eurotech
+ */
+package org.eclipse.kura.internal.driver.gpio;
+
+/**
+ * Accumulates the edges reported for a GPIO input pin.
+ * <p>
+ * {@link #edge(boolean, long)} is invoked for every edge and only updates a few counters, edges that are closer than
+ * the debounce interval to the last accepted one are discarded. The aggregated values are computed by
+ * {@link #snapshot(long)}, that also starts a new interval.
+ */
+final class GPIOEdgeCounter {
+
+    private final long debounceMicros;
+
+    private boolean state;
+    private long lastEdgeMicros;
+    private long intervalCount;
+    private long totalCount;
+    private long intervalStartNanos;
+
+    GPIOEdgeCounter(final long debounceMicros, final long nowNanos) {
+        this.debounceMicros = debounceMicros;
+        this.intervalStartNanos = nowNanos;
+    }
+
+    /**
+     * Records an edge.
+     *
+     * @param value
+     *            the pin value after the edge
+     * @param timestampMicros
+     *            the edge timestamp in microseconds since the epoch
+     * @return true if the edge has been accepted, false if it has been discarded by the debounce filter
+     */
+    synchronized boolean edge(final boolean value, final long timestampMicros) {
+        if (this.totalCount > 0 && timestampMicros - this.lastEdgeMicros < this.debounceMicros) {
+            return false;
+        }
+
+        this.state = value;
+        this.lastEdgeMicros = timestampMicros;
+        this.intervalCount++;
+        this.totalCount++;
+
+        return true;
+    }
+
+    synchronized Snapshot snapshot(final long nowNanos) {
+        final long elapsedNanos = nowNanos - this.intervalStartNanos;
+        final double frequency = elapsedNanos > 0 ? this.intervalCount * 1e9 / elapsedNanos : 0;
+
+        final Snapshot result = new Snapshot(this.state, this.lastEdgeMicros, this.intervalCount, this.totalCount,
+                frequency);
+
+        this.intervalCount = 0;
+        this.intervalStartNanos = nowNanos;
+
+        return result;
+    }
+
+    static final class Snapshot {
+
+        private final boolean state;
+        private final long lastEdgeMicros;
+        private final long count;
+        private final long totalCount;
+        private final double frequency;
+
+        private Snapshot(final boolean state, final long lastEdgeMicros, final long count, final long totalCount,
+                final double frequency) {
+            this.state = state;
+            this.lastEdgeMicros = lastEdgeMicros;
+            this.count = count;
+            this.totalCount = totalCount;
+            this.frequency = frequency;
+        }
+
+        boolean getState() {
+            return this.state;
+        }
+
+        long getLastEdgeMicros() {
+            return this.lastEdgeMicros;
+        }
+
+        long getCount() {
+            return this.count;
+        }
+
+        long getTotalCount() {
+            return this.totalCount;
+        }
+
+        double getFrequency() {
+            return this.frequency;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eurotech
+ */
+package org.eclipse.kura.internal.driver.gpio;
+
+/**
+ * Defines which value is delivered to the listeners attached to a GPIO input channel.
+ */
+enum GPIOListenerMode {
+
+    /**
+     * An event carrying the new pin value is delivered for each edge, this is the default.
+     */
+    EDGE,
+    /**
+     * The last pin value is delivered at the configured delivery interval, if at least an edge has been detected.
+     */
+    STATE,
+    /**
+     * The number of edges detected during the last delivery interval is delivered at the configured delivery interval.
+     */
+    EDGE_COUNT,
+    /**
+     * The number of edges detected since the listener has been attached is delivered at the configured delivery
+     * interval.
+     */
+    TOTAL_EDGE_COUNT,
+    /**
+     * The edge frequency in Hz, computed over the last delivery interval, is delivered at the configured delivery
+     * interval.
+     */
+    FREQUENCY;
+
+    boolean isAggregated() {
+        return this != EDGE;
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eurotech
+ */
+package org.eclipse.kura.internal.driver.modbus;
+
+import java.util.List;
+
+import org.eclipse.kura.core.configuration.metatype.Tad;
+import org.eclipse.kura.core.configuration.metatype.Toption;
+import org.eclipse.kura.core.configuration.metatype.Tscalar;
+import org.eclipse.kura.driver.ChannelDescriptor;
+import org.eclipse.kura.util.collection.CollectionUtil;
+
+/**
+ * Modbus specific channel descriptor. The descriptor contains the following
+ * attribute definition identifiers.
+ *
+ * <ul>
+ * <li>unit.id</li> the unit identifier of the slave
+ * <li>primary.table</li> the Modbus primary table, see {@link ModbusTable}
+ * <li>memory.address</li> the PDU address (0 based) of the first coil or register
+ * <li>modbus.data.type</li> the data type, see {@link ModbusDataType}
+ * <li>byte.order</li> the byte order of multi register values
+ * <li>register.count</li> the number of registers, used by STRING and byte array channels
+ * </ul>
+ */
+public final class ModbusChannelDescriptor implements ChannelDescriptor {
+
+    public static final String UNIT_ID = "unit.id";
+    public static final String PRIMARY_TABLE_ID = "primary.table";
+    public static final String MEMORY_ADDRESS_ID = "memory.address";
+    public static final String DATA_TYPE_ID = "modbus.data.type";
+    public static final String BYTE_ORDER_ID = "byte.order";
+    public static final String REGISTER_COUNT_ID = "register.count";
+
+    public static final String BIG_ENDIAN = "BIG_ENDIAN";
+    public static final String LITTLE_ENDIAN = "LITTLE_ENDIAN";
+
+    private static Toption generateOption(String value) {
+        Toption option = new Toption();
+        option.setLabel(value);
+        option.setValue(value);
+        return option;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Object getDescriptor() {
+        final List<Tad> elements = CollectionUtil.newArrayList();
+
+        final Tad unitId = new Tad();
+        unitId.setName(UNIT_ID);
+        unitId.setId(UNIT_ID);
+        unitId.setDescription("Unit Identifier");
+        unitId.setType(Tscalar.INTEGER);
+        unitId.setRequired(true);
+        unitId.setMin("0");
+        unitId.setMax("255");
+        unitId.setDefault("1");
+
+        elements.add(unitId);
+
+        final Tad primaryTable = new Tad();
+        primaryTable.setName(PRIMARY_TABLE_ID);
+        primaryTable.setId(PRIMARY_TABLE_ID);
+        primaryTable.setDescription("Modbus Primary Table");
+        primaryTable.setType(Tscalar.STRING);
+        primaryTable.setRequired(true);
+        primaryTable.setDefault(ModbusTable.HOLDING_REGISTERS.name());
+
+        for (ModbusTable t : ModbusTable.values()) {
+            primaryTable.setOption(generateOption(t.name()));
+        }
+
+        elements.add(primaryTable);
+
+        final Tad address = new Tad();
+        address.setName(MEMORY_ADDRESS_ID);
+        address.setId(MEMORY_ADDRESS_ID);
+        address.setDescription("Memory Address (0 based)");
+        address.setType(Tscalar.INTEGER);
+        address.setRequired(true);
+        address.setMin("0");
+        address.setMax("65535");
+        address.setDefault("0");
+
+        elements.add(address);
+
+        final Tad dataType = new Tad();
+        dataType.setName(DATA_TYPE_ID);
+        dataType.setId(DATA_TYPE_ID);
+        dataType.setDescription("Modbus Data Type");
+        dataType.setType(Tscalar.STRING);
+        dataType.setRequired(true);
+        dataType.setDefault(ModbusDataType.INT16.name());
+
+        for (ModbusDataType t : ModbusDataType.values()) {
+            dataType.setOption(generateOption(t.name()));
+        }
+
+        elements.add(dataType);
+
+        final Tad byteOrder = new Tad();
+        byteOrder.setName(BYTE_ORDER_ID);
+        byteOrder.setId(BYTE_ORDER_ID);
+        byteOrder.setDescription("Byte Order");
+        byteOrder.setType(Tscalar.STRING);
+        byteOrder.setRequired(true);
+        byteOrder.setDefault(BIG_ENDIAN);
+        byteOrder.setOption(generateOption(BIG_ENDIAN));
+        byteOrder.setOption(generateOption(LITTLE_ENDIAN));
+
+        elements.add(byteOrder);
+
+        final Tad registerCount = new Tad();
+        registerCount.setName(REGISTER_COUNT_ID);
+        registerCount.setId(REGISTER_COUNT_ID);
+        registerCount.setDescription("Register Count");
+        registerCount.setType(Tscalar.INTEGER);
+        registerCount.setRequired(true);
+        registerCount.setMin("1");
+        registerCount.setDefault("1");
+
+        elements.add(registerCount);
+
+        return elements;
+    }
+
+}
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+
+package org.eclipse.kura.internal.driver.modbus;
+
+public class ModbusDomain {
+
+    private final int unitId;
+    private final ModbusTable table;
+
+    public ModbusDomain(int unitId, ModbusTable table) {
+        this.unitId = unitId;
+        this.table = table;
+    }
+
+    public int getUnitId() {
+        return this.unitId;
+    }
+
+    public ModbusTable getTable() {
+        return this.table;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.unitId + this.table.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        ModbusDomain other = (ModbusDomain) obj;
+        return this.unitId == other.unitId && this.table == other.table;
+    }
+}
@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eurotech
+ */
+
+package org.eclipse.kura.internal.driver.modbus;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.eclipse.kura.KuraException;
+import org.eclipse.kura.channel.ChannelFlag;
+import org.eclipse.kura.channel.ChannelRecord;
+import org.eclipse.kura.channel.ChannelStatus;
+import org.eclipse.kura.configuration.ConfigurableComponent;
+import org.eclipse.kura.driver.ChannelDescriptor;
+import org.eclipse.kura.driver.PreparedRead;
+import org.eclipse.kura.driver.block.BlockFactory;
+import org.eclipse.kura.driver.block.task.AbstractBlockDriver;
+import org.eclipse.kura.driver.block.task.BlockTask;
+import org.eclipse.kura.driver.block.task.Mode;
+import org.eclipse.kura.driver.block.task.ToplevelBlockTask;
+import org.eclipse.kura.internal.driver.modbus.task.ModbusTaskBuilder;
+import org.eclipse.kura.internal.driver.modbus.task.ModbusToplevelBlockTask;
+import org.eclipse.kura.internal.driver.modbus.transport.ModbusException;
+import org.eclipse.kura.internal.driver.modbus.transport.ModbusRequest;
+import org.eclipse.kura.internal.driver.modbus.transport.ModbusRtuTransport;
+import org.eclipse.kura.internal.driver.modbus.transport.ModbusTcpTransport;
+import org.eclipse.kura.internal.driver.modbus.transport.ModbusTransport;
+import org.osgi.service.io.ConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Kura ModbusDriver is a Modbus Driver implementation for Kura Asset-Driver
+ * Topology.<br/>
+ * <br/>
+ *
+ * Channels are mapped to coil, discrete input, input register and holding register blocks that are aggregated per
+ * (unit id, primary table) domain. Each aggregated block is transferred with as few requests as the Modbus PDU size
+ * limits allow. On Modbus/TCP the read requests generated by a single {@link #read(List)} call are pipelined: up to
+ * {@code tcp.max.in.flight.requests} requests are kept in flight and responses are matched by transaction
+ * identifier.<br/>
+ * <br/>
+ *
+ * The required properties are enlisted in {@link ModbusChannelDescriptor} and
+ * the driver connection specific properties are enlisted in
+ * {@link ModbusDriverOptions}
+ *
+ * @see ModbusChannelDescriptor
+ * @see ModbusDriverOptions
+ */
+public class ModbusDriver extends AbstractBlockDriver<ModbusDomain> implements ConfigurableComponent {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModbusDriver.class);
+
+    private ModbusDriverOptions currentOptions;
+    private ModbusTransport transport;
+    private final AtomicReference<ModbusDriverOptions> options = new AtomicReference<>(
+            new ModbusDriverOptions(Collections.emptyMap()));
+
+    private ConnectionFactory connectionFactory;
+
+    public void setConnectionFactory(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    public void unsetConnectionFactory(ConnectionFactory connectionFactory) {
+        this.connectionFactory = null;
+    }
+
+    public void activate(final Map<String, Object> properties) {
+        logger.debug("Activating Modbus Driver...");
+        updated(properties);
+        logger.debug("Activating Modbus Driver... Done");
+    }
+
+    public synchronized void deactivate() {
+        logger.debug("Deactivating Modbus Driver...");
+        try {
+            disconnect();
+        } catch (final ConnectionException e) {
+            logger.error("Error while disconnecting...", e);
+        }
+        logger.debug("Deactivating Modbus Driver.....Done");
+    }
+
+    public void updated(final Map<String, Object> properties) {
+        logger.debug("Updating Modbus Driver...");
+        this.options.set(new ModbusDriverOptions(properties));
+        logger.debug("Updating Modbus Driver... Done");
+    }
+
+    @Override
+    public synchronized void connect() throws ConnectionException {
+        final ModbusDriverOptions newOptions = this.options.get();
+
+        if (this.currentOptions != newOptions) {
+            logger.info("configuration changed, disconnecting...");
+            disconnect();
+            this.transport = createTransport(newOptions);
+            this.currentOptions = newOptions;
+            logger.info("configuration changed, disconnecting...Done");
+        }
+
+        if (!this.transport.isConnected()) {
+            logger.debug("Connecting to Modbus slave...");
+            try {
+                this.transport.connect();
+            } catch (Exception e) {
+                throw new ConnectionException("Connection failed, unexpected exception", e);
+            }
+            logger.debug("Connecting to Modbus slave... Done");
+        }
+    }
+
+    @Override
+    public synchronized void disconnect() throws ConnectionException {
+        if (this.transport != null && this.transport.isConnected()) {
+            logger.debug("Disconnecting from Modbus slave...");
+            this.transport.disconnect();
+            logger.debug("Disconnecting from Modbus slave... Done");
+        }
+    }
+
+    protected ModbusTransport createTransport(final ModbusDriverOptions options) {
+        if (options.isRtu()) {
+            return new ModbusRtuTransport(this.connectionFactory, options.getCommURI());
+        }
+        return new ModbusTcpTransport(options.getIp(), options.getTcpPort(), options.getTimeout(),
+                options.getMaxInFlightRequests());
+    }
+
+    @Override
+    protected int getReadMinimumGapSizeForDomain(ModbusDomain domain) {
+        final int minimumGapSize = this.options.get().getMinimumGapSize();
+        return minimumGapSize * domain.getTable().getElementSize();
+    }
+
+    @Override
+    protected BlockFactory<ToplevelBlockTask> getTaskFactoryForDomain(final ModbusDomain domain, final Mode mode) {
+        return (start, end) -> new ModbusToplevelBlockTask(ModbusDriver.this, mode, domain, start, end);
+    }
+
+    @Override
+    protected Stream<Pair<ModbusDomain, BlockTask>> toTasks(List<ChannelRecord> records, Mode mode) {
+        return ModbusTaskBuilder.build(records, mode);
+    }
+
+    @Override
+    public ChannelDescriptor getChannelDescriptor() {
+        return new ModbusChannelDescriptor();
+    }
+
+    /**
+     * Executes the provided requests using the current transport.
+     *
+     * @param requests
+     *            the requests to be executed
+     * @throws IOException
+     *             if the link with the slave failed
+     */
+    public synchronized void execute(List<ModbusRequest> requests) throws IOException {
+        this.transport.execute(requests);
+    }
+
+    @Override
+    public synchronized void read(final List<ChannelRecord> records) throws ConnectionException {
+        connect();
+        try {
+            runTasks(optimize(records, Mode.READ));
+        } catch (Exception e) {
+            logger.warn("Unexpected exception during read", e);
+            for (ChannelRecord record : records) {
+                record.setChannelStatus(new ChannelStatus(ChannelFlag.FAILURE, e.getMessage(), e));
+                record.setTimestamp(System.currentTimeMillis());
+            }
+        }
+    }
+
+    @Override
+    protected PreparedRead createPreparedRead(List<ChannelRecord> records, List<BlockTask> tasks) {
+        return new ModbusPreparedRead(records, tasks);
+    }
+
+    /**
+     * Collects the read requests of all the provided tasks and hands them over to the transport as a single batch, so
+     * that they can be pipelined, then runs the tasks, that will decode the already received responses. If the batch
+     * fails because of an IO error the link is down, all the tasks are failed without issuing any other request.
+     */
+    private void runTasks(List<BlockTask> tasks) {
+        final List<ModbusRequest> requests = new ArrayList<>();
+
+        for (BlockTask task : tasks) {
+            if (task instanceof ModbusToplevelBlockTask && task.getMode() == Mode.READ) {
+                requests.addAll(((ModbusToplevelBlockTask) task).prepareReadRequests());
+            }
+        }
+
+        if (!requests.isEmpty()) {
+            try {
+                execute(requests);
+            } catch (IOException e) {
+                logger.warn("Operation failed due to IO error, will attempt to reconnect at next read/write", e);
+                tasks.forEach(task -> task.onFailure(e));
+                return;
+            }
+        }
+
+        tasks.forEach(this::runTask);
+    }
+
+    @Override
+    protected void runTask(BlockTask task) {
+        try {
+            task.run();
+        } catch (ModbusException e) {
+            logger.warn("Slave returned exception response", e);
+        } catch (Exception e) {
+            logger.warn("Operation failed", e);
+        }
+    }
+
+    private class ModbusPreparedRead extends BlockPreparedRead {
+
+        private final List<BlockTask> tasks;
+
+        ModbusPreparedRead(List<ChannelRecord> records, List<BlockTask> tasks) {
+            super(records, tasks);
+            this.tasks = tasks;
+        }
+
+        @Override
+        public List<ChannelRecord> execute() throws ConnectionException, KuraException {
+            synchronized (ModbusDriver.this) {
+                connect();
+                runTasks(this.tasks);
+                return getChannelRecords();
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Eurotech
+ */
+
+package org.eclipse.kura.internal.driver.modbus;
+
+import java.util.Map;
+
+import org.eclipse.kura.comm.CommURI;
+
+final class ModbusDriverOptions {
+
+    static final String TRANSPORT_TCP = "TCP";
+    static final String TRANSPORT_RTU = "RTU";
+
+    private static final Property<String> TRANSPORT_PROP = new Property<>("transport", TRANSPORT_TCP);
+    private static final Property<String> IP_PROP = new Property<>("host.ip", "");
+    private static final Property<Integer> TCP_PORT_PROP = new Property<>("host.port", 502);
+    private static final Property<String> SERIAL_PORT_PROP = new Property<>("serial.port", "");
+    private static final Property<Integer> BAUD_RATE_PROP = new Property<>("serial.baudrate", 9600);
+    private static final Property<Integer> DATA_BITS_PROP = new Property<>("serial.data.bits", CommURI.DATABITS_8);
+    private static final Property<Integer> STOP_BITS_PROP = new Property<>("serial.stop.bits", CommURI.STOPBITS_1);
+    private static final Property<Integer> PARITY_PROP = new Property<>("serial.parity", CommURI.PARITY_NONE);
+    private static final Property<Integer> TIMEOUT_PROP = new Property<>("timeout", 1000);
+    private static final Property<Integer> MAX_IN_FLIGHT_REQUESTS_PROP = new Property<>("tcp.max.in.flight.requests",
+            4);
+    private static final Property<Integer> MINIMUM_GAP_SIZE_PROP = new Property<>("read.minimum.gap.size", 0);
+
+    private final String transport;
+    private final String ip;
+    private final int tcpPort;
+    private final String serialPort;
+    private final int baudRate;
+    private final int dataBits;
+    private final int stopBits;
+    private final int parity;
+    private final int timeout;
+    private final int maxInFlightRequests;
+    private final int minimumGapSize;
+
+    ModbusDriverOptions(final Map<String, Object> properties) {
+        this.transport = TRANSPORT_PROP.get(properties);
+        this.ip = IP_PROP.get(properties);
+        this.tcpPort = TCP_PORT_PROP.get(properties);
+        this.serialPort = SERIAL_PORT_PROP.get(properties);
+        this.baudRate = BAUD_RATE_PROP.get(properties);
+        this.dataBits = DATA_BITS_PROP.get(properties);
+        this.stopBits = STOP_BITS_PROP.get(properties);
+        this.parity = PARITY_PROP.get(properties);
+        this.timeout = TIMEOUT_PROP.get(properties);
+        this.maxInFlightRequests = MAX_IN_FLIGHT_REQUESTS_PROP.get(properties);
+        this.minimumGapSize = MINIMUM_GAP_SIZE_PROP.get(properties);
+    }
+
+    boolean isRtu() {
+        return TRANSPORT_RTU.equals(this.transport);
+    }
+
+    String getIp() {
+        return this.ip;
+    }
+
+    int getTcpPort() {
+        return this.tcpPort;
+    }
+
+    int getTimeout() {
+        return this.timeout;
+    }
+
+    int getMaxInFlightRequests() {
+        return this.maxInFlightRequests;
+    }
+
+    int getMinimumGapSize() {
+        return this.minimumGapSize;
+    }
+
+    CommURI getCommURI() {
+        return new CommURI.Builder(this.serialPort).withBaudRate(this.baudRate).withDataBits(this.dataBits)
+                .withStopBits(this.stopBits).withParity(this.parity).withReceiveTimeout(this.timeout).build();
+    }
+
+    private static class Property<T> {
+
+        private final String key;
+        private final T defaultValue;
+
+        public Property(String key, T defaultValue) {
+            this.key = key;
+            this.defaultValue = defaultValue;
+        }
+
+        @SuppressWarnings("unchecked")
+        public T get(Map<String, Object> properties) {
+            final Object value = properties.get(this.key);
+            if (this.defaultValue.getClass().isInstance(value)) {
+                return (T) value;
+            }
+            return this.defaultValue;
+        }
+    }
+
+}
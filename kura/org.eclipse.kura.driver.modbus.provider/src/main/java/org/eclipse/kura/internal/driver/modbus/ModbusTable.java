@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+
+package org.eclipse.kura.internal.driver.modbus;
+
+import org.eclipse.kura.protocol.modbus.ModbusFunctionCodes;
+
+/**
+ * The Modbus primary tables, together with the function codes used to access them and the maximum number of elements
+ * that can be transferred by a single request.
+ */
+public enum ModbusTable {
+
+    COILS(ModbusFunctionCodes.READ_COIL_STATUS, ModbusFunctionCodes.FORCE_MULTIPLE_COILS, 2000, 1968),
+    DISCRETE_INPUTS(ModbusFunctionCodes.READ_INPUT_STATUS, -1, 2000, 0),
+    INPUT_REGISTERS(ModbusFunctionCodes.READ_INPUT_REGS, -1, 125, 0),
+    HOLDING_REGISTERS(ModbusFunctionCodes.READ_HOLDING_REGS, ModbusFunctionCodes.PRESET_MULTIPLE_REGS, 125, 123);
+
+    private final int readFunctionCode;
+    private final int writeFunctionCode;
+    private final int maxReadCount;
+    private final int maxWriteCount;
+
+    private ModbusTable(int readFunctionCode, int writeFunctionCode, int maxReadCount, int maxWriteCount) {
+        this.readFunctionCode = readFunctionCode;
+        this.writeFunctionCode = writeFunctionCode;
+        this.maxReadCount = maxReadCount;
+        this.maxWriteCount = maxWriteCount;
+    }
+
+    public int getReadFunctionCode() {
+        return this.readFunctionCode;
+    }
+
+    public int getWriteFunctionCode() {
+        return this.writeFunctionCode;
+    }
+
+    public int getMaxReadCount() {
+        return this.maxReadCount;
+    }
+
+    public int getMaxWriteCount() {
+        return this.maxWriteCount;
+    }
+
+    public boolean isWritable() {
+        return this.writeFunctionCode != -1;
+    }
+
+    /**
+     * Returns {@code true} for the single bit tables (coils and discrete inputs).
+     *
+     * @return {@code true} if the elements of this table are bits, {@code false} if they are 16 bit registers
+     */
+    public boolean isBitTable() {
+        return this == COILS || this == DISCRETE_INPUTS;
+    }
+
+    /**
+     * Returns the number of block addresses used for each element of this table. Registers are addressed by byte in
+     * the blocks produced by the driver, coils and discrete inputs use one address (and one buffer byte) per bit.
+     *
+     * @return the size of a table element in block addresses
+     */
+    public int getElementSize() {
+        return isBitTable() ? 1 : 2;
+    }
+}
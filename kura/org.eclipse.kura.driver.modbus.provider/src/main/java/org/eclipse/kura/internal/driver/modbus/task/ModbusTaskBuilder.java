@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+
+package org.eclipse.kura.internal.driver.modbus.task;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.eclipse.kura.KuraErrorCode;
+import org.eclipse.kura.KuraException;
+import org.eclipse.kura.channel.ChannelFlag;
+import org.eclipse.kura.channel.ChannelRecord;
+import org.eclipse.kura.channel.ChannelStatus;
+import org.eclipse.kura.driver.binary.BinaryData;
+import org.eclipse.kura.driver.binary.BinaryDataTypes;
+import org.eclipse.kura.driver.block.task.AbstractBlockDriver.Pair;
+import org.eclipse.kura.driver.block.task.BinaryDataTask;
+import org.eclipse.kura.driver.block.task.BlockTask;
+import org.eclipse.kura.driver.block.task.ByteArrayTask;
+import org.eclipse.kura.driver.block.task.Mode;
+import org.eclipse.kura.driver.block.task.StringTask;
+import org.eclipse.kura.internal.driver.modbus.ModbusChannelDescriptor;
+import org.eclipse.kura.internal.driver.modbus.ModbusDataType;
+import org.eclipse.kura.internal.driver.modbus.ModbusDomain;
+import org.eclipse.kura.internal.driver.modbus.ModbusTable;
+import org.eclipse.kura.type.DataType;
+
+public final class ModbusTaskBuilder {
+
+    private ModbusTaskBuilder() {
+    }
+
+    private static int getIntProperty(ChannelRecord record, String propertyName, String failureMessage)
+            throws KuraException {
+        try {
+            return Integer.parseInt(record.getChannelConfig().get(propertyName).toString());
+        } catch (Exception e) {
+            throw new KuraException(KuraErrorCode.CONFIGURATION_ERROR, failureMessage);
+        }
+    }
+
+    private static <T extends Enum<T>> T getEnumProperty(ChannelRecord record, String propertyName, Class<T> type,
+            String failureMessage) throws KuraException {
+        try {
+            return Enum.valueOf(type, record.getChannelConfig().get(propertyName).toString());
+        } catch (Exception e) {
+            throw new KuraException(KuraErrorCode.CONFIGURATION_ERROR, failureMessage);
+        }
+    }
+
+    private static void assertChannelType(ChannelRecord record, DataType channelType) throws KuraException {
+        if (channelType != record.getValueType()) {
+            throw new KuraException(KuraErrorCode.CONFIGURATION_ERROR, "Channel Value Type must be " + channelType);
+        }
+    }
+
+    private static ModbusDomain getDomain(ChannelRecord record, Mode mode) throws KuraException {
+        final int unitId = getIntProperty(record, ModbusChannelDescriptor.UNIT_ID, "Error while retrieving Unit Id");
+        final ModbusTable table = getEnumProperty(record, ModbusChannelDescriptor.PRIMARY_TABLE_ID, ModbusTable.class,
+                "Error while retrieving Primary Table");
+
+        if (mode == Mode.WRITE && !table.isWritable()) {
+            throw new KuraException(KuraErrorCode.CONFIGURATION_ERROR, table + " is read only");
+        }
+
+        return new ModbusDomain(unitId, table);
+    }
+
+    private static BinaryData<?> select(boolean bigEndian, BinaryData<?> be, BinaryData<?> le) {
+        return bigEndian ? be : le;
+    }
+
+    private static BlockTask build(ChannelRecord record, ModbusTable table, Mode mode) throws KuraException {
+
+        final Map<String, Object> channelConfig = record.getChannelConfig();
+
+        final DataType type = record.getValueType();
+        final int address = getIntProperty(record, ModbusChannelDescriptor.MEMORY_ADDRESS_ID,
+                "Error while retrieving Memory Address");
+
+        if (table.isBitTable()) {
+            assertChannelType(record, DataType.BOOLEAN);
+            return new CoilTask(record, address, mode);
+        }
+
+        final int offset = address * table.getElementSize();
+
+        if (type == DataType.BYTE_ARRAY) {
+            final int registerCount = getIntProperty(record, ModbusChannelDescriptor.REGISTER_COUNT_ID,
+                    "Error while retrieving Register Count");
+            return new ByteArrayTask(record, offset, offset + 2 * registerCount, mode);
+        }
+
+        final ModbusDataType modbusDataType = getEnumProperty(record, ModbusChannelDescriptor.DATA_TYPE_ID,
+                ModbusDataType.class, "Error while retrieving Modbus Data Type");
+        final boolean bigEndian = !ModbusChannelDescriptor.LITTLE_ENDIAN
+                .equals(channelConfig.get(ModbusChannelDescriptor.BYTE_ORDER_ID));
+
+        final BinaryData<?> binaryDataType;
+
+        switch (modbusDataType) {
+        case INT16:
+            binaryDataType = select(bigEndian, BinaryDataTypes.INT16_BE, BinaryDataTypes.INT16_LE);
+            break;
+        case UINT16:
+            binaryDataType = select(bigEndian, BinaryDataTypes.UINT16_BE, BinaryDataTypes.UINT16_LE);
+            break;
+        case INT32:
+            binaryDataType = select(bigEndian, BinaryDataTypes.INT32_BE, BinaryDataTypes.INT32_LE);
+            break;
+        case UINT32:
+            binaryDataType = select(bigEndian, BinaryDataTypes.UINT32_BE, BinaryDataTypes.UINT32_LE);
+            break;
+        case INT64:
+            binaryDataType = select(bigEndian, BinaryDataTypes.INT64_BE, BinaryDataTypes.INT64_LE);
+            break;
+        case FLOAT:
+            binaryDataType = select(bigEndian, BinaryDataTypes.FLOAT_BE, BinaryDataTypes.FLOAT_LE);
+            break;
+        case DOUBLE:
+            binaryDataType = select(bigEndian, BinaryDataTypes.DOUBLE_BE, BinaryDataTypes.DOUBLE_LE);
+            break;
+        case STRING:
+            assertChannelType(record, DataType.STRING);
+            final int registerCount = getIntProperty(record, ModbusChannelDescriptor.REGISTER_COUNT_ID,
+                    "Error while retrieving Register Count");
+            return new StringTask(record, offset, offset + 2 * registerCount, mode);
+        default:
+            throw new KuraException(KuraErrorCode.CONFIGURATION_ERROR,
+                    modbusDataType + " is not supported for " + table);
+        }
+
+        return newBinaryDataTask(record, offset, binaryDataType, type, mode);
+    }
+
+    private static <T> BlockTask newBinaryDataTask(ChannelRecord record, int offset, BinaryData<T> binaryDataType,
+            DataType type, Mode mode) {
+        return new BinaryDataTask<>(record, offset, binaryDataType, type, mode);
+    }
+
+    public static Stream<Pair<ModbusDomain, BlockTask>> build(List<ChannelRecord> records, Mode mode) {
+        return records.stream().map(record -> {
+            try {
+                final ModbusDomain domain = getDomain(record, mode);
+                return new Pair<>(domain, build(record, domain.getTable(), mode));
+            } catch (Exception e) {
+                record.setTimestamp(System.currentTimeMillis());
+                record.setChannelStatus(new ChannelStatus(ChannelFlag.FAILURE, e.getMessage(), e));
+                return null;
+            }
+        }).filter(Objects::nonNull);
+    }
+
+}
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+
+package org.eclipse.kura.internal.driver.modbus.task;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.kura.driver.binary.Buffer;
+import org.eclipse.kura.driver.binary.ByteArrayBuffer;
+import org.eclipse.kura.driver.block.task.Mode;
+import org.eclipse.kura.driver.block.task.ToplevelBlockTask;
+import org.eclipse.kura.internal.driver.modbus.ModbusDomain;
+import org.eclipse.kura.internal.driver.modbus.ModbusDriver;
+import org.eclipse.kura.internal.driver.modbus.ModbusTable;
+import org.eclipse.kura.internal.driver.modbus.transport.ModbusRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Transfers the data of a Modbus block. Blocks larger than the maximum PDU size of the involved primary table (125
+ * registers or 2000 coils for reads, 123 registers or 1968 coils for writes) are transferred using multiple requests,
+ * that are handed over to the transport together so that they can be pipelined.
+ *
+ * <p>
+ * Register tables are addressed by byte, the buffer of this task contains the register values in the same byte order
+ * as they are transmitted on the wire. Coils and discrete inputs are addressed by bit, the buffer contains one byte for
+ * each bit, set to either 0 or 1.
+ * </p>
+ */
+public class ModbusToplevelBlockTask extends ToplevelBlockTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModbusToplevelBlockTask.class);
+
+    private final ModbusDriver driver;
+    private final ModbusDomain domain;
+    private ByteArrayBuffer data;
+    private List<ModbusRequest> requests;
+
+    public ModbusToplevelBlockTask(ModbusDriver driver, Mode mode, ModbusDomain domain, int start, int end) {
+        super(start, end, mode);
+        this.driver = driver;
+        this.domain = domain;
+    }
+
+    private int getFirstElement() {
+        return getStart() / this.domain.getTable().getElementSize();
+    }
+
+    private int getElementCount() {
+        final int elementSize = this.domain.getTable().getElementSize();
+        return (getEnd() - getStart() + elementSize - 1) / elementSize;
+    }
+
+    /**
+     * Builds the read requests for this task without executing them. The driver uses this method to collect the
+     * requests of multiple tasks and execute them in a single batch before running the tasks, see
+     * {@link ModbusDriver}. If the requests are not executed in advance, {@link #processBuffer()} will execute them.
+     *
+     * @return the read requests for this task
+     */
+    public List<ModbusRequest> prepareReadRequests() {
+        final ModbusTable table = this.domain.getTable();
+        final int maxCount = table.getMaxReadCount();
+        final int first = getFirstElement();
+        final int count = getElementCount();
+
+        this.requests = new ArrayList<>((count + maxCount - 1) / maxCount);
+
+        for (int i = 0; i < count; i += maxCount) {
+            this.requests.add(ModbusRequest.read(this.domain.getUnitId(), table.getReadFunctionCode(), first + i,
+                    Math.min(maxCount, count - i)));
+        }
+
+        return this.requests;
+    }
+
+    private List<ModbusRequest> prepareWriteRequests() {
+        final ModbusTable table = this.domain.getTable();
+        final int maxCount = table.getMaxWriteCount();
+        final int first = getFirstElement();
+        final int count = getElementCount();
+        final int elementSize = table.getElementSize();
+        final byte[] buffer = ((ByteArrayBuffer) getBuffer()).getBackingArray();
+
+        final List<ModbusRequest> result = new ArrayList<>((count + maxCount - 1) / maxCount);
+
+        for (int i = 0; i < count; i += maxCount) {
+            final int chunk = Math.min(maxCount, count - i);
+            if (table.isBitTable()) {
+                result.add(ModbusRequest.writeCoils(this.domain.getUnitId(), first + i, buffer, i, chunk));
+            } else {
+                result.add(ModbusRequest.writeRegisters(this.domain.getUnitId(), first + i, buffer, i * elementSize,
+                        chunk * elementSize));
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void processBuffer() throws IOException {
+        if (getMode() == Mode.READ) {
+            final List<ModbusRequest> readRequests = this.requests != null ? this.requests : prepareReadRequests();
+            this.requests = null;
+
+            logger.debug("Reading from unit {}, {} offset: {} count: {}", this.domain.getUnitId(),
+                    this.domain.getTable(), getFirstElement(), getElementCount());
+
+            if (!readRequests.stream().allMatch(ModbusRequest::isDone)) {
+                this.driver.execute(readRequests);
+            }
+
+            for (ModbusRequest request : readRequests) {
+                copyResponse(request);
+            }
+        } else {
+            logger.debug("Writing to unit {}, {} offset: {} count: {}", this.domain.getUnitId(),
+                    this.domain.getTable(), getFirstElement(), getElementCount());
+
+            final List<ModbusRequest> writeRequests = prepareWriteRequests();
+
+            this.driver.execute(writeRequests);
+
+            for (ModbusRequest request : writeRequests) {
+                request.getResponse();
+            }
+        }
+    }
+
+    private void copyResponse(ModbusRequest request) throws IOException {
+        final byte[] response = request.getResponse();
+        final byte[] pdu = request.getPdu();
+
+        if (response.length < 2) {
+            throw new IOException("Short response");
+        }
+
+        final int address = (pdu[1] & 0xff) << 8 | pdu[2] & 0xff;
+        final int count = (pdu[3] & 0xff) << 8 | pdu[4] & 0xff;
+        final int byteCount = response[1] & 0xff;
+        final int index = address - getFirstElement();
+
+        final Buffer buffer = getBuffer();
+
+        if (this.domain.getTable().isBitTable()) {
+            if (byteCount * 8 < count || response.length < 2 + byteCount) {
+                throw new IOException("Short response, expected " + count + " bits");
+            }
+            for (int i = 0; i < count && index + i < buffer.getLength(); i++) {
+                buffer.put(index + i, (byte) (response[2 + i / 8] >> i % 8 & 0x01));
+            }
+        } else {
+            if (byteCount < count * 2 || response.length < 2 + byteCount) {
+                throw new IOException("Short response, expected " + count + " registers");
+            }
+            final int offset = index * 2;
+            final int length = Math.min(count * 2, buffer.getLength() - offset);
+            System.arraycopy(response, 2, ((ByteArrayBuffer) buffer).getBackingArray(), offset, length);
+        }
+    }
+
+    @Override
+    public Buffer getBuffer() {
+        if (this.data == null) {
+            this.data = new ByteArrayBuffer(new byte[getEnd() - getStart()]);
+        }
+        return this.data;
+    }
+
+}
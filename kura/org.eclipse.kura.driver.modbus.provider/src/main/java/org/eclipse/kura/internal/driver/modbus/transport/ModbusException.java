@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+
+package org.eclipse.kura.internal.driver.modbus.transport;
+
+import java.io.IOException;
+
+/**
+ * Reports a Modbus exception response returned by a slave. The link itself is still usable when this exception is
+ * reported, only the request that produced it failed.
+ */
+public class ModbusException extends IOException {
+
+    private static final long serialVersionUID = 2389412787349541612L;
+
+    private final int functionCode;
+    private final int exceptionCode;
+
+    public ModbusException(int functionCode, int exceptionCode) {
+        super("Modbus exception response, function code: " + functionCode + " exception code: " + exceptionCode);
+        this.functionCode = functionCode;
+        this.exceptionCode = exceptionCode;
+    }
+
+    public int getFunctionCode() {
+        return this.functionCode;
+    }
+
+    public int getExceptionCode() {
+        return this.exceptionCode;
+    }
+}
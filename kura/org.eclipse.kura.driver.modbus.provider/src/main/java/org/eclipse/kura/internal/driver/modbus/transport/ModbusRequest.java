@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+
+package org.eclipse.kura.internal.driver.modbus.transport;
+
+import java.io.IOException;
+
+import org.eclipse.kura.protocol.modbus.ModbusFunctionCodes;
+
+/**
+ * Represents a single Modbus transaction. A request is created with its PDU (function code and data) and is completed
+ * by a {@link ModbusTransport} either with the response PDU or with the {@link IOException} that caused it to fail.
+ */
+public final class ModbusRequest {
+
+    private final int unitId;
+    private final byte[] pdu;
+
+    private byte[] response;
+    private IOException failure;
+
+    public ModbusRequest(int unitId, byte[] pdu) {
+        this.unitId = unitId;
+        this.pdu = pdu;
+    }
+
+    /**
+     * Creates a read request (function codes 1 to 4).
+     *
+     * @param unitId
+     *            the unit identifier
+     * @param functionCode
+     *            the read function code
+     * @param address
+     *            the PDU address of the first coil or register
+     * @param count
+     *            the number of coils or registers
+     * @return the request
+     */
+    public static ModbusRequest read(int unitId, int functionCode, int address, int count) {
+        final byte[] pdu = new byte[5];
+        pdu[0] = (byte) functionCode;
+        putShort(pdu, 1, address);
+        putShort(pdu, 3, count);
+        return new ModbusRequest(unitId, pdu);
+    }
+
+    /**
+     * Creates a Preset Multiple Registers (16) request.
+     *
+     * @param unitId
+     *            the unit identifier
+     * @param address
+     *            the PDU address of the first register
+     * @param data
+     *            the register values, big endian, two bytes per register
+     * @param offset
+     *            the offset of the first byte in {@code data}
+     * @param length
+     *            the number of bytes to be written, must be even
+     * @return the request
+     */
+    public static ModbusRequest writeRegisters(int unitId, int address, byte[] data, int offset, int length) {
+        final byte[] pdu = new byte[6 + length];
+        pdu[0] = (byte) ModbusFunctionCodes.PRESET_MULTIPLE_REGS;
+        putShort(pdu, 1, address);
+        putShort(pdu, 3, length / 2);
+        pdu[5] = (byte) length;
+        System.arraycopy(data, offset, pdu, 6, length);
+        return new ModbusRequest(unitId, pdu);
+    }
+
+    /**
+     * Creates a Force Multiple Coils (15) request.
+     *
+     * @param unitId
+     *            the unit identifier
+     * @param address
+     *            the PDU address of the first coil
+     * @param coils
+     *            the coil values, one byte per coil, any non zero value is considered as ON
+     * @param offset
+     *            the offset of the first coil in {@code coils}
+     * @param count
+     *            the number of coils to be written
+     * @return the request
+     */
+    public static ModbusRequest writeCoils(int unitId, int address, byte[] coils, int offset, int count) {
+        final int byteCount = (count + 7) / 8;
+        final byte[] pdu = new byte[6 + byteCount];
+        pdu[0] = (byte) ModbusFunctionCodes.FORCE_MULTIPLE_COILS;
+        putShort(pdu, 1, address);
+        putShort(pdu, 3, count);
+        pdu[5] = (byte) byteCount;
+        for (int i = 0; i < count; i++) {
+            if (coils[offset + i] != 0) {
+                pdu[6 + i / 8] |= 1 << i % 8;
+            }
+        }
+        return new ModbusRequest(unitId, pdu);
+    }
+
+    private static void putShort(byte[] dest, int offset, int value) {
+        dest[offset] = (byte) (value >> 8);
+        dest[offset + 1] = (byte) value;
+    }
+
+    public int getUnitId() {
+        return this.unitId;
+    }
+
+    public int getFunctionCode() {
+        return this.pdu[0] & 0xff;
+    }
+
+    public byte[] getPdu() {
+        return this.pdu;
+    }
+
+    /**
+     * Completes this request with the provided response PDU. If the response is a Modbus exception response or if
+     * its function code does not match the one of the request, the request is failed instead.
+     *
+     * @param responsePdu
+     *            the response PDU
+     */
+    public void complete(byte[] responsePdu) {
+        final int responseFunctionCode = responsePdu.length > 0 ? responsePdu[0] & 0xff : -1;
+
+        if ((responseFunctionCode & 0x7f) != getFunctionCode()) {
+            fail(new IOException("Unexpected function code in response: " + responseFunctionCode));
+        } else if ((responseFunctionCode & 0x80) != 0) {
+            fail(new ModbusException(getFunctionCode(), responsePdu.length > 1 ? responsePdu[1] & 0xff : -1));
+        } else {
+            this.response = responsePdu;
+            this.failure = null;
+        }
+    }
+
+    public void fail(IOException exception) {
+        this.failure = exception;
+        this.response = null;
+    }
+
+    public boolean isDone() {
+        return this.response != null || this.failure != null;
+    }
+
+    /**
+     * Clears the outcome of this request so that it can be executed again.
+     */
+    public void reset() {
+        this.response = null;
+        this.failure = null;
+    }
+
+    /**
+     * Returns the response PDU.
+     *
+     * @return the response PDU
+     * @throws IOException
+     *             if the request failed or has not been executed yet
+     */
+    public byte[] getResponse() throws IOException {
+        if (this.failure != null) {
+            throw this.failure;
+        }
+        if (this.response == null) {
+            throw new IOException("Request not executed");
+        }
+        return this.response;
+    }
+
+    @Override
+    public String toString() {
+        return "unit: " + this.unitId + " function code: " + getFunctionCode() + " length: " + this.pdu.length;
+    }
+}
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+
+package org.eclipse.kura.internal.driver.modbus.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.eclipse.kura.comm.CommConnection;
+import org.eclipse.kura.comm.CommURI;
+import org.eclipse.kura.protocol.modbus.Crc16;
+import org.eclipse.kura.protocol.modbus.ModbusFunctionCodes;
+import org.osgi.service.io.ConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Modbus RTU transport over a serial line. A serial line can only carry a single transaction at a time, requests are
+ * therefore executed sequentially.
+ */
+public class ModbusRtuTransport implements ModbusTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModbusRtuTransport.class);
+
+    private static final int BROADCAST_UNIT_ID = 0;
+
+    private final ConnectionFactory connectionFactory;
+    private final CommURI commUri;
+
+    private CommConnection connection;
+    private InputStream in;
+    private OutputStream out;
+
+    public ModbusRtuTransport(ConnectionFactory connectionFactory, CommURI commUri) {
+        this.connectionFactory = connectionFactory;
+        this.commUri = commUri;
+    }
+
+    @Override
+    public void connect() throws IOException {
+        if (isConnected()) {
+            return;
+        }
+        final CommConnection newConnection = (CommConnection) this.connectionFactory
+                .createConnection(this.commUri.toString(), 1, false);
+        try {
+            this.in = newConnection.openInputStream();
+            this.out = newConnection.openOutputStream();
+            this.connection = newConnection;
+        } catch (IOException e) {
+            newConnection.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void disconnect() {
+        if (this.connection == null) {
+            return;
+        }
+        try {
+            this.connection.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close serial connection", e);
+        }
+        this.connection = null;
+        this.in = null;
+        this.out = null;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return this.connection != null;
+    }
+
+    @Override
+    public void execute(List<ModbusRequest> requests) throws IOException {
+        connect();
+
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                transact(requests.get(i));
+            } catch (IOException e) {
+                for (int j = i; j < requests.size(); j++) {
+                    requests.get(j).fail(e);
+                }
+                disconnect();
+                throw e;
+            }
+        }
+    }
+
+    private void transact(ModbusRequest request) throws IOException {
+        final byte[] pdu = request.getPdu();
+        final byte[] frame = new byte[pdu.length + 3];
+        frame[0] = (byte) request.getUnitId();
+        System.arraycopy(pdu, 0, frame, 1, pdu.length);
+        final int crc = Crc16.getCrc16(frame, frame.length - 2, 0xffff);
+        frame[frame.length - 2] = (byte) crc;
+        frame[frame.length - 1] = (byte) (crc >> 8);
+
+        discardPendingInput();
+
+        logger.debug("Sending {}", request);
+
+        this.out.write(frame);
+        this.out.flush();
+
+        if (request.getUnitId() == BROADCAST_UNIT_ID) {
+            // slaves do not reply to broadcast requests
+            request.complete(pdu);
+            return;
+        }
+
+        request.complete(receive(request));
+    }
+
+    private void discardPendingInput() throws IOException {
+        int available;
+        while ((available = this.in.available()) > 0) {
+            final long skipped = this.in.skip(available);
+            logger.debug("Discarded {} stale bytes", skipped);
+        }
+    }
+
+    private byte[] receive(ModbusRequest request) throws IOException {
+        final byte[] response = new byte[256];
+
+        readFully(response, 0, 3);
+
+        if ((response[0] & 0xff) != request.getUnitId()) {
+            throw new IOException("Unexpected unit id in response: " + (response[0] & 0xff));
+        }
+
+        final int functionCode = response[1] & 0xff;
+        final int length;
+
+        if ((functionCode & 0x80) != 0) {
+            length = 5;
+        } else if (functionCode == ModbusFunctionCodes.READ_COIL_STATUS
+                || functionCode == ModbusFunctionCodes.READ_INPUT_STATUS
+                || functionCode == ModbusFunctionCodes.READ_HOLDING_REGS
+                || functionCode == ModbusFunctionCodes.READ_INPUT_REGS) {
+            length = 5 + (response[2] & 0xff);
+        } else {
+            length = 8;
+        }
+
+        readFully(response, 3, length - 3);
+
+        if (Crc16.getCrc16(response, length, 0xffff) != 0) {
+            throw new IOException("Bad CRC in response");
+        }
+
+        final byte[] result = new byte[length - 3];
+        System.arraycopy(response, 1, result, 0, result.length);
+        return result;
+    }
+
+    private void readFully(byte[] dest, int offset, int length) throws IOException {
+        int count = 0;
+        while (count < length) {
+            final int read = this.in.read(dest, offset + count, length - count);
+            if (read <= 0) {
+                throw new IOException("Receive timeout, got " + (offset + count) + " bytes");
+            }
+            count += read;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+
+package org.eclipse.kura.internal.driver.modbus.transport;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Modbus/TCP transport. Up to {@code maxInFlightRequests} requests are written to the socket before waiting for a
+ * response; responses are matched to requests using the MBAP transaction identifier, so slaves are allowed to answer
+ * out of order. With {@code maxInFlightRequests == 1} this transport behaves as a classic request/response master.
+ */
+public class ModbusTcpTransport implements ModbusTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModbusTcpTransport.class);
+
+    private static final int MBAP_HEADER_LENGTH = 7;
+    private static final int MAX_PDU_LENGTH = 253;
+
+    private final String host;
+    private final int port;
+    private final int timeout;
+    private final int maxInFlightRequests;
+
+    private Socket socket;
+    private DataInputStream in;
+    private OutputStream out;
+    private int nextTransactionId;
+
+    public ModbusTcpTransport(String host, int port, int timeout, int maxInFlightRequests) {
+        this.host = host;
+        this.port = port;
+        this.timeout = timeout;
+        this.maxInFlightRequests = Math.max(1, maxInFlightRequests);
+    }
+
+    @Override
+    public void connect() throws IOException {
+        if (isConnected()) {
+            return;
+        }
+        final Socket newSocket = new Socket();
+        try {
+            newSocket.connect(new InetSocketAddress(this.host, this.port), this.timeout);
+            newSocket.setSoTimeout(this.timeout);
+            newSocket.setTcpNoDelay(true);
+            this.in = new DataInputStream(newSocket.getInputStream());
+            this.out = new BufferedOutputStream(newSocket.getOutputStream());
+            this.socket = newSocket;
+        } catch (IOException e) {
+            newSocket.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void disconnect() {
+        if (this.socket == null) {
+            return;
+        }
+        try {
+            this.socket.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close socket", e);
+        }
+        this.socket = null;
+        this.in = null;
+        this.out = null;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return this.socket != null && this.socket.isConnected() && !this.socket.isClosed();
+    }
+
+    @Override
+    public void execute(List<ModbusRequest> requests) throws IOException {
+        connect();
+
+        final Map<Integer, ModbusRequest> pending = new HashMap<>();
+        final Iterator<ModbusRequest> iterator = requests.iterator();
+
+        try {
+            while (iterator.hasNext() || !pending.isEmpty()) {
+                while (iterator.hasNext() && pending.size() < this.maxInFlightRequests) {
+                    final ModbusRequest request = iterator.next();
+                    final int transactionId = getNextTransactionId();
+                    send(transactionId, request);
+                    pending.put(transactionId, request);
+                }
+                this.out.flush();
+                receive(pending);
+            }
+        } catch (IOException e) {
+            for (ModbusRequest request : pending.values()) {
+                request.fail(e);
+            }
+            while (iterator.hasNext()) {
+                iterator.next().fail(e);
+            }
+            disconnect();
+            throw e;
+        }
+    }
+
+    private int getNextTransactionId() {
+        final int result = this.nextTransactionId;
+        this.nextTransactionId = this.nextTransactionId + 1 & 0xffff;
+        return result;
+    }
+
+    private void send(int transactionId, ModbusRequest request) throws IOException {
+        final byte[] pdu = request.getPdu();
+        final int length = pdu.length + 1;
+
+        final byte[] header = new byte[MBAP_HEADER_LENGTH];
+        header[0] = (byte) (transactionId >> 8);
+        header[1] = (byte) transactionId;
+        // protocol identifier, always 0
+        header[4] = (byte) (length >> 8);
+        header[5] = (byte) length;
+        header[6] = (byte) request.getUnitId();
+
+        logger.debug("Sending transaction {}: {}", transactionId, request);
+
+        this.out.write(header);
+        this.out.write(pdu);
+    }
+
+    private void receive(Map<Integer, ModbusRequest> pending) throws IOException {
+        final byte[] header = new byte[MBAP_HEADER_LENGTH];
+        this.in.readFully(header);
+
+        final int transactionId = (header[0] & 0xff) << 8 | header[1] & 0xff;
+        final int protocolId = (header[2] & 0xff) << 8 | header[3] & 0xff;
+        final int length = (header[4] & 0xff) << 8 | header[5] & 0xff;
+
+        if (protocolId != 0 || length < 2 || length > MAX_PDU_LENGTH + 1) {
+            throw new IOException("Malformed MBAP header, protocol id: " + protocolId + " length: " + length);
+        }
+
+        final byte[] pdu = new byte[length - 1];
+        this.in.readFully(pdu);
+
+        final ModbusRequest request = pending.remove(transactionId);
+
+        if (request == null) {
+            logger.debug("Discarding response for unknown transaction {}", transactionId);
+            return;
+        }
+
+        logger.debug("Received response for transaction {}", transactionId);
+
+        if ((header[6] & 0xff) != request.getUnitId()) {
+            request.fail(new IOException("Unexpected unit id in response: " + (header[6] & 0xff)));
+            return;
+        }
+
+        request.complete(pdu);
+    }
+}
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+
+package org.eclipse.kura.internal.driver.modbus.transport;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Transfers {@link ModbusRequest} instances to a Modbus slave and collects the responses.
+ */
+public interface ModbusTransport {
+
+    public void connect() throws IOException;
+
+    public void disconnect();
+
+    public boolean isConnected();
+
+    /**
+     * Executes the provided requests. The outcome of each request is recorded in the request itself, see
+     * {@link ModbusRequest#getResponse()}. Implementations are free to keep more than one request in flight, but must
+     * complete every request before returning.
+     *
+     * @param requests
+     *            the requests to be executed
+     * @throws IOException
+     *             if the link with the slave failed, in this case the requests that were not completed are failed with
+     *             the same exception and the transport is disconnected
+     */
+    public void execute(List<ModbusRequest> requests) throws IOException;
+}
@@ -14,13 +14,16 @@ import static org.eclipse.kura.internal.driver.opcua.Utils.fillRecord;
 import static org.eclipse.kura.internal.driver.opcua.Utils.fillStatus;
 import static org.eclipse.kura.internal.driver.opcua.Utils.runSafe;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.eclipse.kura.channel.ChannelRecord;
@@ -39,9 +42,7 @@ import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
 import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
 import org.eclipse.milo.opcua.stack.core.types.structured.EndpointDescription;
-import org.eclipse.milo.opcua.stack.core.types.structured.ReadResponse;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
-import org.eclipse.milo.opcua.stack.core.types.structured.WriteResponse;
 import org.eclipse.milo.opcua.stack.core.types.structured.WriteValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,6 +59,7 @@ public class ConnectionManager {
 
     private final SubscriptionManager subscriptionManager;
     private final SubtreeSubscriptionManager subtreeSubscriptionManager;
+    private final Optional<ReadCache> readCache;
     private final OpcUaOptions options;
 
     public ConnectionManager(final OpcUaClient client, final OpcUaOptions options,
@@ -72,6 +74,8 @@ public class ConnectionManager {
         this.subscriptionManager = new SubscriptionManager(options, client, this.queue, registrations);
         this.subtreeSubscriptionManager = new SubtreeSubscriptionManager(options, client, this.queue,
                 subtreeListenerRegistrations);
+        this.readCache = options.isReadCacheEnabled() ? Optional.of(new ReadCache(options, client, this.queue))
+                : Optional.empty();
     }
 
     public static CompletableFuture<ConnectionManager> connect(final OpcUaOptions options,
@@ -103,69 +107,98 @@ public class ConnectionManager {
     }
 
     public void read(final List<Request<ReadParams>> requests) throws Exception {
-
-        final int maxItemsPerRequest = this.options.getMaxItemCountPerRequest();
-        final ArrayList<ReadValueId> tempList = new ArrayList<>(maxItemsPerRequest);
-
-        for (int i = 0; i < requests.size(); i += maxItemsPerRequest) {
-            this.read(requests.subList(i, Math.min(i + maxItemsPerRequest, requests.size())), tempList);
+        if (this.readCache.isPresent()) {
+            runPipelined(this.readCache.get().fill(requests), this::readChunk);
+        } else {
+            runPipelined(requests, this::readChunk);
         }
     }
 
     public void write(final List<Request<WriteParams>> requests) throws Exception {
+        runPipelined(requests, this::writeChunk);
+    }
+
+    /**
+     * Splits the provided requests into chunks of at most {@link OpcUaOptions#getMaxItemCountPerRequest()} items
+     * and submits them to the server, keeping at most {@link OpcUaOptions#getMaxOutstandingRequests()} chunks in
+     * flight. Chunks are awaited in submission order, each chunk fills the records of its own requests.
+     * If a chunk fails or times out, the chunks that are still in flight are cancelled before the exception is
+     * rethrown, so that they do not fill the records after this method has returned.
+     */
+    private <T> void runPipelined(final List<Request<T>> requests,
+            final Function<List<Request<T>>, CompletableFuture<?>> chunkRunner) throws Exception {
 
         final int maxItemsPerRequest = this.options.getMaxItemCountPerRequest();
-        final ArrayList<WriteValue> tempList = new ArrayList<>(maxItemsPerRequest);
+        final int maxOutstandingRequests = this.options.getMaxOutstandingRequests();
+        final ArrayDeque<CompletableFuture<?>> outstanding = new ArrayDeque<>(maxOutstandingRequests);
 
-        for (int i = 0; i < requests.size(); i += maxItemsPerRequest) {
-            this.write(requests.subList(i, Math.min(i + maxItemsPerRequest, requests.size())), tempList);
+        try {
+            for (int i = 0; i < requests.size(); i += maxItemsPerRequest) {
+                if (outstanding.size() >= maxOutstandingRequests) {
+                    await(outstanding.peek());
+                    outstanding.poll();
+                }
+                outstanding.add(
+                        chunkRunner.apply(requests.subList(i, Math.min(i + maxItemsPerRequest, requests.size()))));
+            }
+
+            while (!outstanding.isEmpty()) {
+                await(outstanding.peek());
+                outstanding.poll();
+            }
+        } catch (final Exception e) {
+            outstanding.forEach(future -> future.cancel(false));
+            throw e;
         }
     }
 
-    private void read(final List<Request<ReadParams>> requests, final List<ReadValueId> tempList) throws Exception {
-        tempList.clear();
+    private void await(final CompletableFuture<?> future) throws Exception {
+        runSafe(future, this.options.getRequestTimeout(), ex -> this.failureHandler.accept(this, ex));
+    }
+
+    private CompletableFuture<Void> readChunk(final List<Request<ReadParams>> requests) {
+        final List<ReadValueId> readValueIds = new ArrayList<>(requests.size());
 
         for (final Request<ReadParams> request : requests) {
-            tempList.add(request.getParameters().getReadValueId());
+            readValueIds.add(request.getParameters().getReadValueId());
         }
 
-        final ReadResponse response = runSafe(this.client.read(0.0, TimestampsToReturn.Both, tempList),
-                this.options.getRequestTimeout(), ex -> this.failureHandler.accept(this, ex));
-
-        final DataValue[] results = response.getResults();
-        for (int i = 0; i < requests.size(); i++) {
-            fillRecord(results[i], requests.get(i).getRecord());
-        }
+        return this.client.read(0.0, TimestampsToReturn.Both, readValueIds).thenAccept(response -> {
+            final DataValue[] results = response.getResults();
+            for (int i = 0; i < requests.size(); i++) {
+                fillRecord(results[i], requests.get(i).getRecord());
+            }
 
-        logger.debug("Read Successful");
+            logger.debug("Read Successful");
+        });
     }
 
-    private void write(final List<Request<WriteParams>> requests, final List<WriteValue> tempList) throws Exception {
-        tempList.clear();
+    private CompletableFuture<Void> writeChunk(final List<Request<WriteParams>> requests) {
+        final List<WriteValue> writeValues = new ArrayList<>(requests.size());
 
         for (final Request<WriteParams> request : requests) {
-            tempList.add(request.getParameters().getWriteValue());
+            writeValues.add(request.getParameters().getWriteValue());
         }
 
-        final WriteResponse response = runSafe(this.client.write(tempList), this.options.getRequestTimeout(),
-                ex -> this.failureHandler.accept(this, ex));
-
-        final StatusCode[] results = response.getResults();
-        for (int i = 0; i < requests.size(); i++) {
-            final ChannelRecord record = requests.get(i).getRecord();
-            fillStatus(results[i], record);
-            record.setTimestamp(System.currentTimeMillis());
-        }
+        return this.client.write(writeValues).thenAccept(response -> {
+            final StatusCode[] results = response.getResults();
+            for (int i = 0; i < requests.size(); i++) {
+                final ChannelRecord record = requests.get(i).getRecord();
+                fillStatus(results[i], record);
+                record.setTimestamp(System.currentTimeMillis());
+            }
 
-        logger.debug("Write Successful");
+            logger.debug("Write Successful");
+        });
     }
 
     public synchronized void close() {
 
         logger.info("Disconnecting from OPC-UA...");
 
-        this.queue.close(
-                () -> CompletableFuture.allOf(this.subscriptionManager.close(), this.subtreeSubscriptionManager.close()) //
+        this.queue.close(() -> CompletableFuture
+                .allOf(this.subscriptionManager.close(), this.subtreeSubscriptionManager.close(),
+                        this.readCache.map(ReadCache::close).orElse(CompletableFuture.completedFuture(null))) //
                         .whenComplete((ok, ex) -> this.client.disconnect() //
                                 .handle((o, e) -> {
                                     if (e == null) {
@@ -139,6 +139,12 @@ final class OpcUaOptions {
 
     private static final String MAX_REQUEST_ITEMS = "max.request.items";
 
+    private static final String MAX_OUTSTANDING_REQUESTS = "max.outstanding.requests";
+
+    private static final String READ_CACHE_ENABLED = "read.cache.enabled";
+
+    private static final String READ_CACHE_MAX_AGE = "read.cache.max.age";
+
     private static final String FORCE_ENDPOINT_URL = "force.endpoint.url";
 
     private static final String SUBTREE_SUBSCRIPTION_CHANNEL_NAME_FORMAT = "subtree.subscription.name.format";
@@ -430,6 +436,31 @@ final class OpcUaOptions {
         return 10;
     }
 
+    int getMaxOutstandingRequests() {
+        final Object maxOutstandingRequests = this.properties.get(MAX_OUTSTANDING_REQUESTS);
+        if (maxOutstandingRequests instanceof Integer) {
+            return Math.max(1, (Integer) maxOutstandingRequests);
+        }
+        return 4;
+    }
+
+    boolean isReadCacheEnabled() {
+        final Object raw = this.properties.get(READ_CACHE_ENABLED);
+        if (raw instanceof Boolean) {
+            // with a max age of 0 every read would miss the cache
+            return (Boolean) raw && getReadCacheMaxAge() > 0;
+        }
+        return false;
+    }
+
+    long getReadCacheMaxAge() {
+        final Object maxAge = this.properties.get(READ_CACHE_MAX_AGE);
+        if (maxAge instanceof Long) {
+            return Math.max(0, (Long) maxAge);
+        }
+        return 3000L;
+    }
+
     boolean shouldForceEndpointUrl() {
         final Object raw = this.properties.get(FORCE_ENDPOINT_URL);
         if (raw instanceof Boolean) {
@@ -0,0 +1,368 @@
+/**
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ */
+
+package org.eclipse.kura.internal.driver.opcua;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.eclipse.kura.internal.driver.opcua.Utils.fillRecord;
+import static org.eclipse.kura.internal.driver.opcua.Utils.splitInMultipleRequests;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.eclipse.kura.internal.driver.opcua.request.ReadParams;
+import org.eclipse.kura.internal.driver.opcua.request.Request;
+import org.eclipse.milo.opcua.sdk.client.OpcUaClient;
+import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaMonitoredItem;
+import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaSubscription;
+import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaSubscriptionManager.SubscriptionListener;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UByte;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.MonitoringMode;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.MonitoredItemCreateRequest;
+import org.eclipse.milo.opcua.stack.core.types.structured.MonitoringParameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves channel reads from the values pushed by the server for a dedicated subscription.
+ * <br/>
+ * A monitored item is created for each node that is read through {@link #fill(List)}, the cached value of a node is
+ * considered fresh if the subscription has been confirmed alive by a publish response (a data change notification or a
+ * keep-alive) during the last {@link OpcUaOptions#getReadCacheMaxAge()} milliseconds. Since the server sends a
+ * notification as soon as a value changes, the last received value is also the current one as long as the
+ * subscription is alive. The keep-alive count of the subscription is chosen so that a publish response is received at
+ * least twice per staleness interval even if no values change, so that a late keep-alive does not cause the cache to
+ * be considered stale.
+ * <br/>
+ * Monitored items for nodes that are not read for {@link #IDLE_TIMEOUT_NANOS} are removed.
+ */
+public class ReadCache implements SubscriptionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadCache.class);
+
+    private static final long IDLE_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final Consumer<DataValue> NOP_VALUE_CONSUMER = v -> {
+    };
+
+    private final OpcUaClient client;
+    private final OpcUaOptions options;
+    private final AsyncTaskQueue queue;
+    private final long maxAgeNanos;
+
+    private final Map<ReadParams, Entry> entries = new ConcurrentHashMap<>();
+
+    private volatile Optional<UaSubscription> subscription = Optional.empty();
+    private volatile long lastPublishTime;
+    private volatile long lastSyncTime;
+    private boolean syncPending;
+    private boolean closed;
+
+    public ReadCache(final OpcUaOptions options, final OpcUaClient client, final AsyncTaskQueue queue) {
+        this.options = options;
+        this.client = client;
+        this.queue = queue;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(options.getReadCacheMaxAge());
+        this.lastSyncTime = System.nanoTime();
+        invalidate();
+    }
+
+    /**
+     * Fills the records of the provided requests whose value is available and fresh in the cache and starts monitoring
+     * the nodes that are not in the cache yet.
+     *
+     * @param requests
+     *            the read requests
+     * @return the requests that could not be served from the cache, they must be performed using the Read service
+     */
+    public List<Request<ReadParams>> fill(final List<Request<ReadParams>> requests) {
+        final long now = System.nanoTime();
+        final boolean alive = now - this.lastPublishTime <= this.maxAgeNanos;
+
+        final List<Request<ReadParams>> misses = new ArrayList<>();
+        boolean hasNewEntries = false;
+
+        for (final Request<ReadParams> request : requests) {
+            final ReadParams params = request.getParameters();
+
+            Entry entry = this.entries.get(params);
+
+            if (entry == null) {
+                final Entry created = new Entry(params);
+                entry = this.entries.putIfAbsent(params, created);
+                if (entry == null) {
+                    entry = created;
+                    hasNewEntries = true;
+                }
+            }
+
+            entry.lastAccess = now;
+
+            final DataValue value = entry.value;
+
+            if (alive && value != null && !entry.rejected) {
+                fillRecord(value, request.getRecord());
+            } else {
+                misses.add(request);
+            }
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Read cache: {} hits, {} misses", requests.size() - misses.size(), misses.size());
+        }
+
+        if (hasNewEntries || now - this.lastSyncTime > IDLE_TIMEOUT_NANOS) {
+            scheduleSync();
+        }
+
+        return misses;
+    }
+
+    private synchronized void scheduleSync() {
+        if (this.syncPending || this.closed) {
+            return;
+        }
+        this.syncPending = true;
+        this.queue.push(() -> sync().handle((ok, e) -> {
+            if (e != null) {
+                logger.warn("Failed to update read cache monitored items", e);
+            }
+            synchronized (this) {
+                this.syncPending = false;
+            }
+            return (Void) null;
+        }));
+    }
+
+    private CompletableFuture<Void> sync() {
+        final Optional<UaSubscription> currentSubscription;
+
+        synchronized (this) {
+            if (this.closed) {
+                return completedFuture(null);
+            }
+            currentSubscription = this.subscription;
+        }
+
+        if (!currentSubscription.isPresent()) {
+            return createSubscription().thenCompose(ok -> sync());
+        }
+
+        final UaSubscription uaSubscription = currentSubscription.get();
+        final long now = System.nanoTime();
+        this.lastSyncTime = now;
+
+        final List<Entry> toBeCreated = new ArrayList<>();
+        final List<UaMonitoredItem> toBeDeleted = new ArrayList<>();
+
+        final Iterator<Entry> iter = this.entries.values().iterator();
+
+        while (iter.hasNext()) {
+            final Entry entry = iter.next();
+
+            if (now - entry.lastAccess > IDLE_TIMEOUT_NANOS) {
+                iter.remove();
+                if (entry.monitoredItem != null) {
+                    toBeDeleted.add(entry.monitoredItem);
+                }
+            } else if (entry.monitoredItem == null && !entry.rejected) {
+                toBeCreated.add(entry);
+            }
+        }
+
+        logger.debug("Read cache: creating {} monitored items, deleting {} monitored items", toBeCreated.size(),
+                toBeDeleted.size());
+
+        final List<CompletableFuture<?>> tasks = new ArrayList<>();
+        final int maxItemsPerRequest = this.options.getMaxItemCountPerRequest();
+
+        splitInMultipleRequests(maxItemsPerRequest, toBeCreated.size(),
+                (start, end) -> tasks.add(createMonitoredItems(uaSubscription, toBeCreated.subList(start, end))));
+        splitInMultipleRequests(maxItemsPerRequest, toBeDeleted.size(),
+                (start, end) -> tasks.add(uaSubscription.deleteMonitoredItems(toBeDeleted.subList(start, end))));
+
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[tasks.size()]));
+    }
+
+    private CompletableFuture<Void> createSubscription() {
+        final long publishInterval = this.options.getSubsciptionPublishInterval();
+        final long maxAge = this.options.getReadCacheMaxAge();
+        final long maxKeepAliveCount = Math.max(1, maxAge / 2 / Math.max(1, publishInterval));
+
+        logger.debug("Read cache: subscribing, publish interval: {} ms, max keep alive count: {}", publishInterval,
+                maxKeepAliveCount);
+
+        return this.client.getSubscriptionManager()
+                .createSubscription(publishInterval, UInteger.valueOf(maxKeepAliveCount * 3),
+                        UInteger.valueOf(maxKeepAliveCount), UInteger.valueOf(0), true, UByte.valueOf(0))
+                .thenAccept(created -> {
+                    synchronized (this) {
+                        if (this.closed) {
+                            deleteSubscription(created);
+                            return;
+                        }
+                        this.subscription = Optional.of(created);
+                    }
+                    this.client.getSubscriptionManager().addSubscriptionListener(this);
+                });
+    }
+
+    private CompletableFuture<Void> createMonitoredItems(final UaSubscription uaSubscription,
+            final List<Entry> toBeCreated) {
+
+        final double samplingInterval = this.options.getSubsciptionPublishInterval();
+
+        final List<MonitoredItemCreateRequest> requests = toBeCreated.stream()
+                .map(entry -> new MonitoredItemCreateRequest(entry.params.getReadValueId(), MonitoringMode.Reporting,
+                        new MonitoringParameters(this.client.nextRequestHandle(), samplingInterval, null,
+                                UInteger.valueOf(1), true)))
+                .collect(Collectors.toList());
+
+        return uaSubscription.createMonitoredItems(TimestampsToReturn.Both, requests).thenAccept(monitoredItems -> {
+            for (int i = 0; i < toBeCreated.size(); i++) {
+                toBeCreated.get(i).setMonitoredItem(monitoredItems.get(i));
+            }
+        });
+    }
+
+    private void onPublish(final UaSubscription uaSubscription) {
+        final Optional<UaSubscription> current = this.subscription;
+        if (current.isPresent() && current.get().getSubscriptionId().equals(uaSubscription.getSubscriptionId())) {
+            this.lastPublishTime = System.nanoTime();
+        }
+    }
+
+    private void invalidate() {
+        this.lastPublishTime = System.nanoTime() - this.maxAgeNanos - 1;
+    }
+
+    @Override
+    public void onKeepAlive(final UaSubscription uaSubscription, final DateTime publishTime) {
+        onPublish(uaSubscription);
+    }
+
+    @Override
+    public void onStatusChanged(final UaSubscription uaSubscription, final StatusCode status) {
+        logger.debug("Read cache: subscription status changed: {}", status);
+        if (!status.isGood()) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void onPublishFailure(final UaException exception) {
+        logger.debug("Read cache: publish failure", exception);
+        invalidate();
+    }
+
+    @Override
+    public void onNotificationDataLost(final UaSubscription uaSubscription) {
+        logger.debug("Read cache: notification data lost");
+        invalidate();
+    }
+
+    @Override
+    public void onSubscriptionTransferFailed(final UaSubscription uaSubscription, final StatusCode statusCode) {
+        logger.debug("Read cache: subscription transfer failed");
+        synchronized (this) {
+            invalidate();
+            this.subscription = Optional.empty();
+            for (final Entry entry : this.entries.values()) {
+                entry.close();
+            }
+        }
+        this.client.getSubscriptionManager().removeSubscriptionListener(this);
+        scheduleSync();
+    }
+
+    public synchronized CompletableFuture<Void> close() {
+        this.closed = true;
+        invalidate();
+
+        for (final Entry entry : this.entries.values()) {
+            entry.close();
+        }
+        this.entries.clear();
+
+        if (!this.subscription.isPresent()) {
+            return completedFuture(null);
+        }
+
+        final UaSubscription current = this.subscription.get();
+        this.subscription = Optional.empty();
+        this.client.getSubscriptionManager().removeSubscriptionListener(this);
+
+        return deleteSubscription(current);
+    }
+
+    private CompletableFuture<Void> deleteSubscription(final UaSubscription uaSubscription) {
+        return this.client.getSubscriptionManager().deleteSubscription(uaSubscription.getSubscriptionId())
+                .handle((ok, e) -> {
+                    if (e != null) {
+                        logger.debug("Failed to delete read cache subscription", e);
+                    }
+                    return (Void) null;
+                });
+    }
+
+    private final class Entry {
+
+        private final ReadParams params;
+
+        private volatile DataValue value;
+        private volatile long lastAccess;
+        private volatile boolean rejected;
+        private UaMonitoredItem monitoredItem;
+
+        Entry(final ReadParams params) {
+            this.params = params;
+        }
+
+        void setMonitoredItem(final UaMonitoredItem item) {
+            final StatusCode code = item.getStatusCode();
+
+            if (!code.isGood()) {
+                logger.warn("Got bad status code for read cache monitored item - code: {}, item: {}", code,
+                        item.getReadValueId().getNodeId());
+                this.rejected = true;
+                return;
+            }
+
+            this.monitoredItem = item;
+            item.setValueConsumer(this::onValue);
+        }
+
+        void onValue(final DataValue newValue) {
+            this.value = newValue;
+            ReadCache.this.lastPublishTime = System.nanoTime();
+        }
+
+        void close() {
+            if (this.monitoredItem != null) {
+                this.monitoredItem.setValueConsumer(NOP_VALUE_CONSUMER);
+                this.monitoredItem = null;
+            }
+            this.value = null;
+        }
+    }
+}
@@ -13,22 +13,31 @@
 package org.eclipse.kura.internal.driver.s7plc;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
 import org.eclipse.kura.KuraException;
+import org.eclipse.kura.channel.ChannelFlag;
 import org.eclipse.kura.channel.ChannelRecord;
+import org.eclipse.kura.channel.ChannelStatus;
 import org.eclipse.kura.configuration.ConfigurableComponent;
 import org.eclipse.kura.crypto.CryptoService;
 import org.eclipse.kura.driver.ChannelDescriptor;
+import org.eclipse.kura.driver.PreparedRead;
 import org.eclipse.kura.driver.block.BlockFactory;
 import org.eclipse.kura.driver.block.task.AbstractBlockDriver;
 import org.eclipse.kura.driver.block.task.BlockTask;
 import org.eclipse.kura.driver.block.task.Mode;
 import org.eclipse.kura.driver.block.task.ToplevelBlockTask;
+import org.eclipse.kura.internal.driver.s7plc.task.S7PlcMultiVarRequest;
 import org.eclipse.kura.internal.driver.s7plc.task.S7PlcTaskBuilder;
 import org.eclipse.kura.internal.driver.s7plc.task.S7PlcToplevelBlockTask;
 import org.slf4j.Logger;
@@ -47,6 +56,12 @@ import Moka7.S7Client;
  * externally.<br/>
  * <br/>
  *
+ * The DB blocks resulting from the aggregation performed by {@link AbstractBlockDriver} are transferred using S7
+ * ReadMultiVars/WriteMultiVars requests, packing as many blocks as the negotiated PDU size allows in a single request.
+ * If {@code connection.pool.size} is greater than one, additional connections are opened to the PLC and the requests
+ * generated by a single read or write operation are distributed over them.<br/>
+ * <br/>
+ *
  * The required properties are enlisted in {@link S7PlcChannelDescriptor} and
  * the driver connection specific properties are enlisted in
  * {@link S7PlcOptions}
@@ -59,6 +74,8 @@ public class S7PlcDriver extends AbstractBlockDriver<S7PlcDomain> implements Con
     private static final Logger logger = LoggerFactory.getLogger(S7PlcDriver.class);
 
     private S7ClientState state = new S7ClientState(new S7PlcOptions(Collections.emptyMap()));
+    private List<S7ClientState> additionalStates = Collections.emptyList();
+    private ExecutorService executor;
     private final AtomicReference<S7PlcOptions> options = new AtomicReference<>();
 
     private CryptoService cryptoService;
@@ -84,6 +101,10 @@ public class S7PlcDriver extends AbstractBlockDriver<S7PlcDomain> implements Con
         } catch (final ConnectionException e) {
             logger.error("Error while disconnecting...", e);
         }
+        if (this.executor != null) {
+            this.executor.shutdown();
+            this.executor = null;
+        }
         logger.debug("Deactivating S7 PLC Driver.....Done");
     }
 
@@ -120,27 +141,44 @@ public class S7PlcDriver extends AbstractBlockDriver<S7PlcDomain> implements Con
                 logger.info("configuration changed, disconnecting...");
                 disconnect();
                 this.state = createClientState(currentOptions);
+                this.additionalStates = new ArrayList<>();
+                for (int i = 1; i < currentOptions.getConnectionPoolSize(); i++) {
+                    this.additionalStates.add(createClientState(currentOptions));
+                }
                 logger.info("configuration changed, disconnecting...Done");
             }
 
             if (!this.state.client.Connected) {
                 logger.debug("Connecting to S7 PLC...");
-                this.state.client.SetConnectionType(S7.OP);
-                int code = this.state.client.ConnectTo(currentOptions.getIp(), currentOptions.getRack(),
-                        currentOptions.getSlot());
-                if (code != 0) {
-                    throw new ConnectionException("Failed to connect to PLC, ConnectTo() failed with code: " + code);
-                }
-                if (currentOptions.shouldAuthenticate()) {
-                    authenticate(this.state);
-                }
+                connect(this.state);
                 logger.debug("Connecting to S7 PLC... Done");
             }
+
+            for (final S7ClientState additionalState : this.additionalStates) {
+                if (!additionalState.client.Connected) {
+                    try {
+                        connect(additionalState);
+                    } catch (ConnectionException e) {
+                        logger.warn("Failed to open additional connection to S7 PLC", e);
+                    }
+                }
+            }
         } catch (Exception e) {
             throw new ConnectionException("Connection failed, unexpected exception", e);
         }
     }
 
+    private void connect(final S7ClientState state) throws ConnectionException {
+        state.client.SetConnectionType(S7.OP);
+        int code = state.client.ConnectTo(state.options.getIp(), state.options.getRack(), state.options.getSlot());
+        if (code != 0) {
+            throw new ConnectionException("Failed to connect to PLC, ConnectTo() failed with code: " + code);
+        }
+        if (state.options.shouldAuthenticate()) {
+            authenticate(state);
+        }
+    }
+
     @Override
     public synchronized void disconnect() throws ConnectionException {
         if (this.state.client.Connected) {
@@ -148,6 +186,11 @@ public class S7PlcDriver extends AbstractBlockDriver<S7PlcDomain> implements Con
             this.state.client.Disconnect();
             logger.debug("Disconnecting from S7 PLC... Done");
         }
+        for (final S7ClientState additionalState : this.additionalStates) {
+            if (additionalState.client.Connected) {
+                additionalState.client.Disconnect();
+            }
+        }
     }
 
     @Override
@@ -199,20 +242,210 @@ public class S7PlcDriver extends AbstractBlockDriver<S7PlcDomain> implements Con
 
     public synchronized void write(int db, int offset, byte[] data) throws IOException {
         int result = this.state.client.WriteArea(S7.S7AreaDB, db, offset, data.length, data);
-        if (result != 0) {
-            throw new Moka7Exception("DB: " + db + " off: " + offset + " len: " + data.length + " status: " + result,
-                    result);
-        }
+        checkResult(db, offset, data.length, result);
     }
 
     public synchronized void read(int db, int offset, byte[] data) throws IOException {
         int result = this.state.client.ReadArea(S7.S7AreaDB, db, offset, data.length, data);
+        checkResult(db, offset, data.length, result);
+    }
+
+    /**
+     * Throws an exception if the provided Moka7 result code reports a failure.
+     *
+     * @param db
+     *            the DB number involved in the operation
+     * @param offset
+     *            the offset involved in the operation
+     * @param length
+     *            the length of the transferred data
+     * @param result
+     *            the Moka7 result code
+     * @throws IOException
+     *             if {@code result} is not 0
+     */
+    public void checkResult(int db, int offset, int length, int result) throws IOException {
         if (result != 0) {
-            throw new Moka7Exception("DB: " + db + " off: " + offset + " len: " + data.length + " status: " + result,
+            throw new Moka7Exception("DB: " + db + " off: " + offset + " len: " + length + " status: " + result,
                     result);
         }
     }
 
+    @Override
+    public synchronized void read(final List<ChannelRecord> records) throws ConnectionException {
+        connect();
+        try {
+            runTasks(optimize(records, Mode.READ));
+        } catch (Exception e) {
+            logger.warn("Unexpected exception during read", e);
+            setFailure(records, e);
+        }
+    }
+
+    @Override
+    public synchronized void write(final List<ChannelRecord> records) throws ConnectionException {
+        connect();
+        try {
+            runTasks(optimize(records, Mode.WRITE));
+        } catch (Exception e) {
+            logger.warn("Unexpected exception during write", e);
+            setFailure(records, e);
+        }
+    }
+
+    private static void setFailure(final List<ChannelRecord> records, final Exception e) {
+        for (ChannelRecord record : records) {
+            record.setChannelStatus(new ChannelStatus(ChannelFlag.FAILURE, e.getMessage(), e));
+            record.setTimestamp(System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    protected PreparedRead createPreparedRead(List<ChannelRecord> records, List<BlockTask> tasks) {
+        return new S7PlcPreparedRead(records, tasks);
+    }
+
+    /**
+     * Runs the provided tasks. If multi variable requests are enabled, the data of the {@link S7PlcToplevelBlockTask}
+     * instances is transferred in advance using as few exchanges as possible, the tasks in {@link Mode#READ} mode are
+     * transferred and run first, since they can provide the data for the read-update-write operations performed by the
+     * tasks in {@link Mode#WRITE} mode.
+     */
+    private void runTasks(final List<BlockTask> tasks) {
+        if (!this.state.options.isMultiVarEnabled()) {
+            tasks.forEach(this::runTask);
+            return;
+        }
+
+        final int pduLength = this.state.client.PDULength();
+        final List<S7PlcToplevelBlockTask> readTasks = new ArrayList<>();
+        final List<S7PlcToplevelBlockTask> writeTasks = new ArrayList<>();
+        final List<BlockTask> otherTasks = new ArrayList<>();
+
+        for (final BlockTask task : tasks) {
+            if (task instanceof S7PlcToplevelBlockTask && task.getMode() == Mode.READ) {
+                readTasks.add((S7PlcToplevelBlockTask) task);
+            } else if (task instanceof S7PlcToplevelBlockTask && task.getMode() == Mode.WRITE) {
+                writeTasks.add((S7PlcToplevelBlockTask) task);
+            } else {
+                otherTasks.add(task);
+            }
+        }
+
+        transfer(S7PlcMultiVarRequest.pack(readTasks, Mode.READ, pduLength));
+        readTasks.forEach(this::runTask);
+
+        final List<S7PlcToplevelBlockTask> preparedWriteTasks = new ArrayList<>(writeTasks.size());
+
+        for (final S7PlcToplevelBlockTask task : writeTasks) {
+            try {
+                task.prepareWrite();
+                preparedWriteTasks.add(task);
+            } catch (Exception e) {
+                logger.warn("Failed to prepare write", e);
+            }
+        }
+
+        transfer(S7PlcMultiVarRequest.pack(preparedWriteTasks, Mode.WRITE, pduLength));
+        preparedWriteTasks.forEach(this::runTask);
+        otherTasks.forEach(this::runTask);
+    }
+
+    /**
+     * Executes the provided requests, distributing them over the primary connection and the additional connections
+     * that are currently open. Requests that fail on an additional connection due to a connection problem are retried
+     * on the primary connection.
+     */
+    private void transfer(final List<S7PlcMultiVarRequest> requests) {
+        final List<S7ClientState> connections = new ArrayList<>();
+        connections.add(this.state);
+
+        if (requests.size() > 1) {
+            for (final S7ClientState additionalState : this.additionalStates) {
+                if (additionalState.client.Connected) {
+                    connections.add(additionalState);
+                }
+            }
+        }
+
+        final int connectionCount = connections.size();
+        final List<S7PlcMultiVarRequest> failedRequests = Collections.synchronizedList(new ArrayList<>());
+        final List<Future<?>> futures = new ArrayList<>(connectionCount - 1);
+
+        for (int i = 1; i < connectionCount; i++) {
+            final S7ClientState connection = connections.get(i);
+            final List<S7PlcMultiVarRequest> assigned = getAssignedRequests(requests, i, connectionCount);
+
+            futures.add(getExecutor().submit(() -> {
+                for (final S7PlcMultiVarRequest request : assigned) {
+                    final int result = request.execute(connection.client);
+                    if (result > 0 && result <= S7Client.errTCPConnectionReset) {
+                        logger.warn("Additional connection failed with code {}, disconnecting", result);
+                        connection.client.Disconnect();
+                        failedRequests.add(request);
+                    }
+                }
+            }));
+        }
+
+        for (final S7PlcMultiVarRequest request : getAssignedRequests(requests, 0, connectionCount)) {
+            request.execute(this.state.client);
+        }
+
+        for (final Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                logger.warn("Unexpected exception", e);
+            }
+        }
+
+        for (final S7PlcMultiVarRequest request : failedRequests) {
+            request.execute(this.state.client);
+        }
+    }
+
+    private static List<S7PlcMultiVarRequest> getAssignedRequests(final List<S7PlcMultiVarRequest> requests,
+            final int connectionIndex, final int connectionCount) {
+        final List<S7PlcMultiVarRequest> result = new ArrayList<>();
+        for (int i = connectionIndex; i < requests.size(); i += connectionCount) {
+            result.add(requests.get(i));
+        }
+        return result;
+    }
+
+    private ExecutorService getExecutor() {
+        if (this.executor == null) {
+            this.executor = Executors.newCachedThreadPool(runnable -> {
+                final Thread thread = new Thread(runnable, "S7PlcDriver");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return this.executor;
+    }
+
+    private class S7PlcPreparedRead extends BlockPreparedRead {
+
+        private final List<BlockTask> tasks;
+
+        S7PlcPreparedRead(List<ChannelRecord> records, List<BlockTask> tasks) {
+            super(records, tasks);
+            this.tasks = tasks;
+        }
+
+        @Override
+        public List<ChannelRecord> execute() throws ConnectionException, KuraException {
+            synchronized (S7PlcDriver.this) {
+                connect();
+                runTasks(this.tasks);
+                return getChannelRecords();
+            }
+        }
+    }
+
     @SuppressWarnings("serial")
     static final class Moka7Exception extends IOException {
 
@@ -23,6 +23,8 @@ final class S7PlcOptions {
     private static final Property<Integer> RACK_PROP = new Property<>("rack", 0);
     private static final Property<Integer> SLOT_PROP = new Property<>("slot", 2);
     private static final Property<Integer> MINIMUM_GAP_SIZE_PROP = new Property<>("read.minimum.gap.size", 0);
+    private static final Property<Boolean> MULTI_VAR_ENABLED_PROP = new Property<>("multi.var.enabled", true);
+    private static final Property<Integer> CONNECTION_POOL_SIZE_PROP = new Property<>("connection.pool.size", 1);
 
     private final String ip;
     private final boolean authenticate;
@@ -30,6 +32,8 @@ final class S7PlcOptions {
     private final int rack;
     private final int slot;
     private final int minimumGapSize;
+    private final boolean multiVarEnabled;
+    private final int connectionPoolSize;
 
     S7PlcOptions(final Map<String, Object> properties) {
         this.ip = IP_PROP.get(properties);
@@ -38,6 +42,8 @@ final class S7PlcOptions {
         this.rack = RACK_PROP.get(properties);
         this.slot = SLOT_PROP.get(properties);
         this.minimumGapSize = MINIMUM_GAP_SIZE_PROP.get(properties);
+        this.multiVarEnabled = MULTI_VAR_ENABLED_PROP.get(properties);
+        this.connectionPoolSize = Math.max(1, CONNECTION_POOL_SIZE_PROP.get(properties));
     }
 
     String getIp() {
@@ -64,6 +70,14 @@ final class S7PlcOptions {
         return this.minimumGapSize;
     }
 
+    boolean isMultiVarEnabled() {
+        return this.multiVarEnabled;
+    }
+
+    int getConnectionPoolSize() {
+        return this.connectionPoolSize;
+    }
+
     private static class Property<T> {
 
         private final String key;
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+
+package org.eclipse.kura.internal.driver.s7plc.task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.kura.driver.block.task.Mode;
+
+import Moka7.S7;
+import Moka7.S7Client;
+import Moka7.S7DataItem;
+
+/**
+ * Transfers the data of multiple {@link S7PlcToplevelBlockTask} instances using a single S7 ReadMultiVars or
+ * WriteMultiVars exchange.
+ *
+ * <p>
+ * The {@link #pack(List, Mode, int)} method groups the provided tasks into requests whose request and response
+ * telegrams fit in the negotiated PDU size and that do not exceed {@link S7Client#MaxVars} items. Tasks that do not fit
+ * in a single PDU are not packed, these tasks will be transferred by {@link S7PlcToplevelBlockTask#processBuffer()}
+ * using ReadArea/WriteArea calls, that split the transfer over multiple PDUs.
+ * </p>
+ */
+public final class S7PlcMultiVarRequest {
+
+    // S7 header (10 bytes) + function code and item count
+    private static final int REQUEST_HEADER_SIZE = 12;
+    // S7 ack data header (12 bytes) + function code and item count
+    private static final int RESPONSE_HEADER_SIZE = 14;
+    private static final int ITEM_SPEC_SIZE = 12;
+    private static final int DATA_ITEM_HEADER_SIZE = 4;
+
+    private final Mode mode;
+    private final List<S7PlcToplevelBlockTask> tasks = new ArrayList<>();
+
+    private int requestSize = REQUEST_HEADER_SIZE;
+    private int responseSize = RESPONSE_HEADER_SIZE;
+
+    private S7PlcMultiVarRequest(final Mode mode) {
+        this.mode = mode;
+    }
+
+    private static int getDataItemSize(final S7PlcToplevelBlockTask task) {
+        final int length = task.getEnd() - task.getStart();
+        return DATA_ITEM_HEADER_SIZE + length + length % 2;
+    }
+
+    private int getRequestSize(final S7PlcToplevelBlockTask task) {
+        if (this.mode == Mode.READ) {
+            return ITEM_SPEC_SIZE;
+        }
+        return ITEM_SPEC_SIZE + getDataItemSize(task);
+    }
+
+    private int getResponseSize(final S7PlcToplevelBlockTask task) {
+        if (this.mode == Mode.READ) {
+            return getDataItemSize(task);
+        }
+        return 1;
+    }
+
+    private boolean tryAdd(final S7PlcToplevelBlockTask task, final int pduLength) {
+        final int newRequestSize = this.requestSize + getRequestSize(task);
+        final int newResponseSize = this.responseSize + getResponseSize(task);
+
+        if (this.tasks.size() >= S7Client.MaxVars || newRequestSize > pduLength || newResponseSize > pduLength) {
+            return false;
+        }
+
+        this.tasks.add(task);
+        this.requestSize = newRequestSize;
+        this.responseSize = newResponseSize;
+        return true;
+    }
+
+    /**
+     * Groups the provided tasks into multi variable requests.
+     *
+     * @param tasks
+     *            the tasks to be packed, they must all be in the provided mode
+     * @param mode
+     *            either {@link Mode#READ} or {@link Mode#WRITE}
+     * @param pduLength
+     *            the PDU length negotiated with the PLC
+     * @return the resulting requests, tasks that do not fit in a single PDU are not included
+     */
+    public static List<S7PlcMultiVarRequest> pack(final List<S7PlcToplevelBlockTask> tasks, final Mode mode,
+            final int pduLength) {
+        final List<S7PlcMultiVarRequest> result = new ArrayList<>();
+
+        S7PlcMultiVarRequest current = new S7PlcMultiVarRequest(mode);
+
+        for (final S7PlcToplevelBlockTask task : tasks) {
+            if (current.tryAdd(task, pduLength)) {
+                continue;
+            }
+
+            final S7PlcMultiVarRequest next = new S7PlcMultiVarRequest(mode);
+
+            if (!next.tryAdd(task, pduLength)) {
+                // too big for a single PDU
+                continue;
+            }
+
+            if (!current.tasks.isEmpty()) {
+                result.add(current);
+            }
+            current = next;
+        }
+
+        if (!current.tasks.isEmpty()) {
+            result.add(current);
+        }
+
+        return result;
+    }
+
+    public List<S7PlcToplevelBlockTask> getTasks() {
+        return this.tasks;
+    }
+
+    /**
+     * Performs the exchange using the provided client and stores the per item results in the involved tasks, see
+     * {@link S7PlcToplevelBlockTask#setTransferResult(int)}.
+     *
+     * @param client
+     *            a connected client
+     * @return the result code of the exchange, if it is not 0, all involved tasks will be marked as failed with this
+     *         code
+     */
+    public int execute(final S7Client client) {
+        final int count = this.tasks.size();
+        final S7DataItem[] items = new S7DataItem[count];
+
+        for (int i = 0; i < count; i++) {
+            final S7PlcToplevelBlockTask task = this.tasks.get(i);
+            items[i] = new S7DataItem(S7.S7AreaDB, task.getAreaNo(), task.getStart(), task.getEnd() - task.getStart(),
+                    task.getData());
+        }
+
+        final int result = this.mode == Mode.READ ? client.ReadMultiVars(items, count)
+                : client.WriteMultiVars(items, count);
+
+        for (int i = 0; i < count; i++) {
+            this.tasks.get(i).setTransferResult(result != 0 ? result : items[i].Result);
+        }
+
+        return result;
+    }
+}
@@ -22,6 +22,11 @@ import org.eclipse.kura.internal.driver.s7plc.S7PlcDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Transfers the data of a DB block. The transfer can either be performed by this class in {@link #processBuffer()}
+ * using a ReadArea/WriteArea call, or in advance by the driver together with other tasks using a
+ * {@link S7PlcMultiVarRequest}, in this case {@link #processBuffer()} only reports the result of the transfer.
+ */
 public class S7PlcToplevelBlockTask extends ToplevelBlockTask {
 
     private static final Logger logger = LoggerFactory.getLogger(S7PlcDriver.class);
@@ -29,6 +34,8 @@ public class S7PlcToplevelBlockTask extends ToplevelBlockTask {
     private final int areaNo;
     private ByteArrayBuffer data;
     private final S7PlcDriver driver;
+    private Integer transferResult;
+    private boolean isWritePrepared;
 
     public S7PlcToplevelBlockTask(S7PlcDriver driver, Mode mode, int dbNumber, int start, int end) {
         super(start, end, mode);
@@ -36,9 +43,68 @@ public class S7PlcToplevelBlockTask extends ToplevelBlockTask {
         this.driver = driver;
     }
 
+    public int getAreaNo() {
+        return this.areaNo;
+    }
+
+    public byte[] getData() {
+        return ((ByteArrayBuffer) getBuffer()).getBackingArray();
+    }
+
+    /**
+     * Notifies this task that its data has already been transferred by a {@link S7PlcMultiVarRequest}. The next
+     * {@link #processBuffer()} call will not perform any I/O, and will fail if the provided result is not 0.
+     *
+     * @param result
+     *            the result code of the transfer
+     */
+    public void setTransferResult(int result) {
+        this.transferResult = result;
+    }
+
+    /**
+     * Runs the children of a task in {@link Mode#WRITE} mode, filling the buffer with the data to be written, without
+     * writing it to the PLC. This allows the driver to transfer the data of multiple tasks in a single request before
+     * calling {@link #run()}, the children will not be run again.
+     *
+     * @throws IOException
+     *             if a child fails
+     */
+    public void prepareWrite() throws IOException {
+        try {
+            runChildren();
+            this.isWritePrepared = true;
+        } catch (Exception e) {
+            onFailure(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void run() throws IOException {
+        if (!this.isWritePrepared) {
+            super.run();
+            return;
+        }
+
+        this.isWritePrepared = false;
+
+        try {
+            processBuffer();
+            onSuccess();
+        } catch (Exception e) {
+            onFailure(e);
+            throw e;
+        }
+    }
+
     @Override
     public void processBuffer() throws IOException {
-        if (getMode() == Mode.READ) {
+        if (this.transferResult != null) {
+            final int result = this.transferResult;
+            this.transferResult = null;
+            this.driver.checkResult(this.areaNo, getStart(), getBuffer().getLength(), result);
+        } else if (getMode() == Mode.READ) {
             logger.debug("Reading from PLC, DB{} offset: {} length: {}", this.areaNo, getStart(),
                     getBuffer().getLength());
             this.driver.read(this.areaNo, getStart(), ((ByteArrayBuffer) getBuffer()).getBackingArray());
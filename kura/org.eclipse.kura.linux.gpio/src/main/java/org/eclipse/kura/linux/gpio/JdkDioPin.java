@@ -44,7 +44,7 @@ public class JdkDioPin implements KuraGPIOPin {
     private KuraGPIOMode mode = null;
     private KuraGPIOTrigger trigger = null;
 
-    PinStatusListener localListener;
+    volatile PinStatusListener localListener;
 
     public JdkDioPin(int pinIndex) {
         super();
@@ -191,8 +191,12 @@ public class JdkDioPin implements KuraGPIOPin {
         @Override
         public void valueChanged(PinEvent pinEvent) {
 
-            if (JdkDioPin.this.localListener != null) {
-                JdkDioPin.this.localListener.pinStatusChange(pinEvent.getValue());
+            final PinStatusListener listener = JdkDioPin.this.localListener;
+
+            if (listener != null) {
+                // the event timestamp is taken by the native layer when the edge is detected
+                listener.pinStatusChange(pinEvent.getValue(),
+                        pinEvent.getTimeStamp() * 1000 + pinEvent.getTimeStampMicros());
             }
         }
     };
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2019 Eurotech and/or its affiliates
+ * Copyright (c) 2011, 2020 Eurotech and/or its affiliates
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -528,14 +528,14 @@ public class NetworkServiceImpl implements NetworkService, EventHandler {
             netInterface.setHardwareAddress(ifconfig.getMacAddressBytes());
             netInterface.setMTU(ifconfig.getMtu());
             netInterface.setSupportsMulticast(ifconfig.isMulticast());
-            netInterface.setLinkUp(this.linuxNetworkUtil.isLinkUp(type, interfaceName));
+            netInterface.setLinkUp(ifconfig.isLinkUp());
             netInterface.setLoopback(false);
             netInterface.setPointToPoint(false);
             netInterface.setUp(isUp);
             netInterface.setVirtual(isVirtual());
             netInterface.setUsbDevice(getUsbDevice(interfaceName));
             netInterface.setState(getState(interfaceName, isUp));
-            netInterface.setNetInterfaceAddresses(getNetInterfaceAddresses(interfaceName, type, isUp));
+            netInterface.setNetInterfaceAddresses(getNetInterfaceAddresses(interfaceName, type, isUp, ifconfig));
 
             return netInterface;
         } else if (type == NetInterfaceType.LOOPBACK) {
@@ -554,7 +554,7 @@ public class NetworkServiceImpl implements NetworkService, EventHandler {
             netInterface.setVirtual(false);
             netInterface.setUsbDevice(null);
             netInterface.setState(getState(interfaceName, isUp));
-            netInterface.setNetInterfaceAddresses(getNetInterfaceAddresses(interfaceName, type, isUp));
+            netInterface.setNetInterfaceAddresses(getNetInterfaceAddresses(interfaceName, type, isUp, ifconfig));
 
             return netInterface;
         } else if (type == NetInterfaceType.WIFI) {
@@ -576,7 +576,7 @@ public class NetworkServiceImpl implements NetworkService, EventHandler {
             wifiInterface.setVirtual(isVirtual());
             wifiInterface.setUsbDevice(getUsbDevice(interfaceName));
             wifiInterface.setState(getState(interfaceName, isUp));
-            wifiInterface.setNetInterfaceAddresses(getWifiInterfaceAddresses(interfaceName, isUp));
+            wifiInterface.setNetInterfaceAddresses(getWifiInterfaceAddresses(interfaceName, isUp, ifconfig));
 
             try {
                 wifiInterface.setCapabilities(this.linuxNetworkUtil.getWifiCapabilities(interfaceName));
@@ -816,8 +816,9 @@ public class NetworkServiceImpl implements NetworkService, EventHandler {
         modemInterface.setPointToPoint(true);
         modemInterface.setState(getState(interfaceName, isUp));
         modemInterface.setHardwareAddress(new byte[] { 0, 0, 0, 0, 0, 0 });
+        LinuxIfconfig ifconfig = null;
         if (!interfaceName.matches(UNCONFIGURED_MODEM_REGEX)) {
-            LinuxIfconfig ifconfig = this.linuxNetworkUtil.getInterfaceConfiguration(interfaceName);
+            ifconfig = this.linuxNetworkUtil.getInterfaceConfiguration(interfaceName);
             if (ifconfig != null) {
                 modemInterface.setMTU(ifconfig.getMtu());
                 modemInterface.setSupportsMulticast(ifconfig.isMulticast());
@@ -826,20 +827,19 @@ public class NetworkServiceImpl implements NetworkService, EventHandler {
 
         modemInterface.setUp(isUp);
         modemInterface.setVirtual(isVirtual());
-        modemInterface.setNetInterfaceAddresses(getModemInterfaceAddresses(interfaceName, isUp));
+        modemInterface.setNetInterfaceAddresses(getModemInterfaceAddresses(interfaceName, isUp, ifconfig));
 
         return modemInterface;
 
     }
 
     private List<NetInterfaceAddress> getNetInterfaceAddresses(String interfaceName, NetInterfaceType type,
-            boolean isUp) throws KuraException {
+            boolean isUp, LinuxIfconfig ifconfig) throws KuraException {
         List<NetInterfaceAddress> netInterfaceAddresses = new ArrayList<>();
         if (isUp) {
             ConnectionInfo conInfo = new ConnectionInfoImpl(interfaceName);
             NetInterfaceAddressImpl netInterfaceAddress = new NetInterfaceAddressImpl();
             try {
-                LinuxIfconfig ifconfig = this.linuxNetworkUtil.getInterfaceConfiguration(interfaceName);
                 if (ifconfig != null) {
                     String currentNetmask = ifconfig.getInetMask();
                     if (currentNetmask != null) {
@@ -864,15 +864,14 @@ public class NetworkServiceImpl implements NetworkService, EventHandler {
         return netInterfaceAddresses;
     }
 
-    private List<WifiInterfaceAddress> getWifiInterfaceAddresses(String interfaceName, boolean isUp)
-            throws KuraException {
+    private List<WifiInterfaceAddress> getWifiInterfaceAddresses(String interfaceName, boolean isUp,
+            LinuxIfconfig ifconfig) throws KuraException {
         List<WifiInterfaceAddress> wifiInterfaceAddresses = new ArrayList<>();
         if (isUp) {
             ConnectionInfo conInfo = new ConnectionInfoImpl(interfaceName);
             WifiInterfaceAddressImpl wifiInterfaceAddress = new WifiInterfaceAddressImpl();
             wifiInterfaceAddresses.add(wifiInterfaceAddress);
             try {
-                LinuxIfconfig ifconfig = this.linuxNetworkUtil.getInterfaceConfiguration(interfaceName);
                 if (ifconfig != null) {
                     String currentNetmask = ifconfig.getInetMask();
                     if (currentNetmask != null) {
@@ -920,15 +919,14 @@ public class NetworkServiceImpl implements NetworkService, EventHandler {
         return wifiInterfaceAddresses;
     }
 
-    private List<ModemInterfaceAddress> getModemInterfaceAddresses(String interfaceName, boolean isUp)
-            throws KuraException {
+    private List<ModemInterfaceAddress> getModemInterfaceAddresses(String interfaceName, boolean isUp,
+            LinuxIfconfig ifconfig) throws KuraException {
         List<ModemInterfaceAddress> modemInterfaceAddresses = new ArrayList<>();
         if (isUp) {
             ConnectionInfo conInfo = new ConnectionInfoImpl(interfaceName);
             ModemInterfaceAddressImpl modemInterfaceAddress = new ModemInterfaceAddressImpl();
             modemInterfaceAddresses.add(modemInterfaceAddress);
             try {
-                LinuxIfconfig ifconfig = this.linuxNetworkUtil.getInterfaceConfiguration(interfaceName);
                 if (ifconfig != null) {
                     String currentNetmask = ifconfig.getInetMask();
                     if (currentNetmask != null) {
@@ -21,8 +21,11 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.io.Charsets;
@@ -41,7 +44,10 @@ public class IptablesConfig {
     private static final Logger logger = LoggerFactory.getLogger(IptablesConfig.class);
     public static final String FIREWALL_CONFIG_FILE_NAME = "/etc/sysconfig/iptables";
     public static final String FIREWALL_TMP_CONFIG_FILE_NAME = "/tmp/iptables";
-    private static final String FILTER = "*filter";
+    static final String FILTER_TABLE = "filter";
+    static final String NAT_TABLE = "nat";
+    private static final String FILTER = "*" + FILTER_TABLE;
+    private static final String NAT = "*" + NAT_TABLE;
     private static final String COMMIT = "COMMIT";
     private static final String INPUT_POLICY = ":INPUT DROP [0:0]";
     private static final String OUTPUT_POLICY = ":OUTPUT ACCEPT [0:0]";
@@ -95,7 +101,7 @@ public class IptablesConfig {
     public void clearAllChains() throws KuraException {
         try (FileOutputStream fos = new FileOutputStream(FIREWALL_TMP_CONFIG_FILE_NAME);
                 PrintWriter writer = new PrintWriter(fos)) {
-            writer.println("*nat");
+            writer.println(NAT);
             writer.println(COMMIT);
             writer.println(FILTER);
             writer.println(COMMIT);
@@ -112,7 +118,7 @@ public class IptablesConfig {
     public void applyBlockPolicy() throws KuraException {
         try (FileOutputStream fos = new FileOutputStream(FIREWALL_TMP_CONFIG_FILE_NAME);
                 PrintWriter writer = new PrintWriter(fos)) {
-            writer.println("*nat");
+            writer.println(NAT);
             writer.println(COMMIT);
             writer.println(FILTER);
             writer.println(ALLOW_ALL_TRAFFIC_TO_LOOPBACK);
@@ -176,10 +182,29 @@ public class IptablesConfig {
      * Temporary configuration file is deleted upon completion.
      */
     public void restore(String filename) throws KuraException {
+        restore(new String[] { "iptables-restore", filename }, filename);
+    }
+
+    /*
+     * Applies (using iptables-restore --noflush) the given changes on top of the current iptables configuration.
+     * Only the rules listed in the changes are added or removed, the other rules and the chain counters are preserved.
+     */
+    public void applyChanges(String changes) throws KuraException {
+        try (FileOutputStream fos = new FileOutputStream(FIREWALL_TMP_CONFIG_FILE_NAME);
+                PrintWriter writer = new PrintWriter(fos)) {
+            writer.print(changes);
+        } catch (IOException e) {
+            throw new KuraException(KuraErrorCode.INTERNAL_ERROR, e, "applyChanges() :: failed to write changes");
+        }
+        restore(new String[] { "iptables-restore", "--noflush", FIREWALL_TMP_CONFIG_FILE_NAME },
+                FIREWALL_TMP_CONFIG_FILE_NAME);
+    }
+
+    private void restore(String[] commandLine, String filename) throws KuraException {
         int exitValue = -1;
         try {
             if (this.executorService != null) {
-                CommandStatus status = execute(new String[] { "iptables-restore", filename });
+                CommandStatus status = execute(commandLine);
                 exitValue = status.getExitStatus().getExitCode();
             } else {
                 logger.error(COMMAND_EXECUTOR_SERVICE_MESSAGE);
@@ -204,94 +229,102 @@ public class IptablesConfig {
      * into specified temporary file
      */
     public void save(String filename) throws KuraException {
-        try (FileOutputStream fos = new FileOutputStream(FIREWALL_TMP_CONFIG_FILE_NAME);
-                PrintWriter writer = new PrintWriter(fos)) {
+        Map<String, List<String>> rules = getRules();
+        try (FileOutputStream fos = new FileOutputStream(filename); PrintWriter writer = new PrintWriter(fos)) {
             writer.println(FILTER);
             writer.println(INPUT_POLICY);
             writer.println(FORWARD_POLICY);
             writer.println(OUTPUT_POLICY);
-            writer.println(ALLOW_ALL_TRAFFIC_TO_LOOPBACK);
-            writer.println(ALLOW_ONLY_INCOMING_TO_OUTGOING);
-            if (this.allowIcmp) {
-                for (String sAllowIcmp : ALLOW_ICMP) {
-                    writer.println(sAllowIcmp);
-                }
-            } else {
-                for (String sDoNotAllowIcmp : DO_NOT_ALLOW_ICMP) {
-                    writer.println(sDoNotAllowIcmp);
-                }
+            for (String rule : rules.get(FILTER_TABLE)) {
+                writer.println(rule);
             }
-            if (this.localRules != null && !this.localRules.isEmpty()) {
-                for (LocalRule lr : this.localRules) {
-                    writer.println(lr);
-                }
+            writer.println(COMMIT);
+            writer.println(NAT);
+            for (String rule : rules.get(NAT_TABLE)) {
+                writer.println(rule);
             }
-            if (this.portForwardRules != null && !this.portForwardRules.isEmpty()) {
-                for (PortForwardRule portForwardRule : this.portForwardRules) {
-                    List<String> filterForwardChainRules = portForwardRule.getFilterForwardChainRule().toStrings();
-                    if (filterForwardChainRules != null && !filterForwardChainRules.isEmpty()) {
-                        for (String filterForwardChainRule : filterForwardChainRules) {
-                            writer.println(filterForwardChainRule);
-                        }
-                    }
-                }
+            writer.println(COMMIT);
+        } catch (Exception e) {
+            logger.error("save() :: failed to clear all chains ", e);
+            throw new KuraException(KuraErrorCode.INTERNAL_ERROR, e);
+        }
+    }
+
+    /*
+     * Returns the rules of the localRules, portForwardRules, natRules, and autoNatRules, in the order they are
+     * saved, as a map from the table name to the list of "-A <chain> ..." rules of the table
+     */
+    Map<String, List<String>> getRules() {
+        List<String> filterRules = new ArrayList<>();
+        filterRules.add(ALLOW_ALL_TRAFFIC_TO_LOOPBACK);
+        filterRules.add(ALLOW_ONLY_INCOMING_TO_OUTGOING);
+        if (this.allowIcmp) {
+            Collections.addAll(filterRules, ALLOW_ICMP);
+        } else {
+            Collections.addAll(filterRules, DO_NOT_ALLOW_ICMP);
+        }
+        if (this.localRules != null) {
+            for (LocalRule lr : this.localRules) {
+                addRule(filterRules, lr.toString());
             }
-            if (this.autoNatRules != null && !this.autoNatRules.isEmpty()) {
-                for (NATRule autoNatRule : this.autoNatRules) {
-                    List<String> filterForwardChainRules = autoNatRule.getFilterForwardChainRule().toStrings();
-                    if (filterForwardChainRules != null && !filterForwardChainRules.isEmpty()) {
-                        for (String filterForwardChainRule : filterForwardChainRules) {
-                            writer.println(filterForwardChainRule);
-                        }
-                    }
-                }
+        }
+        if (this.portForwardRules != null) {
+            for (PortForwardRule portForwardRule : this.portForwardRules) {
+                addRules(filterRules, portForwardRule.getFilterForwardChainRule().toStrings());
             }
-            if (this.natRules != null && !this.natRules.isEmpty()) {
-                for (NATRule natRule : this.natRules) {
-                    List<String> filterForwardChainRules = natRule.getFilterForwardChainRule().toStrings();
-                    if (filterForwardChainRules != null && !filterForwardChainRules.isEmpty()) {
-                        for (String filterForwardChainRule : filterForwardChainRules) {
-                            writer.println(filterForwardChainRule);
-                        }
-                    }
-                }
+        }
+        if (this.autoNatRules != null) {
+            for (NATRule autoNatRule : this.autoNatRules) {
+                addRules(filterRules, autoNatRule.getFilterForwardChainRule().toStrings());
             }
-            writer.println(COMMIT);
-            writer.println("*nat");
-            if (this.portForwardRules != null && !this.portForwardRules.isEmpty()) {
-                for (PortForwardRule portForwardRule : this.portForwardRules) {
-                    writer.println(portForwardRule.getNatPreroutingChainRule());
-                    writer.println(portForwardRule.getNatPostroutingChainRule());
-                }
+        }
+        if (this.natRules != null) {
+            for (NATRule natRule : this.natRules) {
+                addRules(filterRules, natRule.getFilterForwardChainRule().toStrings());
             }
-            if (this.autoNatRules != null && !this.autoNatRules.isEmpty()) {
-                List<NatPostroutingChainRule> appliedNatPostroutingChainRules = new ArrayList<>();
-                for (NATRule autoNatRule : this.autoNatRules) {
-                    boolean found = false;
-                    NatPostroutingChainRule natPostroutingChainRule = autoNatRule.getNatPostroutingChainRule();
-
-                    for (NatPostroutingChainRule appliedNatPostroutingChainRule : appliedNatPostroutingChainRules) {
+        }
 
-                        if (appliedNatPostroutingChainRule.equals(natPostroutingChainRule)) {
-                            found = true;
-                            break;
-                        }
-                    }
-                    if (!found) {
-                        writer.println(autoNatRule.getNatPostroutingChainRule());
-                        appliedNatPostroutingChainRules.add(natPostroutingChainRule);
-                    }
-                }
+        List<String> natTableRules = new ArrayList<>();
+        if (this.portForwardRules != null) {
+            for (PortForwardRule portForwardRule : this.portForwardRules) {
+                addRule(natTableRules, portForwardRule.getNatPreroutingChainRule().toString());
+                addRule(natTableRules, portForwardRule.getNatPostroutingChainRule().toString());
             }
-            if (this.natRules != null && !this.natRules.isEmpty()) {
-                for (NATRule natRule : this.natRules) {
-                    writer.println(natRule.getNatPostroutingChainRule());
+        }
+        if (this.autoNatRules != null) {
+            List<NatPostroutingChainRule> appliedNatPostroutingChainRules = new ArrayList<>();
+            for (NATRule autoNatRule : this.autoNatRules) {
+                NatPostroutingChainRule natPostroutingChainRule = autoNatRule.getNatPostroutingChainRule();
+                if (!appliedNatPostroutingChainRules.contains(natPostroutingChainRule)) {
+                    addRule(natTableRules, natPostroutingChainRule.toString());
+                    appliedNatPostroutingChainRules.add(natPostroutingChainRule);
                 }
             }
-            writer.println(COMMIT);
-        } catch (Exception e) {
-            logger.error("save() :: failed to clear all chains ", e);
-            throw new KuraException(KuraErrorCode.INTERNAL_ERROR, e);
+        }
+        if (this.natRules != null) {
+            for (NATRule natRule : this.natRules) {
+                addRule(natTableRules, natRule.getNatPostroutingChainRule().toString());
+            }
+        }
+
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put(FILTER_TABLE, filterRules);
+        rules.put(NAT_TABLE, natTableRules);
+        return rules;
+    }
+
+    private static void addRules(List<String> rules, List<String> newRules) {
+        if (newRules != null) {
+            for (String newRule : newRules) {
+                addRule(rules, newRule);
+            }
+        }
+    }
+
+    // rules that do not apply, such as a postrouting rule without masquerading, are rendered as empty strings
+    private static void addRule(List<String> rules, String newRule) {
+        if (newRule != null && !newRule.isEmpty()) {
+            rules.add(newRule);
         }
     }
 
@@ -318,7 +351,7 @@ public class IptablesConfig {
                 if (line.startsWith("#") || line.startsWith(":")) {
                     continue;
                 }
-                if ("*nat".equals(line)) {
+                if (NAT.equals(line)) {
                     readingNatTable = true;
                 } else if (FILTER.equals(line)) {
                     readingFilterTable = true;
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.linux.net.iptables;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes the changes needed to turn the iptables rules applied by a previous restore into the desired ones.
+ * <p>
+ * The changes are expressed as an {@code iptables-restore --noflush} input, in which every table is committed
+ * atomically. Rules are removed and inserted by position, so that the relative order of the rules in each chain is
+ * the same as the one of a full restore and duplicated rules are handled correctly. This requires the chains to
+ * contain only the rules applied by the firewall.
+ */
+final class IptablesDelta {
+
+    private static final String APPEND = "-A ";
+    private static final String COMMIT = "COMMIT";
+
+    // above this size the changed part of a chain is replaced instead of being diffed
+    private static final long MAX_DIFF_SIZE = 1L << 20;
+
+    private IptablesDelta() {
+    }
+
+    /**
+     * @param appliedRules
+     *            the rules currently applied, as a map from the table name to the "-A &lt;chain&gt; ..." rules
+     * @param desiredRules
+     *            the desired rules, in the same format
+     * @return the {@code iptables-restore --noflush} input, an empty string if the rules are the same or null if
+     *         the rules cannot be compared
+     */
+    static String compute(Map<String, List<String>> appliedRules, Map<String, List<String>> desiredRules) {
+        Set<String> tables = new LinkedHashSet<>(appliedRules.keySet());
+        tables.addAll(desiredRules.keySet());
+
+        StringBuilder sb = new StringBuilder();
+        for (String table : tables) {
+            Map<String, List<String>> appliedChains = toChains(appliedRules.get(table));
+            Map<String, List<String>> desiredChains = toChains(desiredRules.get(table));
+            if (appliedChains == null || desiredChains == null) {
+                return null;
+            }
+
+            Set<String> chains = new LinkedHashSet<>(appliedChains.keySet());
+            chains.addAll(desiredChains.keySet());
+
+            List<String> changes = new ArrayList<>();
+            for (String chain : chains) {
+                diff(chain, getOrEmpty(appliedChains, chain), getOrEmpty(desiredChains, chain), changes);
+            }
+            if (!changes.isEmpty()) {
+                sb.append('*').append(table).append('\n');
+                for (String change : changes) {
+                    sb.append(change).append('\n');
+                }
+                sb.append(COMMIT).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static List<String> getOrEmpty(Map<String, List<String>> chains, String chain) {
+        List<String> rules = chains.get(chain);
+        return rules != null ? rules : Collections.<String> emptyList();
+    }
+
+    /*
+     * Groups the rules by chain, stripping the "-A <chain> " prefix
+     */
+    private static Map<String, List<String>> toChains(List<String> rules) {
+        Map<String, List<String>> chains = new LinkedHashMap<>();
+        if (rules == null) {
+            return chains;
+        }
+        for (String rule : rules) {
+            if (!rule.startsWith(APPEND)) {
+                return null;
+            }
+            int chainEnd = rule.indexOf(' ', APPEND.length());
+            if (chainEnd < 0) {
+                return null;
+            }
+            String chain = rule.substring(APPEND.length(), chainEnd);
+            chains.computeIfAbsent(chain, k -> new ArrayList<>()).add(rule.substring(chainEnd + 1));
+        }
+        return chains;
+    }
+
+    /*
+     * Appends to changes the deletions and insertions that turn the applied rules of the chain into the desired ones,
+     * keeping the longest common subsequence of rules in place.
+     */
+    private static void diff(String chain, List<String> applied, List<String> desired, List<String> changes) {
+        int start = 0;
+        while (start < applied.size() && start < desired.size() && applied.get(start).equals(desired.get(start))) {
+            start++;
+        }
+        int appliedEnd = applied.size();
+        int desiredEnd = desired.size();
+        while (appliedEnd > start && desiredEnd > start
+                && applied.get(appliedEnd - 1).equals(desired.get(desiredEnd - 1))) {
+            appliedEnd--;
+            desiredEnd--;
+        }
+
+        List<String> removed = applied.subList(start, appliedEnd);
+        List<String> added = desired.subList(start, desiredEnd);
+        boolean[] keepRemoved = new boolean[removed.size()];
+        boolean[] keepAdded = new boolean[added.size()];
+        if ((long) (removed.size() + 1) * (added.size() + 1) <= MAX_DIFF_SIZE) {
+            markCommonRules(removed, added, keepRemoved, keepAdded);
+        }
+
+        // iptables rule numbers start from 1
+        int position = start + 1;
+        int i = 0;
+        int j = 0;
+        while (i < removed.size() || j < added.size()) {
+            if (i < removed.size() && !keepRemoved[i]) {
+                changes.add("-D " + chain + " " + position);
+                i++;
+            } else if (j < added.size() && !keepAdded[j]) {
+                changes.add("-I " + chain + " " + position + " " + added.get(j));
+                position++;
+                j++;
+            } else {
+                position++;
+                i++;
+                j++;
+            }
+        }
+    }
+
+    private static void markCommonRules(List<String> applied, List<String> desired, boolean[] keepApplied,
+            boolean[] keepDesired) {
+        int n = applied.size();
+        int m = desired.size();
+        int[][] lengths = new int[n + 1][m + 1];
+        for (int i = n - 1; i >= 0; i--) {
+            for (int j = m - 1; j >= 0; j--) {
+                if (applied.get(i).equals(desired.get(j))) {
+                    lengths[i][j] = lengths[i + 1][j + 1] + 1;
+                } else {
+                    lengths[i][j] = Math.max(lengths[i + 1][j], lengths[i][j + 1]);
+                }
+            }
+        }
+
+        int i = 0;
+        int j = 0;
+        while (i < n && j < m) {
+            if (applied.get(i).equals(desired.get(j))) {
+                keepApplied[i++] = true;
+                keepDesired[j++] = true;
+            } else if (lengths[i + 1][j] >= lengths[i][j + 1]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+    }
+}
@@ -15,6 +15,7 @@ import java.io.File;
 import java.io.FileWriter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.kura.KuraErrorCode;
@@ -40,6 +41,20 @@ public class LinuxFirewall {
 
     private static Object lock = new Object();
 
+    /**
+     * A set of changes to the firewall rules applied with a single update.
+     *
+     * @see LinuxFirewall#batchUpdate(RuleChanges)
+     */
+    @FunctionalInterface
+    public interface RuleChanges {
+
+        void apply() throws KuraException;
+    }
+
+    // the rules applied by the last restore, shared by all the instances; null if unknown
+    private static Map<String, List<String>> appliedRules;
+
     private static final String IP_FORWARD_FILE_NAME = "/proc/sys/net/ipv4/ip_forward";
     private static final String FIREWALL_CONFIG_FILE_NAME = "/etc/sysconfig/iptables";
     private static final String CUSTOM_FIREWALL_SCRIPT_NAME = "/etc/init.d/firewall_cust";
@@ -52,6 +67,8 @@ public class LinuxFirewall {
     private boolean allowForwarding;
     private final IptablesConfig iptables;
     private final CommandExecutorService executorService;
+    private int batchDepth;
+    private boolean updatePending;
 
     public LinuxFirewall(CommandExecutorService executorService) {
         this.executorService = executorService;
@@ -59,6 +76,7 @@ public class LinuxFirewall {
         try {
             File cfgFile = new File(FIREWALL_CONFIG_FILE_NAME);
             if (!cfgFile.exists()) {
+                invalidateAppliedRules();
                 this.iptables.applyBlockPolicy();
                 this.iptables.save();
             } else {
@@ -76,13 +94,17 @@ public class LinuxFirewall {
 
     public void initialize() throws KuraException {
         logger.debug("initialize() :: initializing firewall ...");
-        this.iptables.restore();
-        this.localRules = this.iptables.getLocalRules();
-        this.portForwardRules = this.iptables.getPortForwardRules();
-        this.autoNatRules = this.iptables.getAutoNatRules();
-        this.natRules = this.iptables.getNatRules();
-        this.allowIcmp = true;
-        this.allowForwarding = false;
+        synchronized (lock) {
+            // the saved configuration replaces the rules applied by the last update
+            invalidateAppliedRules();
+            this.iptables.restore();
+            this.localRules = this.iptables.getLocalRules();
+            this.portForwardRules = this.iptables.getPortForwardRules();
+            this.autoNatRules = this.iptables.getAutoNatRules();
+            this.natRules = this.iptables.getNatRules();
+            this.allowIcmp = true;
+            this.allowForwarding = false;
+        }
         logger.debug("initialize() :: Parsing current firewall configuraion");
     }
 
@@ -435,19 +457,28 @@ public class LinuxFirewall {
     }
 
     public void blockAllPorts() throws KuraException {
-        deleteAllLocalRules();
-        deleteAllPortForwardRules();
-        deleteAllAutoNatRules();
-        update();
+        batchUpdate(() -> {
+            deleteAllLocalRules();
+            deleteAllPortForwardRules();
+            deleteAllAutoNatRules();
+            update();
+        });
     }
 
     public void unblockAllPorts() throws KuraException {
-        deleteAllLocalRules();
-        deleteAllPortForwardRules();
-        deleteAllAutoNatRules();
-        update();
+        batchUpdate(() -> {
+            deleteAllLocalRules();
+            deleteAllPortForwardRules();
+            deleteAllAutoNatRules();
+            update();
+        });
     }
 
+    /*
+     * Applies the rules, changing only the rules that differ from the ones applied by the last restore.
+     * The whole configuration is restored the first time, if the incremental changes cannot be applied, or if a
+     * custom firewall script is present, since the script may add its own rules to the chains.
+     */
     private void applyRules() throws KuraException {
         if (this.portForwardRules != null && !this.portForwardRules.isEmpty()
                 || this.autoNatRules != null && !this.autoNatRules.isEmpty()
@@ -456,11 +487,39 @@ public class LinuxFirewall {
         }
         IptablesConfig newIptables = new IptablesConfig(this.localRules, this.portForwardRules, this.autoNatRules,
                 this.natRules, this.allowIcmp, this.executorService);
-        newIptables.save(IptablesConfig.FIREWALL_TMP_CONFIG_FILE_NAME);
-        newIptables.restore(IptablesConfig.FIREWALL_TMP_CONFIG_FILE_NAME);
+        Map<String, List<String>> newRules = newIptables.getRules();
+
+        String changes = null;
+        if (appliedRules != null && !new File(CUSTOM_FIREWALL_SCRIPT_NAME).exists()) {
+            changes = IptablesDelta.compute(appliedRules, newRules);
+        }
+
+        if (changes != null && changes.isEmpty()) {
+            logger.debug("Firewall rules unchanged");
+        } else {
+            boolean applied = false;
+            if (changes != null) {
+                try {
+                    logger.debug("Applying firewall changes:\n{}", changes);
+                    newIptables.applyChanges(changes);
+                    applied = true;
+                } catch (KuraException e) {
+                    logger.warn("Failed to apply the firewall changes, restoring the whole configuration", e);
+                }
+            }
+            appliedRules = null;
+            if (!applied) {
+                newIptables.save(IptablesConfig.FIREWALL_TMP_CONFIG_FILE_NAME);
+                newIptables.restore(IptablesConfig.FIREWALL_TMP_CONFIG_FILE_NAME);
+            }
+            appliedRules = newRules;
+        }
         logger.debug("Managing port forwarding...");
         enableForwarding(this.allowForwarding);
-        runCustomFirewallScript();
+        if (changes == null || !changes.isEmpty()) {
+            runCustomFirewallScript();
+            this.iptables.save();
+        }
     }
 
     private static void enableForwarding(boolean allow) throws KuraException {
@@ -496,7 +555,10 @@ public class LinuxFirewall {
     }
 
     public void disable() throws KuraException {
-        this.iptables.clearAllChains();
+        synchronized (lock) {
+            invalidateAppliedRules();
+            this.iptables.clearAllChains();
+        }
     }
 
     public void allowIcmp() {
@@ -515,10 +577,59 @@ public class LinuxFirewall {
         this.allowForwarding = false;
     }
 
+    /**
+     * Applies the changes performed by the given {@link RuleChanges} with a single firewall update.
+     * The add and delete methods called by the changes only update the rule sets, the resulting rules are applied
+     * once all the changes have been performed, even if some of them failed.
+     *
+     * @param changes
+     *            the changes to apply
+     * @throws KuraException
+     *             if the changes or the update fail. If both fail, the update failure is suppressed by the one of the
+     *             changes.
+     */
+    public void batchUpdate(RuleChanges changes) throws KuraException {
+        synchronized (lock) {
+            this.batchDepth++;
+            try {
+                changes.apply();
+            } catch (KuraException | RuntimeException | Error e) {
+                endBatch(e);
+                throw e;
+            }
+            endBatch(null);
+        }
+    }
+
+    private void endBatch(Throwable failure) throws KuraException {
+        this.batchDepth--;
+        if (this.batchDepth > 0 || !this.updatePending) {
+            return;
+        }
+        try {
+            update();
+        } catch (KuraException | RuntimeException e) {
+            if (failure == null) {
+                throw e;
+            }
+            failure.addSuppressed(e);
+        }
+    }
+
     private void update() throws KuraException {
         synchronized (lock) {
+            if (this.batchDepth > 0) {
+                this.updatePending = true;
+                return;
+            }
+            this.updatePending = false;
             applyRules();
-            this.iptables.save();
+        }
+    }
+
+    private static void invalidateAppliedRules() {
+        synchronized (lock) {
+            appliedRules = null;
         }
     }
 }
@@ -281,7 +281,7 @@ public class IpAddrShow {
         return up;
     }
 
-    private static String prefix2inetmask(int prefix) throws UnknownHostException {
+    static String prefix2inetmask(int prefix) throws UnknownHostException {
         int mask = 0xffffffff << 32 - prefix;
 
         int value = mask;
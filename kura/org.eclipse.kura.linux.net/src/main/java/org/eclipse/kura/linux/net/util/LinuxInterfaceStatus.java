@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.linux.net.util;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.kura.net.NetInterfaceType;
+
+/**
+ * The state of a network interface as reported by the kernel through sysfs and procfs.
+ * <p>
+ * Instances are created by {@link LinuxInterfaceStatusProvider} and are not modified once they are part of a
+ * snapshot.
+ */
+public class LinuxInterfaceStatus {
+
+    private final String name;
+    private int index;
+    private NetInterfaceType type = NetInterfaceType.UNKNOWN;
+    private boolean up;
+    private boolean multicast;
+    private String operState;
+    private boolean carrier;
+    private int carrierChanges;
+    private String macAddress;
+    private int mtu;
+
+    private String inetAddress;
+    private String inetMask;
+    private String inetBcast;
+    private String defaultGateway;
+    private List<String> inet6Addresses = Collections.emptyList();
+
+    private long rxBytes;
+    private long rxPackets;
+    private long rxErrors;
+    private long rxDropped;
+    private long txBytes;
+    private long txPackets;
+    private long txErrors;
+    private long txDropped;
+
+    LinuxInterfaceStatus(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getIndex() {
+        return this.index;
+    }
+
+    void setIndex(int index) {
+        this.index = index;
+    }
+
+    /**
+     * @return the interface type derived from the link layer type, WIFI interfaces are reported as ETHERNET
+     */
+    public NetInterfaceType getType() {
+        return this.type;
+    }
+
+    void setType(NetInterfaceType type) {
+        this.type = type;
+    }
+
+    /**
+     * @return true if the interface is administratively up (IFF_UP)
+     */
+    public boolean isUp() {
+        return this.up;
+    }
+
+    void setUp(boolean up) {
+        this.up = up;
+    }
+
+    public boolean isMulticast() {
+        return this.multicast;
+    }
+
+    void setMulticast(boolean multicast) {
+        this.multicast = multicast;
+    }
+
+    /**
+     * @return the RFC 2863 operational state (e.g. up, down, dormant, unknown)
+     */
+    public String getOperState() {
+        return this.operState;
+    }
+
+    void setOperState(String operState) {
+        this.operState = operState;
+    }
+
+    /**
+     * Interfaces that do not report the operational state, such as ppp, are considered up, this is consistent with
+     * the behavior of the {@code ip} based implementation.
+     *
+     * @return false if the operational state is down
+     */
+    public boolean isLinkUp() {
+        return !"down".equals(this.operState);
+    }
+
+    public boolean hasCarrier() {
+        return this.carrier;
+    }
+
+    void setCarrier(boolean carrier) {
+        this.carrier = carrier;
+    }
+
+    public int getCarrierChanges() {
+        return this.carrierChanges;
+    }
+
+    void setCarrierChanges(int carrierChanges) {
+        this.carrierChanges = carrierChanges;
+    }
+
+    /**
+     * @return the hardware address, or null if the interface does not have one
+     */
+    public String getMacAddress() {
+        return this.macAddress;
+    }
+
+    void setMacAddress(String macAddress) {
+        this.macAddress = macAddress;
+    }
+
+    public int getMtu() {
+        return this.mtu;
+    }
+
+    void setMtu(int mtu) {
+        this.mtu = mtu;
+    }
+
+    /**
+     * @return the first IPv4 address of the interface, or null
+     */
+    public String getInetAddress() {
+        return this.inetAddress;
+    }
+
+    void setInetAddress(String inetAddress) {
+        this.inetAddress = inetAddress;
+    }
+
+    public String getInetMask() {
+        return this.inetMask;
+    }
+
+    void setInetMask(String inetMask) {
+        this.inetMask = inetMask;
+    }
+
+    public String getInetBcast() {
+        return this.inetBcast;
+    }
+
+    void setInetBcast(String inetBcast) {
+        this.inetBcast = inetBcast;
+    }
+
+    /**
+     * @return the gateway of the default route with the lowest metric through this interface, or null
+     */
+    public String getDefaultGateway() {
+        return this.defaultGateway;
+    }
+
+    void setDefaultGateway(String defaultGateway) {
+        this.defaultGateway = defaultGateway;
+    }
+
+    /**
+     * @return the IPv6 addresses of the interface in the address/prefix form
+     */
+    public List<String> getInet6Addresses() {
+        return this.inet6Addresses;
+    }
+
+    void setInet6Addresses(List<String> inet6Addresses) {
+        this.inet6Addresses = Collections.unmodifiableList(inet6Addresses);
+    }
+
+    public long getRxBytes() {
+        return this.rxBytes;
+    }
+
+    public long getRxPackets() {
+        return this.rxPackets;
+    }
+
+    public long getRxErrors() {
+        return this.rxErrors;
+    }
+
+    public long getRxDropped() {
+        return this.rxDropped;
+    }
+
+    public long getTxBytes() {
+        return this.txBytes;
+    }
+
+    public long getTxPackets() {
+        return this.txPackets;
+    }
+
+    public long getTxErrors() {
+        return this.txErrors;
+    }
+
+    public long getTxDropped() {
+        return this.txDropped;
+    }
+
+    void setRxStatistics(long bytes, long packets, long errors, long dropped) {
+        this.rxBytes = bytes;
+        this.rxPackets = packets;
+        this.rxErrors = errors;
+        this.rxDropped = dropped;
+    }
+
+    void setTxStatistics(long bytes, long packets, long errors, long dropped) {
+        this.txBytes = bytes;
+        this.txPackets = packets;
+        this.txErrors = errors;
+        this.txDropped = dropped;
+    }
+
+    /**
+     * Converts this status to the representation used by {@link LinuxNetworkUtil}. Driver and WiFi detection are not
+     * performed.
+     */
+    LinuxIfconfig toIfconfig() {
+        LinuxIfconfig config = new LinuxIfconfig(this.name);
+        config.setType(this.type);
+        config.setMacAddress(this.macAddress);
+        config.setMtu(this.mtu);
+        config.setMulticast(this.multicast);
+        config.setUp(this.up);
+        config.setLinkUp(isLinkUp());
+        config.setInetAddress(this.inetAddress);
+        config.setInetMask(this.inetMask);
+        config.setInetBcast(this.inetBcast);
+        return config;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(this.name).append(":-> index: ").append(this.index).append(", type: ").append(this.type)
+                .append(", MAC: ").append(this.macAddress).append(", IP Address: ").append(this.inetAddress)
+                .append(", Netmask: ").append(this.inetMask).append(", MTU: ").append(this.mtu).append(", up?: ")
+                .append(this.up).append(", operstate: ").append(this.operState).append(", carrier?: ")
+                .append(this.carrier);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,436 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.linux.net.util;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InterfaceAddress;
+import java.net.NetworkInterface;
+import java.net.UnknownHostException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.kura.net.NetInterfaceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides the state of the network interfaces by reading {@code /sys/class/net} and {@code /proc/net}, without
+ * forking external commands.
+ * <p>
+ * The state of all the interfaces is read at once and the resulting snapshot is shared by the callers until
+ * {@link #invalidate()} is called. While change notifications are enabled the snapshot is only replaced after a
+ * link, address or route change has been reported, otherwise it also expires after a short time. The traffic
+ * statistics are the ones read together with the snapshot.
+ * <p>
+ * IPv4 addresses are not exposed by sysfs or procfs, they are obtained through {@link NetworkInterface}, which uses
+ * ioctl calls.
+ */
+public class LinuxInterfaceStatusProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(LinuxInterfaceStatusProvider.class);
+
+    private static final long DEFAULT_MAX_AGE_MS = 1000;
+
+    private static final int ARPHRD_ETHER = 1;
+    private static final int ARPHRD_PPP = 512;
+    private static final int ARPHRD_LOOPBACK = 772;
+
+    private static final int IFF_UP = 0x1;
+    private static final int IFF_MULTICAST = 0x1000;
+
+    private static final int RTF_UP = 0x1;
+    private static final int RTF_GATEWAY = 0x2;
+
+    private final Path sysfsNetRoot;
+    private final Path procfsNetRoot;
+    private final long maxAgeNanos;
+    private final Object refreshLock = new Object();
+
+    private final AtomicInteger generation = new AtomicInteger();
+    private volatile Snapshot snapshot;
+    private volatile boolean changeNotificationsEnabled;
+
+    public LinuxInterfaceStatusProvider() {
+        this(Paths.get("/sys/class/net"), Paths.get("/proc/net"), DEFAULT_MAX_AGE_MS);
+    }
+
+    LinuxInterfaceStatusProvider(Path sysfsNetRoot, Path procfsNetRoot, long maxAgeMs) {
+        this.sysfsNetRoot = sysfsNetRoot;
+        this.procfsNetRoot = procfsNetRoot;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+    }
+
+    /**
+     * @return true if sysfs can be used on this system
+     */
+    public boolean isAvailable() {
+        return Files.isDirectory(this.sysfsNetRoot);
+    }
+
+    /**
+     * Returns the state of all the network interfaces.
+     *
+     * @return an unmodifiable map from interface name to status, sorted by ascending interface index
+     */
+    public Map<String, LinuxInterfaceStatus> getAll() {
+        final int currentGeneration = this.generation.get();
+        final long now = System.nanoTime();
+
+        Snapshot current = this.snapshot;
+        if (isValid(current, currentGeneration, now)) {
+            return current.statuses;
+        }
+
+        synchronized (this.refreshLock) {
+            // another caller could have refreshed the snapshot while this thread was waiting for the lock
+            current = this.snapshot;
+            if (isValid(current, currentGeneration, now)) {
+                return current.statuses;
+            }
+
+            final int refreshGeneration = this.generation.get();
+            current = new Snapshot(refreshGeneration, System.nanoTime(), readAll());
+            this.snapshot = current;
+            return current.statuses;
+        }
+    }
+
+    /**
+     * @param interfaceName
+     *            the interface name
+     * @return the status of the interface, or null if the interface does not exist
+     */
+    public LinuxInterfaceStatus getStatus(String interfaceName) {
+        return getAll().get(interfaceName);
+    }
+
+    /**
+     * Discards the cached snapshot. Snapshots whose creation is in progress are discarded as well.
+     */
+    public void invalidate() {
+        this.generation.incrementAndGet();
+    }
+
+    /**
+     * Enables or disables the change notifications. While they are enabled the caller must call
+     * {@link #invalidate()} on every link, address or route change, e.g. when reported by {@code ip monitor}, and
+     * the snapshot does not expire.
+     *
+     * @param enabled
+     *            true if the changes are being reported
+     */
+    public void setChangeNotificationsEnabled(boolean enabled) {
+        this.changeNotificationsEnabled = enabled;
+        // changes could have been missed while the notifications were not delivered
+        invalidate();
+    }
+
+    /**
+     * @return true if the changes are being reported through {@link #invalidate()}
+     */
+    public boolean isChangeNotificationsEnabled() {
+        return this.changeNotificationsEnabled;
+    }
+
+    private boolean isValid(Snapshot current, int currentGeneration, long now) {
+        return current != null && current.generation == currentGeneration
+                && (this.changeNotificationsEnabled || now - current.timestamp < this.maxAgeNanos);
+    }
+
+    private Map<String, LinuxInterfaceStatus> readAll() {
+        final List<LinuxInterfaceStatus> statuses = new ArrayList<>();
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(this.sysfsNetRoot)) {
+            for (final Path entry : entries) {
+                // bonding_masters and similar regular files are not interfaces
+                if (Files.isDirectory(entry)) {
+                    final LinuxInterfaceStatus status = readStatus(entry);
+                    if (status != null) {
+                        statuses.add(status);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to list network interfaces", e);
+        }
+
+        statuses.sort(Comparator.comparingInt(LinuxInterfaceStatus::getIndex));
+
+        final Map<String, LinuxInterfaceStatus> result = new LinkedHashMap<>();
+        for (final LinuxInterfaceStatus status : statuses) {
+            result.put(status.getName(), status);
+        }
+
+        readStatistics(result);
+        readInet6Addresses(result);
+        readDefaultGateways(result);
+        readInet4Addresses(result);
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @return the status, or null if the interface disappeared while being read
+     */
+    private static LinuxInterfaceStatus readStatus(Path interfaceDir) {
+        final LinuxInterfaceStatus status = new LinuxInterfaceStatus(interfaceDir.getFileName().toString());
+
+        try {
+            status.setIndex(Integer.parseInt(readAttribute(interfaceDir, "ifindex")));
+            status.setType(toNetInterfaceType(Integer.parseInt(readAttribute(interfaceDir, "type"))));
+
+            final int flags = Integer.decode(readAttribute(interfaceDir, "flags"));
+            status.setUp((flags & IFF_UP) != 0);
+            status.setMulticast((flags & IFF_MULTICAST) != 0);
+
+            status.setOperState(readAttribute(interfaceDir, "operstate"));
+            status.setMtu(Integer.parseInt(readAttribute(interfaceDir, "mtu")));
+
+            final String address = readAttribute(interfaceDir, "address");
+            status.setMacAddress(address.isEmpty() ? null : address);
+        } catch (NoSuchFileException e) {
+            logger.trace("Interface {} disappeared", status.getName(), e);
+            return null;
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Failed to read the status of {}", status.getName(), e);
+            return null;
+        }
+
+        // carrier cannot be read while the interface is down
+        status.setCarrier("1".equals(readOptionalAttribute(interfaceDir, "carrier")));
+
+        final String carrierChanges = readOptionalAttribute(interfaceDir, "carrier_changes");
+        if (carrierChanges != null) {
+            try {
+                status.setCarrierChanges(Integer.parseInt(carrierChanges));
+            } catch (NumberFormatException e) {
+                logger.debug("Invalid carrier_changes value for {}: {}", status.getName(), carrierChanges);
+            }
+        }
+
+        return status;
+    }
+
+    private static NetInterfaceType toNetInterfaceType(int arpHardwareType) {
+        switch (arpHardwareType) {
+        case ARPHRD_ETHER:
+            return NetInterfaceType.ETHERNET;
+        case ARPHRD_PPP:
+            return NetInterfaceType.MODEM;
+        case ARPHRD_LOOPBACK:
+            return NetInterfaceType.LOOPBACK;
+        default:
+            return NetInterfaceType.UNKNOWN;
+        }
+    }
+
+    private static String readAttribute(Path interfaceDir, String attribute) throws IOException {
+        return new String(Files.readAllBytes(interfaceDir.resolve(attribute)), US_ASCII).trim();
+    }
+
+    private static String readOptionalAttribute(Path interfaceDir, String attribute) {
+        try {
+            return readAttribute(interfaceDir, attribute);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private List<String> readProcNetFile(String fileName) {
+        try {
+            return Files.readAllLines(this.procfsNetRoot.resolve(fileName), US_ASCII);
+        } catch (IOException e) {
+            logger.debug("Failed to read {}", fileName, e);
+            return Collections.emptyList();
+        }
+    }
+
+    /*
+     * /proc/net/dev
+     * Inter-| Receive | Transmit
+     * face |bytes packets errs drop fifo frame compressed multicast|bytes packets errs drop fifo colls carrier ...
+     * eth0: 1234 10 0 0 0 0 0 0 5678 20 0 0 0 0 0 0
+     */
+    private void readStatistics(Map<String, LinuxInterfaceStatus> statuses) {
+        for (final String line : readProcNetFile("dev")) {
+            final int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+
+            final LinuxInterfaceStatus status = statuses.get(line.substring(0, colon).trim());
+            if (status == null) {
+                continue;
+            }
+
+            final String[] values = line.substring(colon + 1).trim().split("\\s+");
+            if (values.length < 12) {
+                continue;
+            }
+
+            try {
+                status.setRxStatistics(Long.parseLong(values[0]), Long.parseLong(values[1]),
+                        Long.parseLong(values[2]), Long.parseLong(values[3]));
+                status.setTxStatistics(Long.parseLong(values[8]), Long.parseLong(values[9]),
+                        Long.parseLong(values[10]), Long.parseLong(values[11]));
+            } catch (NumberFormatException e) {
+                logger.debug("Invalid statistics for {}: {}", status.getName(), line);
+            }
+        }
+    }
+
+    /*
+     * /proc/net/if_inet6
+     * fe800000000000000000000000000001 02 40 20 80 eth0
+     */
+    private void readInet6Addresses(Map<String, LinuxInterfaceStatus> statuses) {
+        final Map<String, List<String>> addresses = new HashMap<>();
+
+        for (final String line : readProcNetFile("if_inet6")) {
+            final String[] values = line.trim().split("\\s+");
+            if (values.length < 6 || values[0].length() != 32 || !statuses.containsKey(values[5])) {
+                continue;
+            }
+
+            try {
+                final InetAddress address = InetAddress.getByAddress(parseHex(values[0], false));
+                final int prefix = Integer.parseInt(values[2], 16);
+                addresses.computeIfAbsent(values[5], name -> new ArrayList<>())
+                        .add(address.getHostAddress() + "/" + prefix);
+            } catch (UnknownHostException | NumberFormatException e) {
+                logger.debug("Invalid IPv6 address entry: {}", line);
+            }
+        }
+
+        for (final Map.Entry<String, List<String>> entry : addresses.entrySet()) {
+            statuses.get(entry.getKey()).setInet6Addresses(entry.getValue());
+        }
+    }
+
+    /*
+     * /proc/net/route
+     * Iface Destination Gateway Flags RefCnt Use Metric Mask MTU Window IRTT
+     * eth0 00000000 0101A8C0 0003 0 0 100 00000000 0 0 0
+     */
+    private void readDefaultGateways(Map<String, LinuxInterfaceStatus> statuses) {
+        final Map<String, Integer> metrics = new HashMap<>();
+
+        for (final String line : readProcNetFile("route")) {
+            final String[] values = line.trim().split("\\s+");
+            if (values.length < 8 || !"00000000".equals(values[1]) || !"00000000".equals(values[7])) {
+                continue;
+            }
+
+            final LinuxInterfaceStatus status = statuses.get(values[0]);
+            if (status == null) {
+                continue;
+            }
+
+            try {
+                final int flags = Integer.parseInt(values[3], 16);
+                if ((flags & (RTF_UP | RTF_GATEWAY)) != (RTF_UP | RTF_GATEWAY)) {
+                    continue;
+                }
+
+                final int metric = Integer.parseInt(values[6]);
+                final Integer currentMetric = metrics.get(status.getName());
+                if (currentMetric == null || metric < currentMetric) {
+                    // the kernel prints the address in host byte order
+                    status.setDefaultGateway(InetAddress.getByAddress(parseHex(values[2], true)).getHostAddress());
+                    metrics.put(status.getName(), metric);
+                }
+            } catch (UnknownHostException | NumberFormatException e) {
+                logger.debug("Invalid route entry: {}", line);
+            }
+        }
+    }
+
+    private static byte[] parseHex(String value, boolean littleEndian) {
+        final int length = value.length() / 2;
+        final byte[] result = new byte[length];
+        for (int i = 0; i < length; i++) {
+            final int high = Character.digit(value.charAt(i * 2), 16);
+            final int low = Character.digit(value.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new NumberFormatException("Invalid hex value: " + value);
+            }
+            result[littleEndian ? length - 1 - i : i] = (byte) (high << 4 | low);
+        }
+        return result;
+    }
+
+    /**
+     * Fills in the first IPv4 address, netmask and broadcast address of each interface.
+     *
+     * @param statuses
+     *            the statuses to be updated, by interface name
+     */
+    protected void readInet4Addresses(Map<String, LinuxInterfaceStatus> statuses) {
+        try {
+            final Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
+            if (interfaces == null) {
+                return;
+            }
+
+            while (interfaces.hasMoreElements()) {
+                final NetworkInterface networkInterface = interfaces.nextElement();
+                final LinuxInterfaceStatus status = statuses.get(networkInterface.getName());
+                if (status == null) {
+                    continue;
+                }
+
+                for (final InterfaceAddress address : networkInterface.getInterfaceAddresses()) {
+                    if (address.getAddress() instanceof Inet4Address) {
+                        status.setInetAddress(address.getAddress().getHostAddress());
+                        status.setInetMask(IpAddrShow.prefix2inetmask(address.getNetworkPrefixLength()));
+                        if (address.getBroadcast() != null) {
+                            status.setInetBcast(address.getBroadcast().getHostAddress());
+                        }
+                        break;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read the IPv4 addresses", e);
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final int generation;
+        private final long timestamp;
+        private final Map<String, LinuxInterfaceStatus> statuses;
+
+        Snapshot(int generation, long timestamp, Map<String, LinuxInterfaceStatus> statuses) {
+            this.generation = generation;
+            this.timestamp = timestamp;
+            this.statuses = statuses;
+        }
+    }
+}
@@ -18,6 +18,7 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +46,8 @@ public class LinuxNetworkUtil {
     private static final Logger logger = LoggerFactory.getLogger(LinuxNetworkUtil.class);
 
     private static Map<String, LinuxIfconfig> ifconfigs = new HashMap<>();
+    private static final LinuxInterfaceStatusProvider INTERFACE_STATUS_PROVIDER = new LinuxInterfaceStatusProvider();
+    private static final boolean IS_INTERFACE_STATUS_PROVIDER_AVAILABLE = INTERFACE_STATUS_PROVIDER.isAvailable();
     private static final String[] IGNORE_IFACES = { "can", "sit", "mon.wlan" };
     private static final ArrayList<String> TOOLS = new ArrayList<>();
     private static final String PPP_IFACE_REGEX = "^ppp\\d+$";
@@ -71,7 +74,32 @@ public class LinuxNetworkUtil {
         this.wifiOptions = new WifiOptions(executorService);
     }
 
+    /**
+     * Returns the provider of the interface state shared by all the {@link LinuxNetworkUtil} instances.
+     * The provider should be invalidated when the interface configuration is changed outside this class.
+     */
+    public static LinuxInterfaceStatusProvider getInterfaceStatusProvider() {
+        return INTERFACE_STATUS_PROVIDER;
+    }
+
+    /**
+     * Returns the state of all the network interfaces, read at once from sysfs and procfs.
+     *
+     * @return an unmodifiable map from interface name to status, sorted by ascending interface index. The map is empty
+     *         if sysfs is not available.
+     */
+    public Map<String, LinuxInterfaceStatus> getInterfaceStatuses() {
+        if (!IS_INTERFACE_STATUS_PROVIDER_AVAILABLE) {
+            return Collections.emptyMap();
+        }
+        return INTERFACE_STATUS_PROVIDER.getAll();
+    }
+
     public List<String> getAllInterfaceNames() throws KuraException {
+        if (IS_INTERFACE_STATUS_PROVIDER_AVAILABLE) {
+            return new ArrayList<>(INTERFACE_STATUS_PROVIDER.getAll().keySet());
+        }
+
         try {
             IpAddrShow ipAddrShow = new IpAddrShow(this.executorService);
             LinuxIfconfig[] configs = ipAddrShow.exec();
@@ -321,28 +349,21 @@ public class LinuxNetworkUtil {
      * Note: the returned configuration is also stored in the static cache
      */
     public LinuxIfconfig getInterfaceConfiguration(String ifaceName) throws KuraException {
+        if (IS_INTERFACE_STATUS_PROVIDER_AVAILABLE) {
+            LinuxInterfaceStatus status = INTERFACE_STATUS_PROVIDER.getStatus(ifaceName);
+            if (status != null) {
+                return completeInterfaceConfiguration(ifaceName, status.toIfconfig());
+            }
+            // the interface is not known to the kernel, let the ip based lookup decide
+        }
+
         try {
             IpAddrShow ipAddrShow = new IpAddrShow(ifaceName, this.executorService);
             LinuxIfconfig[] configs = ipAddrShow.exec();
             if (configs.length == 0) {
                 return null;
             }
-            LinuxIfconfig config = configs[0];
-
-            // determine if wifi
-            if (config.getType() == NetInterfaceType.ETHERNET) {
-                setWifiConfig(ifaceName, config);
-            }
-
-            // determine driver
-            if (config.getType() == NetInterfaceType.ETHERNET || config.getType() == NetInterfaceType.WIFI) {
-                Map<String, String> driver = getEthernetDriver(ifaceName);
-                config.setDriver(driver);
-            }
-
-            // cache information
-            ifconfigs.put(ifaceName, config);
-            return config;
+            return completeInterfaceConfiguration(ifaceName, configs[0]);
         } catch (KuraException e) {
             if (e.getCode() == KuraErrorCode.OS_COMMAND_ERROR || e.getCode() == KuraErrorCode.PROCESS_EXECUTION_ERROR) {
                 // Assuming ifconfig fails because a PPP link went down and its interface cannot be found
@@ -354,6 +375,23 @@ public class LinuxNetworkUtil {
         }
     }
 
+    private LinuxIfconfig completeInterfaceConfiguration(String ifaceName, LinuxIfconfig config) {
+        // determine if wifi
+        if (config.getType() == NetInterfaceType.ETHERNET) {
+            setWifiConfig(ifaceName, config);
+        }
+
+        // determine driver
+        if (config.getType() == NetInterfaceType.ETHERNET || config.getType() == NetInterfaceType.WIFI) {
+            Map<String, String> driver = getEthernetDriver(ifaceName);
+            config.setDriver(driver);
+        }
+
+        // cache information
+        ifconfigs.put(ifaceName, config);
+        return config;
+    }
+
     private void setWifiConfig(String ifaceName, LinuxIfconfig config) {
         Collection<String> wifiSupportedOptions = this.wifiOptions.getSupportedOptions(ifaceName);
         if (!wifiSupportedOptions.isEmpty()) {
@@ -928,6 +966,7 @@ public class LinuxNetworkUtil {
                 command.setTimeout(60);
                 // Intentionally ignore exit status
                 this.executorService.execute(command);
+                INTERFACE_STATUS_PROVIDER.invalidate();
 
             }
 
@@ -946,6 +985,7 @@ public class LinuxNetworkUtil {
             Command command = new Command(new String[] { IFCONFIG, interfaceName, "up" });
             command.setTimeout(60);
             CommandStatus status = this.executorService.execute(command);
+            INTERFACE_STATUS_PROVIDER.invalidate();
             if (!status.getExitStatus().isSuccessful()) {
                 throw new KuraException(KuraErrorCode.OS_COMMAND_ERROR,
                         "Failed to bring up interface " + interfaceName);
@@ -963,10 +1003,12 @@ public class LinuxNetworkUtil {
                 command.setErrorStream(new ByteArrayOutputStream());
                 status = this.executorService.execute(command);
                 if (!status.getExitStatus().isSuccessful()) {
+                    INTERFACE_STATUS_PROVIDER.invalidate();
                     throw new KuraException(KuraErrorCode.OS_COMMAND_ERROR,
                             "Failed to bring up interface " + interfaceName);
                 }
             }
+            INTERFACE_STATUS_PROVIDER.invalidate();
         }
     }
 
@@ -1012,6 +1054,7 @@ public class LinuxNetworkUtil {
         Command command = new Command(cmd);
         command.setTimeout(60);
         CommandStatus status = this.executorService.execute(command);
+        INTERFACE_STATUS_PROVIDER.invalidate();
         if (!status.getExitStatus().isSuccessful()) {
             if (logger.isErrorEnabled()) {
                 logger.error(ERR_EXECUTING_CMD_MSG, String.join(" ", cmd), status.getExitStatus().getExitCode());
@@ -1046,6 +1089,14 @@ public class LinuxNetworkUtil {
             return 0;
         }
 
+        if (IS_INTERFACE_STATUS_PROVIDER_AVAILABLE) {
+            LinuxInterfaceStatus status = INTERFACE_STATUS_PROVIDER.getStatus(interfaceName);
+            if (status != null) {
+                logger.debug("interface {} carrier changes {}", interfaceName, status.getCarrierChanges());
+                return status.getCarrierChanges();
+            }
+        }
+
         StringBuilder sb = new StringBuilder("/sys/class/net/").append(interfaceName);
         sb.append("/carrier_changes");
 
@@ -13,8 +13,8 @@ package org.eclipse.kura.linux.position;
 
 import static java.util.Objects.requireNonNull;
 
-import java.io.BufferedInputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import org.eclipse.kura.comm.CommConnection;
 import org.eclipse.kura.comm.CommURI;
@@ -40,9 +40,15 @@ public class GpsDevice {
     private static final int SERIAL_TIMEOUT_MS = 2000;
     private static final int TERMINATION_TIMEOUT_MS = SERIAL_TIMEOUT_MS + 1000;
 
+    private static final int READ_BUFFER_SIZE = 1024;
+    // NMEA 0183 limits sentences to 82 characters, some proprietary sentences are longer
+    private static final int MAX_SENTENCE_LENGTH = 1024;
+
     private final CommURI uri;
 
     private final SerialCommunicate commThread;
+    private final byte[] lastSentenceBuffer = new byte[MAX_SENTENCE_LENGTH];
+    private int lastSentenceLength = -1;
     private String lastSentence;
 
     private Listener listener;
@@ -85,7 +91,11 @@ public class GpsDevice {
         this.commThread.disconnect();
     }
 
-    public String getLastSentence() {
+    public synchronized String getLastSentence() {
+        if (this.lastSentence == null && this.lastSentenceLength >= 0) {
+            this.lastSentence = new String(this.lastSentenceBuffer, 0, this.lastSentenceLength,
+                    StandardCharsets.ISO_8859_1);
+        }
         return this.lastSentence;
     }
 
@@ -102,6 +112,9 @@ public class GpsDevice {
      * <li>bitsPerWord : only RTU mode supported, bitsPerWord must be 8</li>
      * see {@link org.eclipse.kura.comm.CommConnection CommConnection} package for more
      * detail.
+     * <p>
+     * The port is read in bulk into a reusable buffer, complete sentences are accumulated in a second buffer and
+     * parsed in place.
      */
     private final class SerialCommunicate extends Thread {
 
@@ -109,10 +122,15 @@ public class GpsDevice {
         private CommConnection conn = null;
         private boolean run = true;
 
+        private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+        private final byte[] sentenceBuffer = new byte[MAX_SENTENCE_LENGTH];
+        private int sentenceLength;
+        private boolean sentenceOverflow;
+
         public SerialCommunicate(final ConnectionFactory connFactory, final CommURI commURI) throws PositionException {
             try {
                 this.conn = (CommConnection) connFactory.createConnection(enableTimeouts(commURI).toString(), 1, false);
-                this.in = new BufferedInputStream(requireNonNull(this.conn.openInputStream()));
+                this.in = requireNonNull(this.conn.openInputStream());
             } catch (Exception e) {
                 closeSerialPort();
                 throw new PositionException("Failed to open serial port", e);
@@ -170,56 +188,83 @@ public class GpsDevice {
         }
 
         private boolean doPollWork() {
-            final StringBuilder readBuffer = new StringBuilder();
-            int c = -1;
-            while (c != 10) {
-                if (!this.run) {
-                    logger.debug("Shutdown requested, exiting");
-                    return false;
+            if (!this.run) {
+                logger.debug("Shutdown requested, exiting");
+                return false;
+            }
+
+            final int count;
+            try {
+                count = this.in.read(this.readBuffer);
+            } catch (Exception e) {
+                logger.error("Exception in gps read - {}", e);
+                return false;
+            }
+
+            if (count <= 0) {
+                logger.debug("Read timed out");
+                return true;
+            }
+
+            for (int i = 0; i < count; i++) {
+                final byte c = this.readBuffer[i];
+
+                if (c == 13) {
+                    continue;
                 }
-                try {
-                    c = this.in.read();
-                } catch (Exception e) {
-                    logger.error("Exception in gps read - {}", e);
-                    return false;
+
+                if (this.sentenceLength < MAX_SENTENCE_LENGTH) {
+                    this.sentenceBuffer[this.sentenceLength++] = c;
+                } else {
+                    this.sentenceOverflow = true;
                 }
-                if (c == -1) {
-                    logger.debug("Read timed out");
-                } else if (c != 13) {
-                    readBuffer.append((char) c);
+
+                if (c == 10) {
+                    if (this.sentenceOverflow) {
+                        logger.warn("NMEA sentence longer than {} characters, discarding", MAX_SENTENCE_LENGTH);
+                    } else {
+                        handleNmeaSentence(this.sentenceBuffer, this.sentenceLength);
+                    }
+                    this.sentenceLength = 0;
+                    this.sentenceOverflow = false;
                 }
             }
-            if (readBuffer.length() > 0) {
-                final String sentence = readBuffer.toString();
-                logger.debug("GPS RAW: {}", sentence);
-                handleNmeaSentence(sentence);
-            }
+
             return true;
         }
 
-        private void handleNmeaSentence(final String sentence) {
+        private void handleNmeaSentence(final byte[] sentence, final int length) {
 
-            if (sentence.isEmpty()) {
+            // the sentence always contains the line feed
+            if (length <= 1) {
                 logger.debug("Empty NMEA sentence detected");
                 return;
             }
 
-            if (GpsDevice.this.listener != null) {
-                GpsDevice.this.listener.newNmeaSentence(sentence);
+            if (logger.isDebugEnabled()) {
+                logger.debug("GPS RAW: {}", new String(sentence, 0, length, StandardCharsets.ISO_8859_1));
             }
 
-            final boolean isLastPositionValid = GpsDevice.this.nmeaParser.isValidPosition();
+            final Listener currentListener = GpsDevice.this.listener;
+
+            if (currentListener != null && currentListener.isNmeaSentenceRequested()) {
+                currentListener.newNmeaSentence(new String(sentence, 0, length, StandardCharsets.ISO_8859_1));
+            }
 
             try {
+                final boolean isLastPositionValid;
                 final boolean isValid;
 
-                synchronized (this) {
-                    isValid = GpsDevice.this.nmeaParser.parseSentence(sentence);
-                    GpsDevice.this.lastSentence = sentence;
+                synchronized (GpsDevice.this) {
+                    isLastPositionValid = GpsDevice.this.nmeaParser.isValidPosition();
+                    isValid = GpsDevice.this.nmeaParser.parseSentence(sentence, 0, length);
+                    System.arraycopy(sentence, 0, GpsDevice.this.lastSentenceBuffer, 0, length);
+                    GpsDevice.this.lastSentenceLength = length;
+                    GpsDevice.this.lastSentence = null;
                 }
 
-                if (isValid != isLastPositionValid && GpsDevice.this.listener != null) {
-                    GpsDevice.this.listener.onLockStatusChanged(isValid);
+                if (isValid != isLastPositionValid && currentListener != null) {
+                    currentListener.onLockStatusChanged(isValid);
                     logger.info("{}", GpsDevice.this);
                 }
 
@@ -228,9 +273,11 @@ public class GpsDevice {
                 if (code == Code.BAD_CHECKSUM) {
                     logger.warn("NMEA checksum not valid");
                 } else if (code == Code.INVALID) {
-                    logger.warn("Invalid NMEA sentence: {}", sentence);
+                    logger.warn("Invalid NMEA sentence: {}",
+                            new String(sentence, 0, length, StandardCharsets.ISO_8859_1));
                 } else {
-                    logger.warn("Unrecognized NMEA sentence: {}", sentence);
+                    logger.warn("Unrecognized NMEA sentence: {}",
+                            new String(sentence, 0, length, StandardCharsets.ISO_8859_1));
                 }
             } catch (Exception e) {
                 logger.warn("Unexpected exception parsing NMEA sentence", e);
@@ -272,5 +319,14 @@ public class GpsDevice {
     interface Listener extends PositionListener {
 
         public void onLockStatusChanged(final boolean hasLock);
+
+        /**
+         * Allows to avoid creating a {@link String} for each received sentence if nobody is interested in it.
+         *
+         * @return true if {@link #newNmeaSentence(String)} should be called for each received sentence
+         */
+        public default boolean isNmeaSentenceRequested() {
+            return true;
+        }
     }
 }
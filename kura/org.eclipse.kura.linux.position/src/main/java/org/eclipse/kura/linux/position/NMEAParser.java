@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2018 Eurotech and/or its affiliates
+ * Copyright (c) 2011, 2020 Eurotech and/or its affiliates
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -13,8 +13,8 @@ package org.eclipse.kura.linux.position;
 
 import static java.lang.Math.toRadians;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.List;
 
 import org.eclipse.kura.position.NmeaPosition;
 import org.osgi.util.measurement.Measurement;
@@ -23,13 +23,23 @@ import org.osgi.util.position.Position;
 
 /**
  * Implements NMEA sentences parser functions.
+ * <p>
+ * Sentences are validated and tokenized in place, numeric fields are parsed directly from the sentence bytes. No
+ * objects are allocated while parsing, the {@link String} values returned by {@link #getTimeNmea()} and
+ * {@link #getDateNmea()} are created on demand.
  *
  */
 public class NMEAParser {
 
+    private static final int INITIAL_TOKEN_CAPACITY = 32;
+    // Doubles up to 2^53 and powers of ten up to 10^22 are exact, their quotient is correctly rounded
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
     private int fixQuality;
-    private String timeNmea;
-    private String dateNmea;
+    private final TextField timeNmea = new TextField();
+    private final TextField dateNmea = new TextField();
     private double longNmea;
     private double latNmea;
     private double speedNmea;
@@ -46,6 +56,11 @@ public class NMEAParser {
     private char latitudeHemisphere = 0;
     private char longitudeHemisphere = 0;
 
+    private byte[] buffer;
+    private int[] tokenStart = new int[INITIAL_TOKEN_CAPACITY];
+    private int[] tokenEnd = new int[INITIAL_TOKEN_CAPACITY];
+    private int tokenCount;
+
     /**
      * Fill the fields of GPS position depending of the type of the sentence
      *
@@ -53,15 +68,41 @@ public class NMEAParser {
      *            most recent sentence String from GPS modem
      */
     public boolean parseSentence(String sentence) throws ParseException {
+        final byte[] bytes = sentence.getBytes(StandardCharsets.ISO_8859_1);
+        return parseSentence(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Fill the fields of GPS position depending of the type of the sentence. The buffer is not retained after this
+     * method returns.
+     *
+     * @param sentence
+     *            the buffer containing the most recent sentence from GPS modem
+     * @param offset
+     *            the index of the first sentence byte
+     * @param length
+     *            the sentence length, including the line terminator, if any
+     */
+    public boolean parseSentence(final byte[] sentence, final int offset, final int length) throws ParseException {
+        final int end = offset + length;
+        final int starpos = indexOf(sentence, offset, end, '*');
 
-        if (!computeNMEACksum(sentence)) {
+        if (starpos < 0 || !isChecksumValid(sentence, offset, starpos, end)) {
             throw new ParseException(Code.BAD_CHECKSUM);
         }
 
-        // first remove the end "*"+chksum
-        int starpos = sentence.indexOf('*');
-        final List<String> tokens = Arrays.asList(sentence.substring(0, starpos).split(","));
+        this.buffer = sentence;
+        try {
+            tokenize(offset, starpos);
+            parseTokens(offset, end);
+        } finally {
+            this.buffer = null;
+        }
 
+        return this.validPosition;
+    }
+
+    private void parseTokens(final int offset, final int end) throws ParseException {
         /*
          * Starting from 4.0 NMEA specs the GPS device can send messages representing different talkers
          *
@@ -69,114 +110,110 @@ public class NMEAParser {
          * $GS = Glonass
          * $GN = GNSS, that is GPS + Glonass + possibly others
          */
-        if (!tokens.get(0).startsWith("$G")) {
+        if (this.tokenCount == 0 || tokenLength(0) < 2 || this.buffer[this.tokenStart[0]] != '$'
+                || this.buffer[this.tokenStart[0] + 1] != 'G') {
             // Not a valid token. Return.
             throw new ParseException(Code.INVALID);
         }
 
-        if (tokens.get(0).endsWith("GGA")) {
-            parseGGASentence(tokens);
-        } else if (tokens.get(0).endsWith("GLL")) {
-            parseGLLSentence(tokens);
-        } else if (tokens.get(0).endsWith("RMC")) {
-            parseRMCSentence(tokens);
-        } else if (tokens.get(0).endsWith("GSA")) {
-            parseGSASentence(tokens);
-        } else if (tokens.get(0).endsWith("VTG")) {
-            parseVTGSentence(tokens);
-        } else if (!tokens.get(0).endsWith("GSV") && sentence.indexOf("FOM") == -1 && sentence.indexOf("PPS") == -1) {
+        if (isSentenceType('G', 'G', 'A')) {
+            parseGGASentence();
+        } else if (isSentenceType('G', 'L', 'L')) {
+            parseGLLSentence();
+        } else if (isSentenceType('R', 'M', 'C')) {
+            parseRMCSentence();
+        } else if (isSentenceType('G', 'S', 'A')) {
+            parseGSASentence();
+        } else if (isSentenceType('V', 'T', 'G')) {
+            parseVTGSentence();
+        } else if (!isSentenceType('G', 'S', 'V') && !contains(offset, end, 'F', 'O', 'M')
+                && !contains(offset, end, 'P', 'P', 'S')) {
             throw new ParseException(Code.UNRECOGNIZED);
         }
-
-        return this.validPosition;
     }
 
-    private void parseVTGSentence(List<String> tokens) {
-        if (tokens.size() > 7 && !tokens.get(7).isEmpty()) {
+    private void parseVTGSentence() {
+        if (this.tokenCount > 7 && !isEmpty(7)) {
             // conversion km/h in m/s : 1 km/h -> 0,277777778 m/s
-            this.speedNmea = Double.parseDouble(tokens.get(7)) * 0.277777778;
+            this.speedNmea = parseDouble(7) * 0.277777778;
         }
     }
 
-    private void parseGSASentence(List<String> tokens) {
-        if (tokens.size() > 5) {
+    private void parseGSASentence() {
+        if (this.tokenCount > 5) {
+            int index = this.tokenCount - 3;
             // Check only last 3 items for validity
-            checkPosition(tokens.subList(tokens.size() - 3, tokens.size()), 3);
-            if (!tokens.get(2).isEmpty()) {
-                this.fix3DNmea = Integer.parseInt(tokens.get(2));
+            this.validPosition = noneEmpty(index, this.tokenCount);
+            if (!isEmpty(2)) {
+                this.fix3DNmea = parseInt(2);
                 if (this.fix3DNmea == 1) {
                     this.validPosition = false;
                 }
             }
-            int index = tokens.size() - 3;
-            if (!tokens.get(index).isEmpty()) {
-                this.pdopNmea = Double.parseDouble(tokens.get(index));
+            if (!isEmpty(index)) {
+                this.pdopNmea = parseDouble(index);
             }
-            if (!tokens.get(index + 1).isEmpty()) {
-                this.hdopNmea = Double.parseDouble(tokens.get(index + 1));
+            if (!isEmpty(index + 1)) {
+                this.hdopNmea = parseDouble(index + 1);
             }
-            if (!tokens.get(index + 2).isEmpty()) {
-                this.vdopNmea = Double.parseDouble(tokens.get(index + 2));
+            if (!isEmpty(index + 2)) {
+                this.vdopNmea = parseDouble(index + 2);
             }
         } else {
             this.validPosition = false;
         }
     }
 
-    private void parseRMCSentence(List<String> tokens) {
-        if (tokens.size() > 9) {
-            if (!tokens.get(1).isEmpty()) {
-                this.timeNmea = tokens.get(1);
+    private void parseRMCSentence() {
+        if (this.tokenCount > 9) {
+            if (!isEmpty(1)) {
+                this.timeNmea.set(this.buffer, this.tokenStart[1], this.tokenEnd[1]);
             }
-            if (!tokens.get(2).isEmpty()) { // check validity
-                this.validFix = tokens.get(2).charAt(0);
-                if (!"A".equals(tokens.get(2))) {
-                    this.validPosition = false;
-                } else {
-                    this.validPosition = true;
-                }
+            if (!isEmpty(2)) { // check validity
+                this.validFix = firstChar(2);
+                this.validPosition = tokenLength(2) == 1 && this.validFix == 'A';
             } else {
                 this.validFix = 'V';
                 this.validPosition = false;
             }
-            if (!tokens.get(3).isEmpty() && !tokens.get(4).isEmpty()) {
-                this.latNmea = convertPositionlat(tokens.get(3), tokens.get(4));
-                this.latitudeHemisphere = tokens.get(4).charAt(0);
+            if (!isEmpty(3) && !isEmpty(4)) {
+                this.latNmea = convertPosition(3, 4, 2);
+                this.latitudeHemisphere = firstChar(4);
             }
-            if (!tokens.get(5).isEmpty() && !tokens.get(6).isEmpty()) {
-                this.longNmea = convertPositionlon(tokens.get(5), tokens.get(6));
-                this.longitudeHemisphere = tokens.get(6).charAt(0);
+            if (!isEmpty(5) && !isEmpty(6)) {
+                this.longNmea = convertPosition(5, 6, 3);
+                this.longitudeHemisphere = firstChar(6);
             }
-            if (!tokens.get(7).isEmpty()) {
+            if (!isEmpty(7)) {
                 // conversion speed in knots to m/s : 1 m/s = 1.94384449 knots
-                this.speedNmea = Double.parseDouble(tokens.get(7)) / 1.94384449;
+                this.speedNmea = parseDouble(7) / 1.94384449;
             }
-            if (!tokens.get(8).isEmpty()) {
-                this.trackNmea = Double.parseDouble(tokens.get(8));
+            if (!isEmpty(8)) {
+                this.trackNmea = parseDouble(8);
             }
-            if (!tokens.get(9).isEmpty()) {
-                this.dateNmea = tokens.get(9);
+            if (!isEmpty(9)) {
+                this.dateNmea.set(this.buffer, this.tokenStart[9], this.tokenEnd[9]);
             }
         } else {
             this.validPosition = false;
         }
     }
 
-    private void parseGLLSentence(List<String> tokens) {
-        if (tokens.size() > 6) {
-            checkPosition(tokens, 7);
-            if (!tokens.get(1).isEmpty() && !tokens.get(2).isEmpty()) {
-                this.latNmea = convertPositionlat(tokens.get(1), tokens.get(2));
-                this.latitudeHemisphere = tokens.get(2).charAt(0);
+    private void parseGLLSentence() {
+        if (this.tokenCount > 6) {
+            this.validPosition = noneEmpty(0, 7);
+            if (!isEmpty(1) && !isEmpty(2)) {
+                this.latNmea = convertPosition(1, 2, 2);
+                this.latitudeHemisphere = firstChar(2);
             }
-            if (!tokens.get(3).isEmpty() && !tokens.get(4).isEmpty()) {
-                this.longNmea = convertPositionlon(tokens.get(3), tokens.get(4));
-                this.longitudeHemisphere = tokens.get(4).charAt(0);
+            if (!isEmpty(3) && !isEmpty(4)) {
+                this.longNmea = convertPosition(3, 4, 3);
+                this.longitudeHemisphere = firstChar(4);
             }
-            if (!tokens.get(5).isEmpty()) {
-                this.timeNmea = tokens.get(5);
+            if (!isEmpty(5)) {
+                this.timeNmea.set(this.buffer, this.tokenStart[5], this.tokenEnd[5]);
             }
-            if (!tokens.get(6).isEmpty() && !"A".equals(tokens.get(6))) { // check validity
+            if (!isEmpty(6) && (tokenLength(6) != 1 || firstChar(6) != 'A')) { // check validity
                 this.validPosition = false;
             }
         } else {
@@ -184,43 +221,193 @@ public class NMEAParser {
         }
     }
 
-    private void parseGGASentence(List<String> tokens) {
-        if (tokens.size() > 9) {
-            checkPosition(tokens, 10);
-            if (!tokens.get(1).isEmpty()) {
-                this.timeNmea = tokens.get(1);
+    private void parseGGASentence() {
+        if (this.tokenCount > 9) {
+            this.validPosition = noneEmpty(0, 10);
+            if (!isEmpty(1)) {
+                this.timeNmea.set(this.buffer, this.tokenStart[1], this.tokenEnd[1]);
             }
-            if (!tokens.get(2).isEmpty() && !tokens.get(3).isEmpty()) {
-                this.latNmea = convertPositionlat(tokens.get(2), tokens.get(3));
-                this.latitudeHemisphere = tokens.get(3).charAt(0);
+            if (!isEmpty(2) && !isEmpty(3)) {
+                this.latNmea = convertPosition(2, 3, 2);
+                this.latitudeHemisphere = firstChar(3);
             }
-            if (!tokens.get(4).isEmpty() && !tokens.get(5).isEmpty()) {
-                this.longNmea = convertPositionlon(tokens.get(4), tokens.get(5));
-                this.longitudeHemisphere = tokens.get(5).charAt(0);
+            if (!isEmpty(4) && !isEmpty(5)) {
+                this.longNmea = convertPosition(4, 5, 3);
+                this.longitudeHemisphere = firstChar(5);
             }
-            if (!tokens.get(6).isEmpty()) {
-                this.fixQuality = Integer.parseInt(tokens.get(6));
+            if (!isEmpty(6)) {
+                this.fixQuality = parseInt(6);
                 if (this.fixQuality == 0) {
                     this.validPosition = false;
                 }
             }
-            if (!tokens.get(7).isEmpty()) {
-                this.nrSatellites = Integer.parseInt(tokens.get(7));
+            if (!isEmpty(7)) {
+                this.nrSatellites = parseInt(7);
             }
-            if (!tokens.get(8).isEmpty()) {
-                this.dopNmea = Double.parseDouble(tokens.get(8));
+            if (!isEmpty(8)) {
+                this.dopNmea = parseDouble(8);
             }
-            if (!tokens.get(9).isEmpty()) {
-                this.altNmea = Double.parseDouble(tokens.get(9));
+            if (!isEmpty(9)) {
+                this.altNmea = parseDouble(9);
             }
         } else {
             this.validPosition = false;
         }
     }
 
-    private void checkPosition(List<String> tokens, int size) {
-        // Create a list containing the indexes of empty tokens
-        this.validPosition = tokens.stream().limit(size).noneMatch(String::isEmpty);
+    /**
+     * Splits the sentence body on commas. As in {@link String#split(String)}, trailing empty tokens are not counted.
+     */
+    private void tokenize(final int start, final int end) {
+        int count = 0;
+        int tokenBegin = start;
+
+        for (int i = start; i <= end; i++) {
+            if (i == end || this.buffer[i] == ',') {
+                if (count == this.tokenStart.length) {
+                    this.tokenStart = Arrays.copyOf(this.tokenStart, count * 2);
+                    this.tokenEnd = Arrays.copyOf(this.tokenEnd, count * 2);
+                }
+                this.tokenStart[count] = tokenBegin;
+                this.tokenEnd[count] = i;
+                count++;
+                tokenBegin = i + 1;
+            }
+        }
+
+        while (count > 0 && this.tokenStart[count - 1] == this.tokenEnd[count - 1]) {
+            count--;
+        }
+
+        this.tokenCount = count;
+    }
+
+    private int tokenLength(final int index) {
+        return this.tokenEnd[index] - this.tokenStart[index];
+    }
+
+    private boolean isEmpty(final int index) {
+        return index >= this.tokenCount || this.tokenStart[index] == this.tokenEnd[index];
+    }
+
+    private boolean noneEmpty(final int from, final int to) {
+        final int limit = Math.min(to, this.tokenCount);
+        for (int i = from; i < limit; i++) {
+            if (isEmpty(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private char firstChar(final int index) {
+        return (char) (this.buffer[this.tokenStart[index]] & 0xff);
+    }
+
+    private boolean isSentenceType(final char a, final char b, final char c) {
+        final int end = this.tokenEnd[0];
+        return tokenLength(0) >= 3 && this.buffer[end - 3] == a && this.buffer[end - 2] == b
+                && this.buffer[end - 1] == c;
+    }
+
+    private boolean contains(final int start, final int end, final char a, final char b, final char c) {
+        for (int i = start; i + 2 < end; i++) {
+            if (this.buffer[i] == a && this.buffer[i + 1] == b && this.buffer[i + 2] == c) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double parseDouble(final int index) {
+        return parseDouble(this.buffer, this.tokenStart[index], this.tokenEnd[index]);
+    }
+
+    private int parseInt(final int index) {
+        return parseInt(this.buffer, this.tokenStart[index], this.tokenEnd[index]);
+    }
+
+    /**
+     * Parses a decimal number in the [+-]digits[.digits] format, numbers that cannot be converted exactly without
+     * allocations are delegated to {@link Double#parseDouble(String)}.
+     */
+    static double parseDouble(final byte[] buffer, final int start, final int end) {
+        int i = start;
+        boolean negative = false;
+
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int scale = 0;
+        boolean hasDigits = false;
+        boolean hasDot = false;
+
+        for (; i < end; i++) {
+            final byte b = buffer[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                hasDigits = true;
+                if (hasDot) {
+                    scale++;
+                }
+                if (mantissa >= MAX_EXACT_MANTISSA || scale >= POWERS_OF_TEN.length) {
+                    return parseDoubleSlow(buffer, start, end);
+                }
+            } else if (b == '.' && !hasDot) {
+                hasDot = true;
+            } else {
+                return parseDoubleSlow(buffer, start, end);
+            }
+        }
+
+        if (!hasDigits) {
+            return parseDoubleSlow(buffer, start, end);
+        }
+
+        final double result = mantissa / POWERS_OF_TEN[scale];
+        return negative ? -result : result;
+    }
+
+    private static double parseDoubleSlow(final byte[] buffer, final int start, final int end) {
+        return Double.parseDouble(new String(buffer, start, end - start, StandardCharsets.ISO_8859_1));
+    }
+
+    static int parseInt(final byte[] buffer, final int start, final int end) {
+        int i = start;
+        boolean negative = false;
+
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+
+        // at most 9 digits, to avoid overflow checks
+        if (i == end || end - i > 9) {
+            return parseIntSlow(buffer, start, end);
+        }
+
+        int result = 0;
+        for (; i < end; i++) {
+            final byte b = buffer[i];
+            if (b < '0' || b > '9') {
+                return parseIntSlow(buffer, start, end);
+            }
+            result = result * 10 + (b - '0');
+        }
+
+        return negative ? -result : result;
+    }
+
+    private static int parseIntSlow(final byte[] buffer, final int start, final int end) {
+        return Integer.parseInt(new String(buffer, start, end - start, StandardCharsets.ISO_8859_1));
+    }
+
+    private double convertPosition(final int posIndex, final int directionIndex, final int degChars) {
+        return convertPosition(this.buffer, this.tokenStart[posIndex], this.tokenEnd[posIndex],
+                this.tokenStart[directionIndex], this.tokenEnd[directionIndex], degChars);
     }
 
     /**
@@ -232,22 +419,32 @@ public class NMEAParser {
      *            number of characters representing degrees
      * @return
      */
-    private double convertPosition(String pos, String direction, int degChars) {
-        if (pos.length() < 6) {
+    private static double convertPosition(final byte[] buffer, final int posStart, final int posEnd,
+            final int directionStart, final int directionEnd, final int degChars) {
+        if (posEnd - posStart < 6) {
             return 0;
         }
 
-        String s = pos.substring(0, degChars);
-        double deg = Double.parseDouble(s);
-        s = pos.substring(degChars);
-        double min = Double.parseDouble(s);
+        double deg = parseDouble(buffer, posStart, posStart + degChars);
+        double min = parseDouble(buffer, posStart + degChars, posEnd);
         deg = deg + min / 60;
-        if (direction.contains("S") || direction.contains("W")) {
-            deg = -deg;
+        for (int i = directionStart; i < directionEnd; i++) {
+            if (buffer[i] == 'S' || buffer[i] == 'W') {
+                return -deg;
+            }
         }
         return deg;
     }
 
+    private static double convertPosition(String pos, String direction, int degChars) {
+        final byte[] posBytes = pos.getBytes(StandardCharsets.ISO_8859_1);
+        final byte[] directionBytes = direction.getBytes(StandardCharsets.ISO_8859_1);
+        final byte[] bytes = Arrays.copyOf(posBytes, posBytes.length + directionBytes.length);
+        System.arraycopy(directionBytes, 0, bytes, posBytes.length, directionBytes.length);
+
+        return convertPosition(bytes, 0, posBytes.length, posBytes.length, bytes.length, degChars);
+    }
+
     double convertPositionlat(String pos, String direction) {
         return convertPosition(pos, direction, 2);
     }
@@ -257,20 +454,50 @@ public class NMEAParser {
     }
 
     boolean computeNMEACksum(String nmeaMessageIn) {
-        final int starpos = nmeaMessageIn.indexOf('*');
-        final String strChecksum = nmeaMessageIn.substring(starpos + 1, nmeaMessageIn.length() - 1);
-        final int parsedChecksum = Integer.parseInt(strChecksum, 16); // Check sum is coded in hex string
+        final byte[] bytes = nmeaMessageIn.getBytes(StandardCharsets.ISO_8859_1);
+        final int starpos = indexOf(bytes, 0, bytes.length, '*');
+        return starpos >= 0 && isChecksumValid(bytes, 0, starpos, bytes.length);
+    }
+
+    /**
+     * Verifies the checksum, coded as hex digits after the '*' character, against the XOR of the characters between
+     * the starting '$' and the '*'.
+     */
+    private static boolean isChecksumValid(final byte[] sentence, final int start, final int starpos, final int end) {
+        int parsedChecksum = 0;
+        int digits = 0;
+
+        for (int i = starpos + 1; i < end && digits < 2; i++, digits++) {
+            final int digit = Character.digit(sentence[i], 16);
+            if (digit < 0) {
+                break;
+            }
+            parsedChecksum = parsedChecksum << 4 | digit;
+        }
+
+        if (digits == 0) {
+            return false;
+        }
 
         int actualChecksum = 0;
-        for (int i = 1; i < starpos; i++) {
-            actualChecksum ^= nmeaMessageIn.charAt(i);
+        for (int i = start + 1; i < starpos; i++) {
+            actualChecksum ^= sentence[i] & 0xff;
         }
 
         return actualChecksum == parsedChecksum;
     }
 
+    private static int indexOf(final byte[] buffer, final int start, final int end, final char c) {
+        for (int i = start; i < end; i++) {
+            if (buffer[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     public String getTimeNmea() {
-        return this.timeNmea;
+        return this.timeNmea.get();
     }
 
     public int getFixQuality() {
@@ -278,7 +505,7 @@ public class NMEAParser {
     }
 
     public String getDateNmea() {
-        return this.dateNmea;
+        return this.dateNmea.get();
     }
 
     public double getLongNmea() {
@@ -371,6 +598,50 @@ public class NMEAParser {
         return this.longitudeHemisphere;
     }
 
+    /**
+     * A text field copied from the sentence buffer, the {@link String} representation is created on demand.
+     */
+    private static final class TextField {
+
+        private byte[] value = new byte[16];
+        private int length = -1;
+        private String string;
+
+        void set(final byte[] buffer, final int start, final int end) {
+            final int newLength = end - start;
+
+            if (newLength == this.length && regionEquals(buffer, start)) {
+                return;
+            }
+
+            if (newLength > this.value.length) {
+                this.value = new byte[newLength];
+            }
+            System.arraycopy(buffer, start, this.value, 0, newLength);
+            this.length = newLength;
+            this.string = null;
+        }
+
+        private boolean regionEquals(final byte[] buffer, final int start) {
+            for (int i = 0; i < this.length; i++) {
+                if (this.value[i] != buffer[start + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String get() {
+            if (this.length < 0) {
+                return null;
+            }
+            if (this.string == null) {
+                this.string = new String(this.value, 0, this.length, StandardCharsets.ISO_8859_1);
+            }
+            return this.string;
+        }
+    }
+
     public enum Code {
         INVALID,
         BAD_CHECKSUM,
@@ -309,6 +309,11 @@ public class PositionServiceImpl
         return device;
     }
 
+    @Override
+    public boolean isNmeaSentenceRequested() {
+        return !this.positionListeners.isEmpty();
+    }
+
     @Override
     public void newNmeaSentence(final String nmeaSentence) {
         for (final PositionListener listener : this.positionListeners.values()) {
@@ -100,19 +100,26 @@ public class FirewallConfigurationServiceImpl implements FirewallConfigurationSe
 
         FirewallConfiguration firewallConfiguration = new FirewallConfiguration(properties);
         try {
-            setFirewallOpenPortConfiguration(firewallConfiguration.getOpenPortConfigs());
-        } catch (KuraException e) {
-            logger.error("Failed to set Firewall Open Ports Configuration", e);
-        }
-        try {
-            setFirewallPortForwardingConfiguration(firewallConfiguration.getPortForwardConfigs());
-        } catch (KuraException e) {
-            logger.error("Failed to set Firewall Port Forwarding Configuration", e);
-        }
-        try {
-            setFirewallNatConfiguration(firewallConfiguration.getNatConfigs());
+            // apply the whole configuration with a single firewall update
+            batchUpdate(() -> {
+                try {
+                    setFirewallOpenPortConfiguration(firewallConfiguration.getOpenPortConfigs());
+                } catch (KuraException e) {
+                    logger.error("Failed to set Firewall Open Ports Configuration", e);
+                }
+                try {
+                    setFirewallPortForwardingConfiguration(firewallConfiguration.getPortForwardConfigs());
+                } catch (KuraException e) {
+                    logger.error("Failed to set Firewall Port Forwarding Configuration", e);
+                }
+                try {
+                    setFirewallNatConfiguration(firewallConfiguration.getNatConfigs());
+                } catch (KuraException e) {
+                    logger.error("Failed to set Firewall NAT Configuration", e);
+                }
+            });
         } catch (KuraException e) {
-            logger.error("Failed to set Firewall NAT Configuration", e);
+            logger.error("Failed to apply the Firewall Configuration", e);
         }
 
         // raise the event because there was a change
@@ -294,6 +301,14 @@ public class FirewallConfigurationServiceImpl implements FirewallConfigurationSe
         addNatRules(natRules);
     }
 
+    protected void batchUpdate(LinuxFirewall.RuleChanges changes) throws KuraException {
+        if (this.firewall != null) {
+            this.firewall.batchUpdate(changes);
+        } else {
+            changes.apply();
+        }
+    }
+
     protected void addLocalRules(ArrayList<LocalRule> localRules) throws KuraException {
         this.firewall.addLocalRules(localRules);
     }
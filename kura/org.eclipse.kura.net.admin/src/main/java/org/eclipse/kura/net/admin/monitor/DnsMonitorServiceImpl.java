@@ -82,6 +82,9 @@ public class DnsMonitorServiceImpl implements DnsMonitorService, EventHandler {
 
     private LinuxNetworkUtil linuxNetworkUtil;
 
+    private final AtomicBoolean linkStateChanged = new AtomicBoolean();
+    private final LinkStateWatcher.Listener linkStateListener = this::linkStateChanged;
+
     public void setNetworkConfigurationService(NetworkConfigurationService netConfigService) {
         this.netConfigService = netConfigService;
     }
@@ -127,9 +130,11 @@ public class DnsMonitorServiceImpl implements DnsMonitorService, EventHandler {
         // FIXME - brute force handler for DNS updates
         this.executor = Executors.newSingleThreadExecutor();
         stopThread.set(false);
+        LinkStateWatcher.getInstance().addListener(this.linkStateListener, this.executorService);
         monitorTask = this.executor.submit(() -> {
             while (!stopThread.get()) {
                 Thread.currentThread().setName("DnsMonitorServiceImpl");
+                this.linkStateChanged.set(false);
                 Set<IPAddress> dnsServers = DnsMonitorServiceImpl.this.dnsUtil.getDnServers();
 
                 // Check that resolv.conf matches what is configured
@@ -175,6 +180,8 @@ public class DnsMonitorServiceImpl implements DnsMonitorService, EventHandler {
     }
 
     protected void deactivate(ComponentContext componentContext) {
+        LinkStateWatcher.getInstance().removeListener(this.linkStateListener);
+
         if (monitorTask != null && !monitorTask.isDone()) {
             stopThread.set(true);
             monitorNotity();
@@ -434,6 +441,17 @@ public class DnsMonitorServiceImpl implements DnsMonitorService, EventHandler {
         }
     }
 
+    // addresses and routes are changed when a DHCP lease is obtained, the DNS servers are likely to change as well
+    private void linkStateChanged(List<LinkStateEvent> events) {
+        for (LinkStateEvent event : events) {
+            if (event.getKind() != LinkStateEvent.Kind.LINK) {
+                this.linkStateChanged.set(true);
+                monitorNotity();
+                return;
+            }
+        }
+    }
+
     private void monitorNotity() {
         if (stopThread != null) {
             synchronized (stopThread) {
@@ -445,7 +463,9 @@ public class DnsMonitorServiceImpl implements DnsMonitorService, EventHandler {
     private void monitorWait() throws InterruptedException {
         if (stopThread != null) {
             synchronized (stopThread) {
-                stopThread.wait(THREAD_INTERVAL);
+                if (!this.linkStateChanged.get()) {
+                    stopThread.wait(THREAD_INTERVAL);
+                }
             }
         }
     }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2019 Eurotech and/or its affiliates
+ * Copyright (c) 2011, 2020 Eurotech and/or its affiliates
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -17,6 +17,8 @@ import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -64,6 +66,8 @@ public class EthernetMonitorServiceImpl implements EthernetMonitorService, Event
             NetworkConfigurationChangeEvent.NETWORK_EVENT_CONFIG_CHANGE_TOPIC, };
 
     private static final long THREAD_INTERVAL = 30000;
+    // link changes are reported by the LinkStateWatcher, polling is only a safety net
+    private static final long LINK_WATCHER_THREAD_INTERVAL = 120000;
     private static final long THREAD_TERMINATION_TOUT = 1; // in seconds
 
     private static Object lock = new Object();
@@ -83,6 +87,9 @@ public class EthernetMonitorServiceImpl implements EthernetMonitorService, Event
     private ExecutorService executor;
     private LinuxNetworkUtil linuxNetworkUtil;
 
+    private final Set<String> linkStateChanges = ConcurrentHashMap.newKeySet();
+    private final LinkStateWatcher.Listener linkStateListener = this::linkStateChanged;
+
     // ----------------------------------------------------------------
     //
     // Dependencies
@@ -140,6 +147,8 @@ public class EthernetMonitorServiceImpl implements EthernetMonitorService, Event
 
         this.executor = Executors.newCachedThreadPool();
 
+        LinkStateWatcher.getInstance().addListener(this.linkStateListener, this.executorService);
+
         // Get initial configurations
         try {
             NetworkConfiguration netConfiguration = this.netConfigService.getNetworkConfiguration();
@@ -165,6 +174,8 @@ public class EthernetMonitorServiceImpl implements EthernetMonitorService, Event
     }
 
     protected void deactivate(ComponentContext componentContext) {
+        LinkStateWatcher.getInstance().removeListener(this.linkStateListener);
+
         for (String key : tasks.keySet()) {
             synchronized (lock) {
                 stopMonitor(key);
@@ -190,6 +201,8 @@ public class EthernetMonitorServiceImpl implements EthernetMonitorService, Event
         builder.setType(NetInterfaceType.ETHERNET);
         builder.setInterfaceName(interfaceName);
         builder.setL2OnlyInterface(isL2Only);
+        // the monitors of the other interfaces share the same snapshot
+        builder.setInterfaceStatus(this.linuxNetworkUtil.getInterfaceStatuses().get(interfaceName));
         return builder.buildInterfaceState();
     }
 
@@ -214,6 +227,9 @@ public class EthernetMonitorServiceImpl implements EthernetMonitorService, Event
                 boolean dhcpServerEnabled = false;
                 boolean postStatusChangeEvent = false;
 
+                // changes reported from now on require another run
+                this.linkStateChanges.remove(interfaceName);
+
                 NetInterfaceConfig<NetInterfaceAddressConfig> currentInterfaceConfig = this.networkConfiguration
                         .get(interfaceName);
                 NetInterfaceConfig<NetInterfaceAddressConfig> newInterfaceConfig = this.newNetworkConfiguration
@@ -574,6 +590,17 @@ public class EthernetMonitorServiceImpl implements EthernetMonitorService, Event
         this.netAdminService.manageDhcpServer(interfaceName, false);
     }
 
+    private void linkStateChanged(List<LinkStateEvent> events) {
+        for (LinkStateEvent event : events) {
+            String interfaceName = event.getInterfaceName();
+            if (stopThreads != null && stopThreads.containsKey(interfaceName)
+                    && this.linkStateChanges.add(interfaceName)) {
+                logger.debug("Link state of {} changed - waking up monitor", interfaceName);
+                monitorNotify(interfaceName);
+            }
+        }
+    }
+
     private void monitorNotify(String interfaceName) {
         Object o = stopThreads.get(interfaceName);
         if (o != null) {
@@ -586,8 +613,12 @@ public class EthernetMonitorServiceImpl implements EthernetMonitorService, Event
     private void monitorWait(String interfaceName) throws InterruptedException {
         Object o = stopThreads.get(interfaceName);
         if (o != null) {
+            long interval = LinkStateWatcher.getInstance().isRunning() ? LINK_WATCHER_THREAD_INTERVAL
+                    : THREAD_INTERVAL;
             synchronized (o) {
-                o.wait(THREAD_INTERVAL);
+                if (!this.linkStateChanges.contains(interfaceName)) {
+                    o.wait(interval);
+                }
             }
         }
     }
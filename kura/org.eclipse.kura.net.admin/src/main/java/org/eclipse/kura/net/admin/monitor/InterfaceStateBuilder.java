@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019 Eurotech and/or its affiliates
+ * Copyright (c) 2019, 2020 Eurotech and/or its affiliates
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -15,6 +15,7 @@ import org.eclipse.kura.KuraErrorCode;
 import org.eclipse.kura.KuraException;
 import org.eclipse.kura.executor.CommandExecutorService;
 import org.eclipse.kura.linux.net.ConnectionInfoImpl;
+import org.eclipse.kura.linux.net.util.LinuxInterfaceStatus;
 import org.eclipse.kura.linux.net.util.LinuxNetworkUtil;
 import org.eclipse.kura.linux.net.wifi.HostapdManager;
 import org.eclipse.kura.linux.net.wifi.WpaSupplicantManager;
@@ -37,6 +38,7 @@ public class InterfaceStateBuilder {
     private boolean isL2OnlyInterface;
     private NetInterfaceType type;
     private WifiMode wifiMode;
+    private LinuxInterfaceStatus interfaceStatus;
 
     private final LinuxNetworkUtil linuxNetworkUtil;
     private final CommandExecutorService executorService;
@@ -102,6 +104,18 @@ public class InterfaceStateBuilder {
         this.carrierChanges = carrierChanges;
     }
 
+    public LinuxInterfaceStatus getInterfaceStatus() {
+        return this.interfaceStatus;
+    }
+
+    /**
+     * Sets the interface status read by {@link LinuxNetworkUtil#getInterfaceStatuses()}, which allows the monitors to
+     * build the state of all their interfaces from a single snapshot. If not set, the interface is looked up by name.
+     */
+    public void setInterfaceStatus(LinuxInterfaceStatus interfaceStatus) {
+        this.interfaceStatus = interfaceStatus;
+    }
+
     public static Logger getLogger() {
         return logger;
     }
@@ -119,14 +133,11 @@ public class InterfaceStateBuilder {
             throw new KuraException(KuraErrorCode.CONFIGURATION_ERROR, "Missing arguments");
         }
         if (this.type != null) {
-            this.up = this.isL2OnlyInterface ? this.linuxNetworkUtil.isUp(this.interfaceName)
-                    : this.linuxNetworkUtil.hasAddress(this.interfaceName);
-            this.link = this.linuxNetworkUtil.isLinkUp(this.type, this.interfaceName);
+            setLinkState(this.type);
             logger.debug("InterfaceState() :: {} - link?={}", this.interfaceName, this.link);
             logger.debug("InterfaceState() :: {} - up?={}", this.interfaceName, this.up);
             ConnectionInfo connInfo = new ConnectionInfoImpl(this.interfaceName);
             this.ipAddress = connInfo.getIpAddress();
-            this.carrierChanges = this.linuxNetworkUtil.getCarrierChanges(this.interfaceName);
         }
         return new InterfaceState(this.interfaceName, this.up, this.link, this.ipAddress, this.carrierChanges);
     }
@@ -135,18 +146,29 @@ public class InterfaceStateBuilder {
         if (this.interfaceName == null || this.interfaceName.isEmpty() || this.wifiMode == null) {
             throw new KuraException(KuraErrorCode.CONFIGURATION_ERROR, "Missing arguments");
         }
-        this.up = this.isL2OnlyInterface ? this.linuxNetworkUtil.isUp(this.interfaceName)
-                : this.linuxNetworkUtil.hasAddress(this.interfaceName);
-        this.link = this.linuxNetworkUtil.isLinkUp(NetInterfaceType.WIFI, this.interfaceName);
+        setLinkState(NetInterfaceType.WIFI);
         logger.debug("InterfaceState() :: {} - link?={}", this.interfaceName, this.link);
         logger.debug("InterfaceState() :: {} - up?={}", this.interfaceName, this.up);
         ConnectionInfo connInfo = new ConnectionInfoImpl(this.interfaceName);
         this.ipAddress = connInfo.getIpAddress();
         setWifiLinkState(this.interfaceName, this.wifiMode);
-        this.carrierChanges = this.linuxNetworkUtil.getCarrierChanges(this.interfaceName);
         return new WifiInterfaceState(this.interfaceName, this.up, this.link, this.ipAddress, this.carrierChanges);
     }
 
+    private void setLinkState(NetInterfaceType linkType) throws KuraException {
+        if (this.interfaceStatus != null) {
+            this.up = this.isL2OnlyInterface ? this.interfaceStatus.isUp()
+                    : this.interfaceStatus.getInetAddress() != null && this.interfaceStatus.getInetMask() != null;
+            this.link = this.interfaceStatus.isLinkUp();
+            this.carrierChanges = this.interfaceStatus.getCarrierChanges();
+        } else {
+            this.up = this.isL2OnlyInterface ? this.linuxNetworkUtil.isUp(this.interfaceName)
+                    : this.linuxNetworkUtil.hasAddress(this.interfaceName);
+            this.link = this.linuxNetworkUtil.isLinkUp(linkType, this.interfaceName);
+            this.carrierChanges = this.linuxNetworkUtil.getCarrierChanges(this.interfaceName);
+        }
+    }
+
     private void setWifiLinkState(String interfaceName, WifiMode wifiMode) throws KuraException {
         if (this.link) {
             if (WifiMode.MASTER.equals(wifiMode)) {
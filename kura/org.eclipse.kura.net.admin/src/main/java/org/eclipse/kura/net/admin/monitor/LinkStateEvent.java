@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.net.admin.monitor;
+
+/**
+ * A change of a network interface reported by the kernel and delivered by the {@link LinkStateWatcher}.
+ */
+final class LinkStateEvent {
+
+    enum Kind {
+        /** The link state, flags or attributes of the interface changed, or the interface was added or removed. */
+        LINK,
+        /** An address was added to or removed from the interface. */
+        ADDRESS,
+        /** A route through the interface was added or removed. */
+        ROUTE
+    }
+
+    private static final String DELETED_PREFIX = "Deleted ";
+
+    private final Kind kind;
+    private final String interfaceName;
+    private final boolean deleted;
+
+    LinkStateEvent(Kind kind, String interfaceName, boolean deleted) {
+        this.kind = kind;
+        this.interfaceName = interfaceName;
+        this.deleted = deleted;
+    }
+
+    Kind getKind() {
+        return this.kind;
+    }
+
+    String getInterfaceName() {
+        return this.interfaceName;
+    }
+
+    /**
+     * @return true if the link, address or route has been removed
+     */
+    boolean isDeleted() {
+        return this.deleted;
+    }
+
+    /**
+     * Parses a line printed by {@code ip -o monitor link address route}, for example:
+     *
+     * <pre>
+     * 2: eth0: &lt;NO-CARRIER,BROADCAST,MULTICAST,UP&gt; mtu 1500 qdisc pfifo_fast state DOWN ...
+     * Deleted 2: eth0    inet 192.168.1.10/24 brd 192.168.1.255 scope global eth0 ...
+     * default via 192.168.1.1 dev eth0 proto dhcp metric 100
+     * </pre>
+     *
+     * @param line
+     *            the line
+     * @return the event, or null if the line does not refer to an interface
+     */
+    static LinkStateEvent parse(String line) {
+        String value = line.trim();
+        boolean deleted = false;
+        if (value.startsWith(DELETED_PREFIX)) {
+            deleted = true;
+            value = value.substring(DELETED_PREFIX.length());
+        }
+
+        int colon = value.indexOf(':');
+        if (colon > 0 && isNumber(value, colon)) {
+            // link and address lines start with the interface index
+            int nameStart = skipSpaces(value, colon + 1);
+            int nameEnd = nameStart;
+            while (nameEnd < value.length() && value.charAt(nameEnd) != ':' && value.charAt(nameEnd) != ' ') {
+                nameEnd++;
+            }
+            if (nameEnd == nameStart || nameEnd == value.length()) {
+                return null;
+            }
+
+            Kind kind = value.charAt(nameEnd) == ':' ? Kind.LINK : Kind.ADDRESS;
+            return new LinkStateEvent(kind, stripLinkName(value.substring(nameStart, nameEnd)), deleted);
+        }
+
+        int dev = value.indexOf(" dev ");
+        if (dev < 0) {
+            return null;
+        }
+        int nameStart = skipSpaces(value, dev + 5);
+        int nameEnd = value.indexOf(' ', nameStart);
+        if (nameEnd < 0) {
+            nameEnd = value.length();
+        }
+        if (nameEnd == nameStart) {
+            return null;
+        }
+        return new LinkStateEvent(Kind.ROUTE, value.substring(nameStart, nameEnd), deleted);
+    }
+
+    private static boolean isNumber(String value, int end) {
+        for (int i = 0; i < end; i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipSpaces(String value, int start) {
+        int i = start;
+        while (i < value.length() && value.charAt(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    // virtual interfaces are printed with their parent, as in eth0.100@eth0
+    private static String stripLinkName(String name) {
+        int at = name.indexOf('@');
+        return at > 0 ? name.substring(0, at) : name;
+    }
+
+    @Override
+    public String toString() {
+        return (this.deleted ? "Deleted " : "") + this.kind + " " + this.interfaceName;
+    }
+}
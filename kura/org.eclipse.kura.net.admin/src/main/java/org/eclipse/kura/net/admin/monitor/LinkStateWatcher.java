@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.net.admin.monitor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.eclipse.kura.executor.Command;
+import org.eclipse.kura.executor.CommandExecutorService;
+import org.eclipse.kura.linux.net.util.LinuxNetworkUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches the network interfaces for link, address and route changes using a single {@code ip monitor} process
+ * shared by all the network monitors.
+ * <p>
+ * Events are collected for a short settle time and delivered in batches, so that a burst of changes (e.g. an ifdown
+ * followed by an ifup) results in a single wake up of the listeners. The listeners are called on the watcher thread
+ * and must not block.
+ * <p>
+ * The process is started when the first listener is added and stopped when the last one is removed. If it terminates
+ * in the meantime, it is restarted after a delay that doubles on every consecutive failure. The monitors are
+ * expected to keep polling, the watcher only allows them to react immediately and to poll less frequently while
+ * {@link #isRunning()} returns true.
+ * <p>
+ * While the process is running the interface state snapshot of {@link LinuxNetworkUtil} is invalidated on every
+ * change instead of expiring after a short time.
+ */
+final class LinkStateWatcher {
+
+    interface Listener {
+
+        void linkStateChanged(List<LinkStateEvent> events);
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(LinkStateWatcher.class);
+
+    static final String[] IP_MONITOR_COMMAND = { "ip", "-o", "monitor", "link", "address", "route" };
+
+    private static final long SETTLE_TIME = 1000; // in milliseconds
+    private static final int MAX_LINE_LENGTH = 4096;
+    private static final long MIN_RESTART_DELAY = 1000; // in milliseconds
+    private static final long MAX_RESTART_DELAY = 60000; // in milliseconds
+
+    private static final LinkStateWatcher INSTANCE = new LinkStateWatcher();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final List<LinkStateEvent> pendingEvents = new ArrayList<>();
+    private final Predicate<String> toolExists;
+    private final long minRestartDelay;
+    private final long maxRestartDelay;
+
+    private CommandExecutorService executorService;
+    private ScheduledExecutorService dispatcher;
+    private boolean started;
+    private int session;
+    private long restartDelay;
+
+    LinkStateWatcher() {
+        this(LinuxNetworkUtil::toolExists, MIN_RESTART_DELAY, MAX_RESTART_DELAY);
+    }
+
+    LinkStateWatcher(Predicate<String> toolExists, long minRestartDelay, long maxRestartDelay) {
+        this.toolExists = toolExists;
+        this.minRestartDelay = minRestartDelay;
+        this.maxRestartDelay = maxRestartDelay;
+    }
+
+    static LinkStateWatcher getInstance() {
+        return INSTANCE;
+    }
+
+    synchronized void addListener(Listener listener, CommandExecutorService executorService) {
+        this.listeners.add(listener);
+
+        if (!this.started && executorService != null) {
+            start(executorService);
+        }
+    }
+
+    synchronized void removeListener(Listener listener) {
+        this.listeners.remove(listener);
+
+        if (this.listeners.isEmpty() && this.started) {
+            stop();
+        }
+    }
+
+    /**
+     * @return true if the {@code ip monitor} process is running and link changes are being reported
+     */
+    boolean isRunning() {
+        final CommandExecutorService currentExecutorService;
+        synchronized (this) {
+            if (!this.started) {
+                return false;
+            }
+            currentExecutorService = this.executorService;
+        }
+        return currentExecutorService.isRunning(IP_MONITOR_COMMAND);
+    }
+
+    private void start(CommandExecutorService executorService) {
+        if (!this.toolExists.test("ip")) {
+            logger.info("ip not found, link state changes will not be watched");
+            return;
+        }
+
+        this.executorService = executorService;
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "LinkStateWatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.started = true;
+        this.restartDelay = this.minRestartDelay;
+
+        launch();
+        logger.info("Watching link state changes");
+    }
+
+    private void launch() {
+        final int currentSession = ++this.session;
+        final long launchTime = System.nanoTime();
+
+        LinuxNetworkUtil.getInterfaceStatusProvider().setChangeNotificationsEnabled(true);
+        // changes that happened while the process was starting are not reported
+        this.dispatcher.schedule(LinuxNetworkUtil.getInterfaceStatusProvider()::invalidate, SETTLE_TIME,
+                TimeUnit.MILLISECONDS);
+
+        Command command = new Command(IP_MONITOR_COMMAND);
+        command.setOutputStream(new LineOutputStream(line -> processLine(line, currentSession)));
+        this.executorService.execute(command,
+                status -> processExited(currentSession, launchTime, status.getExitStatus().getExitCode()));
+    }
+
+    private synchronized void processExited(int exitedSession, long launchTime, int exitCode) {
+        if (this.session != exitedSession || !this.started) {
+            // stopped on purpose
+            return;
+        }
+
+        // changes are not reported until the process is running again
+        LinuxNetworkUtil.getInterfaceStatusProvider().setChangeNotificationsEnabled(false);
+        final int restartSession = ++this.session;
+
+        if (System.nanoTime() - launchTime >= TimeUnit.MILLISECONDS.toNanos(this.maxRestartDelay)) {
+            // the process was working, this is not a consecutive failure
+            this.restartDelay = this.minRestartDelay;
+        }
+        logger.warn("ip monitor terminated with exit code {}, restarting in {} ms", exitCode, this.restartDelay);
+
+        this.dispatcher.schedule(() -> restart(restartSession), this.restartDelay, TimeUnit.MILLISECONDS);
+        this.restartDelay = Math.min(this.restartDelay * 2, this.maxRestartDelay);
+    }
+
+    private synchronized void restart(int restartSession) {
+        if (this.session != restartSession || !this.started) {
+            return;
+        }
+        logger.info("Restarting ip monitor");
+        launch();
+    }
+
+    private void stop() {
+        logger.info("Stopping the link state watcher");
+        CommandExecutorService currentExecutorService = this.executorService;
+        shutdown();
+        currentExecutorService.kill(IP_MONITOR_COMMAND, null);
+    }
+
+    private void shutdown() {
+        LinuxNetworkUtil.getInterfaceStatusProvider().setChangeNotificationsEnabled(false);
+        this.started = false;
+        this.session++;
+        this.executorService = null;
+        this.pendingEvents.clear();
+        if (this.dispatcher != null) {
+            this.dispatcher.shutdownNow();
+            this.dispatcher = null;
+        }
+    }
+
+    void processLine(String line, int lineSession) {
+        LinkStateEvent event = LinkStateEvent.parse(line);
+        if (event == null) {
+            logger.trace("Ignoring ip monitor output: {}", line);
+            return;
+        }
+        logger.debug("Link state change: {}", event);
+
+        // the cached interface state is stale from now on
+        LinuxNetworkUtil.getInterfaceStatusProvider().invalidate();
+
+        synchronized (this) {
+            if (lineSession != this.session || this.dispatcher == null) {
+                return;
+            }
+            if (this.pendingEvents.isEmpty()) {
+                this.dispatcher.schedule(this::dispatch, SETTLE_TIME, TimeUnit.MILLISECONDS);
+            }
+            this.pendingEvents.add(event);
+        }
+    }
+
+    private void dispatch() {
+        final List<LinkStateEvent> events;
+        synchronized (this) {
+            events = Collections.unmodifiableList(new ArrayList<>(this.pendingEvents));
+            this.pendingEvents.clear();
+        }
+
+        for (Listener listener : this.listeners) {
+            try {
+                listener.linkStateChanged(events);
+            } catch (Exception e) {
+                logger.warn("Failed to notify link state change", e);
+            }
+        }
+    }
+
+    /**
+     * Splits the output of the process in lines as it is produced.
+     */
+    private static final class LineOutputStream extends OutputStream {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final Consumer<String> consumer;
+
+        LineOutputStream(Consumer<String> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                this.consumer.accept(new String(this.buffer.toByteArray(), UTF_8));
+                this.buffer.reset();
+            } else if (this.buffer.size() < MAX_LINE_LENGTH) {
+                this.buffer.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
@@ -113,6 +113,8 @@ public class ModemMonitorServiceImpl implements ModemMonitorService, ModemManage
     private volatile boolean serviceActivated;
     private LinuxNetworkUtil linuxNetworkUtil;
 
+    private final LinkStateWatcher.Listener linkStateListener = this::linkStateChanged;
+
     public void setNetworkService(NetworkService networkService) {
         this.networkService = networkService;
     }
@@ -172,6 +174,7 @@ public class ModemMonitorServiceImpl implements ModemMonitorService, ModemManage
             }
 
             startMonitorTask();
+            LinkStateWatcher.getInstance().addListener(this.linkStateListener, this.executorService);
 
             this.serviceActivated = true;
             logger.debug("ModemMonitor activated and ready to receive events");
@@ -201,8 +204,19 @@ public class ModemMonitorServiceImpl implements ModemMonitorService, ModemManage
         }
     }
 
+    private void linkStateChanged(List<LinkStateEvent> events) {
+        for (LinkStateEvent event : events) {
+            if (event.getKind() == LinkStateEvent.Kind.LINK && event.getInterfaceName().startsWith("ppp")) {
+                logger.debug("Link state of {} changed - requesting monitor", event.getInterfaceName());
+                requestMonitor();
+                return;
+            }
+        }
+    }
+
     protected void deactivate() {
 
+        LinkStateWatcher.getInstance().removeListener(this.linkStateListener);
         stopMonitorTask();
 
         logger.debug("Terminating ModemMonitor Thread ...");
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2019 Eurotech and/or its affiliates
+ * Copyright (c) 2011, 2020 Eurotech and/or its affiliates
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -23,6 +23,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -43,6 +44,7 @@ import org.eclipse.kura.linux.net.util.IScanTool;
 import org.eclipse.kura.linux.net.util.IwLinkTool;
 import org.eclipse.kura.linux.net.util.IwconfigLinkTool;
 import org.eclipse.kura.linux.net.util.LinkTool;
+import org.eclipse.kura.linux.net.util.LinuxInterfaceStatus;
 import org.eclipse.kura.linux.net.util.LinuxNetworkUtil;
 import org.eclipse.kura.linux.net.util.ScanTool;
 import org.eclipse.kura.linux.net.wifi.WifiOptions;
@@ -107,6 +109,9 @@ public class WifiMonitorServiceImpl implements WifiClientMonitorService, EventHa
 
     private WifiDriverService wifiDriverService;
 
+    private final Set<String> linkStateChanges = ConcurrentHashMap.newKeySet();
+    private final LinkStateWatcher.Listener linkStateListener = this::linkStateChanged;
+
     public void setNetworkService(NetworkService networkService) {
         this.networkService = networkService;
     }
@@ -176,6 +181,7 @@ public class WifiMonitorServiceImpl implements WifiClientMonitorService, EventHa
         d.put(EventConstants.EVENT_TOPIC, EVENT_TOPICS);
         componentContext.getBundleContext().registerService(EventHandler.class.getName(), this, d);
         this.listeners = new ArrayList<>();
+        LinkStateWatcher.getInstance().addListener(this.linkStateListener, this.executorService);
         try {
             this.currentNetworkConfiguration = this.netConfigService.getNetworkConfiguration();
             initializeMonitoredInterfaces(this.currentNetworkConfiguration);
@@ -185,6 +191,7 @@ public class WifiMonitorServiceImpl implements WifiClientMonitorService, EventHa
     }
 
     protected void deactivate(ComponentContext componentContext) {
+        LinkStateWatcher.getInstance().removeListener(this.linkStateListener);
         this.listeners = null;
         if (monitorTask != null && !monitorTask.isDone()) {
             stopThread.set(true);
@@ -249,6 +256,8 @@ public class WifiMonitorServiceImpl implements WifiClientMonitorService, EventHa
     private void monitor() {
         synchronized (lock) {
             NetworkConfiguration newNetConfig = this.newNetConfiguration;
+            // changes reported from now on require another run
+            this.linkStateChanges.clear();
             try {
                 // Track the interfaces being reconfigured
                 List<String> interfacesToReconfigure = new ArrayList<>();
@@ -345,6 +354,7 @@ public class WifiMonitorServiceImpl implements WifiClientMonitorService, EventHa
                 builder.setInterfaceName(interfaceName);
                 builder.setType(NetInterfaceType.WIFI);
                 builder.setL2OnlyInterface(isL2Only);
+                builder.setInterfaceStatus(this.linuxNetworkUtil.getInterfaceStatuses().get(interfaceName));
                 this.interfaceStatuses.put(interfaceName, builder.buildInterfaceState());
             }
 
@@ -1036,6 +1046,8 @@ public class WifiMonitorServiceImpl implements WifiClientMonitorService, EventHa
 
     private Map<String, InterfaceState> getInterfaceStatuses(Collection<String> interfaceList) throws KuraException {
         Map<String, InterfaceState> statuses = new HashMap<>();
+        // all the interfaces are checked against the same snapshot
+        Map<String, LinuxInterfaceStatus> interfaceStatusSnapshot = this.linuxNetworkUtil.getInterfaceStatuses();
 
         for (String interfaceName : interfaceList) {
             WifiInterfaceConfigImpl wifiInterfaceConfig = (WifiInterfaceConfigImpl) this.currentNetworkConfiguration
@@ -1051,6 +1063,7 @@ public class WifiMonitorServiceImpl implements WifiClientMonitorService, EventHa
                 builder.setInterfaceName(interfaceName);
                 builder.setWifiMode(wifiConfig.getMode());
                 builder.setL2OnlyInterface(isL2Only);
+                builder.setInterfaceStatus(interfaceStatusSnapshot.get(interfaceName));
                 statuses.put(interfaceName, builder.buildWifiInterfaceState());
             }
         }
@@ -1086,6 +1099,42 @@ public class WifiMonitorServiceImpl implements WifiClientMonitorService, EventHa
         return deviceReady;
     }
 
+    private void linkStateChanged(List<LinkStateEvent> events) {
+        // called on the watcher thread, the interface type is checked by the monitor thread
+        boolean changed = false;
+        for (LinkStateEvent event : events) {
+            if (event.getKind() != LinkStateEvent.Kind.ROUTE) {
+                changed |= this.linkStateChanges.add(event.getInterfaceName());
+            }
+        }
+        if (changed) {
+            monitorNotify();
+        }
+    }
+
+    private boolean hasWifiLinkStateChanges() {
+        boolean wifiChanged = false;
+        Iterator<String> it = this.linkStateChanges.iterator();
+        while (it.hasNext()) {
+            String interfaceName = it.next();
+            it.remove();
+            if (isWifiInterface(interfaceName)) {
+                logger.debug("Link state of {} changed - waking up monitor", interfaceName);
+                wifiChanged = true;
+            }
+        }
+        return wifiChanged;
+    }
+
+    private boolean isWifiInterface(String interfaceName) {
+        try {
+            return getNetworkType(interfaceName) == NetInterfaceType.WIFI;
+        } catch (KuraException e) {
+            logger.debug("Failed to get the type of {}", interfaceName, e);
+            return false;
+        }
+    }
+
     private void monitorNotify() {
         if (stopThread != null) {
             synchronized (stopThread) {
@@ -1095,9 +1144,24 @@ public class WifiMonitorServiceImpl implements WifiClientMonitorService, EventHa
     }
 
     private void monitorWait() throws InterruptedException {
-        if (stopThread != null) {
+        if (stopThread == null) {
+            return;
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(THREAD_INTERVAL);
+        while (!stopThread.get()) {
+            final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                return;
+            }
             synchronized (stopThread) {
-                stopThread.wait(THREAD_INTERVAL);
+                if (this.linkStateChanges.isEmpty()) {
+                    stopThread.wait(remaining);
+                }
+            }
+            // woken up by the timeout or by a configuration change, or a WiFi link changed
+            if (this.linkStateChanges.isEmpty() || hasWifiLinkStateChanges()) {
+                return;
             }
         }
     }
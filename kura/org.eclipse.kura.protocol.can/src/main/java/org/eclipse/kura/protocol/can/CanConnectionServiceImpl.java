@@ -29,6 +29,8 @@ public class CanConnectionServiceImpl implements CanConnectionService {
     private static final Logger logger = LoggerFactory.getLogger(CanConnectionServiceImpl.class);
 
     private CanSocket socket = null;
+    private int installedCanId = -1;
+    private int installedCanMask;
 
     protected void activate() {
         logger.info("activating CanConnectionService");
@@ -50,6 +52,7 @@ public class CanConnectionServiceImpl implements CanConnectionService {
             this.socket = new CanSocket(Mode.RAW);
             this.socket.setLoopbackMode(false);
             this.socket.bind(CanSocket.CAN_ALL_INTERFACES);
+            this.installedCanId = -1;
         }
     }
 
@@ -85,8 +88,11 @@ public class CanConnectionServiceImpl implements CanConnectionService {
             throw new IllegalStateException("CAN Socket must be open before receiving");
         }
         try {
-            if (canId >= 0) {
+            // the filter is applied by the kernel, reinstall it only if it changed since the last call
+            if (canId >= 0 && (canId != this.installedCanId || canMask != this.installedCanMask)) {
                 this.socket.setCanFilter(canId, canMask);
+                this.installedCanId = canId;
+                this.installedCanMask = canMask;
             }
             CanFrame cf = this.socket.recv();
             CanId ci = cf.getCanId();
@@ -15,6 +15,7 @@ public class CanMessage {
 
     private int canId;
     private byte[] data;
+    private long timestamp;
 
     public byte[] getData() {
         return this.data;
@@ -32,4 +33,25 @@ public class CanMessage {
         this.canId = canId;
     }
 
+    /**
+     * Returns the time at which the frame has been received.
+     *
+     * @return the reception time in milliseconds since the epoch, or 0 if not available
+     * @since 2.1
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * Sets the time at which the frame has been received.
+     *
+     * @param timestamp
+     *            the reception time in milliseconds since the epoch
+     * @since 2.1
+     */
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
 }
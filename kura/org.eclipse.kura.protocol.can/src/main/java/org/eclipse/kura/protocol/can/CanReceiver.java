@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.protocol.can;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.entropia.can.CanSocket;
+import de.entropia.can.CanSocket.CanFrame;
+import de.entropia.can.CanSocket.CanInterface;
+import de.entropia.can.CanSocket.Mode;
+
+/**
+ * Receives the frames for a set of CAN identifiers from a single interface and delivers them in batches.
+ * <p>
+ * The receiver opens its own RAW socket bound to the provided interface (e.g. {@code can0} or {@code vcan0}), and
+ * installs in the kernel the narrowest id/mask filter that matches all the requested identifiers, so that most of the
+ * unrelated traffic is discarded before reaching user space. The frames are read by a dedicated thread and queued,
+ * a second thread drains the queue and passes all the frames available at that time to the consumer in a single call.
+ * If the consumer cannot keep up and the queue is full, new frames are discarded.
+ * <p>
+ * The receiver can be restarted after being closed. The threads of a previous start stop delivering frames as soon as
+ * the receiver is closed, the receive thread terminates when its pending receive call returns.
+ *
+ * @since 2.1
+ */
+public class CanReceiver implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CanReceiver.class);
+
+    private static final int EFF_MASK = 0x1FFFFFFF;
+    private static final long RETRY_DELAY_MS = 1000;
+
+    private final String ifName;
+    private final int queueSize;
+    private final Consumer<List<CanMessage>> consumer;
+
+    private volatile Set<Integer> canIds = Collections.emptySet();
+    private long discarded;
+
+    private AtomicBoolean running;
+
+    private CanSocket socket;
+    private Thread dispatchThread;
+
+    /**
+     * Creates a new receiver, the receiver must be started with {@link #start()}.
+     *
+     * @param ifName
+     *            the name of the CAN interface
+     * @param queueSize
+     *            the maximum number of frames waiting to be delivered
+     * @param consumer
+     *            the consumer for the received frames, it is invoked from a single thread and the provided list is
+     *            valid only for the duration of the call
+     */
+    public CanReceiver(final String ifName, final int queueSize, final Consumer<List<CanMessage>> consumer) {
+        this.ifName = ifName;
+        this.queueSize = queueSize;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Opens the socket and starts the receiver threads.
+     *
+     * @throws IOException
+     *             if the socket cannot be opened or bound to the interface
+     */
+    public synchronized void start() throws IOException {
+        if (this.running != null) {
+            return;
+        }
+
+        this.socket = new CanSocket(Mode.RAW);
+        try {
+            this.socket.setLoopbackMode(false);
+            this.socket.bind(new CanInterface(this.socket, this.ifName));
+            installFilter();
+        } catch (IOException e) {
+            this.socket.close();
+            this.socket = null;
+            throw e;
+        }
+
+        final AtomicBoolean active = new AtomicBoolean(true);
+        final CanSocket receiveSocket = this.socket;
+        final BlockingQueue<CanMessage> queue = new ArrayBlockingQueue<>(this.queueSize);
+
+        final Thread receiveThread = new Thread(() -> receive(receiveSocket, queue, active),
+                "CanReceiver-" + this.ifName);
+        receiveThread.setDaemon(true);
+        receiveThread.start();
+
+        this.running = active;
+        this.dispatchThread = new Thread(() -> dispatch(queue, active), "CanDispatcher-" + this.ifName);
+        this.dispatchThread.setDaemon(true);
+        this.dispatchThread.start();
+    }
+
+    /**
+     * Sets the CAN identifiers to be received, replacing the previous ones. An empty collection means that all frames
+     * are received. The kernel filter is updated immediately if the receiver is running.
+     *
+     * @param canIds
+     *            the identifiers
+     * @throws IOException
+     *             if the kernel filter cannot be installed
+     */
+    public synchronized void setCanIds(final Collection<Integer> canIds) throws IOException {
+        this.canIds = Collections.unmodifiableSet(new HashSet<>(canIds));
+
+        if (this.socket != null) {
+            installFilter();
+        }
+    }
+
+    /**
+     * Returns the number of frames that have been discarded because the queue was full.
+     *
+     * @return the number of discarded frames
+     */
+    public synchronized long getDiscardedCount() {
+        return this.discarded;
+    }
+
+    /**
+     * Stops the receiver threads and closes the socket.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.running == null) {
+            return;
+        }
+
+        this.running.set(false);
+        this.running = null;
+
+        try {
+            this.socket.close();
+        } catch (IOException e) {
+            logger.warn("Error closing CAN socket", e);
+        }
+        this.socket = null;
+
+        this.dispatchThread.interrupt();
+        this.dispatchThread = null;
+    }
+
+    private void installFilter() throws IOException {
+        final int[] filter = computeFilter(this.canIds);
+
+        if (filter != null) {
+            this.socket.setCanFilter(filter[0], filter[1]);
+        } else {
+            // matches every frame
+            this.socket.setCanFilter(0, 0);
+        }
+    }
+
+    /**
+     * Computes the kernel filter that matches all the provided identifiers, the mask contains the bits that are equal
+     * in all identifiers. The filter might match additional identifiers, that are discarded in user space.
+     *
+     * @param canIds
+     *            the identifiers
+     * @return an array containing the filter id and mask, or null if the identifiers are empty
+     */
+    static int[] computeFilter(final Collection<Integer> canIds) {
+        if (canIds.isEmpty()) {
+            return null;
+        }
+
+        final int first = canIds.iterator().next();
+        int differentBits = 0;
+
+        for (final int canId : canIds) {
+            differentBits |= canId ^ first;
+        }
+
+        final int mask = ~differentBits & EFF_MASK;
+
+        return new int[] { first & mask, mask };
+    }
+
+    private void receive(final CanSocket receiveSocket, final BlockingQueue<CanMessage> queue,
+            final AtomicBoolean active) {
+        while (active.get()) {
+            final CanFrame frame;
+            try {
+                frame = receiveSocket.recv();
+            } catch (IOException e) {
+                if (active.get()) {
+                    logger.warn("Error receiving CAN frame from {}", this.ifName, e);
+                    sleep(RETRY_DELAY_MS);
+                }
+                continue;
+            }
+
+            final int canId = frame.getCanId().getCanId_EFF();
+            final Set<Integer> ids = this.canIds;
+
+            if (!active.get() || !ids.isEmpty() && !ids.contains(canId)) {
+                continue;
+            }
+
+            final CanMessage message = new CanMessage();
+            message.setCanId(canId);
+            message.setData(frame.getData());
+            message.setTimestamp(System.currentTimeMillis());
+
+            if (!queue.offer(message)) {
+                synchronized (this) {
+                    this.discarded++;
+                }
+            }
+        }
+    }
+
+    private static void sleep(final long delayMs) {
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatch(final BlockingQueue<CanMessage> queue, final AtomicBoolean active) {
+        final List<CanMessage> batch = new ArrayList<>();
+
+        while (active.get()) {
+            try {
+                final CanMessage first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch);
+
+                if (!active.get()) {
+                    return;
+                }
+
+                this.consumer.accept(Collections.unmodifiableList(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.warn("Error delivering CAN frames", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+}
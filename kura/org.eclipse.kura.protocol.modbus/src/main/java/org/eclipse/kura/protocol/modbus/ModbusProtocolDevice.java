@@ -321,14 +321,26 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
      * <td>bitsPerWord</td>
      * <td>only RTU mode supported, bitsPerWord must be 8</td>
      * </tr>
+     * <tr>
+     * <td>interCharacterTimeout</td>
+     * <td>optional, the silent interval in milliseconds that ends a frame, 100 by default. The t3.5 interval is used
+     * if longer</td>
+     * </tr>
      * </table>
      * see {@link org.eclipse.kura.comm.CommConnection CommConnection} package for more detail.
      */
     private final class SerialCommunicate extends Communicate {
 
+        // USB serial adapters and slow slaves can leave gaps of several milliseconds inside a frame
+        private static final int DEFAULT_INTER_CHARACTER_TIMEOUT = 100;
+
         InputStream in;
         OutputStream out;
         CommConnection conn = null;
+        int interCharacterTimeout;
+        final byte[] rxBuffer = new byte[262];
+        int rxPosition;
+        int rxLength;
 
         public SerialCommunicate(ConnectionFactory connFactory, Properties connectionConfig)
                 throws ModbusProtocolException {
@@ -339,6 +351,7 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
             String sStop;
             String sParity;
             String sBits;
+            String sInterCharacterTimeout;
 
             if ((sPort = connectionConfig.getProperty("port")) == null
                     || (sBaud = connectionConfig.getProperty("baudRate")) == null
@@ -352,9 +365,18 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
             int stop = Integer.valueOf(sStop).intValue();
             int parity = Integer.valueOf(sParity).intValue();
             int bits = Integer.valueOf(sBits).intValue();
+            int minInterCharacterTimeout = DEFAULT_INTER_CHARACTER_TIMEOUT;
+            if ((sInterCharacterTimeout = connectionConfig.getProperty("interCharacterTimeout")) != null) {
+                minInterCharacterTimeout = Integer.valueOf(sInterCharacterTimeout).intValue();
+            }
 
+            this.interCharacterTimeout = getInterCharacterTimeout(baud, minInterCharacterTimeout);
+
+            // the receive timeout makes reads return as soon as a byte is received, or when the line has been idle
+            // for the inter-character timeout
             String uri = new CommURI.Builder(sPort).withBaudRate(baud).withDataBits(bits).withStopBits(stop)
-                    .withParity(parity).withTimeout(2000).build().toString();
+                    .withParity(parity).withOpenTimeout(2000).withReceiveTimeout(this.interCharacterTimeout).build()
+                    .toString();
 
             try {
                 this.conn = (CommConnection) connFactory.createConnection(uri, 1, false);
@@ -372,6 +394,16 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
             logger.info("Serial connection connected");
         }
 
+        /**
+         * Returns the silent interval in milliseconds that ends a frame: the configured minimum or the t3.5 interval
+         * for the given baud rate, assuming 11 bits per character, if longer. The Modbus specification recommends a
+         * fixed 1.75 ms interval for baud rates higher than 19200.
+         */
+        private int getInterCharacterTimeout(int baud, int minInterCharacterTimeout) {
+            int t35 = baud > 19200 ? 2 : (int) Math.ceil(3.5 * 11 * 1000 / baud);
+            return Math.max(t35, minInterCharacterTimeout);
+        }
+
         @Override
         public void connect() {
             /*
@@ -458,6 +490,43 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
             return ab;
         }
 
+        private void discardInput() throws IOException {
+            int available;
+            while ((available = this.in.available()) > 0) {
+                if (this.in.read(this.rxBuffer, 0, Math.min(available, this.rxBuffer.length)) <= 0) {
+                    break;
+                }
+            }
+            this.rxPosition = 0;
+            this.rxLength = 0;
+        }
+
+        /**
+         * Makes sure that the receive buffer contains at least one byte, blocking until a byte is received or the
+         * timeout expires. The port is configured with a receive timeout equal to the inter-character timeout, so the
+         * read calls return as soon as a byte arrives.
+         *
+         * @return false if the timeout expired
+         */
+        private boolean fillReceiveBuffer(int timeout) throws IOException {
+            if (this.rxPosition < this.rxLength) {
+                return true;
+            }
+
+            final long start = System.currentTimeMillis();
+
+            do {
+                int count = this.in.read(this.rxBuffer, 0, this.rxBuffer.length);
+                if (count > 0) {
+                    this.rxPosition = 0;
+                    this.rxLength = count;
+                    return true;
+                }
+            } while (System.currentTimeMillis() - start < timeout);
+
+            return false;
+        }
+
         /**
          * msgTransaction must be called with a byte array having two extra
          * bytes for the CRC. It will return a byte array of the response to the
@@ -487,9 +556,7 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
                 synchronized (this.out) {
                     synchronized (this.in) {
                         // flush input
-                        while (this.in.available() > 0) {
-                            this.in.read();
-                        }
+                        discardInput();
                         // send all data
                         this.out.write(cmd, 0, cmd.length);
                         this.out.flush();
@@ -507,41 +574,30 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
                             boolean endFrame = false;
                             // while (respIndex < minimumLength) {
                             while (!endFrame) {
-                                long start = System.currentTimeMillis();
-                                while (this.in.available() == 0) {
-                                    try {
-                                        Thread.sleep(5);	// avoid a high cpu load
-                                    } catch (InterruptedException e) {
-                                        throw new ModbusProtocolException(ModbusProtocolErrorCode.TRANSACTION_FAILURE,
-                                                "Thread interrupted");
-                                    }
-
-                                    long elapsed = System.currentTimeMillis() - start;
-                                    if (elapsed > timeOut) {
-                                        String failMsg = "Recv timeout";
-                                        logger.warn(failMsg + " : " + elapsed + " minimumLength=" + minimumLength
-                                                + " respIndex=" + respIndex);
-                                        throw new ModbusProtocolException(ModbusProtocolErrorCode.RESPONSE_TIMEOUT,
-                                                failMsg);
-                                    }
+                                if (!fillReceiveBuffer(timeOut)) {
+                                    String failMsg = "Recv timeout";
+                                    logger.warn(failMsg + " : " + timeOut + " minimumLength=" + minimumLength
+                                            + " respIndex=" + respIndex);
+                                    throw new ModbusProtocolException(ModbusProtocolErrorCode.RESPONSE_TIMEOUT,
+                                            failMsg);
                                 }
                                 // address byte must match first
                                 if (respIndex == 0) {
                                     if (ModbusProtocolDevice.this.txMode == ModbusTransmissionMode.ASCII_MODE) {
-                                        if ((response[0] = (byte) this.in.read()) == ':') {
+                                        if ((response[0] = this.rxBuffer[this.rxPosition++]) == ':') {
                                             respIndex++;
                                         }
                                     } else {
-                                        if ((response[0] = (byte) this.in.read()) == msg[0]) {
+                                        if ((response[0] = this.rxBuffer[this.rxPosition++]) == msg[0]) {
                                             respIndex++;
                                         }
                                     }
                                 } else {
-                                    response[respIndex++] = (byte) this.in.read();
+                                    response[respIndex++] = this.rxBuffer[this.rxPosition++];
                                 }
 
                                 if (ModbusProtocolDevice.this.txMode == ModbusTransmissionMode.RTU_MODE) {
-                                    timeOut = 100; // move to character timeout
+                                    timeOut = this.interCharacterTimeout; // move to character timeout
                                     if (respIndex >= minimumLength) {
                                         endFrame = true;
                                     }
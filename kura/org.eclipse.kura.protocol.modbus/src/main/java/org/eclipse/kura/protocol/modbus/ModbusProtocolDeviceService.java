@@ -104,6 +104,7 @@ public interface ModbusProtocolDeviceService {
      *            <li>stopBits : number of stopbits
      *            <li>parity : parity mode (0=none, 1=odd, 2=even)
      *            <li>bitsPerWord : number of bits per word
+     *            <li>interCharacterTimeout : optional, silent interval in milliseconds ending a frame (default 100)
      *            </ul>
      *            <br>
      *            for ETHERNET mode :
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.rest.db;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.security.RolesAllowed;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.kura.db.DbCallerStatistics;
+import org.eclipse.kura.db.DbLatencyHistogram;
+import org.eclipse.kura.db.H2DbService;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceReference;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+@Path("/db")
+public class DbRestService {
+
+    private static final String KURA_SERVICE_PID = "kura.service.pid";
+
+    @GET
+    @RolesAllowed("db")
+    @Path("/statistics")
+    @Produces(MediaType.APPLICATION_JSON)
+    public JsonObject getStatistics() throws InvalidSyntaxException {
+        final JsonObject result = new JsonObject();
+        for (final ServiceReference<H2DbService> reference : getDbServiceReferences()) {
+            final List<DbCallerStatistics> statistics = getStatistics(reference);
+            if (statistics != null) {
+                result.add((String) reference.getProperty(KURA_SERVICE_PID), toJson(statistics));
+            }
+        }
+        return result;
+    }
+
+    @GET
+    @RolesAllowed("db")
+    @Path("/{pid}/statistics")
+    @Produces(MediaType.APPLICATION_JSON)
+    public JsonArray getStatistics(@PathParam("pid") String dbServicePid) throws InvalidSyntaxException {
+        if (dbServicePid == null || dbServicePid.trim().isEmpty()) {
+            throw new WebApplicationException(Response.status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.TEXT_PLAIN).entity("Missing database service pid").build());
+        }
+
+        // the pid is compared with the service property instead of being placed in a filter, that it could alter
+        for (final ServiceReference<H2DbService> reference : getDbServiceReferences()) {
+            if (!dbServicePid.equals(reference.getProperty(KURA_SERVICE_PID))) {
+                continue;
+            }
+            final List<DbCallerStatistics> statistics = getStatistics(reference);
+            if (statistics != null) {
+                return toJson(statistics);
+            }
+        }
+        throw new WebApplicationException(Response.status(Response.Status.NOT_FOUND).type(MediaType.TEXT_PLAIN)
+                .entity("Database service not found: " + dbServicePid).build());
+    }
+
+    private Collection<ServiceReference<H2DbService>> getDbServiceReferences() throws InvalidSyntaxException {
+        return getBundleContext().getServiceReferences(H2DbService.class, null);
+    }
+
+    private List<DbCallerStatistics> getStatistics(final ServiceReference<H2DbService> reference) {
+        final BundleContext context = getBundleContext();
+        final H2DbService dbService = context.getService(reference);
+        if (dbService == null) {
+            return null;
+        }
+        try {
+            return dbService.getStatistics();
+        } finally {
+            context.ungetService(reference);
+        }
+    }
+
+    protected BundleContext getBundleContext() {
+        return FrameworkUtil.getBundle(DbRestService.class).getBundleContext();
+    }
+
+    private static JsonArray toJson(final List<DbCallerStatistics> statistics) {
+        final JsonArray result = new JsonArray();
+        for (final DbCallerStatistics callerStatistics : statistics) {
+            final JsonObject caller = new JsonObject();
+            caller.addProperty("callerId", callerStatistics.getCallerId());
+            caller.add("connectionAcquisition", toJson(callerStatistics.getConnectionAcquisition()));
+            caller.add("query", toJson(callerStatistics.getQuery()));
+            caller.add("commit", toJson(callerStatistics.getCommit()));
+            caller.add("lockHold", toJson(callerStatistics.getLockHold()));
+            caller.addProperty("activeConnections", callerStatistics.getActiveConnections());
+            caller.addProperty("failures", callerStatistics.getFailures());
+            result.add(caller);
+        }
+        return result;
+    }
+
+    private static JsonObject toJson(final DbLatencyHistogram histogram) {
+        final JsonObject result = new JsonObject();
+        result.addProperty("count", histogram.getCount());
+        result.addProperty("totalTimeMicros", histogram.getTotalTimeMicros());
+        result.addProperty("meanTimeMicros", histogram.getMeanTimeMicros());
+        result.addProperty("p50Micros", histogram.getPercentileMicros(50));
+        result.addProperty("p99Micros", histogram.getPercentileMicros(99));
+        result.addProperty("maxTimeMicros", histogram.getMaxTimeMicros());
+
+        final long[] upperBounds = histogram.getBucketUpperBoundsMicros();
+        final long[] counts = histogram.getBucketCounts();
+        final JsonArray buckets = new JsonArray();
+        for (int i = 0; i < counts.length; i++) {
+            final JsonObject bucket = new JsonObject();
+            if (upperBounds[i] != Long.MAX_VALUE) {
+                bucket.addProperty("upperBoundMicros", upperBounds[i]);
+            }
+            bucket.addProperty("count", counts[i]);
+            buckets.add(bucket);
+        }
+        result.add("buckets", buckets);
+        return result;
+    }
+}
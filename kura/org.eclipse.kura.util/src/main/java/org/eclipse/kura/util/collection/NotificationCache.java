@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.util.collection;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the latest values received through notifications, for example GATT notifications of BLE devices.
+ * <p>
+ * Values are identified by a device and a key. A value is considered subscribed after a consumer returned by
+ * {@link #subscribe(Object, Object)} or {@link #subscribe(Object, Object, Consumer)} has been created for it, and
+ * until {@link #invalidate(Object, Object)}, {@link #invalidate(Object)} or {@link #clear()} is called. Once a
+ * subscription has been invalidated, the values received by its consumer are no longer stored.
+ * <p>
+ * Values older than the configured maximum age are not served, in this case the provided reader is used to
+ * perform a synchronous read.
+ *
+ * @param <D>
+ *            the device type
+ * @param <K>
+ *            the key type
+ */
+public class NotificationCache<D, K> {
+
+    private final long maxAgeNanos;
+    private final Map<D, Map<K, Entry>> entries = new ConcurrentHashMap<>();
+
+    public NotificationCache(final long maxAgeMs) {
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+    }
+
+    public boolean isSubscribed(final D device, final K key) {
+        final Map<K, Entry> deviceEntries = this.entries.get(device);
+        return deviceEntries != null && deviceEntries.containsKey(key);
+    }
+
+    /**
+     * Marks the value as subscribed and returns a notification consumer that stores the received values.
+     */
+    public <T> Consumer<T> subscribe(final D device, final K key) {
+        final Entry entry = createEntry(device, key);
+
+        return entry::set;
+    }
+
+    /**
+     * Marks the value as subscribed and returns a notification consumer that stores the received values and then
+     * forwards them to the provided downstream consumer.
+     */
+    public <T> Consumer<T> subscribe(final D device, final K key, final Consumer<T> downstream) {
+        final Entry entry = createEntry(device, key);
+
+        return value -> {
+            entry.set(value);
+            downstream.accept(value);
+        };
+    }
+
+    /**
+     * Returns the cached value if it is fresh, otherwise performs a synchronous read using the provided reader.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(final D device, final K key, final Supplier<T> reader) {
+        final Map<K, Entry> deviceEntries = this.entries.get(device);
+        final Entry entry = deviceEntries != null ? deviceEntries.get(key) : null;
+
+        if (entry != null) {
+            final Object value = entry.getIfFresh(this.maxAgeNanos);
+            if (value != null) {
+                return (T) value;
+            }
+        }
+
+        final T value = reader.get();
+        if (entry != null) {
+            entry.set(value);
+        }
+        return value;
+    }
+
+    public void invalidate(final D device, final K key) {
+        final Map<K, Entry> deviceEntries = this.entries.get(device);
+        if (deviceEntries != null) {
+            close(deviceEntries.remove(key));
+        }
+    }
+
+    public void invalidate(final D device) {
+        final Map<K, Entry> deviceEntries = this.entries.remove(device);
+        if (deviceEntries != null) {
+            deviceEntries.values().forEach(NotificationCache::close);
+        }
+    }
+
+    public void clear() {
+        for (final D device : this.entries.keySet()) {
+            invalidate(device);
+        }
+    }
+
+    private Entry createEntry(final D device, final K key) {
+        final Entry entry = new Entry();
+        close(this.entries.computeIfAbsent(device, d -> new ConcurrentHashMap<>()).put(key, entry));
+        return entry;
+    }
+
+    private static void close(final Entry entry) {
+        if (entry != null) {
+            entry.close();
+        }
+    }
+
+    private static final class Entry {
+
+        private Object value;
+        private long timestamp;
+        private boolean closed;
+
+        synchronized void set(final Object value) {
+            if (this.closed) {
+                return;
+            }
+            this.value = value;
+            this.timestamp = System.nanoTime();
+        }
+
+        synchronized Object getIfFresh(final long maxAgeNanos) {
+            if (this.value == null || System.nanoTime() - this.timestamp > maxAgeNanos) {
+                return null;
+            }
+            return this.value;
+        }
+
+        synchronized void close() {
+            this.closed = true;
+            this.value = null;
+        }
+    }
+}
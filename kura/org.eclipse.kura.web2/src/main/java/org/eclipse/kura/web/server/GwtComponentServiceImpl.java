@@ -16,17 +16,14 @@ package org.eclipse.kura.web.server;
 import static java.util.Objects.isNull;
 
 import java.io.BufferedReader;
-import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.HashMap;
-import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -70,7 +67,6 @@ import org.osgi.framework.Filter;
 import org.osgi.framework.FrameworkUtil;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
-import org.osgi.service.cm.Configuration;
 import org.osgi.service.cm.ConfigurationAdmin;
 import org.osgi.service.component.runtime.ServiceComponentRuntime;
 import org.osgi.service.component.runtime.dto.ReferenceDTO;
@@ -746,30 +742,17 @@ public class GwtComponentServiceImpl extends OsgiRemoteServiceServlet implements
         final HttpServletRequest request = getThreadLocalRequest();
         final HttpSession session = request.getSession(false);
 
-        final ConfigurationAdmin configAdmin = ServiceLocator.getInstance().getService(ConfigurationAdmin.class);
-        final WireHelperService wireHelperService = ServiceLocator.getInstance().getService(WireHelperService.class);
+        final ConfigurationService cs = ServiceLocator.getInstance().getService(ConfigurationService.class);
         try {
-            final String servicePid = wireHelperService.getServicePid(pid);
-            Configuration conf = null;
-            if (servicePid != null) {
-                conf = configAdmin.getConfiguration(servicePid);
-            }
-            Dictionary<String, Object> props = null;
-            if (conf != null) {
-                props = conf.getProperties();
-            }
-            if (props == null) {
-                props = new Hashtable<>();
-            }
+            // the update goes through the ConfigurationService, that merges the properties with the running ones and
+            // keeps its cached configurations consistent
+            Map<String, Object> props = new HashMap<>();
             for (Map.Entry<String, Object> entry : properties.entrySet()) {
-                String key = entry.getKey();
                 Object value = entry.getValue();
-                props.put(key, value != null ? value : "");
+                props.put(entry.getKey(), value != null ? value : "");
             }
-            if (conf != null) {
-                conf.update(props);
-            }
-        } catch (IOException e) {
+            cs.updateConfiguration(pid, props, false);
+        } catch (KuraException e) {
             auditLogger.info(
                     "UI Component - Failure - Failed to update component config for user: {}, session: {}, pid: {}",
                     session.getAttribute(Attributes.AUTORIZED_USER.getValue()), session.getId(), pid);
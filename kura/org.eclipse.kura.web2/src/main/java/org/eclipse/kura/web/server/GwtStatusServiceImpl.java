@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2019 Eurotech and others
+ * Copyright (c) 2011, 2020 Eurotech and others
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
@@ -35,6 +36,9 @@ import org.eclipse.kura.cloudconnection.CloudEndpoint;
 import org.eclipse.kura.configuration.ConfigurationService;
 import org.eclipse.kura.data.DataService;
 import org.eclipse.kura.data.DataTransportService;
+import org.eclipse.kura.db.DbCallerStatistics;
+import org.eclipse.kura.db.DbLatencyHistogram;
+import org.eclipse.kura.db.H2DbService;
 import org.eclipse.kura.position.PositionService;
 import org.eclipse.kura.web.server.util.ServiceLocator;
 import org.eclipse.kura.web.session.Attributes;
@@ -68,6 +72,8 @@ public class GwtStatusServiceImpl extends OsgiRemoteServiceServlet implements Gw
 
     private static final String POSITION_STATUS = "positionStatus";
 
+    private static final String DB_STATUS = "dbStatus";
+
     private static final Logger logger = LoggerFactory.getLogger(GwtStatusServiceImpl.class);
     private static final Logger auditLogger = LoggerFactory.getLogger("AuditLogger");
 
@@ -88,6 +94,7 @@ public class GwtStatusServiceImpl extends OsgiRemoteServiceServlet implements Gw
             pairs.addAll(getNetworkStatus());
         }
         pairs.addAll(getPositionStatus());
+        pairs.addAll(getDbStatus());
 
         return new ArrayList<>(pairs);
     }
@@ -527,4 +534,49 @@ public class GwtStatusServiceImpl extends OsgiRemoteServiceServlet implements Gw
 
         return pairs;
     }
-}
\ No newline at end of file
+
+    private List<GwtGroupedNVPair> getDbStatus() {
+        final List<GwtGroupedNVPair> pairs = new ArrayList<>();
+        final String nl = "<br />";
+        final String tab = "&nbsp&nbsp&nbsp&nbsp";
+
+        try {
+            ServiceLocator.withAllServiceReferences(H2DbService.class, null, (reference, ctx) -> {
+                final String dbServicePid = (String) reference.getProperty(KURA_SERVICE_PID);
+                final H2DbService dbService = ctx.getService(reference);
+                if (dbService == null) {
+                    return;
+                }
+                try {
+                    for (DbCallerStatistics callerStatistics : dbService.getStatistics()) {
+                        pairs.add(new GwtGroupedNVPair(DB_STATUS,
+                                dbServicePid + " - " + callerStatistics.getCallerId(),
+                                "Connections: " + formatHistogram(callerStatistics.getConnectionAcquisition()) + nl
+                                        + tab + "Active connections: " + callerStatistics.getActiveConnections() + nl
+                                        + tab + "Queries: " + formatHistogram(callerStatistics.getQuery()) + nl + tab
+                                        + "Commits: " + formatHistogram(callerStatistics.getCommit()) + nl + tab
+                                        + "Lock hold: " + formatHistogram(callerStatistics.getLockHold()) + nl + tab
+                                        + "Failures: " + callerStatistics.getFailures()));
+                    }
+                } finally {
+                    ctx.ungetService(reference);
+                }
+            });
+        } catch (GwtKuraException e) {
+            logger.warn("Get db status failed", e);
+        }
+
+        pairs.sort(comparing(GwtGroupedNVPair::getName));
+        return pairs;
+    }
+
+    private static String formatHistogram(final DbLatencyHistogram histogram) {
+        return format("%d (mean %s, p99 %s, max %s)", histogram.getCount(),
+                formatMicros(histogram.getMeanTimeMicros()), formatMicros(histogram.getPercentileMicros(99)),
+                formatMicros(histogram.getMaxTimeMicros()));
+    }
+
+    private static String formatMicros(final long micros) {
+        return format("%.1f ms", micros / (double) TimeUnit.MILLISECONDS.toMicros(1));
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2018 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -29,17 +29,22 @@ public final class H2DbServiceHelper {
 
     private final H2DbService dbService;
 
+    private final String callerId;
+
     /**
      * Instantiates a new DB Service Helper.
      *
      * @param dbService
      *            the DB service
+     * @param callerId
+     *            the identifier of the component using the DB service, can be null
      * @throws NullPointerException
-     *             if argument is null
+     *             if the DB service is null
      */
-    private H2DbServiceHelper(final H2DbService dbService) {
+    private H2DbServiceHelper(final H2DbService dbService, final String callerId) {
         requireNonNull(dbService, "DB Service cannot be null");
         this.dbService = dbService;
+        this.callerId = callerId;
     }
 
     /**
@@ -52,7 +57,23 @@ public final class H2DbServiceHelper {
      *             if argument is null
      */
     public static H2DbServiceHelper of(final H2DbService dbService) {
-        return new H2DbServiceHelper(dbService);
+        return new H2DbServiceHelper(dbService, null);
+    }
+
+    /**
+     * Creates instance of {@link H2DbServiceHelper} accounting the usage of the {@link H2DbService} to the given
+     * caller
+     *
+     * @param dbService
+     *            the {@link H2DbService}
+     * @param callerId
+     *            the identifier of the component using the DB service, usually its kura.service.pid
+     * @return the instance of {@link H2DbServiceHelper}
+     * @throws NullPointerException
+     *             if the DB service is null
+     */
+    public static H2DbServiceHelper of(final H2DbService dbService, final String callerId) {
+        return new H2DbServiceHelper(dbService, callerId);
     }
 
     /**
@@ -84,7 +105,10 @@ public final class H2DbServiceHelper {
     }
 
     public <T> T withConnection(final H2DbService.ConnectionCallable<T> callable) throws SQLException {
-        return this.dbService.withConnection(callable);
+        if (this.callerId == null) {
+            return this.dbService.withConnection(callable);
+        }
+        return this.dbService.withConnection(this.callerId, callable);
     }
 
     /**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2018 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -81,8 +81,10 @@ public class H2DbWireRecordFilter implements WireEmitter, WireReceiver, Configur
 
     private ComponentContext componentContext;
 
+    private String kuraServicePid;
+
     public synchronized void bindDbService(H2DbService dbService) {
-        this.dbHelper = H2DbServiceHelper.of(dbService);
+        this.dbHelper = H2DbServiceHelper.of(dbService, this.kuraServicePid);
     }
 
     public synchronized void unbindDbService(H2DbService dbService) {
@@ -124,6 +126,7 @@ public class H2DbWireRecordFilter implements WireEmitter, WireReceiver, Configur
     protected void activate(final ComponentContext componentContext, final Map<String, Object> properties) {
         logger.debug("Activating DB Wire Record Filter...");
         this.componentContext = componentContext;
+        this.kuraServicePid = (String) properties.get(KURA_SERVICE_PID);
         this.options = new H2DbWireRecordFilterOptions(properties);
 
         this.wireSupport = this.wireHelperService.newWireSupport(this,
@@ -0,0 +1,563 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.h2db.store;
+
+import static java.util.Objects.requireNonNull;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.MessageFormat;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.kura.internal.wire.h2db.common.H2DbServiceHelper;
+
+/**
+ * Manages the time bucketed partitions of the table of a {@link H2DbWireRecordStore}.
+ * <p>
+ * The records are inserted in partition tables named {@code <table name>_P<yyyyMMddHHmm>}, where the suffix is the
+ * UTC start time of the partition. The table name configured in the store identifies a view that joins all the
+ * partitions, so that the queries performed on it, for example by the H2DbWireRecordFilter, keep working. Every
+ * partition has its own index on TIMESTAMP, that H2 uses for the conditions on TIMESTAMP pushed down into the view,
+ * and the cleanup drops the oldest partitions instead of deleting rows from a single large table.
+ * <p>
+ * A new partition is started at most once per partition interval and only if the current one contains at least a
+ * tenth of the maximum table size, this bounds the number of partitions joined by the view.
+ * <p>
+ * The IDs of all the partitions are taken from a single sequence, so that they are unique in the view. If the
+ * partitioning is disabled, the partitions are merged back into a single table with {@link #merge(Connection)}.
+ */
+final class H2DbWireRecordPartitions {
+
+    private static final Logger logger = LogManager.getLogger(H2DbWireRecordPartitions.class);
+
+    private static final String PARTITION_SUFFIX = "_P";
+
+    private static final String MERGE_SUFFIX = "_MERGE";
+
+    private static final String ID_COLUMN = "ID";
+
+    private static final String TIMESTAMP_COLUMN = "TIMESTAMP";
+
+    private static final DateTimeFormatter PARTITION_START_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+
+    private static final int PARTITIONS_PER_TABLE = 10;
+
+    private static final String SQL_CREATE_SEQUENCE = "CREATE SEQUENCE IF NOT EXISTS {0} START WITH {1};";
+
+    private static final String SQL_RESTART_SEQUENCE = "ALTER SEQUENCE {0} RESTART WITH {1};";
+
+    private static final String SQL_DROP_SEQUENCE = "DROP SEQUENCE IF EXISTS {0};";
+
+    private static final String SQL_SET_ID_DEFAULT = "ALTER TABLE {0} ALTER COLUMN ID SET DEFAULT NEXT VALUE FOR {1};";
+
+    private static final String SQL_CREATE_PARTITION = "CREATE TABLE IF NOT EXISTS {0} (ID BIGINT DEFAULT "
+            + "NEXT VALUE FOR {1} PRIMARY KEY, TIMESTAMP BIGINT);";
+
+    private static final String SQL_CREATE_PARTITION_INDEX = "CREATE INDEX IF NOT EXISTS {0} ON {1} (TIMESTAMP DESC);";
+
+    private static final String SQL_CREATE_VIEW = "CREATE OR REPLACE VIEW {0} AS {1};";
+
+    private static final String SQL_CREATE_TABLE = "CREATE TABLE {0} (ID BIGINT GENERATED BY DEFAULT "
+            + "AS IDENTITY(START WITH {1} INCREMENT BY 1) PRIMARY KEY, TIMESTAMP BIGINT);";
+
+    private static final String SQL_ADD_COLUMN = "ALTER TABLE {0} ADD COLUMN {1} {2};";
+
+    private static final String SQL_INSERT_SELECT = "INSERT INTO {0} ({1}) {2};";
+
+    private static final String SQL_DROP_VIEW = "DROP VIEW IF EXISTS {0};";
+
+    private static final String SQL_DROP_PARTITION = "DROP TABLE IF EXISTS {0};";
+
+    private static final String SQL_RENAME_TABLE = "ALTER TABLE {0} RENAME TO {1};";
+
+    private static final String SQL_ROW_COUNT_TABLE = "SELECT COUNT(*) FROM {0};";
+
+    private static final String SQL_MAX_ID_TABLE = "SELECT MAX(ID) FROM {0};";
+
+    private static final String SQL_MIN_TIMESTAMP_TABLE = "SELECT MIN(TIMESTAMP) FROM {0};";
+
+    private static final String SQL_DELETE_OLDEST = "DELETE FROM {0} WHERE rownum() <= {1};";
+
+    private static final String SQL_TRUNCATE_TABLE = "TRUNCATE TABLE {0};";
+
+    private static final String[] TABLE_TYPE = new String[] { "TABLE" };
+
+    private static final String[] VIEW_TYPE = new String[] { "VIEW" };
+
+    private final H2DbServiceHelper dbHelper;
+
+    private final String tableName;
+
+    private final long intervalMillis;
+
+    private final int minPartitionSize;
+
+    private final Pattern partitionNamePattern;
+
+    /** The row count of each partition, by partition start time */
+    private final NavigableMap<Long, Integer> partitions = new TreeMap<>();
+
+    private int size;
+
+    /**
+     * Instantiates the partitions of a table.
+     *
+     * @param dbHelper
+     *            the DB service helper
+     * @param tableName
+     *            the name of the view joining the partitions
+     * @param intervalMinutes
+     *            the minimum time interval covered by a partition, in minutes
+     * @param maximumTableSize
+     *            the maximum table size configured in the store
+     * @throws NullPointerException
+     *             if any of the provided arguments is null
+     */
+    H2DbWireRecordPartitions(final H2DbServiceHelper dbHelper, final String tableName, final int intervalMinutes,
+            final int maximumTableSize) {
+        requireNonNull(dbHelper, "DB Service Helper cannot be null");
+        requireNonNull(tableName, "Table name cannot be null");
+        this.dbHelper = dbHelper;
+        this.tableName = tableName;
+        this.intervalMillis = intervalMinutes * 60000L;
+        this.minPartitionSize = Math.max(1, maximumTableSize / PARTITIONS_PER_TABLE);
+        this.partitionNamePattern = Pattern.compile(Pattern.quote(tableName + PARTITION_SUFFIX) + "(\\d{12})");
+    }
+
+    /**
+     * Brings the database in line with the partitioned layout: renames the existing non partitioned table to the
+     * oldest partition, loads the partitions, makes all of them take their IDs from the shared sequence, creates the
+     * current partition if there is none and recreates the view.
+     *
+     * @param now
+     *            the current time, in milliseconds
+     * @throws SQLException
+     *             the SQL exception
+     */
+    void reconcile(final long now) throws SQLException {
+        this.dbHelper.withConnection(c -> {
+            migrateTable(c, now);
+            final long maxId = loadPartitions(c);
+            this.dbHelper.execute(c, MessageFormat.format(SQL_CREATE_SEQUENCE, getSqlSequenceName(),
+                    Long.toString(maxId + 1)));
+            if (useSequence(c)) {
+                // the sequence could be behind the IDs generated by the migrated table
+                this.dbHelper.execute(c, MessageFormat.format(SQL_RESTART_SEQUENCE, getSqlSequenceName(),
+                        Long.toString(maxId + 1)));
+            }
+            if (this.partitions.isEmpty()) {
+                createPartition(c, getBucketStart(now));
+            }
+            createView(c);
+            return (Void) null;
+        });
+    }
+
+    /**
+     * Drops the view joining the partitions, that has to be recreated with {@link #reconcile(long)} after the
+     * columns of a partition have been changed.
+     *
+     * @throws SQLException
+     *             the SQL exception
+     */
+    void dropView() throws SQLException {
+        this.dbHelper.withConnection(c -> {
+            this.dbHelper.execute(c, MessageFormat.format(SQL_DROP_VIEW, sanitize(this.tableName)));
+            return (Void) null;
+        });
+    }
+
+    /**
+     * Merges the partitions into a single table that replaces the view, keeping the IDs of the records, and drops the
+     * partitions and the sequence. The records are copied to a new table that is renamed only once it is complete,
+     * so that a failure leaves the partitions and the view in place and the merge can be retried.
+     *
+     * @param c
+     *            the connection
+     * @throws SQLException
+     *             the SQL exception
+     */
+    void merge(final Connection c) throws SQLException {
+        final long maxId = loadPartitions(c);
+        final String sqlTableName = sanitize(this.tableName);
+
+        if (!this.partitions.isEmpty()) {
+            logger.info("Merging {} partitions of table {}...", this.partitions.size(), this.tableName);
+            final String sqlMergeTableName = sanitize(this.tableName + MERGE_SUFFIX);
+            final Map<String, String> columns = new LinkedHashMap<>();
+            final String select = getUnionSelect(c, columns);
+
+            this.dbHelper.execute(c, MessageFormat.format(SQL_DROP_PARTITION, sqlMergeTableName));
+            this.dbHelper.execute(c,
+                    MessageFormat.format(SQL_CREATE_TABLE, sqlMergeTableName, Long.toString(maxId + 1)));
+            final StringBuilder sbCols = new StringBuilder();
+            for (final Entry<String, String> column : columns.entrySet()) {
+                final String sqlColName = sanitize(column.getKey());
+                if (!ID_COLUMN.equals(column.getKey()) && !TIMESTAMP_COLUMN.equals(column.getKey())) {
+                    this.dbHelper.execute(c,
+                            MessageFormat.format(SQL_ADD_COLUMN, sqlMergeTableName, sqlColName, column.getValue()));
+                }
+                if (sbCols.length() > 0) {
+                    sbCols.append(", ");
+                }
+                sbCols.append(sqlColName);
+            }
+            this.dbHelper.execute(c, MessageFormat.format(SQL_INSERT_SELECT, sqlMergeTableName, sbCols, select));
+
+            this.dbHelper.execute(c, MessageFormat.format(SQL_DROP_VIEW, sqlTableName));
+            this.dbHelper.execute(c, MessageFormat.format(SQL_RENAME_TABLE, sqlMergeTableName, sqlTableName));
+            for (final Long start : this.partitions.keySet()) {
+                this.dbHelper.execute(c,
+                        MessageFormat.format(SQL_DROP_PARTITION, sanitize(getPartitionName(start))));
+            }
+            // the index of a partition migrated from the table could have the same name
+            this.dbHelper.execute(c, MessageFormat.format(SQL_CREATE_PARTITION_INDEX,
+                    sanitize(this.tableName + "_TIMESTAMP"), sqlTableName));
+            logger.info("Merging {} partitions of table {}... Done", this.partitions.size(), this.tableName);
+        } else {
+            this.dbHelper.execute(c, MessageFormat.format(SQL_DROP_VIEW, sqlTableName));
+        }
+        this.dbHelper.execute(c, MessageFormat.format(SQL_DROP_SEQUENCE, getSqlSequenceName()));
+
+        this.partitions.clear();
+        this.size = 0;
+    }
+
+    /**
+     * Returns the name of the partition where the records received at the given time have to be stored, starting a
+     * new partition if needed.
+     *
+     * @param now
+     *            the current time, in milliseconds
+     * @return the partition name
+     * @throws SQLException
+     *             the SQL exception
+     */
+    String getCurrentPartition(final long now) throws SQLException {
+        final long bucketStart = getBucketStart(now);
+        final Entry<Long, Integer> current = this.partitions.lastEntry();
+
+        if (current != null && (bucketStart <= current.getKey() || current.getValue() < this.minPartitionSize)) {
+            return getPartitionName(current.getKey());
+        }
+
+        this.dbHelper.withConnection(c -> {
+            createPartition(c, bucketStart);
+            createView(c);
+            return (Void) null;
+        });
+        return getPartitionName(bucketStart);
+    }
+
+    /**
+     * Accounts a record inserted in the current partition.
+     */
+    void recordInserted() {
+        final Entry<Long, Integer> current = this.partitions.lastEntry();
+        if (current != null) {
+            this.partitions.put(current.getKey(), current.getValue() + 1);
+            this.size++;
+        }
+    }
+
+    /**
+     * Returns the number of records in all the partitions.
+     *
+     * @return the number of records
+     */
+    int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Drops the oldest partitions as long as at least the given number of records is kept. If the remaining records
+     * still exceed the maximum table size, because the oldest partition is too large, the oldest records of that
+     * partition are deleted.
+     *
+     * @param noOfRecordsToKeep
+     *            the number of records to keep, if 0 all the records are removed
+     * @param maximumTableSize
+     *            the maximum table size
+     * @throws SQLException
+     *             the SQL exception
+     */
+    void cleanup(final int noOfRecordsToKeep, final int maximumTableSize) throws SQLException {
+        if (this.partitions.isEmpty()) {
+            return;
+        }
+
+        this.dbHelper.withConnection(c -> {
+            final List<Long> dropped = new ArrayList<>();
+            final Iterator<Entry<Long, Integer>> iterator = this.partitions.entrySet().iterator();
+            while (iterator.hasNext() && dropped.size() < this.partitions.size() - 1) {
+                final Entry<Long, Integer> oldest = iterator.next();
+                if (noOfRecordsToKeep != 0 && this.size - oldest.getValue() < noOfRecordsToKeep) {
+                    break;
+                }
+                dropped.add(oldest.getKey());
+                this.size -= oldest.getValue();
+            }
+
+            if (!dropped.isEmpty()) {
+                dropped.forEach(this.partitions::remove);
+                // the view must not reference the partitions anymore when they are dropped
+                createView(c);
+                for (final Long start : dropped) {
+                    this.dbHelper.execute(c,
+                            MessageFormat.format(SQL_DROP_PARTITION, sanitize(getPartitionName(start))));
+                }
+                logger.info("Dropped {} partitions of table {}", dropped.size(), this.tableName);
+            }
+
+            final Entry<Long, Integer> oldest = this.partitions.firstEntry();
+            if (noOfRecordsToKeep == 0) {
+                logger.info("Truncating partition {}...", getPartitionName(oldest.getKey()));
+                this.dbHelper.execute(c,
+                        MessageFormat.format(SQL_TRUNCATE_TABLE, sanitize(getPartitionName(oldest.getKey()))));
+                this.partitions.put(oldest.getKey(), 0);
+                this.size = 0;
+            } else if (this.size >= maximumTableSize) {
+                final int toDelete = Math.min(oldest.getValue(), this.size - noOfRecordsToKeep);
+                logger.info("Partially emptying partition {}", getPartitionName(oldest.getKey()));
+                this.dbHelper.execute(c, MessageFormat.format(SQL_DELETE_OLDEST,
+                        sanitize(getPartitionName(oldest.getKey())), Integer.toString(toDelete)));
+                this.partitions.put(oldest.getKey(), oldest.getValue() - toDelete);
+                this.size -= toDelete;
+            }
+            return (Void) null;
+        });
+    }
+
+    private void migrateTable(final Connection c, final long now) throws SQLException {
+        final DatabaseMetaData dbMetaData = c.getMetaData();
+
+        if (exists(dbMetaData, c.getCatalog(), this.tableName, TABLE_TYPE)) {
+            final String sqlTableName = sanitize(this.tableName);
+            long start = getBucketStart(now);
+            try (final Statement stmt = c.createStatement();
+                    final ResultSet rset = stmt
+                            .executeQuery(MessageFormat.format(SQL_MIN_TIMESTAMP_TABLE, sqlTableName))) {
+                if (rset.next()) {
+                    final long minTimestamp = rset.getLong(1);
+                    if (!rset.wasNull()) {
+                        start = getBucketStart(minTimestamp);
+                    }
+                }
+            }
+            logger.info("Converting table {} to partition {}...", this.tableName, getPartitionName(start));
+            this.dbHelper.execute(c,
+                    MessageFormat.format(SQL_RENAME_TABLE, sqlTableName, sanitize(getPartitionName(start))));
+        }
+    }
+
+    private long loadPartitions(final Connection c) throws SQLException {
+        final DatabaseMetaData dbMetaData = c.getMetaData();
+        final String escape = dbMetaData.getSearchStringEscape();
+        final String namePattern = escapePattern(this.tableName + PARTITION_SUFFIX, escape) + "%";
+
+        this.partitions.clear();
+        this.size = 0;
+        try (final ResultSet rsTbls = dbMetaData.getTables(c.getCatalog(), null, namePattern, TABLE_TYPE)) {
+            while (rsTbls.next()) {
+                final Matcher matcher = this.partitionNamePattern.matcher(rsTbls.getString("TABLE_NAME"));
+                if (matcher.matches()) {
+                    this.partitions.put(parsePartitionStart(matcher.group(1)), 0);
+                }
+            }
+        }
+
+        long maxId = 0;
+        for (final Entry<Long, Integer> partition : this.partitions.entrySet()) {
+            final String sqlPartitionName = sanitize(getPartitionName(partition.getKey()));
+            try (final Statement stmt = c.createStatement()) {
+                try (final ResultSet rset = stmt
+                        .executeQuery(MessageFormat.format(SQL_ROW_COUNT_TABLE, sqlPartitionName))) {
+                    rset.next();
+                    partition.setValue(rset.getInt(1));
+                    this.size += partition.getValue();
+                }
+                try (final ResultSet rset = stmt
+                        .executeQuery(MessageFormat.format(SQL_MAX_ID_TABLE, sqlPartitionName))) {
+                    rset.next();
+                    maxId = Math.max(maxId, rset.getLong(1));
+                }
+            }
+        }
+        return maxId;
+    }
+
+    /**
+     * Makes the partitions that still generate their IDs with an identity column, like a table migrated to a
+     * partition, take them from the shared sequence.
+     *
+     * @return true if the ID column of at least a partition has been changed
+     */
+    private boolean useSequence(final Connection c) throws SQLException {
+        final DatabaseMetaData dbMetaData = c.getMetaData();
+        boolean changed = false;
+        for (final Long start : this.partitions.keySet()) {
+            final String partitionName = getPartitionName(start);
+            boolean identity = false;
+            try (final ResultSet rsColumns = dbMetaData.getColumns(c.getCatalog(), null,
+                    escapePattern(partitionName, dbMetaData.getSearchStringEscape()), ID_COLUMN)) {
+                identity = rsColumns.next() && "YES".equals(rsColumns.getString("IS_AUTOINCREMENT"));
+            }
+            if (identity) {
+                logger.info("Partition {} takes its IDs from sequence {}", partitionName, getSqlSequenceName());
+                this.dbHelper.execute(c,
+                        MessageFormat.format(SQL_SET_ID_DEFAULT, sanitize(partitionName), getSqlSequenceName()));
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private void createPartition(final Connection c, final long start) throws SQLException {
+        final String partitionName = getPartitionName(start);
+        logger.info("Creating partition {}...", partitionName);
+        this.dbHelper.execute(c,
+                MessageFormat.format(SQL_CREATE_PARTITION, sanitize(partitionName), getSqlSequenceName()));
+        this.dbHelper.execute(c, MessageFormat.format(SQL_CREATE_PARTITION_INDEX,
+                sanitize(partitionName + "_TIMESTAMP"), sanitize(partitionName)));
+        this.partitions.put(start, 0);
+    }
+
+    /**
+     * Recreates the view joining all the partitions. The columns of the view are the union of the columns of the
+     * partitions, the type of a column is the one in the newest partition containing it and the partitions where the
+     * column is missing or has a different type contribute NULL values, like a non partitioned table would do after
+     * a column type change.
+     */
+    private void createView(final Connection c) throws SQLException {
+        final String select = getUnionSelect(c, new LinkedHashMap<>());
+        this.dbHelper.execute(c, MessageFormat.format(SQL_CREATE_VIEW, sanitize(this.tableName), select));
+    }
+
+    /**
+     * Returns the query joining all the partitions and fills the provided map with its columns and their types.
+     */
+    private String getUnionSelect(final Connection c, final Map<String, String> viewColumns) throws SQLException {
+        final DatabaseMetaData dbMetaData = c.getMetaData();
+        final Map<Long, Map<String, String>> partitionColumns = new TreeMap<>();
+
+        for (final Long start : this.partitions.descendingKeySet()) {
+            final Map<String, String> columns = new LinkedHashMap<>();
+            try (final ResultSet rsColumns = dbMetaData.getColumns(c.getCatalog(), null,
+                    escapePattern(getPartitionName(start), dbMetaData.getSearchStringEscape()), null)) {
+                while (rsColumns.next()) {
+                    final String colName = rsColumns.getString("COLUMN_NAME");
+                    final String typeName = rsColumns.getString("TYPE_NAME");
+                    columns.put(colName, typeName);
+                    viewColumns.putIfAbsent(colName, typeName);
+                }
+            }
+            partitionColumns.put(start, columns);
+        }
+
+        final StringBuilder sbSelect = new StringBuilder();
+        for (final Entry<Long, Map<String, String>> partition : partitionColumns.entrySet()) {
+            if (sbSelect.length() > 0) {
+                sbSelect.append(" UNION ALL ");
+            }
+            sbSelect.append("SELECT ");
+            boolean first = true;
+            for (final Entry<String, String> column : viewColumns.entrySet()) {
+                final String sqlColName = sanitize(column.getKey());
+                if (!first) {
+                    sbSelect.append(", ");
+                }
+                if (column.getValue().equals(partition.getValue().get(column.getKey()))) {
+                    sbSelect.append(sqlColName);
+                } else {
+                    sbSelect.append("CAST(NULL AS ").append(column.getValue()).append(") AS ").append(sqlColName);
+                }
+                first = false;
+            }
+            sbSelect.append(" FROM ").append(sanitize(getPartitionName(partition.getKey())));
+        }
+        return sbSelect.toString();
+    }
+
+    private long getBucketStart(final long time) {
+        return time - Math.floorMod(time, this.intervalMillis);
+    }
+
+    private String getPartitionName(final long start) {
+        return this.tableName + PARTITION_SUFFIX
+                + PARTITION_START_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(start), ZoneOffset.UTC));
+    }
+
+    private static long parsePartitionStart(final String suffix) {
+        return LocalDateTime.parse(suffix, PARTITION_START_FORMAT).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private String getSqlSequenceName() {
+        return sanitize(this.tableName + "_SEQ");
+    }
+
+    private String sanitize(final String name) {
+        return this.dbHelper.sanitizeSqlTableAndColumnName(name);
+    }
+
+    private static boolean exists(final DatabaseMetaData dbMetaData, final String catalog, final String name,
+            final String[] types) throws SQLException {
+        try (final ResultSet rsTbls = dbMetaData.getTables(catalog, null,
+                escapePattern(name, dbMetaData.getSearchStringEscape()), types)) {
+            return rsTbls.next();
+        }
+    }
+
+    private static String escapePattern(final String name, final String escape) {
+        final StringBuilder result = new StringBuilder();
+        for (final char ch : name.toCharArray()) {
+            if (ch == '_' || ch == '%' || escape.indexOf(ch) >= 0) {
+                result.append(escape);
+            }
+            result.append(ch);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Checks if the view joining the partitions exists in the database.
+     *
+     * @param c
+     *            the connection
+     * @param tableName
+     *            the name of the view
+     * @return true if the view exists
+     * @throws SQLException
+     *             the SQL exception
+     */
+    static boolean isPartitioned(final Connection c, final String tableName) throws SQLException {
+        final DatabaseMetaData dbMetaData = c.getMetaData();
+        return exists(dbMetaData, c.getCatalog(), tableName, VIEW_TYPE);
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2018 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -27,7 +27,6 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.text.MessageFormat;
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -100,6 +99,8 @@ public class H2DbWireRecordStore implements WireEmitter, WireReceiver, Configura
 
     private H2DbWireRecordStoreOptions wireRecordStoreOptions;
 
+    private H2DbWireRecordPartitions partitions;
+
     private volatile WireHelperService wireHelperService;
 
     private WireSupport wireSupport;
@@ -108,13 +109,16 @@ public class H2DbWireRecordStore implements WireEmitter, WireReceiver, Configura
 
     private ComponentContext componentContext;
 
+    private String kuraServicePid;
+
     public synchronized void bindDbService(final H2DbService dbService) {
-        H2DbWireRecordStore.this.dbHelper = H2DbServiceHelper.of(dbService);
+        H2DbWireRecordStore.this.dbHelper = H2DbServiceHelper.of(dbService, this.kuraServicePid);
         reconcileDB(this.wireRecordStoreOptions.getTableName());
     }
 
     public synchronized void unbindDbService(final H2DbService dbService) {
         H2DbWireRecordStore.this.dbHelper = null;
+        H2DbWireRecordStore.this.partitions = null;
     }
 
     public void bindWireHelperService(final WireHelperService wireHelperService) {
@@ -140,6 +144,7 @@ public class H2DbWireRecordStore implements WireEmitter, WireReceiver, Configura
     protected void activate(final ComponentContext componentContext, final Map<String, Object> properties) {
         logger.debug("Activating DB Wire Record Store...");
         this.componentContext = componentContext;
+        this.kuraServicePid = (String) properties.get(KURA_SERVICE_PID);
         this.wireRecordStoreOptions = new H2DbWireRecordStoreOptions(properties);
 
         this.wireSupport = this.wireHelperService.newWireSupport(this,
@@ -200,6 +205,16 @@ public class H2DbWireRecordStore implements WireEmitter, WireReceiver, Configura
      *            the no of records to keep in the table
      */
     private void truncate(final int noOfRecordsToKeep) {
+        if (nonNull(this.partitions)) {
+            try {
+                this.partitions.cleanup(noOfRecordsToKeep, this.wireRecordStoreOptions.getMaximumTableSize());
+            } catch (final SQLException sqlException) {
+                logger.error("Error in dropping the partitions of the table {}...",
+                        this.wireRecordStoreOptions.getTableName(), sqlException);
+            }
+            return;
+        }
+
         final String tableName = this.wireRecordStoreOptions.getTableName();
         final String sqlTableName = this.dbHelper.sanitizeSqlTableAndColumnName(tableName);
 
@@ -228,6 +243,10 @@ public class H2DbWireRecordStore implements WireEmitter, WireReceiver, Configura
     }
 
     private int getTableSize() throws SQLException {
+        if (nonNull(this.partitions)) {
+            return this.partitions.getSize();
+        }
+
         final String tableName = this.wireRecordStoreOptions.getTableName();
         final String sqlTableName = this.dbHelper.sanitizeSqlTableAndColumnName(tableName);
 
@@ -286,12 +305,19 @@ public class H2DbWireRecordStore implements WireEmitter, WireReceiver, Configura
         int retryCount = 0;
         final String tableName = this.wireRecordStoreOptions.getTableName();
         do {
+            String insertTableName = tableName;
             try {
-                insertDataRecord(tableName, wireRecord);
+                if (nonNull(this.partitions)) {
+                    insertTableName = this.partitions.getCurrentPartition(currentTimeMillis());
+                }
+                insertDataRecord(insertTableName, wireRecord);
+                if (nonNull(this.partitions)) {
+                    this.partitions.recordInserted();
+                }
                 break;
             } catch (final SQLException e) {
                 logger.error("Insertion failed. Reconciling Table and Columns...", e);
-                reconcileDB(wireRecord, tableName);
+                reconcileDB(wireRecord, insertTableName);
                 retryCount++;
             }
         } while (retryCount < 2);
@@ -303,11 +329,20 @@ public class H2DbWireRecordStore implements WireEmitter, WireReceiver, Configura
      * @param wireRecord
      *            against which the database columns have to be reconciled.
      * @param tableName
-     *            the table name in the database that needs to be reconciled.
+     *            the table name in the database that needs to be reconciled, the current partition if the table is
+     *            partitioned.
      */
     private void reconcileDB(final WireRecord wireRecord, final String tableName) {
         try {
-            if (nonNull(tableName) && !tableName.isEmpty()) {
+            if (nonNull(this.partitions)) {
+                // the view joining the partitions would prevent changing the type of a column
+                try {
+                    this.partitions.dropView();
+                    reconcileColumns(tableName, wireRecord);
+                } finally {
+                    this.partitions.reconcile(currentTimeMillis());
+                }
+            } else if (nonNull(tableName) && !tableName.isEmpty()) {
                 reconcileTable(tableName);
                 reconcileColumns(tableName, wireRecord);
             }
@@ -325,7 +360,15 @@ public class H2DbWireRecordStore implements WireEmitter, WireReceiver, Configura
     private synchronized void reconcileDB(final String tableName) {
         try {
             if (nonNull(this.dbHelper) && nonNull(tableName) && !tableName.isEmpty()) {
-                reconcileTable(tableName);
+                final int partitionInterval = this.wireRecordStoreOptions.getPartitionIntervalMinutes();
+                if (partitionInterval > 0) {
+                    this.partitions = new H2DbWireRecordPartitions(this.dbHelper, tableName, partitionInterval,
+                            this.wireRecordStoreOptions.getMaximumTableSize());
+                    this.partitions.reconcile(currentTimeMillis());
+                } else {
+                    this.partitions = null;
+                    reconcileTable(tableName);
+                }
             }
         } catch (final SQLException ee) {
             logger.error("Error while storing Wire Records...", ee);
@@ -350,6 +393,12 @@ public class H2DbWireRecordStore implements WireEmitter, WireReceiver, Configura
             // check for the table that would collect the data of this emitter
             final String catalog = c.getCatalog();
             final DatabaseMetaData dbMetaData = c.getMetaData();
+            if (H2DbWireRecordPartitions.isPartitioned(c, tableName)) {
+                // the partitioning has been disabled, the partitions are merged into the table
+                new H2DbWireRecordPartitions(this.dbHelper, tableName,
+                        this.wireRecordStoreOptions.getPartitionIntervalMinutes(),
+                        this.wireRecordStoreOptions.getMaximumTableSize()).merge(c);
+            }
             try (final ResultSet rsTbls = dbMetaData.getTables(catalog, null,
                     this.wireRecordStoreOptions.getTableName(), TABLE_TYPE)) {
                 if (!rsTbls.next()) {
@@ -444,7 +493,7 @@ public class H2DbWireRecordStore implements WireEmitter, WireReceiver, Configura
 
         this.dbHelper.withConnection(c -> {
             try (final PreparedStatement stmt = prepareStatement(c, tableName, wireRecordProperties,
-                    new Date().getTime())) {
+                    currentTimeMillis())) {
                 stmt.execute();
                 c.commit();
                 return (Void) null;
@@ -515,6 +564,10 @@ public class H2DbWireRecordStore implements WireEmitter, WireReceiver, Configura
 
     }
 
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
     protected void restartDbServiceTracker() {
         stopDbServiceTracker();
         try {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2018 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -38,6 +38,8 @@ final class H2DbWireRecordStoreOptions {
 
     private static final String TABLE_NAME = "table.name";
 
+    private static final String PARTITION_INTERVAL = "partition.interval.minutes";
+
     private final Map<String, Object> properties;
 
     /**
@@ -88,6 +90,20 @@ final class H2DbWireRecordStoreOptions {
         return tableName;
     }
 
+    /**
+     * Returns the time interval covered by a partition of the table, in minutes.
+     *
+     * @return the partition interval, 0 if the table is not partitioned
+     */
+    int getPartitionIntervalMinutes() {
+        int partitionInterval = 0;
+        final Object interval = this.properties.get(PARTITION_INTERVAL);
+        if (nonNull(interval) && interval instanceof Integer) {
+            partitionInterval = Math.max(0, (Integer) interval);
+        }
+        return partitionInterval;
+    }
+
     String getDbServiceInstancePid() {
         String dbServicePid = H2DbService.DEFAULT_INSTANCE_PID;
         final Object pid = this.properties.get(DB_SERVICE_INSTANCE);
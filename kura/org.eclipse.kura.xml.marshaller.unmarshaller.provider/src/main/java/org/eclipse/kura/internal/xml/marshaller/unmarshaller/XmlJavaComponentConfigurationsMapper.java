@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2017 Eurotech and/or its affiliates
+ * Copyright (c) 2011, 2020 Eurotech and/or its affiliates
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -169,7 +169,7 @@ public class XmlJavaComponentConfigurationsMapper implements XmlJavaDataMapper {
         return null;
     }
 
-    private String getStringValue(ConfigPropertyType type) {
+    static String getStringValue(ConfigPropertyType type) {
         if (type == null) {
             return "String";
         }
@@ -265,7 +265,7 @@ public class XmlJavaComponentConfigurationsMapper implements XmlJavaDataMapper {
         return elementList.toArray(new Element[0]);
     }
 
-    private ConfigPropertyType getType(String type) {
+    static ConfigPropertyType getType(String type) {
         if (type.equals("String")) {
             return ConfigPropertyType.STRING_TYPE;
         } else if (type.equals("Long")) {
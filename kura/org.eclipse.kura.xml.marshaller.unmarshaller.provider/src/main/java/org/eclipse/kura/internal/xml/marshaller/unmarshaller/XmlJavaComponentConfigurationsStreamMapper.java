@@ -0,0 +1,406 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.xml.marshaller.unmarshaller;
+
+import static org.eclipse.kura.internal.xml.marshaller.unmarshaller.XmlJavaDataMapper.ESF_NAMESPACE;
+import static org.eclipse.kura.internal.xml.marshaller.unmarshaller.XmlJavaDataMapper.OCD_NAMESPACE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.eclipse.kura.configuration.ComponentConfiguration;
+import org.eclipse.kura.configuration.metatype.AD;
+import org.eclipse.kura.configuration.metatype.Icon;
+import org.eclipse.kura.configuration.metatype.OCD;
+import org.eclipse.kura.configuration.metatype.Option;
+import org.eclipse.kura.core.configuration.ComponentConfigurationImpl;
+import org.eclipse.kura.core.configuration.XmlComponentConfigurations;
+import org.eclipse.kura.core.configuration.XmlConfigPropertiesAdapted;
+import org.eclipse.kura.core.configuration.XmlConfigPropertiesAdapter;
+import org.eclipse.kura.core.configuration.XmlConfigPropertyAdapted;
+import org.eclipse.kura.core.configuration.metatype.Tocd;
+
+/**
+ * Streaming counterpart of {@link XmlJavaComponentConfigurationsMapper}, that reads and writes
+ * {@link XmlComponentConfigurations} through StAX without building a DOM. Only a single configuration is held in
+ * memory at a time besides the result.
+ * <p>
+ * The output is the same as the one of the DOM mapper: attributes are written sorted by name, as the DOM serializer
+ * does, and elements without content are written as empty elements.
+ */
+public class XmlJavaComponentConfigurationsStreamMapper {
+
+    private static final String ESF_NAMESPACE_URI = "http://eurotech.com/esf/2.0";
+    private static final String OCD_NAMESPACE_URI = "http://www.osgi.org/xmlns/metatype/v1.2.0";
+
+    private static final String CONFIGURATIONS = "configurations";
+    private static final String PROPERTIES = "properties";
+
+    private static final String CONFIGURATION_PID = "pid";
+
+    private static final String CONFIGURATIONS_CONFIGURATION = "configuration";
+    private static final String CONFIGURATIONS_CONFIGURATION_PROPERTY = "property";
+    private static final String CONFIGURATIONS_CONFIGURATION_PROPERTY_NAME = "name";
+    private static final String CONFIGURATIONS_CONFIGURATION_PROPERTY_ARRAY = "array";
+    private static final String CONFIGURATIONS_CONFIGURATION_PROPERTY_ENCRYPTED = "encrypted";
+    private static final String CONFIGURATIONS_CONFIGURATION_PROPERTY_TYPE = "type";
+    private static final String CONFIGURATIONS_CONFIGURATION_PROPERTY_VALUE = "value";
+
+    private static final String METADATA_OCD = "OCD";
+    private static final String METADATA_OCD_NAME = "name";
+    private static final String METADATA_OCD_ID = "id";
+    private static final String METADATA_OCD_DESCRIPTION = "description";
+
+    private static final String METADATA_ICON = "Icon";
+    private static final String METADATA_ICON_RESOURCE = "resource";
+    private static final String METADATA_ICON_SIZE = "size";
+
+    private static final String METADATA_AD = "AD";
+    private static final String METADATA_AD_ID = "id";
+    private static final String METADATA_AD_NAME = "name";
+    private static final String METADATA_AD_TYPE = "type";
+    private static final String METADATA_AD_CARDINALITY = "cardinality";
+    private static final String METADATA_AD_REQUIRED = "required";
+    private static final String METADATA_AD_DEFAULT = "default";
+    private static final String METADATA_AD_DESCRIPTION = "description";
+    private static final String METADATA_AD_MIN = "min";
+    private static final String METADATA_AD_MAX = "max";
+
+    private static final String METADATA_AD_OPTION = "Option";
+    private static final String METADATA_AD_OPTION_LABEL = "label";
+    private static final String METADATA_AD_OPTION_VALUE = "value";
+
+    private static final String INDENT = "    ";
+
+    private XMLStreamWriter writer;
+    private int depth;
+    private boolean hasChildElements;
+
+    //
+    // Marshaller's methods
+    //
+    public void marshal(XMLStreamWriter writer, XmlComponentConfigurations xmlCompConfig) throws Exception {
+        this.writer = writer;
+        this.depth = 0;
+
+        List<ComponentConfiguration> configs = xmlCompConfig.getConfigurations();
+        boolean hasConfigs = configs != null && !configs.isEmpty();
+
+        writer.writeStartDocument("UTF-8", "1.0");
+        if (hasConfigs) {
+            writeStartElement(ESF_NAMESPACE, CONFIGURATIONS, ESF_NAMESPACE_URI);
+        } else {
+            writer.writeEmptyElement(ESF_NAMESPACE, CONFIGURATIONS, ESF_NAMESPACE_URI);
+        }
+        writer.writeNamespace(ESF_NAMESPACE, ESF_NAMESPACE_URI);
+        writer.writeNamespace(OCD_NAMESPACE, OCD_NAMESPACE_URI);
+
+        if (hasConfigs) {
+            for (ComponentConfiguration config : configs) {
+                marshallConfiguration(config);
+            }
+            writeEndElement();
+        }
+        writer.writeCharacters("\n");
+        writer.writeEndDocument();
+        writer.flush();
+    }
+
+    private void marshallConfiguration(ComponentConfiguration config) throws Exception {
+        Map<String, Object> configProperty = config.getConfigurationProperties();
+        OCD configOCD = config.getDefinition();
+
+        if (!(configOCD instanceof Tocd) && configProperty == null) {
+            writeEmptyElement(ESF_NAMESPACE, CONFIGURATIONS_CONFIGURATION, ESF_NAMESPACE_URI);
+            writeAttribute(CONFIGURATION_PID, config.getPid());
+            return;
+        }
+
+        writeStartElement(ESF_NAMESPACE, CONFIGURATIONS_CONFIGURATION, ESF_NAMESPACE_URI);
+        writeAttribute(CONFIGURATION_PID, config.getPid());
+
+        if (configOCD instanceof Tocd) {
+            marshallOCD((Tocd) configOCD);
+        }
+
+        if (configProperty != null && configProperty.isEmpty()) {
+            writeEmptyElement(ESF_NAMESPACE, PROPERTIES, ESF_NAMESPACE_URI);
+        } else if (configProperty != null) {
+            writeStartElement(ESF_NAMESPACE, PROPERTIES, ESF_NAMESPACE_URI);
+            marshallProperties(configProperty);
+            writeEndElement();
+        }
+
+        writeEndElement();
+    }
+
+    private void marshallProperties(Map<String, Object> propertyMap) throws Exception {
+        XmlConfigPropertiesAdapter xmlPropAdapter = new XmlConfigPropertiesAdapter();
+        XmlConfigPropertiesAdapted configPropAdapted = xmlPropAdapter.marshal(propertyMap);
+
+        for (XmlConfigPropertyAdapted propertyObj : configPropAdapted.getProperties()) {
+            String[] values = propertyObj.getValues();
+            if (values == null) {
+                continue;
+            }
+
+            writeStartElement(ESF_NAMESPACE, CONFIGURATIONS_CONFIGURATION_PROPERTY, ESF_NAMESPACE_URI);
+            writeAttribute(CONFIGURATIONS_CONFIGURATION_PROPERTY_ARRAY, Boolean.toString(propertyObj.getArray()));
+            writeAttribute(CONFIGURATIONS_CONFIGURATION_PROPERTY_ENCRYPTED,
+                    Boolean.toString(propertyObj.isEncrypted()));
+            writeAttribute(CONFIGURATIONS_CONFIGURATION_PROPERTY_NAME, propertyObj.getName());
+            writeAttribute(CONFIGURATIONS_CONFIGURATION_PROPERTY_TYPE,
+                    XmlJavaComponentConfigurationsMapper.getStringValue(propertyObj.getType()));
+
+            for (String value : values) {
+                if (value == null || value.isEmpty()) {
+                    writeEmptyElement(ESF_NAMESPACE, CONFIGURATIONS_CONFIGURATION_PROPERTY_VALUE, ESF_NAMESPACE_URI);
+                    continue;
+                }
+                writeStartElement(ESF_NAMESPACE, CONFIGURATIONS_CONFIGURATION_PROPERTY_VALUE, ESF_NAMESPACE_URI);
+                writeText(value);
+                writeEndElement();
+            }
+            writeEndElement();
+        }
+    }
+
+    private void marshallOCD(Tocd configOCD) throws XMLStreamException {
+        writeStartElement(OCD_NAMESPACE, METADATA_OCD, OCD_NAMESPACE_URI);
+        writeNonBlankAttribute(METADATA_OCD_DESCRIPTION, configOCD.getDescription());
+        writeNonBlankAttribute(METADATA_OCD_ID, configOCD.getId());
+        writeNonBlankAttribute(METADATA_OCD_NAME, configOCD.getName());
+
+        List<AD> ocdADs = configOCD.getAD();
+        if (ocdADs != null) {
+            for (AD ocdAD : ocdADs) {
+                marshallAD(ocdAD);
+            }
+        }
+
+        List<Icon> ocdIcons = configOCD.getIcon();
+        if (ocdIcons != null) {
+            for (Icon ocdIcon : ocdIcons) {
+                writeEmptyElement(OCD_NAMESPACE, METADATA_ICON, OCD_NAMESPACE_URI);
+                writeNonBlankAttribute(METADATA_ICON_RESOURCE, ocdIcon.getResource());
+                if (ocdIcon.getSize() != null) {
+                    writeAttribute(METADATA_ICON_SIZE, ocdIcon.getSize().toString());
+                }
+            }
+        }
+
+        writeEndElement();
+    }
+
+    private void marshallAD(AD ocdAD) throws XMLStreamException {
+        List<Option> adOptions = ocdAD.getOption();
+        boolean hasOptions = adOptions != null && !adOptions.isEmpty();
+
+        if (hasOptions) {
+            writeStartElement(OCD_NAMESPACE, METADATA_AD, OCD_NAMESPACE_URI);
+        } else {
+            writeEmptyElement(OCD_NAMESPACE, METADATA_AD, OCD_NAMESPACE_URI);
+        }
+        writeAttribute(METADATA_AD_CARDINALITY, Integer.toString(ocdAD.getCardinality()));
+        writeAttribute(METADATA_AD_DEFAULT, ocdAD.getDefault());
+        writeAttribute(METADATA_AD_DESCRIPTION, ocdAD.getDescription());
+        writeAttribute(METADATA_AD_ID, ocdAD.getId());
+        writeAttribute(METADATA_AD_MAX, ocdAD.getMax());
+        writeAttribute(METADATA_AD_MIN, ocdAD.getMin());
+        writeAttribute(METADATA_AD_NAME, ocdAD.getName());
+        writeAttribute(METADATA_AD_REQUIRED, Boolean.toString(ocdAD.isRequired()));
+        if (ocdAD.getType() != null) {
+            writeAttribute(METADATA_AD_TYPE, ocdAD.getType().value());
+        }
+
+        if (hasOptions) {
+            for (Option adOption : adOptions) {
+                writeEmptyElement(OCD_NAMESPACE, METADATA_AD_OPTION, OCD_NAMESPACE_URI);
+                writeNonBlankAttribute(METADATA_AD_OPTION_LABEL, adOption.getLabel());
+                writeNonBlankAttribute(METADATA_AD_OPTION_VALUE, adOption.getValue());
+            }
+            writeEndElement();
+        }
+    }
+
+    private void writeStartElement(String prefix, String localName, String namespaceUri) throws XMLStreamException {
+        if (this.depth > 0) {
+            writeIndent();
+        }
+        this.writer.writeStartElement(prefix, localName, namespaceUri);
+        this.depth++;
+        this.hasChildElements = false;
+    }
+
+    private void writeEmptyElement(String prefix, String localName, String namespaceUri) throws XMLStreamException {
+        writeIndent();
+        this.writer.writeEmptyElement(prefix, localName, namespaceUri);
+        this.hasChildElements = true;
+    }
+
+    private void writeEndElement() throws XMLStreamException {
+        this.depth--;
+        if (this.hasChildElements) {
+            writeIndent();
+        }
+        this.writer.writeEndElement();
+        this.hasChildElements = true;
+    }
+
+    private void writeIndent() throws XMLStreamException {
+        StringBuilder sb = new StringBuilder(1 + this.depth * INDENT.length()).append('\n');
+        for (int i = 0; i < this.depth; i++) {
+            sb.append(INDENT);
+        }
+        this.writer.writeCharacters(sb.toString());
+    }
+
+    private void writeAttribute(String name, String value) throws XMLStreamException {
+        if (value != null) {
+            this.writer.writeAttribute(name, value);
+        }
+    }
+
+    private void writeNonBlankAttribute(String name, String value) throws XMLStreamException {
+        if (value != null && !value.trim().isEmpty()) {
+            this.writer.writeAttribute(name, value);
+        }
+    }
+
+    /*
+     * Carriage returns are written as character references, as a literal one would be read back as a line feed
+     */
+    private void writeText(String value) throws XMLStreamException {
+        if (value == null) {
+            return;
+        }
+        int start = 0;
+        int end;
+        while ((end = value.indexOf('\r', start)) >= 0) {
+            this.writer.writeCharacters(value.substring(start, end));
+            this.writer.writeEntityRef("#13");
+            start = end + 1;
+        }
+        this.writer.writeCharacters(value.substring(start));
+    }
+
+    //
+    // Unmarshaller's methods
+    //
+    public XmlComponentConfigurations unmarshal(XMLStreamReader reader) throws Exception {
+        List<ComponentConfiguration> compConfList = new ArrayList<>();
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT
+                    && CONFIGURATIONS_CONFIGURATION.equals(getLocalName(reader))) {
+                compConfList.add(parseConfiguration(reader));
+            }
+        }
+
+        XmlComponentConfigurations xcc = new XmlComponentConfigurations();
+        xcc.setConfigurations(compConfList);
+        return xcc;
+    }
+
+    private ComponentConfiguration parseConfiguration(XMLStreamReader reader) throws Exception {
+        String pid = getAttribute(reader, CONFIGURATION_PID);
+
+        XmlConfigPropertiesAdapted xmlPropertiesAdapted = new XmlConfigPropertiesAdapted();
+        int level = 1;
+        while (level > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (level == 1 && PROPERTIES.equals(getLocalName(reader))) {
+                    xmlPropertiesAdapted.setProperties(parseProperties(reader));
+                } else {
+                    level++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                level--;
+            }
+        }
+
+        Map<String, Object> propertiesMap = new XmlConfigPropertiesAdapter().unmarshal(xmlPropertiesAdapted);
+        return new ComponentConfigurationImpl(pid, null, propertiesMap);
+    }
+
+    private XmlConfigPropertyAdapted[] parseProperties(XMLStreamReader reader) throws XMLStreamException {
+        List<XmlConfigPropertyAdapted> properties = new ArrayList<>();
+        int event;
+        while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                properties.add(parseProperty(reader));
+            }
+        }
+        return properties.toArray(new XmlConfigPropertyAdapted[0]);
+    }
+
+    private XmlConfigPropertyAdapted parseProperty(XMLStreamReader reader) throws XMLStreamException {
+        String name = getAttribute(reader, CONFIGURATIONS_CONFIGURATION_PROPERTY_NAME);
+        String type = getAttribute(reader, CONFIGURATIONS_CONFIGURATION_PROPERTY_TYPE);
+        String array = getAttribute(reader, CONFIGURATIONS_CONFIGURATION_PROPERTY_ARRAY);
+        String encrypted = getAttribute(reader, CONFIGURATIONS_CONFIGURATION_PROPERTY_ENCRYPTED);
+
+        List<String> values = new ArrayList<>();
+        int event;
+        while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                values.add(readTextContent(reader));
+            }
+        }
+
+        XmlConfigPropertyAdapted xmlProperty = new XmlConfigPropertyAdapted(name,
+                XmlJavaComponentConfigurationsMapper.getType(type), values.toArray(new String[0]));
+        xmlProperty.setArray(Boolean.parseBoolean(array));
+        xmlProperty.setEncrypted(Boolean.parseBoolean(encrypted));
+        return xmlProperty;
+    }
+
+    /*
+     * Returns the text of the current element and of its descendants, leaving the reader on its end element
+     */
+    private String readTextContent(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder sb = new StringBuilder();
+        int level = 1;
+        while (level > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                level++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                level--;
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                    || event == XMLStreamConstants.SPACE) {
+                sb.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            }
+        }
+        return sb.toString();
+    }
+
+    /*
+     * Documents are parsed without namespace processing, as the DOM based mapper does
+     */
+    private static String getLocalName(XMLStreamReader reader) {
+        String name = reader.getLocalName();
+        int colon = name.indexOf(':');
+        return colon >= 0 ? name.substring(colon + 1) : name;
+    }
+
+    private static String getAttribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? value : "";
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Eurotech and/or its affiliates
+ * Copyright (c) 2017, 2020 Eurotech and/or its affiliates
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -12,7 +12,8 @@
 package org.eclipse.kura.internal.xml.marshaller.unmarshaller;
 
 import java.io.IOException;
-import java.io.Reader;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
@@ -22,6 +23,11 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.stream.FactoryConfigurationError;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -49,17 +55,54 @@ public class XmlMarshallUnmarshallImpl implements Marshaller, Unmarshaller {
 
     private static final Logger logger = LoggerFactory.getLogger(XmlMarshallUnmarshallImpl.class);
 
+    private static final XMLInputFactory xmlInputFactory = createXmlInputFactory();
+    private static final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newFactory();
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
+
     @Override
     public String marshal(Object object) throws KuraException {
         StringWriter sw = new StringWriter();
         try {
-            marshal(object, sw);
+            if (object instanceof XmlComponentConfigurations) {
+                marshal((XmlComponentConfigurations) object, xmlOutputFactory.createXMLStreamWriter(sw));
+            } else {
+                marshal(object, sw);
+            }
         } catch (Exception e) {
             throw new KuraException(KuraErrorCode.ENCODE_ERROR, "value");
         }
         return sw.toString();
     }
 
+    @Override
+    public void marshal(Object object, OutputStream out) throws KuraException {
+        if (!(object instanceof XmlComponentConfigurations)) {
+            Marshaller.super.marshal(object, out);
+            return;
+        }
+        try {
+            marshal((XmlComponentConfigurations) object, xmlOutputFactory.createXMLStreamWriter(out, "UTF-8"));
+        } catch (Exception e) {
+            throw new KuraException(KuraErrorCode.ENCODE_ERROR, e, "value");
+        }
+    }
+
+    // streams the component configurations, that can be too large to be built as a DOM
+    private void marshal(XmlComponentConfigurations configurations, XMLStreamWriter writer) throws Exception {
+        try {
+            new XmlJavaComponentConfigurationsStreamMapper().marshal(writer, configurations);
+        } finally {
+            writer.close();
+        }
+    }
+
     private void marshal(Object object, Writer w) throws Exception {
         try {
             DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
@@ -139,10 +182,43 @@ public class XmlMarshallUnmarshallImpl implements Marshaller, Unmarshaller {
     @Override
     public <T> T unmarshal(String s, Class<T> clazz) throws KuraException {
         StringReader sr = new StringReader(s);
-        return unmarshal(sr, clazz);
+        if (clazz.equals(XmlComponentConfigurations.class)) {
+            try {
+                return unmarshal(xmlInputFactory.createXMLStreamReader(sr), clazz);
+            } catch (XMLStreamException e) {
+                throw new KuraException(KuraErrorCode.DECODER_ERROR, e, "value");
+            }
+        }
+        return unmarshal(new InputSource(sr), clazz);
+    }
+
+    @Override
+    public <T> T unmarshal(InputStream in, Class<T> clazz) throws KuraException {
+        try {
+            if (clazz.equals(XmlComponentConfigurations.class)) {
+                return unmarshal(xmlInputFactory.createXMLStreamReader(in), clazz);
+            }
+        } catch (XMLStreamException e) {
+            throw new KuraException(KuraErrorCode.DECODER_ERROR, e, "value");
+        }
+        return unmarshal(new InputSource(in), clazz);
+    }
+
+    private <T> T unmarshal(XMLStreamReader reader, Class<T> clazz) throws KuraException {
+        try {
+            return clazz.cast(new XmlJavaComponentConfigurationsStreamMapper().unmarshal(reader));
+        } catch (Exception e) {
+            throw new KuraException(KuraErrorCode.DECODER_ERROR, e, "value");
+        } finally {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                logger.debug("Failed to close the XML reader", e);
+            }
+        }
     }
 
-    private <T> T unmarshal(Reader r, Class<T> clazz) throws KuraException {
+    private <T> T unmarshal(InputSource is, Class<T> clazz) throws KuraException {
         DocumentBuilderFactory factory = null;
         DocumentBuilder parser = null;
 
@@ -163,11 +239,10 @@ public class XmlMarshallUnmarshallImpl implements Marshaller, Unmarshaller {
         // parse the document
         Document doc = null;
         try {
-            InputSource is = new InputSource(r);
             doc = parser.parse(is);
             doc.getDocumentElement().normalize();
         } catch (SAXException | IOException | IllegalArgumentException se) {
-            throw new KuraException(KuraErrorCode.DECODER_ERROR, "value", se);
+            throw new KuraException(KuraErrorCode.DECODER_ERROR, se, "value");
         }
 
         // identify the correct parser that has to execute
@@ -176,7 +251,7 @@ public class XmlMarshallUnmarshallImpl implements Marshaller, Unmarshaller {
                 // Snapshot parser
                 return new XmlJavaComponentConfigurationsMapper().unmarshal(doc);
             } catch (Exception e) {
-                throw new KuraException(KuraErrorCode.DECODER_ERROR, "value", e);
+                throw new KuraException(KuraErrorCode.DECODER_ERROR, e, "value");
             }
         } else if (clazz.equals(MetaData.class) || clazz.equals(Tmetadata.class)) {
             // MetaData parser
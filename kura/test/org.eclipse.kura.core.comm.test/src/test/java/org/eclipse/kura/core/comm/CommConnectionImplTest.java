@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -9,7 +9,27 @@
 package org.eclipse.kura.core.comm;
 
 import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedList;
+
+import javax.comm.SerialPort;
+import javax.comm.UnsupportedCommOperationException;
+
+import org.eclipse.kura.KuraException;
+import org.eclipse.kura.comm.CommURI;
 import org.junit.Test;
 
 public class CommConnectionImplTest {
@@ -42,4 +62,169 @@ public class CommConnectionImplTest {
 
         assertEquals("01 23 45 67 89 AB CD EF", stringData);
     }
+
+    @Test
+    public void testSendCommandReturnsFirstBurst() throws Exception {
+        SerialLine line = new SerialLine(new byte[] { 1, 2 }, null, new byte[] { 3 });
+        CommConnectionImpl connection = line.open(true);
+
+        byte[] response = connection.sendCommand(new byte[] { 0x10 }, 1000);
+
+        assertArrayEquals(new byte[] { 1, 2 }, response);
+        assertArrayEquals(new byte[] { 0x10 }, line.sent.toByteArray());
+        assertEquals(SerialLine.RECEIVE_TIMEOUT, line.receiveTimeout);
+    }
+
+    @Test
+    public void testSendCommandWithDemark() throws Exception {
+        SerialLine line = new SerialLine(new byte[] { 1, 2 }, new byte[] { 3 }, null, new byte[] { 4 });
+        CommConnectionImpl connection = line.open(true);
+
+        byte[] response = connection.sendCommand(new byte[] { 0x10 }, 1000, 50);
+
+        // the frame ends at the first gap longer than demark
+        assertArrayEquals(new byte[] { 1, 2, 3 }, response);
+        assertEquals(SerialLine.RECEIVE_TIMEOUT, line.receiveTimeout);
+    }
+
+    @Test
+    public void testSendCommandTimeout() throws Exception {
+        SerialLine line = new SerialLine();
+        CommConnectionImpl connection = line.open(true);
+
+        long start = System.nanoTime();
+        assertNull(connection.sendCommand(new byte[] { 0x10 }, 200));
+        assertTrue(System.nanoTime() - start >= 200000000L);
+    }
+
+    @Test
+    public void testSendCommandWithoutReceiveTimeoutSupport() throws Exception {
+        SerialLine line = new SerialLine(new byte[] { 1, 2 });
+        CommConnectionImpl connection = line.open(false);
+
+        assertArrayEquals(new byte[] { 1, 2 }, connection.sendCommand(new byte[] { 0x10 }, 1000));
+    }
+
+    @Test
+    public void testOpenWithReceiveTimeoutIgnoredByDriver() throws Exception {
+        SerialLine line = new SerialLine(new byte[] { 1, 2 }, null, new byte[] { 3 });
+        SerialPort serialPort = line.createPort(true);
+        when(serialPort.isReceiveTimeoutEnabled()).thenReturn(false);
+
+        // the connection is opened anyway and the reads poll the input stream
+        CommConnectionImpl connection = new CommConnectionImpl(line.uri(), serialPort);
+
+        assertArrayEquals(new byte[] { 1, 2 }, connection.sendCommand(new byte[] { 0x10 }, 1000));
+        verify(serialPort, times(1)).enableReceiveTimeout(anyInt());
+    }
+
+    @Test
+    public void testSendCommandDiscardsStaleInput() throws Exception {
+        SerialLine line = new SerialLine(new byte[] { 1 });
+        line.pending.add(new byte[] { 9, 9 });
+        CommConnectionImpl connection = line.open(true);
+
+        assertArrayEquals(new byte[] { 1 }, connection.sendCommand(new byte[] { 0x10 }, 1000));
+    }
+
+    /**
+     * Simulates a serial port with a receive timeout: the response bursts are received after the command has been
+     * sent, a null burst is a silent period that lasts for the current receive timeout.
+     */
+    private static final class SerialLine {
+
+        static final int RECEIVE_TIMEOUT = 100;
+
+        final Deque<byte[]> pending = new LinkedList<>();
+        final byte[][] response;
+        final ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        volatile int receiveTimeout;
+
+        SerialLine(byte[]... response) {
+            this.response = response;
+        }
+
+        CommConnectionImpl open(boolean receiveTimeoutSupported) throws Exception {
+            return new CommConnectionImpl(uri(), createPort(receiveTimeoutSupported));
+        }
+
+        CommURI uri() {
+            return new CommURI.Builder("/dev/ttyS0").withReceiveTimeout(RECEIVE_TIMEOUT).build();
+        }
+
+        SerialPort createPort(boolean receiveTimeoutSupported) throws Exception {
+            SerialPort serialPort = mock(SerialPort.class);
+            when(serialPort.getInputStream()).thenReturn(new LineInputStream());
+            when(serialPort.getOutputStream()).thenReturn(new LineOutputStream());
+            if (receiveTimeoutSupported) {
+                doAnswer(invocation -> {
+                    this.receiveTimeout = (Integer) invocation.getArguments()[0];
+                    return null;
+                }).when(serialPort).enableReceiveTimeout(anyInt());
+                when(serialPort.isReceiveTimeoutEnabled()).thenReturn(true);
+            } else {
+                doThrow(new UnsupportedCommOperationException()).when(serialPort).enableReceiveTimeout(anyInt());
+            }
+            this.receiveTimeout = RECEIVE_TIMEOUT;
+            return serialPort;
+        }
+
+        private final class LineInputStream extends InputStream {
+
+            @Override
+            public int available() {
+                synchronized (SerialLine.this.pending) {
+                    byte[] head = SerialLine.this.pending.peek();
+                    return head == null ? 0 : head.length;
+                }
+            }
+
+            @Override
+            public int read() throws IOException {
+                byte[] b = new byte[1];
+                return read(b, 0, 1) == 1 ? b[0] & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                byte[] burst;
+                synchronized (SerialLine.this.pending) {
+                    burst = SerialLine.this.pending.poll();
+                }
+                if (burst == null) {
+                    sleep(SerialLine.this.receiveTimeout);
+                    return 0;
+                }
+                if (burst.length > len) {
+                    throw new IOException("Unexpected read length");
+                }
+                System.arraycopy(burst, 0, b, off, burst.length);
+                return burst.length;
+            }
+
+            private void sleep(int millis) throws IOException {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+        }
+
+        private final class LineOutputStream extends OutputStream {
+
+            @Override
+            public void write(int b) {
+                SerialLine.this.sent.write(b);
+            }
+
+            @Override
+            public void flush() {
+                synchronized (SerialLine.this.pending) {
+                    SerialLine.this.pending.addAll(Arrays.asList(SerialLine.this.response));
+                }
+            }
+        }
+    }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2019 Eurotech and/or its affiliates and others
+ * Copyright (c) 2016, 2020 Eurotech and/or its affiliates and others
  *
  *   All rights reserved. This program and the accompanying materials
  *   are made available under the terms of the Eclipse Public License v1.0
@@ -14,6 +14,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyObject;
@@ -23,12 +24,18 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashMap;
@@ -38,6 +45,18 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.kura.KuraErrorCode;
 import org.eclipse.kura.KuraException;
@@ -64,6 +83,7 @@ import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
 import org.osgi.service.cm.Configuration;
 import org.osgi.service.cm.ConfigurationAdmin;
+import org.osgi.service.cm.ConfigurationEvent;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.runtime.ServiceComponentRuntime;
 import org.osgi.service.component.runtime.dto.ComponentDescriptionDTO;
@@ -1332,7 +1352,7 @@ public class ConfigurationServiceTest {
         CryptoService cryptoServiceMock = mock(CryptoService.class);
         cs.setCryptoService(cryptoServiceMock);
 
-        when(cryptoServiceMock.decryptAes((char[]) anyObject())).thenReturn(null);
+        when(cryptoServiceMock.aesDecryptingStream(Matchers.any(InputStream.class))).thenReturn(null);
 
         try {
             cs.loadEncryptedSnapshotFileContent(snapshotID);
@@ -1354,26 +1374,7 @@ public class ConfigurationServiceTest {
 
         String decrypted = prepareSnapshotXML();
 
-        ConfigurationServiceImpl cs = new ConfigurationServiceImpl() {
-
-            @Override
-            protected <T> T unmarshal(String xmlString, Class<T> clazz) throws KuraException {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-
-                return xmlMarshaller.unmarshal(xmlString, clazz);
-            }
-
-            @Override
-            protected String marshal(Object object) {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-                try {
-                    return xmlMarshaller.marshal(object);
-                } catch (KuraException e) {
-
-                }
-                return null;
-            }
-        };
+        ConfigurationServiceImpl cs = new XmlConfigurationServiceImpl();
 
         long snapshotID = 123;
 
@@ -1399,12 +1400,12 @@ public class ConfigurationServiceTest {
         cs.setCryptoService(cryptoServiceMock);
 
         // ensure the proper file is read
-        when(cryptoServiceMock.decryptAes("test".toCharArray())).thenReturn(decrypted.toCharArray());
+        mockDecryptingStream(cryptoServiceMock, "test", decrypted);
 
         XmlComponentConfigurations configurations = cs.loadEncryptedSnapshotFileContent(snapshotID);
 
         verify(systemServiceMock, times(1)).getKuraSnapshotsDirectory();
-        verify(cryptoServiceMock, times(1)).decryptAes("test".toCharArray());
+        verify(cryptoServiceMock, times(1)).aesDecryptingStream(Matchers.any(InputStream.class));
 
         f1.delete();
         d1.delete();
@@ -1538,8 +1539,8 @@ public class ConfigurationServiceTest {
     }
 
     @Test
-    public void testLoadLatestSnapshotConfigurationsRecursiveAfterEncryption() throws Throwable {
-        // test scenario where latest snapshot is not encrypted and all snapshots are encrypted before being loaded
+    public void testLoadLatestSnapshotConfigurationsPlainBeforeEncryption() throws Throwable {
+        // test scenario where latest snapshot is not encrypted and it is loaded before all snapshots are encrypted
 
         final Set<Long> snapshotList = new TreeSet<>();
         snapshotList.add(123L);
@@ -1563,7 +1564,8 @@ public class ConfigurationServiceTest {
 
         final int[] calls = { 0, 0 };
 
-        ConfigurationServiceImpl cs = new ConfigurationServiceImpl() {
+        ManualScheduler scheduler = new ManualScheduler();
+        ConfigurationServiceImpl cs = new ConfigurationServiceImpl(scheduler) {
 
             @Override
             public Set<Long> getSnapshots() throws KuraException {
@@ -1571,24 +1573,216 @@ public class ConfigurationServiceTest {
                 if (calls[0] < 3) {
                     return snapshotList;
                 } else {
+                    // the snapshots are encrypted in background
                     return null;
                 }
             }
 
+            @Override
+            String getSnapshotsDirectory() {
+                return dir;
+            }
+
             @Override
             XmlComponentConfigurations loadEncryptedSnapshotFileContent(long snapshotID) throws KuraException {
                 calls[1]++;
                 throw new KuraException(KuraErrorCode.CONFIGURATION_ERROR);
             }
+
+            @Override
+            protected <T> T unmarshal(InputStream in, Class<T> clazz) throws KuraException {
+                return clazz.cast(xmlComponentConfigurations);
+            }
         };
 
         List<ComponentConfigurationImpl> result = (List<ComponentConfigurationImpl>) TestUtil.invokePrivate(cs,
                 "loadLatestSnapshotConfigurations");
 
-        assertNull("xml config null", result);
+        assertSame("plain snapshot loaded", configurations, result);
 
-        assertEquals("call snapshots", 4, calls[0]);
+        assertEquals("call snapshots", 2, calls[0]);
         assertEquals("call load xml", 3, calls[1]);
+
+        // the snapshots are encrypted later by the snapshot writer
+        assertEquals(1, scheduler.tasks.size());
+        scheduler.runAll();
+        assertEquals("call snapshots", 3, calls[0]);
+    }
+
+    @Test
+    public void testLoadLatestSnapshotInConfigAdminConcurrently() throws Throwable {
+        final XmlComponentConfigurations xmlComponentConfigurations = new XmlComponentConfigurations();
+        List<ComponentConfiguration> configurations = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            configurations.add(new ComponentConfigurationImpl("pid" + i, null, new HashMap<>()));
+        }
+        xmlComponentConfigurations.setConfigurations(configurations);
+
+        final AtomicInteger submitted = new AtomicInteger();
+        ExecutorService loaderExecutor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>()) {
+
+            @Override
+            public void execute(Runnable command) {
+                submitted.incrementAndGet();
+                super.execute(command);
+            }
+        };
+
+        ConfigurationServiceImpl cs = new ConfigurationServiceImpl(new ManualScheduler(), loaderExecutor) {
+
+            @Override
+            public Set<Long> getSnapshots() throws KuraException {
+                return new TreeSet<>(Collections.singleton(1L));
+            }
+
+            @Override
+            XmlComponentConfigurations loadEncryptedSnapshotFileContent(long snapshotID) throws KuraException {
+                return xmlComponentConfigurations;
+            }
+        };
+
+        ConfigurationAdmin configAdminMock = mock(ConfigurationAdmin.class);
+        cs.setConfigurationAdmin(configAdminMock);
+        Configuration configMock = mock(Configuration.class);
+        when(configAdminMock.getConfiguration(Matchers.anyString(), Matchers.eq("?"))).thenReturn(configMock);
+
+        try {
+            TestUtil.invokePrivate(cs, "loadLatestSnapshotInConfigAdmin");
+        } finally {
+            loaderExecutor.shutdown();
+        }
+
+        // the configurations are pushed by the snapshot loader executor
+        assertEquals(3, submitted.get());
+        for (int i = 0; i < 3; i++) {
+            verify(configAdminMock, times(1)).getConfiguration("pid" + i, "?");
+        }
+        verify(configMock, times(3)).update((Dictionary<String, Object>) anyObject());
+    }
+
+    @Test
+    public void testPushFactoryConfigurationConcurrently() throws Throwable {
+        final int numPushes = 4;
+        ExecutorService loaderExecutor = Executors.newFixedThreadPool(numPushes);
+        ConfigurationServiceImpl cs = new ConfigurationServiceImpl(new ManualScheduler(), loaderExecutor);
+
+        ConfigurationAdmin configAdminMock = mock(ConfigurationAdmin.class);
+        cs.setConfigurationAdmin(configAdminMock);
+        Configuration factoryConfigMock = mock(Configuration.class);
+        when(factoryConfigMock.getPid()).thenReturn("fpid.1");
+        when(configAdminMock.createFactoryConfiguration("fpid", null)).thenAnswer(invocation -> {
+            // leave the other pushes time to check the pid
+            Thread.sleep(100);
+            return factoryConfigMock;
+        });
+        when(configAdminMock.getConfiguration("fpid.1", "?")).thenReturn(mock(Configuration.class));
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(ConfigurationAdmin.SERVICE_FACTORYPID, "fpid");
+        final ComponentConfiguration config = new ComponentConfigurationImpl("mypid", null, properties);
+
+        final CyclicBarrier barrier = new CyclicBarrier(numPushes);
+        List<Future<?>> pushes = new ArrayList<>();
+        try {
+            for (int i = 0; i < numPushes; i++) {
+                pushes.add(loaderExecutor.submit(() -> {
+                    barrier.await();
+                    try {
+                        return TestUtil.invokePrivate(cs, "pushToConfigAdmin", config);
+                    } catch (Throwable e) {
+                        throw new Exception(e);
+                    }
+                }));
+            }
+            for (Future<?> push : pushes) {
+                push.get();
+            }
+        } finally {
+            loaderExecutor.shutdown();
+        }
+
+        // the configuration of a pid is created only once
+        verify(configAdminMock, times(1)).createFactoryConfiguration("fpid", null);
+        assertTrue(cs.getConfigurableComponentPids().contains("mypid"));
+    }
+
+    @Test
+    public void testLoadJournaledSnapshotConcurrently() throws Throwable {
+        final File dir = new File("journalDir");
+        dir.mkdirs();
+        dir.deleteOnExit();
+
+        XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
+
+        // pid1 and pid2 in the full snapshot, pid2 removed and pid1 changed by snapshot 2, pid3 added by snapshot 3
+        final XmlComponentConfigurations baseConfigs = createXmlConfigs("pid1", "base", "pid2", "base");
+        File journalFile = new File(dir, SnapshotJournal.JOURNAL_FILE_NAME);
+        journalFile.delete();
+        journalFile.deleteOnExit();
+        SnapshotJournal journal = new SnapshotJournal(dir);
+        journal.append(2, 1, base64("pid2\n\n" + xmlMarshaller.marshal(createXmlConfigs("pid1", "second"))));
+        journal.append(3, 2, base64("\n" + xmlMarshaller.marshal(createXmlConfigs("pid3", "third"))));
+
+        ExecutorService loaderExecutor = Executors.newFixedThreadPool(2, r -> new Thread(r, "TestSnapshotLoader"));
+        ConfigurationServiceImpl cs = new XmlConfigurationServiceImpl(new ManualScheduler(), loaderExecutor) {
+
+            @Override
+            String getSnapshotsDirectory() {
+                return dir.getPath();
+            }
+
+            @Override
+            XmlComponentConfigurations loadEncryptedSnapshotFileContent(long snapshotID) throws KuraException {
+                if (snapshotID == 1) {
+                    return baseConfigs;
+                }
+                return super.loadEncryptedSnapshotFileContent(snapshotID);
+            }
+        };
+
+        // the changes are only Base64 encoded, the decryption records the threads decoding them
+        final Set<String> decodingThreads = Collections.synchronizedSet(new HashSet<>());
+        CryptoService cryptoServiceMock = mock(CryptoService.class);
+        when(cryptoServiceMock.decryptAes(Matchers.any(char[].class))).thenAnswer(invocation -> {
+            decodingThreads.add(Thread.currentThread().getName());
+            String encoded = new String(invocation.getArgumentAt(0, char[].class));
+            return new String(Base64.getDecoder().decode(encoded), StandardCharsets.UTF_8).toCharArray();
+        });
+        cs.setCryptoService(cryptoServiceMock);
+
+        XmlComponentConfigurations result;
+        try {
+            result = cs.loadEncryptedSnapshotFileContent(3);
+        } finally {
+            loaderExecutor.shutdown();
+        }
+
+        verify(cryptoServiceMock, times(2)).decryptAes(Matchers.any(char[].class));
+        assertEquals(Collections.singleton("TestSnapshotLoader"), decodingThreads);
+
+        List<ComponentConfiguration> configs = result.getConfigurations();
+        assertEquals(2, configs.size());
+        assertEquals("pid1", configs.get(0).getPid());
+        assertEquals("second", configs.get(0).getConfigurationProperties().get("prop"));
+        assertEquals("pid3", configs.get(1).getPid());
+        assertEquals("third", configs.get(1).getConfigurationProperties().get("prop"));
+    }
+
+    private static String base64(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static XmlComponentConfigurations createXmlConfigs(String... pidsAndValues) {
+        List<ComponentConfiguration> configs = new ArrayList<>();
+        for (int i = 0; i < pidsAndValues.length; i += 2) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("prop", pidsAndValues[i + 1]);
+            configs.add(new ComponentConfigurationImpl(pidsAndValues[i], null, properties));
+        }
+        XmlComponentConfigurations xmlConfigs = new XmlComponentConfigurations();
+        xmlConfigs.setConfigurations(configs);
+        return xmlConfigs;
     }
 
     @Test
@@ -1614,7 +1808,7 @@ public class ConfigurationServiceTest {
         };
 
         try {
-            TestUtil.invokePrivate(cs, "encryptPlainSnapshots");
+            TestUtil.invokePrivate(cs, "encryptPlainSnapshots", new Class<?>[0], new Object[0]);
             fail("Exception expected.");
         } catch (KuraException e) {
             assertEquals("exception code OK", KuraErrorCode.CONFIGURATION_ERROR, e.getCode());
@@ -1644,7 +1838,7 @@ public class ConfigurationServiceTest {
         fw.append(cfgxml);
         fw.close();
 
-        ConfigurationServiceImpl cs = new ConfigurationServiceImpl() {
+        ConfigurationServiceImpl cs = new XmlConfigurationServiceImpl() {
 
             @Override
             public Set<Long> getSnapshots() throws KuraException {
@@ -1655,39 +1849,20 @@ public class ConfigurationServiceTest {
             String getSnapshotsDirectory() {
                 return dir;
             }
-
-            @Override
-            protected <T> T unmarshal(String xmlString, Class<T> clazz) throws KuraException {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-
-                return xmlMarshaller.unmarshal(xmlString, clazz);
-            }
-
-            @Override
-            protected String marshal(Object object) {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-                try {
-                    return xmlMarshaller.marshal(object);
-                } catch (KuraException e) {
-
-                }
-                return null;
-            }
         };
 
         CryptoService cryptoServiceMock = mock(CryptoService.class);
         cs.setCryptoService(cryptoServiceMock);
 
         String encCfg = "encrypted";
-        char[] encrypted = encCfg.toCharArray();
-        when(cryptoServiceMock.encryptAes((char[]) Matchers.anyObject())).thenReturn(encrypted);
+        mockEncryptingStream(cryptoServiceMock, encCfg);
 
         BundleContext bundleContext = mock(BundleContext.class);
         TestUtil.setFieldValue(cs, "bundleContext", bundleContext);
 
-        TestUtil.invokePrivate(cs, "encryptPlainSnapshots");
+        TestUtil.invokePrivate(cs, "encryptPlainSnapshots", new Class<?>[0], new Object[0]);
 
-        verify(cryptoServiceMock, times(1)).encryptAes((char[]) Matchers.anyObject());
+        verify(cryptoServiceMock, times(1)).aesEncryptingStream(Matchers.any(OutputStream.class));
 
         FileReader fr = new FileReader(f1);
         char[] chars = new char[encCfg.length()];
@@ -1695,12 +1870,45 @@ public class ConfigurationServiceTest {
         fr.close();
 
         assertEquals("proper length", encCfg.length(), read);
-        assertArrayEquals("proper encrypted contents", encrypted, chars);
+        assertArrayEquals("proper encrypted contents", encCfg.toCharArray(), chars);
 
         f1.delete();
         d1.delete();
     }
 
+    private static void mockEncryptingStream(CryptoService cryptoServiceMock, String encrypted) throws KuraException {
+        // the written data is discarded and replaced by the 'encrypted' content
+        when(cryptoServiceMock.aesEncryptingStream(Matchers.any(OutputStream.class))).thenAnswer(invocation -> {
+            final OutputStream destination = invocation.getArgumentAt(0, OutputStream.class);
+            return new ByteArrayOutputStream() {
+
+                @Override
+                public void close() throws IOException {
+                    destination.write(encrypted.getBytes(StandardCharsets.UTF_8));
+                    destination.close();
+                }
+            };
+        });
+    }
+
+    private static void mockDecryptingStream(CryptoService cryptoServiceMock, String encrypted, String decrypted)
+            throws KuraException {
+        when(cryptoServiceMock.aesDecryptingStream(Matchers.any(InputStream.class))).thenAnswer(invocation -> {
+            final InputStream source = invocation.getArgumentAt(0, InputStream.class);
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            int b;
+            while ((b = source.read()) != -1) {
+                content.write(b);
+            }
+
+            // ensure the proper file is read
+            if (!encrypted.equals(new String(content.toByteArray(), StandardCharsets.UTF_8))) {
+                throw new KuraException(KuraErrorCode.DECODER_ERROR);
+            }
+            return new ByteArrayInputStream(decrypted.getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
     private String prepareSnapshotXml(final XmlComponentConfigurations configs) throws KuraException {
         XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
         return xmlMarshaller.marshal(configs);
@@ -1748,38 +1956,19 @@ public class ConfigurationServiceTest {
         d2.mkdirs();
         d2.deleteOnExit();
 
-        ConfigurationServiceImpl cs = new ConfigurationServiceImpl() {
+        ConfigurationServiceImpl cs = new XmlConfigurationServiceImpl() {
 
             @Override
             String getSnapshotsDirectory() {
                 return dir;
             }
-
-            @Override
-            protected <T> T unmarshal(String xmlString, Class<T> clazz) throws KuraException {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-
-                return xmlMarshaller.unmarshal(xmlString, clazz);
-            }
-
-            @Override
-            protected String marshal(Object object) {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-                try {
-                    return xmlMarshaller.marshal(object);
-                } catch (KuraException e) {
-
-                }
-                return null;
-            }
         };
 
         CryptoService cryptoServiceMock = mock(CryptoService.class);
         cs.setCryptoService(cryptoServiceMock);
 
         String encCfg = "encrypted";
-        char[] encrypted = encCfg.toCharArray();
-        when(cryptoServiceMock.encryptAes((char[]) Matchers.anyObject())).thenReturn(encrypted);
+        mockEncryptingStream(cryptoServiceMock, encCfg);
 
         try {
             TestUtil.invokePrivate(cs, "writeSnapshot", sid, cfg);
@@ -1788,7 +1977,7 @@ public class ConfigurationServiceTest {
             assertEquals("Error code.", KuraErrorCode.INTERNAL_ERROR, e.getCode());
         }
 
-        verify(cryptoServiceMock, times(1)).encryptAes((char[]) Matchers.anyObject());
+        verify(cryptoServiceMock, times(1)).aesEncryptingStream(Matchers.any(OutputStream.class));
 
         d1.delete();
         d2.delete();
@@ -1808,45 +1997,26 @@ public class ConfigurationServiceTest {
         d1.mkdirs();
         d1.deleteOnExit();
 
-        ConfigurationServiceImpl cs = new ConfigurationServiceImpl() {
+        ConfigurationServiceImpl cs = new XmlConfigurationServiceImpl() {
 
             @Override
             String getSnapshotsDirectory() {
                 return dir;
             }
-
-            @Override
-            protected <T> T unmarshal(String xmlString, Class<T> clazz) throws KuraException {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-
-                return xmlMarshaller.unmarshal(xmlString, clazz);
-            }
-
-            @Override
-            protected String marshal(Object object) {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-                try {
-                    return xmlMarshaller.marshal(object);
-                } catch (KuraException e) {
-
-                }
-                return null;
-            }
         };
 
         CryptoService cryptoServiceMock = mock(CryptoService.class);
         cs.setCryptoService(cryptoServiceMock);
 
         String encCfg = "encrypted";
-        char[] encrypted = encCfg.toCharArray();
-        when(cryptoServiceMock.encryptAes((char[]) Matchers.anyObject())).thenReturn(encrypted);
+        mockEncryptingStream(cryptoServiceMock, encCfg);
 
         BundleContext bundleContext = mock(BundleContext.class);
         TestUtil.setFieldValue(cs, "bundleContext", bundleContext);
 
         TestUtil.invokePrivate(cs, "writeSnapshot", sid, cfg);
 
-        verify(cryptoServiceMock, times(1)).encryptAes((char[]) Matchers.anyObject());
+        verify(cryptoServiceMock, times(1)).aesEncryptingStream(Matchers.any(OutputStream.class));
 
         File f1 = new File(d1, "snapshot_" + sid + ".xml");
         f1.deleteOnExit();
@@ -1858,7 +2028,7 @@ public class ConfigurationServiceTest {
         fr.close();
 
         assertEquals("proper length", encCfg.length(), read);
-        assertArrayEquals("proper encrypted contents", encrypted, chars);
+        assertArrayEquals("proper encrypted contents", encCfg.toCharArray(), chars);
 
         f1.delete();
         d1.delete();
@@ -2099,7 +2269,7 @@ public class ConfigurationServiceTest {
         d1.mkdirs();
         d1.deleteOnExit();
 
-        ConfigurationServiceImpl cs = new ConfigurationServiceImpl() {
+        ConfigurationServiceImpl cs = new XmlConfigurationServiceImpl() {
 
             @Override
             public Set<Long> getSnapshots() throws KuraException {
@@ -2110,32 +2280,13 @@ public class ConfigurationServiceTest {
             String getSnapshotsDirectory() {
                 return dir;
             }
-
-            @Override
-            protected <T> T unmarshal(String xmlString, Class<T> clazz) throws KuraException {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-
-                return xmlMarshaller.unmarshal(xmlString, clazz);
-            }
-
-            @Override
-            protected String marshal(Object object) {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-                try {
-                    return xmlMarshaller.marshal(object);
-                } catch (KuraException e) {
-
-                }
-                return null;
-            }
         };
 
         CryptoService cryptoServiceMock = mock(CryptoService.class);
         cs.setCryptoService(cryptoServiceMock);
 
         String encCfg = "encrypted";
-        char[] encrypted = encCfg.toCharArray();
-        when(cryptoServiceMock.encryptAes((char[]) Matchers.anyObject())).thenReturn(encrypted);
+        mockEncryptingStream(cryptoServiceMock, encCfg);
 
         SystemService systemServiceMock = mock(SystemService.class);
         cs.setSystemService(systemServiceMock);
@@ -2147,7 +2298,7 @@ public class ConfigurationServiceTest {
 
         Long sid = (Long) TestUtil.invokePrivate(cs, "saveSnapshot", configs);
 
-        verify(cryptoServiceMock, times(1)).encryptAes((char[]) Matchers.anyObject());
+        verify(cryptoServiceMock, times(1)).aesEncryptingStream(Matchers.any(OutputStream.class));
         verify(systemServiceMock, times(1)).getKuraSnapshotsCount();
 
         assertNotNull(sid);
@@ -2180,7 +2331,7 @@ public class ConfigurationServiceTest {
         long lastSid = System.currentTimeMillis() + 1000;
         snapshotList.add(lastSid);
 
-        ConfigurationServiceImpl cs = new ConfigurationServiceImpl() {
+        ConfigurationServiceImpl cs = new XmlConfigurationServiceImpl() {
 
             @Override
             public Set<Long> getSnapshots() throws KuraException {
@@ -2191,32 +2342,13 @@ public class ConfigurationServiceTest {
             String getSnapshotsDirectory() {
                 return dir;
             }
-
-            @Override
-            protected <T> T unmarshal(String xmlString, Class<T> clazz) throws KuraException {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-
-                return xmlMarshaller.unmarshal(xmlString, clazz);
-            }
-
-            @Override
-            protected String marshal(Object object) {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-                try {
-                    return xmlMarshaller.marshal(object);
-                } catch (KuraException e) {
-
-                }
-                return null;
-            }
         };
 
         CryptoService cryptoServiceMock = mock(CryptoService.class);
         cs.setCryptoService(cryptoServiceMock);
 
         String encCfg = "encrypted";
-        char[] encrypted = encCfg.toCharArray();
-        when(cryptoServiceMock.encryptAes((char[]) Matchers.anyObject())).thenReturn(encrypted);
+        mockEncryptingStream(cryptoServiceMock, encCfg);
 
         SystemService systemServiceMock = mock(SystemService.class);
         cs.setSystemService(systemServiceMock);
@@ -2231,7 +2363,7 @@ public class ConfigurationServiceTest {
 
         Long sid = (Long) TestUtil.invokePrivate(cs, "saveSnapshot", configs);
 
-        verify(cryptoServiceMock, times(1)).encryptAes((char[]) Matchers.anyObject());
+        verify(cryptoServiceMock, times(1)).aesEncryptingStream(Matchers.any(OutputStream.class));
         verify(systemServiceMock, times(1)).getKuraSnapshotsCount();
 
         assertNotNull(sid);
@@ -2265,7 +2397,7 @@ public class ConfigurationServiceTest {
         long lastSid = 1234;
         snapshotList.add(lastSid);
 
-        ConfigurationServiceImpl cs = new ConfigurationServiceImpl() {
+        ConfigurationServiceImpl cs = new XmlConfigurationServiceImpl() {
 
             @Override
             public Set<Long> getSnapshots() throws KuraException {
@@ -2276,32 +2408,13 @@ public class ConfigurationServiceTest {
             String getSnapshotsDirectory() {
                 return dir;
             }
-
-            @Override
-            protected <T> T unmarshal(String xmlString, Class<T> clazz) throws KuraException {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-
-                return xmlMarshaller.unmarshal(xmlString, clazz);
-            }
-
-            @Override
-            protected String marshal(Object object) {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-                try {
-                    return xmlMarshaller.marshal(object);
-                } catch (KuraException e) {
-
-                }
-                return null;
-            }
         };
 
         CryptoService cryptoServiceMock = mock(CryptoService.class);
         cs.setCryptoService(cryptoServiceMock);
 
         String encCfg = "encrypted";
-        char[] encrypted = encCfg.toCharArray();
-        when(cryptoServiceMock.encryptAes((char[]) Matchers.anyObject())).thenReturn(encrypted);
+        mockEncryptingStream(cryptoServiceMock, encCfg);
 
         SystemService systemServiceMock = mock(SystemService.class);
         cs.setSystemService(systemServiceMock);
@@ -2313,7 +2426,7 @@ public class ConfigurationServiceTest {
 
         Long sid = (Long) TestUtil.invokePrivate(cs, "saveSnapshot", configs);
 
-        verify(cryptoServiceMock, times(1)).encryptAes((char[]) Matchers.anyObject());
+        verify(cryptoServiceMock, times(1)).aesEncryptingStream(Matchers.any(OutputStream.class));
         verify(systemServiceMock, times(1)).getKuraSnapshotsCount();
 
         assertNotNull(sid);
@@ -2338,12 +2451,12 @@ public class ConfigurationServiceTest {
     public void testLineBreakHandling() throws KuraException, IOException {
         final CryptoService csMock = mock(CryptoService.class);
 
-        when(csMock.encryptAes(Mockito.any(char[].class))).thenAnswer(invocation -> {
-            return invocation.getArgumentAt(0, char[].class);
+        when(csMock.aesEncryptingStream(Mockito.any(OutputStream.class))).thenAnswer(invocation -> {
+            return invocation.getArgumentAt(0, OutputStream.class);
         });
 
-        when(csMock.decryptAes(Mockito.any(char[].class))).thenAnswer(invocation -> {
-            return invocation.getArgumentAt(0, char[].class);
+        when(csMock.aesDecryptingStream(Mockito.any(InputStream.class))).thenAnswer(invocation -> {
+            return invocation.getArgumentAt(0, InputStream.class);
         });
 
         final File snapshotsDir = new File("/tmp/snapshot_test_dir_" + System.currentTimeMillis());
@@ -2365,7 +2478,7 @@ public class ConfigurationServiceTest {
             fw.flush();
         }
 
-        ConfigurationServiceImpl configurationService = new ConfigurationServiceImpl() {
+        ConfigurationServiceImpl configurationService = new XmlConfigurationServiceImpl() {
 
             @Override
             public Set<Long> getSnapshots() throws KuraException {
@@ -2376,24 +2489,6 @@ public class ConfigurationServiceTest {
             String getSnapshotsDirectory() {
                 return snapshotsDir.getAbsolutePath().toString();
             }
-
-            @Override
-            protected <T> T unmarshal(String xmlString, Class<T> clazz) throws KuraException {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-
-                return xmlMarshaller.unmarshal(xmlString, clazz);
-            }
-
-            @Override
-            protected String marshal(Object object) {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-                try {
-                    return xmlMarshaller.marshal(object);
-                } catch (KuraException e) {
-
-                }
-                return null;
-            }
         };
 
         configurationService.setCryptoService(csMock);
@@ -2752,6 +2847,113 @@ public class ConfigurationServiceTest {
         assertEquals("fpid in there", factoryPid, fPids.get(pid));
     }
 
+    @Test
+    public void testGetComponentConfigurationCached() throws IOException, KuraException {
+        // test that the configuration is read again from ConfigurationAdmin only after it changes
+
+        ConfigurationServiceImpl cs = new ConfigurationServiceImpl();
+
+        String pid = "pid";
+        String servicePid = "spid";
+
+        ConfigurationAdmin configAdminMock = mock(ConfigurationAdmin.class);
+        cs.setConfigurationAdmin(configAdminMock);
+
+        CryptoService cryptoServiceMock = mock(CryptoService.class);
+        cs.setCryptoService(cryptoServiceMock);
+        when(cryptoServiceMock.decryptAes("enc".toCharArray())).thenReturn("dec".toCharArray());
+
+        Dictionary<String, Object> properties = new Hashtable<>();
+        properties.put("prop", "value");
+        properties.put("pass", new Password("enc"));
+
+        Configuration cfgMock = mock(Configuration.class);
+        when(cfgMock.getProperties()).thenReturn(properties);
+        when(configAdminMock.getConfiguration(servicePid, "?")).thenReturn(cfgMock);
+
+        cs.registerComponentConfiguration(pid, servicePid, null);
+
+        ComponentConfiguration config = cs.getComponentConfiguration(pid);
+        assertEquals("value", config.getConfigurationProperties().get("prop"));
+        assertEquals("dec", new String(((Password) config.getConfigurationProperties().get("pass")).getPassword()));
+
+        // the returned configurations do not share the properties
+        config.getConfigurationProperties().put("prop", "modified");
+        config = cs.getComponentConfiguration(pid);
+        assertEquals("value", config.getConfigurationProperties().get("prop"));
+
+        config = cs.getComponentConfigurations().get(0);
+        assertEquals("enc", new String(((Password) config.getConfigurationProperties().get("pass")).getPassword()));
+
+        verify(configAdminMock, times(1)).getConfiguration(servicePid, "?");
+        verify(cryptoServiceMock, times(1)).decryptAes("enc".toCharArray());
+
+        properties.put("prop", "updated");
+        ConfigurationEvent event = mock(ConfigurationEvent.class);
+        when(event.getPid()).thenReturn(servicePid);
+        cs.configurationEvent(event);
+
+        config = cs.getComponentConfiguration(pid);
+        assertEquals("updated", config.getConfigurationProperties().get("prop"));
+
+        verify(configAdminMock, times(2)).getConfiguration(servicePid, "?");
+    }
+
+    @Test
+    public void testGetComponentConfigurationCopiesValues() throws IOException, KuraException {
+        // test that modifying the array and password values of a returned configuration does not affect the cache
+
+        ConfigurationServiceImpl cs = new ConfigurationServiceImpl();
+
+        String pid = "pid";
+        String servicePid = "spid";
+
+        ConfigurationAdmin configAdminMock = mock(ConfigurationAdmin.class);
+        cs.setConfigurationAdmin(configAdminMock);
+
+        CryptoService cryptoServiceMock = mock(CryptoService.class);
+        cs.setCryptoService(cryptoServiceMock);
+        when(cryptoServiceMock.decryptAes("enc".toCharArray())).thenReturn("dec".toCharArray());
+
+        Dictionary<String, Object> properties = new Hashtable<>();
+        properties.put("strings", new String[] { "a", "b" });
+        properties.put("ints", new int[] { 1, 2 });
+        properties.put("pass", new Password("enc"));
+        properties.put("passes", new Password[] { new Password("enc") });
+
+        Configuration cfgMock = mock(Configuration.class);
+        when(cfgMock.getProperties()).thenReturn(properties);
+        when(configAdminMock.getConfiguration(servicePid, "?")).thenReturn(cfgMock);
+
+        cs.registerComponentConfiguration(pid, servicePid, null);
+
+        for (ComponentConfiguration config : Arrays.asList(cs.getComponentConfiguration(pid),
+                cs.getComponentConfigurations().get(0))) {
+            Map<String, Object> props = config.getConfigurationProperties();
+            ((String[]) props.get("strings"))[0] = "modified";
+            ((int[]) props.get("ints"))[0] = 0;
+            ((Password) props.get("pass")).getPassword()[0] = 'x';
+            ((Password[]) props.get("passes"))[0].getPassword()[0] = 'x';
+            ((Password[]) props.get("passes"))[0] = new Password("modified");
+        }
+
+        Map<String, Object> props = cs.getComponentConfiguration(pid).getConfigurationProperties();
+        assertArrayEquals(new String[] { "a", "b" }, (String[]) props.get("strings"));
+        assertArrayEquals(new int[] { 1, 2 }, (int[]) props.get("ints"));
+        assertEquals("dec", new String(((Password) props.get("pass")).getPassword()));
+        assertEquals("dec", new String(((Password[]) props.get("passes"))[0].getPassword()));
+
+        props = cs.getComponentConfigurations().get(0).getConfigurationProperties();
+        assertEquals("enc", new String(((Password) props.get("pass")).getPassword()));
+        assertEquals("enc", new String(((Password[]) props.get("passes"))[0].getPassword()));
+
+        // the values given to ConfigurationAdmin are not modified either
+        assertArrayEquals(new String[] { "a", "b" }, (String[]) properties.get("strings"));
+        assertEquals("enc", new String(((Password) properties.get("pass")).getPassword()));
+
+        verify(configAdminMock, times(1)).getConfiguration(servicePid, "?");
+    }
+
     @Test
     public void testRollbackNoPids() throws KuraException {
         // test rollback with no available shapshots - failure
@@ -2898,9 +3100,9 @@ public class ConfigurationServiceTest {
         cs.setCryptoService(cryptoServiceMock);
 
         String decrypted = prepareSnapshotXML();
-        when(cryptoServiceMock.decryptAes("test".toCharArray())).thenReturn(decrypted.toCharArray());
+        mockDecryptingStream(cryptoServiceMock, "test", decrypted);
 
-        when(cryptoServiceMock.encryptAes((char[]) anyObject())).thenReturn("encrypted".toCharArray());
+        mockEncryptingStream(cryptoServiceMock, "encrypted");
 
         SystemService systemServiceMock = mock(SystemService.class);
         cs.setSystemService(systemServiceMock);
@@ -2922,8 +3124,8 @@ public class ConfigurationServiceTest {
 
         cs.rollback(id);
 
-        verify(cryptoServiceMock, times(1)).decryptAes("test".toCharArray());
-        verify(cryptoServiceMock, times(1)).encryptAes((char[]) anyObject());
+        verify(cryptoServiceMock, times(1)).aesDecryptingStream(Matchers.any(InputStream.class));
+        verify(cryptoServiceMock, times(1)).aesEncryptingStream(Matchers.any(OutputStream.class));
         verify(systemServiceMock, times(1)).getKuraSnapshotsCount();
 
         File[] files = d1.listFiles();
@@ -2957,30 +3159,12 @@ public class ConfigurationServiceTest {
         long id = 123;
         final String dir = "dirRIP";
 
-        ConfigurationServiceImpl cs = new ConfigurationServiceImpl() {
+        ConfigurationServiceImpl cs = new XmlConfigurationServiceImpl() {
 
             @Override
             String getSnapshotsDirectory() {
                 return dir;
             }
-
-            @Override
-            protected <T> T unmarshal(String xmlString, Class<T> clazz) throws KuraException {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-
-                return xmlMarshaller.unmarshal(xmlString, clazz);
-            }
-
-            @Override
-            protected String marshal(Object object) {
-                XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
-                try {
-                    return xmlMarshaller.marshal(object);
-                } catch (KuraException e) {
-
-                }
-                return null;
-            }
         };
 
         File d1 = new File(dir);
@@ -2999,9 +3183,9 @@ public class ConfigurationServiceTest {
         cs.setCryptoService(cryptoServiceMock);
 
         String decrypted = prepareSnapshotXML();
-        when(cryptoServiceMock.decryptAes("test".toCharArray())).thenReturn(decrypted.toCharArray());
+        mockDecryptingStream(cryptoServiceMock, "test", decrypted);
 
-        when(cryptoServiceMock.encryptAes((char[]) anyObject())).thenReturn("encrypted".toCharArray());
+        mockEncryptingStream(cryptoServiceMock, "encrypted");
 
         SystemService systemServiceMock = mock(SystemService.class);
         cs.setSystemService(systemServiceMock);
@@ -3046,7 +3230,7 @@ public class ConfigurationServiceTest {
             // OK
         }
 
-        verify(cryptoServiceMock, times(1)).decryptAes("test".toCharArray());
+        verify(cryptoServiceMock, times(1)).aesDecryptingStream(Matchers.any(InputStream.class));
 
         File[] files = d1.listFiles();
 
@@ -3093,9 +3277,9 @@ public class ConfigurationServiceTest {
         cs.setCryptoService(cryptoServiceMock);
 
         String decrypted = prepareSnapshotXML();
-        when(cryptoServiceMock.decryptAes("test".toCharArray())).thenReturn(decrypted.toCharArray());
+        mockDecryptingStream(cryptoServiceMock, "test", decrypted);
 
-        when(cryptoServiceMock.encryptAes((char[]) anyObject())).thenReturn("encrypted".toCharArray());
+        mockEncryptingStream(cryptoServiceMock, "encrypted");
 
         SystemService systemServiceMock = mock(SystemService.class);
         cs.setSystemService(systemServiceMock);
@@ -3126,8 +3310,8 @@ public class ConfigurationServiceTest {
 
         cs.rollback(id);
 
-        verify(cryptoServiceMock, times(1)).decryptAes("test".toCharArray());
-        verify(cryptoServiceMock, times(1)).encryptAes((char[]) anyObject());
+        verify(cryptoServiceMock, times(1)).aesDecryptingStream(Matchers.any(InputStream.class));
+        verify(cryptoServiceMock, times(1)).aesEncryptingStream(Matchers.any(OutputStream.class));
         verify(systemServiceMock, times(1)).getKuraSnapshotsCount();
 
         File[] files = d1.listFiles();
@@ -3185,6 +3369,103 @@ public class ConfigurationServiceTest {
         return config.getPid().equals(factoryPid) && config.getDefinition() == ocd;
     }
 
+    @Test
+    public void testSnapshotRequestsCoalesced() throws Throwable {
+        ManualScheduler scheduler = new ManualScheduler();
+        SnapshotRecordingConfigurationService cs = new SnapshotRecordingConfigurationService(scheduler);
+
+        List<ComponentConfiguration> first = createSnapshotConfigs("first");
+        List<ComponentConfiguration> second = createSnapshotConfigs("second");
+
+        requestSnapshot(cs, first);
+        assertEquals(1, scheduler.tasks.size());
+        assertEquals(Long.valueOf(500), scheduler.delays.get(0));
+
+        // the requests received within the write delay are saved once, with the last configurations
+        requestSnapshot(cs, second);
+        assertEquals(1, scheduler.tasks.size());
+        assertTrue(cs.savedSnapshots.isEmpty());
+        assertEquals(second, TestUtil.invokePrivate(cs, "getLatestSnapshotConfigurations"));
+
+        scheduler.runAll();
+        assertEquals(1, cs.savedSnapshots.size());
+        assertSame(second, cs.savedSnapshots.get(0));
+
+        // a new request after the write schedules a new write
+        requestSnapshot(cs, first);
+        assertEquals(1, scheduler.tasks.size());
+        scheduler.runAll();
+        assertEquals(2, cs.savedSnapshots.size());
+        assertSame(first, cs.savedSnapshots.get(1));
+    }
+
+    @Test
+    public void testSnapshotRequestSatisfiedByExplicitSnapshot() throws Throwable {
+        ManualScheduler scheduler = new ManualScheduler();
+        SnapshotRecordingConfigurationService cs = new SnapshotRecordingConfigurationService(scheduler);
+
+        List<ComponentConfiguration> requested = createSnapshotConfigs("requested");
+        List<ComponentConfiguration> explicit = createSnapshotConfigs("explicit");
+
+        requestSnapshot(cs, requested);
+        Long sid = (Long) TestUtil.invokePrivate(cs, "flushSnapshot", new Class<?>[] { List.class }, explicit);
+
+        assertEquals(Long.valueOf(1), sid);
+        assertEquals(1, cs.savedSnapshots.size());
+        assertSame(explicit, cs.savedSnapshots.get(0));
+
+        // the scheduled write finds nothing to save
+        scheduler.runAll();
+        assertEquals(1, cs.savedSnapshots.size());
+        assertNull(TestUtil.invokePrivate(cs, "flushSnapshot", new Class<?>[] { List.class }, (Object) null));
+    }
+
+    @Test
+    public void testSnapshotRequestSavedOnDeactivate() throws Throwable {
+        ManualScheduler scheduler = new ManualScheduler();
+        SnapshotRecordingConfigurationService cs = new SnapshotRecordingConfigurationService(scheduler);
+
+        List<ComponentConfiguration> requested = createSnapshotConfigs("requested");
+        requestSnapshot(cs, requested);
+
+        cs.deactivate(null);
+
+        assertEquals(1, cs.savedSnapshots.size());
+        assertSame(requested, cs.savedSnapshots.get(0));
+        assertTrue(scheduler.isShutdown());
+
+        // the pending write has nothing left to save
+        scheduler.runAll();
+        assertEquals(1, cs.savedSnapshots.size());
+    }
+
+    @Test
+    public void testSnapshotRequestRejected() throws Throwable {
+        ManualScheduler scheduler = new ManualScheduler();
+        SnapshotRecordingConfigurationService cs = new SnapshotRecordingConfigurationService(scheduler);
+        scheduler.shutdown();
+
+        requestSnapshot(cs, createSnapshotConfigs("rejected"));
+
+        assertTrue(scheduler.tasks.isEmpty());
+        assertNull(TestUtil.invokePrivate(cs, "flushSnapshot", new Class<?>[] { List.class }, (Object) null));
+        assertTrue(cs.savedSnapshots.isEmpty());
+    }
+
+    private static void requestSnapshot(ConfigurationServiceImpl cs, List<ComponentConfiguration> configs)
+            throws Throwable {
+        TestUtil.invokePrivate(cs, "requestSnapshot", new Class<?>[] { List.class }, configs);
+    }
+
+    private static List<ComponentConfiguration> createSnapshotConfigs(String pid) {
+        ComponentConfigurationImpl config = new ComponentConfigurationImpl();
+        config.setPid(pid);
+        config.setProperties(new HashMap<>());
+        List<ComponentConfiguration> configs = new ArrayList<>();
+        configs.add(config);
+        return configs;
+    }
+
     @Test
     public void testShouldReturnEmptyFactoryOCDList() throws NoSuchFieldException, KuraException {
         final OCDService ocdService = createMockConfigurationServiceForOCDTests(Arrays.asList(), Arrays.asList(),
@@ -3285,4 +3566,89 @@ public class ConfigurationServiceTest {
         assertTrue(implementingDouble.stream().filter(config -> isOCDFor(config, "bar", barOcd)).findAny().isPresent());
         assertTrue(implementingDouble.stream().filter(config -> isOCDFor(config, "baz", bazOcd)).findAny().isPresent());
     }
+
+    /**
+     * Collects the scheduled tasks, which are run by the test.
+     */
+    private static class XmlConfigurationServiceImpl extends ConfigurationServiceImpl {
+
+        private final XmlMarshallUnmarshallImpl xmlMarshaller = new XmlMarshallUnmarshallImpl();
+
+        XmlConfigurationServiceImpl() {
+            super();
+        }
+
+        XmlConfigurationServiceImpl(ScheduledExecutorService snapshotExecutor, ExecutorService snapshotLoaderExecutor) {
+            super(snapshotExecutor, snapshotLoaderExecutor);
+        }
+
+        @Override
+        protected <T> T unmarshal(String xmlString, Class<T> clazz) throws KuraException {
+            return this.xmlMarshaller.unmarshal(xmlString, clazz);
+        }
+
+        @Override
+        protected String marshal(Object object) {
+            try {
+                return this.xmlMarshaller.marshal(object);
+            } catch (KuraException e) {
+                return null;
+            }
+        }
+
+        @Override
+        protected <T> T unmarshal(InputStream in, Class<T> clazz) throws KuraException {
+            return this.xmlMarshaller.unmarshal(in, clazz);
+        }
+
+        @Override
+        protected void marshal(Object object, OutputStream out) throws KuraException {
+            this.xmlMarshaller.marshal(object, out);
+        }
+    }
+
+    private static final class ManualScheduler extends ScheduledThreadPoolExecutor {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+        private final List<Long> delays = new ArrayList<>();
+
+        ManualScheduler() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            if (isShutdown()) {
+                throw new RejectedExecutionException();
+            }
+            this.tasks.add(command);
+            this.delays.add(unit.toMillis(delay));
+            return null;
+        }
+
+        void runAll() {
+            while (!this.tasks.isEmpty()) {
+                this.delays.remove(0);
+                this.tasks.remove(0).run();
+            }
+        }
+    }
+
+    /**
+     * Records the configurations of the saved snapshots instead of writing them.
+     */
+    private static final class SnapshotRecordingConfigurationService extends ConfigurationServiceImpl {
+
+        private final List<List<ComponentConfiguration>> savedSnapshots = new ArrayList<>();
+
+        SnapshotRecordingConfigurationService(ScheduledExecutorService snapshotExecutor) {
+            super(snapshotExecutor);
+        }
+
+        @Override
+        long saveSnapshot(List<ComponentConfiguration> configs) {
+            this.savedSnapshots.add(configs);
+            return this.savedSnapshots.size();
+        }
+    }
 }
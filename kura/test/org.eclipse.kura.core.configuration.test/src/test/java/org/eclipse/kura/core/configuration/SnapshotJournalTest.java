@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.core.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SnapshotJournalTest {
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("snapshots").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        File[] files = this.directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Files.delete(file.toPath());
+            }
+        }
+        Files.delete(this.directory.toPath());
+    }
+
+    @Test
+    public void testAppendAndReload() throws IOException {
+        SnapshotJournal journal = new SnapshotJournal(this.directory);
+        assertTrue(journal.isEmpty());
+
+        journal.append(2, 1, "first");
+        journal.append(3, 2, "second");
+        journal.markRemoved(2);
+
+        journal = new SnapshotJournal(this.directory);
+        assertFalse(journal.isEmpty());
+        assertEquals(Collections.singleton(3L), journal.getSnapshotIds());
+        assertTrue(journal.isRemoved(2));
+        assertEquals("first", journal.getRecord(2).getChanges());
+        assertEquals(2, journal.getRecord(3).getPreviousId());
+        assertTrue(journal.hasDependentRecord(1));
+        assertTrue(journal.hasDependentRecord(2));
+        assertFalse(journal.hasDependentRecord(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAppendInvalidRecord() throws IOException {
+        new SnapshotJournal(this.directory).append(2, 1, "multi\nline");
+    }
+
+    @Test
+    public void testTornEntry() throws IOException {
+        SnapshotJournal journal = new SnapshotJournal(this.directory);
+        journal.append(2, 1, "first");
+
+        try (FileOutputStream out = new FileOutputStream(new File(this.directory, SnapshotJournal.JOURNAL_FILE_NAME),
+                true)) {
+            out.write("S 3 2 sec".getBytes(StandardCharsets.UTF_8));
+        }
+
+        journal = new SnapshotJournal(this.directory);
+        assertEquals(Collections.singleton(2L), journal.getSnapshotIds());
+        journal.append(4, 2, "third");
+
+        journal = new SnapshotJournal(this.directory);
+        assertEquals(new HashSet<>(Arrays.asList(2L, 4L)), journal.getSnapshotIds());
+        assertNull(journal.getRecord(3));
+    }
+
+    @Test
+    public void testCompact() throws IOException {
+        SnapshotJournal journal = new SnapshotJournal(this.directory);
+        journal.append(2, 1, "a");
+        journal.append(3, 2, "b");
+        journal.append(5, 4, "c");
+        journal.append(6, 5, "d");
+        // the previous snapshot of 8 is missing
+        journal.append(8, 7, "e");
+        journal.markRemoved(2);
+        journal.markRemoved(4);
+        journal.markRemoved(5);
+        journal.markRemoved(6);
+
+        Set<Long> obsolete = journal.compact(new HashSet<>(Arrays.asList(1L, 4L)));
+
+        // 1 and 2 are still needed to rebuild 3, the whole segment of 4 has been removed
+        assertEquals(Collections.singleton(4L), obsolete);
+
+        journal = new SnapshotJournal(this.directory);
+        assertEquals(Collections.singleton(3L), journal.getSnapshotIds());
+        assertTrue(journal.isRemoved(2));
+        assertNull(journal.getRecord(5));
+        assertNull(journal.getRecord(6));
+        assertNull(journal.getRecord(8));
+    }
+}
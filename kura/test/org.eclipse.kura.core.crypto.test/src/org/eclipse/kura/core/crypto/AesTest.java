@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.core.crypto;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.eclipse.kura.KuraErrorCode;
+import org.eclipse.kura.KuraException;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AesTest {
+
+    // "foo-bar" encrypted with the default secret key
+    private static final String ENCRYPTED = "eVc5HyHcVIYGv5EBkNaB+g==";
+
+    private CryptoServiceImpl cryptoService;
+
+    @Before
+    public void setup() {
+        this.cryptoService = new CryptoServiceImpl();
+    }
+
+    @Test
+    public void testEncryptDecrypt() throws Exception {
+        assertEquals(ENCRYPTED, new String(this.cryptoService.encryptAes("foo-bar".toCharArray())));
+        assertEquals("foo-bar", new String(this.cryptoService.decryptAes(ENCRYPTED.toCharArray())));
+
+        // the cached ciphers are reusable
+        assertEquals(ENCRYPTED, new String(this.cryptoService.encryptAes("foo-bar".toCharArray())));
+        assertEquals("", new String(this.cryptoService.decryptAes(this.cryptoService.encryptAes(new char[0]))));
+    }
+
+    @Test
+    public void testDecryptInvalid() throws Exception {
+        try {
+            this.cryptoService.decryptAes("Zm9vLWJhcg==".toCharArray());
+            fail("Decryption of invalid data should fail");
+        } catch (KuraException e) {
+            assertEquals(KuraErrorCode.DECODER_ERROR, e.getCode());
+        }
+
+        // a failure does not affect the following decryptions
+        assertEquals("foo-bar", new String(this.cryptoService.decryptAes(ENCRYPTED.toCharArray())));
+    }
+
+    @Test
+    public void testEncryptingStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream encrypting = this.cryptoService.aesEncryptingStream(out)) {
+            encrypting.write("foo-".getBytes(UTF_8));
+            encrypting.write("bar".getBytes(UTF_8));
+        }
+
+        assertEquals(ENCRYPTED, new String(out.toByteArray(), UTF_8));
+    }
+
+    @Test
+    public void testDecryptingStream() throws Exception {
+        try (InputStream decrypting = this.cryptoService
+                .aesDecryptingStream(new ByteArrayInputStream(ENCRYPTED.getBytes(UTF_8)))) {
+            assertEquals("foo-bar", new String(readFully(decrypting), UTF_8));
+        }
+    }
+
+    @Test
+    public void testStreamRoundTrip() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append("<property name=\"prop.").append(i).append("\">è</property>\n");
+        }
+        byte[] data = sb.toString().getBytes(UTF_8);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream encrypting = this.cryptoService.aesEncryptingStream(out)) {
+            for (int i = 0; i < data.length; i += 1000) {
+                encrypting.write(data, i, Math.min(1000, data.length - i));
+            }
+        }
+
+        try (InputStream decrypting = this.cryptoService
+                .aesDecryptingStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertArrayEquals(data, readFully(decrypting));
+        }
+    }
+
+    @Test
+    public void testStreamMatchesChars() throws Exception {
+        String value = "cafè € 中";
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream encrypting = this.cryptoService.aesEncryptingStream(out)) {
+            encrypting.write(value.getBytes(UTF_8));
+        }
+
+        // both paths encode the values in UTF-8
+        char[] encrypted = this.cryptoService.encryptAes(value.toCharArray());
+        assertEquals(new String(encrypted), new String(out.toByteArray(), UTF_8));
+
+        try (InputStream decrypting = this.cryptoService
+                .aesDecryptingStream(new ByteArrayInputStream(new String(encrypted).getBytes(UTF_8)))) {
+            assertEquals(value, new String(readFully(decrypting), UTF_8));
+        }
+        assertEquals(value, new String(this.cryptoService.decryptAes(out.toString("UTF-8").toCharArray())));
+    }
+
+    @Test(expected = IOException.class)
+    public void testDecryptingStreamInvalid() throws Exception {
+        try (InputStream decrypting = this.cryptoService
+                .aesDecryptingStream(new ByteArrayInputStream("<xml/>".getBytes(UTF_8)))) {
+            readFully(decrypting);
+        }
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[4096];
+        int rd;
+        while ((rd = in.read(buf)) != -1) {
+            out.write(buf, 0, rd);
+        }
+        return out.toByteArray();
+    }
+}
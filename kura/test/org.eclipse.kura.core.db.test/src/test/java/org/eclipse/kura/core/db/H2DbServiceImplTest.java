@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2018 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
  *
  *   All rights reserved. This program and the accompanying materials
  *   are made available under the terms of the Eclipse Public License v1.0
@@ -10,6 +10,8 @@ package org.eclipse.kura.core.db;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -19,6 +21,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -253,4 +256,106 @@ public class H2DbServiceImplTest {
         }
     }
 
+    @Test
+    public void testCompactionTasks() throws Throwable {
+        H2DbServiceImpl svc = new H2DbServiceImpl();
+        svc.activate(Collections.emptyMap());
+
+        CryptoService csMock = mock(CryptoService.class);
+        svc.setCryptoService(csMock);
+
+        when(csMock.decryptAes("".toCharArray())).thenReturn("".toCharArray());
+
+        Map<String, Object> props = new HashMap<>();
+        File f = new File("/tmp/kurah2/compactdb");
+        props.put("db.connector.url", "jdbc:h2:file:" + f.getAbsolutePath());
+
+        try {
+            svc.updated(props);
+            svc.getConnection().close();
+
+            // the defragmentation is used by default
+            assertNull(TestUtil.getFieldValue(svc, "compactionTask"));
+            assertNotNull(TestUtil.getFieldValue(svc, "defragTask"));
+
+            // online compaction replaces the defragmentation if enabled
+            props.put("db.online.compaction.enabled", true);
+            svc.updated(props);
+            svc.getConnection().close();
+
+            assertNotNull(TestUtil.getFieldValue(svc, "compactionTask"));
+            assertNull(TestUtil.getFieldValue(svc, "defragTask"));
+        } finally {
+            svc.deactivate();
+
+            H2DbServiceOptions cfg = (H2DbServiceOptions) TestUtil.getFieldValue(svc, "configuration");
+            TestUtil.invokePrivate(svc, "deleteDbFiles", cfg);
+        }
+    }
+
+    @Test
+    public void testCompactionShrinksFile() throws Throwable {
+        H2DbServiceImpl svc = new H2DbServiceImpl();
+        svc.activate(Collections.emptyMap());
+
+        CryptoService csMock = mock(CryptoService.class);
+        svc.setCryptoService(csMock);
+
+        when(csMock.decryptAes("".toCharArray())).thenReturn("".toCharArray());
+
+        Map<String, Object> props = new HashMap<>();
+        File f = new File("/tmp/kurah2/shrinkdb");
+        props.put("db.connector.url", "jdbc:h2:file:" + f.getAbsolutePath());
+        props.put("db.online.compaction.enabled", true);
+        // the compaction is performed by the test
+        props.put("db.compaction.check.interval.seconds", 0);
+        File dbFile = new File(f.getAbsolutePath() + ".mv.db");
+
+        try {
+            svc.updated(props);
+
+            try (Connection conn = svc.getConnection(); Statement stmt = conn.createStatement()) {
+                // the chunks of the deleted data are freed as soon as they are not used
+                stmt.execute("SET RETENTION_TIME 0");
+                stmt.execute("CREATE TABLE SAMPLES (ID INT PRIMARY KEY, PAYLOAD VARCHAR(1024))");
+
+                try (PreparedStatement insert = conn.prepareStatement("INSERT INTO SAMPLES VALUES (?, ?)")) {
+                    final StringBuilder value = new StringBuilder();
+                    for (int i = 0; i < 10000; i++) {
+                        value.setLength(0);
+                        while (value.length() < 1000) {
+                            value.append(i).append('-');
+                        }
+                        insert.setInt(1, i);
+                        insert.setString(2, value.toString());
+                        insert.executeUpdate();
+                    }
+                }
+                stmt.execute("CHECKPOINT SYNC");
+
+                stmt.execute("DELETE FROM SAMPLES WHERE ID >= 100");
+                stmt.execute("CHECKPOINT SYNC");
+
+                final long sizeBefore = dbFile.length();
+                assertTrue(sizeBefore > 5 * 1024 * 1024);
+
+                H2DbServiceOptions cfg = (H2DbServiceOptions) TestUtil.getFieldValue(svc, "configuration");
+                for (int i = 0; i < 10 && dbFile.length() >= sizeBefore / 2; i++) {
+                    assertTrue(H2MvStoreCompactor.compact(conn, cfg));
+                }
+                assertTrue(dbFile.length() < sizeBefore / 2);
+
+                // the remaining data is still available
+                try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM SAMPLES")) {
+                    rs.next();
+                    assertEquals(100, rs.getInt(1));
+                }
+            }
+        } finally {
+            svc.deactivate();
+
+            H2DbServiceOptions cfg = (H2DbServiceOptions) TestUtil.getFieldValue(svc, "configuration");
+            TestUtil.invokePrivate(svc, "deleteDbFiles", cfg);
+        }
+    }
 }
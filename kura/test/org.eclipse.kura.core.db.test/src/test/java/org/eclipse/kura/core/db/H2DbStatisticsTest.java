@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.core.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.kura.core.db.H2DbStatistics.CallerStatistics;
+import org.eclipse.kura.db.DbCallerStatistics;
+import org.eclipse.kura.db.DbLatencyHistogram;
+import org.junit.Test;
+
+public class H2DbStatisticsTest {
+
+    @Test
+    public void testHistogram() {
+        H2DbStatistics statistics = new H2DbStatistics();
+        CallerStatistics caller = statistics.getCallerStatistics("caller");
+
+        caller.query.record(50);
+        caller.query.record(100);
+        caller.query.record(300);
+        caller.query.record(20000000);
+
+        DbLatencyHistogram query = statistics.getStatistics().get(0).getQuery();
+        assertEquals(4, query.getCount());
+        assertEquals(20000450, query.getTotalTimeMicros());
+        assertEquals(20000000, query.getMaxTimeMicros());
+        assertEquals(5000112, query.getMeanTimeMicros());
+        assertEquals(100, query.getPercentileMicros(50));
+        assertEquals(500, query.getPercentileMicros(75));
+        assertEquals(20000000, query.getPercentileMicros(99));
+
+        long[] counts = query.getBucketCounts();
+        assertEquals(2, counts[0]);
+        assertEquals(1, counts[2]);
+        assertEquals(1, counts[counts.length - 1]);
+        assertEquals(Long.MAX_VALUE, query.getBucketUpperBoundsMicros()[counts.length - 1]);
+    }
+
+    @Test
+    public void testCallersSorted() {
+        H2DbStatistics statistics = new H2DbStatistics();
+        statistics.getCallerStatistics("b").recordFailure();
+        statistics.getCallerStatistics("a");
+        statistics.getCallerStatistics("b").recordFailure();
+
+        List<DbCallerStatistics> result = statistics.getStatistics();
+        assertEquals(2, result.size());
+        assertEquals("a", result.get(0).getCallerId());
+        assertEquals(0, result.get(0).getFailures());
+        assertEquals("b", result.get(1).getCallerId());
+        assertEquals(2, result.get(1).getFailures());
+        assertEquals(0, result.get(1).getQuery().getCount());
+    }
+
+    @Test
+    public void testInstrumentedConnection() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                    if ("executeUpdate".equals(method.getName())) {
+                        return executions.incrementAndGet();
+                    }
+                    return null;
+                });
+        Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    if ("prepareStatement".equals(method.getName())) {
+                        return statement;
+                    }
+                    return null;
+                });
+
+        H2DbStatistics statistics = new H2DbStatistics();
+        Connection wrapped = InstrumentedConnectionHandler.wrap(connection, statistics.getCallerStatistics("caller"));
+
+        PreparedStatement wrappedStatement = wrapped.prepareStatement("UPDATE T SET A = ?");
+        wrappedStatement.setInt(1, 1);
+        assertEquals(1, wrappedStatement.executeUpdate());
+        assertEquals(2, wrappedStatement.executeUpdate());
+        assertSame(wrapped, wrappedStatement.getConnection());
+        wrapped.commit();
+        wrapped.rollback();
+
+        DbCallerStatistics result = statistics.getStatistics().get(0);
+        assertEquals(2, result.getQuery().getCount());
+        assertEquals(1, result.getCommit().getCount());
+        assertEquals(0, result.getConnectionAcquisition().getCount());
+        assertEquals(1, result.getActiveConnections());
+
+        // a connection is counted as closed only once
+        wrapped.close();
+        wrapped.close();
+        assertEquals(0, statistics.getStatistics().get(0).getActiveConnections());
+    }
+
+    @Test
+    public void testActiveConnections() {
+        H2DbStatistics statistics = new H2DbStatistics();
+        CallerStatistics caller = statistics.getCallerStatistics("caller");
+
+        caller.connectionOpened();
+        caller.connectionOpened();
+        caller.connectionClosed();
+        caller.lockHold.record(1000);
+
+        DbCallerStatistics result = statistics.getStatistics().get(0);
+        assertEquals(1, result.getActiveConnections());
+        assertEquals(1, result.getLockHold().getCount());
+        assertEquals(1000, result.getLockHold().getMaxTimeMicros());
+    }
+}
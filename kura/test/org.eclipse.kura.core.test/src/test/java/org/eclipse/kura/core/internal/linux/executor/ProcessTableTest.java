@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.core.internal.linux.executor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProcessTableTest {
+
+    private Path procRoot;
+
+    @Before
+    public void setUp() throws IOException {
+        this.procRoot = Files.createTempDirectory("proc");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(this.procRoot.toFile());
+    }
+
+    private void addProcess(final int pid, final String cmdline, final String comm) throws IOException {
+        final Path processDir = Files.createDirectories(this.procRoot.resolve(Integer.toString(pid)));
+        Files.write(processDir.resolve("cmdline"), cmdline.getBytes(UTF_8));
+        Files.write(processDir.resolve("stat"), (pid + " (" + comm + ") S 1 1 1 0 -1").getBytes(UTF_8));
+    }
+
+    @Test
+    public void testCommandLines() throws IOException {
+        addProcess(1, "/sbin/init\0splash\0", "systemd");
+        addProcess(2, "", "kthreadd");
+        addProcess(1234, "/usr/sbin/hostapd\0-B\0/etc/hostapd-wlan0.conf\0", "hostapd");
+        addProcess(77, "", "weird) name");
+        Files.createDirectories(this.procRoot.resolve("self"));
+        Files.createDirectories(this.procRoot.resolve("sys"));
+
+        final ProcessTable processTable = new ProcessTable(this.procRoot, 10000);
+        final Map<Integer, String> commandLines = processTable.getCommandLines();
+
+        assertTrue(processTable.isAvailable());
+        assertEquals(Arrays.asList(1, 2, 77, 1234), Arrays.asList(commandLines.keySet().toArray()));
+        assertEquals("/sbin/init splash", commandLines.get(1));
+        assertEquals("[kthreadd]", commandLines.get(2));
+        assertEquals("[weird) name]", commandLines.get(77));
+        assertEquals("/usr/sbin/hostapd -B /etc/hostapd-wlan0.conf", commandLines.get(1234));
+    }
+
+    @Test
+    public void testSnapshotCache() throws IOException {
+        addProcess(10, "dhclient\0wlan0\0", "dhclient");
+
+        final ProcessTable processTable = new ProcessTable(this.procRoot, 10000);
+        final Map<Integer, String> first = processTable.getCommandLines();
+
+        addProcess(20, "pppd\0call\0provider\0", "pppd");
+
+        assertSame(first, processTable.getCommandLines());
+        assertTrue("pid checks are not cached", processTable.isRunning(20));
+        assertFalse(processTable.isRunning(30));
+
+        processTable.invalidate();
+
+        assertEquals("pppd call provider", processTable.getCommandLines().get(20));
+    }
+
+    @Test
+    public void testSnapshotExpiration() throws IOException, InterruptedException {
+        addProcess(10, "dhclient\0wlan0\0", "dhclient");
+
+        final ProcessTable processTable = new ProcessTable(this.procRoot, 1);
+        assertEquals(1, processTable.getCommandLines().size());
+
+        addProcess(20, "pppd\0call\0provider\0", "pppd");
+        Thread.sleep(10);
+
+        assertEquals(2, processTable.getCommandLines().size());
+    }
+
+    @Test
+    public void testNotAvailable() {
+        final ProcessTable processTable = new ProcessTable(this.procRoot.resolve("missing"), 10000);
+
+        assertFalse(processTable.isAvailable());
+        assertTrue(processTable.getCommandLines().isEmpty());
+    }
+}
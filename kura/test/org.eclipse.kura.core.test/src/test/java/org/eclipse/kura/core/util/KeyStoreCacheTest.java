@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.core.util;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KeyStoreCacheTest {
+
+    private static final char[] PASSWORD = "pass".toCharArray();
+
+    private File keyStoreFile;
+
+    @Before
+    public void setUp() throws IOException {
+        this.keyStoreFile = File.createTempFile("keystore", ".ks");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.keyStoreFile.toPath());
+    }
+
+    @Test
+    public void testCachedUntilModified() throws Exception {
+        saveKeyStore();
+        String location = this.keyStoreFile.getAbsolutePath();
+        KeyStoreCache cache = KeyStoreCache.getInstance();
+
+        KeyStore keyStore = cache.getKeyStore(location, PASSWORD);
+        assertSame(keyStore, cache.getKeyStore(location, PASSWORD));
+
+        // same size, only the modification time changes
+        FileTime lastModified = Files.getLastModifiedTime(this.keyStoreFile.toPath());
+        saveKeyStore();
+        Files.setLastModifiedTime(this.keyStoreFile.toPath(), FileTime.fromMillis(lastModified.toMillis() + 2000));
+
+        KeyStore reloaded = cache.getKeyStore(location, PASSWORD);
+        assertNotSame(keyStore, reloaded);
+        assertSame(reloaded, cache.getKeyStore(location, PASSWORD));
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        saveKeyStore();
+        String location = this.keyStoreFile.getAbsolutePath();
+        KeyStoreCache cache = KeyStoreCache.getInstance();
+
+        KeyStore keyStore = cache.getKeyStore(location, PASSWORD);
+        cache.invalidate(location);
+
+        assertNotSame(keyStore, cache.getKeyStore(location, PASSWORD));
+    }
+
+    @Test
+    public void testWrongPassword() throws Exception {
+        saveKeyStore();
+        String location = this.keyStoreFile.getAbsolutePath();
+        KeyStoreCache cache = KeyStoreCache.getInstance();
+
+        KeyStore keyStore = cache.getKeyStore(location, PASSWORD);
+
+        try {
+            cache.getKeyStore(location, "wrong".toCharArray());
+            fail("The cached key store must not be returned for a wrong password");
+        } catch (IOException e) {
+            // expected
+        }
+
+        assertSame(keyStore, cache.getKeyStore(location, PASSWORD));
+    }
+
+    private void saveKeyStore() throws GeneralSecurityException, IOException {
+        KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        keyStore.load(null, null);
+        try (OutputStream out = Files.newOutputStream(this.keyStoreFile.toPath())) {
+            keyStore.store(out, PASSWORD);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.emulator.gpio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.kura.gpio.KuraGPIODirection;
+import org.eclipse.kura.gpio.KuraGPIOMode;
+import org.eclipse.kura.gpio.KuraGPIOPin;
+import org.eclipse.kura.gpio.KuraGPIOTrigger;
+import org.eclipse.kura.gpio.PinStatusListener;
+import org.junit.Test;
+
+public class GpioServiceImplTest {
+
+    @Test
+    public void testSamePinByName() {
+        GpioServiceImpl svc = new GpioServiceImpl();
+
+        KuraGPIOPin pin = svc.getPinByName("pin", KuraGPIODirection.INPUT, KuraGPIOMode.INPUT_PULL_UP,
+                KuraGPIOTrigger.BOTH_EDGES);
+
+        assertSame(pin, svc.getPinByName("pin", KuraGPIODirection.INPUT, KuraGPIOMode.INPUT_PULL_UP,
+                KuraGPIOTrigger.BOTH_EDGES));
+        assertSame(pin, svc.getPinByName("pin"));
+    }
+
+    @Test
+    public void testReconfigureByNameKeepsListeners() throws Exception {
+        GpioServiceImpl svc = new GpioServiceImpl();
+
+        KuraGPIOPin pin = svc.getPinByName("pin", KuraGPIODirection.INPUT, KuraGPIOMode.INPUT_PULL_UP,
+                KuraGPIOTrigger.BOTH_EDGES);
+        RecordingListener listener = new RecordingListener();
+        pin.addPinStatusListener(listener);
+
+        KuraGPIOPin reconfigured = svc.getPinByName("pin", KuraGPIODirection.INPUT, KuraGPIOMode.INPUT_PULL_DOWN,
+                KuraGPIOTrigger.RAISING_EDGE);
+
+        assertSame(pin, reconfigured);
+        assertEquals(KuraGPIOMode.INPUT_PULL_DOWN, reconfigured.getMode());
+        assertEquals(KuraGPIOTrigger.RAISING_EDGE, reconfigured.getTrigger());
+
+        reconfigured.setValue(true);
+        reconfigured.setValue(false);
+
+        assertEquals(1, listener.values.size());
+        assertTrue(listener.values.get(0));
+    }
+
+    @Test
+    public void testReconfigureByTerminalKeepsListeners() throws Exception {
+        GpioServiceImpl svc = new GpioServiceImpl();
+
+        KuraGPIOPin pin = svc.getPinByTerminal(1, KuraGPIODirection.INPUT, KuraGPIOMode.INPUT_PULL_UP,
+                KuraGPIOTrigger.RAISING_EDGE);
+        RecordingListener listener = new RecordingListener();
+        pin.addPinStatusListener(listener);
+
+        KuraGPIOPin reconfigured = svc.getPinByTerminal(1, KuraGPIODirection.INPUT, KuraGPIOMode.INPUT_PULL_UP,
+                KuraGPIOTrigger.BOTH_EDGES);
+
+        assertSame(pin, reconfigured);
+        assertSame(pin, svc.getPinByTerminal(1));
+
+        reconfigured.setValue(true);
+        reconfigured.setValue(false);
+
+        assertEquals(2, listener.values.size());
+    }
+
+    @Test
+    public void testTriggers() throws Exception {
+        assertEquals(2, countNotifications(KuraGPIOTrigger.BOTH_EDGES));
+        assertEquals(1, countNotifications(KuraGPIOTrigger.RAISING_EDGE));
+        assertEquals(1, countNotifications(KuraGPIOTrigger.FALLING_EDGE));
+        assertEquals(4, countNotifications(KuraGPIOTrigger.BOTH_LEVELS));
+        assertEquals(2, countNotifications(KuraGPIOTrigger.HIGH_LEVEL));
+        assertEquals(2, countNotifications(KuraGPIOTrigger.LOW_LEVEL));
+        assertEquals(0, countNotifications(KuraGPIOTrigger.NONE));
+    }
+
+    @Test
+    public void testOutputPinDoesNotNotify() throws Exception {
+        EmulatedPin pin = new EmulatedPin("pin", KuraGPIODirection.OUTPUT, KuraGPIOMode.OUTPUT_PUSH_PULL,
+                KuraGPIOTrigger.BOTH_EDGES);
+        RecordingListener listener = new RecordingListener();
+        pin.addPinStatusListener(listener);
+
+        pin.setValue(true);
+
+        assertTrue(pin.getValue());
+        assertEquals(0, listener.values.size());
+    }
+
+    @Test
+    public void testTimestamp() throws Exception {
+        EmulatedPin pin = new EmulatedPin("pin", KuraGPIODirection.INPUT, KuraGPIOMode.INPUT_PULL_UP,
+                KuraGPIOTrigger.BOTH_EDGES);
+        RecordingListener listener = new RecordingListener();
+        pin.addPinStatusListener(listener);
+
+        final long before = System.currentTimeMillis() * 1000;
+        pin.setValue(true);
+        final long after = System.currentTimeMillis() * 1000;
+
+        assertEquals(1, listener.timestamps.size());
+        assertTrue(listener.timestamps.get(0) >= before);
+        assertTrue(listener.timestamps.get(0) <= after);
+    }
+
+    private static int countNotifications(KuraGPIOTrigger trigger) throws Exception {
+        EmulatedPin pin = new EmulatedPin("pin", KuraGPIODirection.INPUT, KuraGPIOMode.INPUT_PULL_UP, trigger);
+        RecordingListener listener = new RecordingListener();
+        pin.addPinStatusListener(listener);
+
+        pin.setValue(true);
+        pin.setValue(true);
+        pin.setValue(false);
+        pin.setValue(false);
+
+        return listener.values.size();
+    }
+
+    private static final class RecordingListener implements PinStatusListener {
+
+        private final List<Boolean> values = new ArrayList<>();
+        private final List<Long> timestamps = new ArrayList<>();
+
+        @Override
+        public void pinStatusChange(boolean value) {
+            this.values.add(value);
+        }
+
+        @Override
+        public void pinStatusChange(boolean value, long timestampMicros) {
+            this.timestamps.add(timestampMicros);
+            pinStatusChange(value);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.internal.ble.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.eclipse.kura.bluetooth.le.beacon.AdvertisingReportRecord;
+import org.junit.Test;
+
+public class AdvertisingReportParserTest {
+
+    private static final UUID IBEACON_UUID = UUID.fromString("e2c56db5-dffb-48d2-b060-d0f5a71096e0");
+    private static final byte[] EDDYSTONE_NAMESPACE = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+
+    static byte[] iBeaconData(UUID uuid) {
+        final ByteBuffer buffer = ByteBuffer.allocate(30);
+        buffer.put(new byte[] { 2, 1, 6, 26, (byte) 0xFF, 0x4C, 0, 2, 0x15 });
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+        buffer.put(new byte[] { 0, 1, 0, 2, (byte) 0xC5 });
+        return buffer.array();
+    }
+
+    static byte[] eddystoneUidData(byte[] namespace) {
+        final ByteBuffer buffer = ByteBuffer.allocate(28);
+        buffer.put(new byte[] { 3, 3, (byte) 0xAA, (byte) 0xFE, 23, 0x16, (byte) 0xAA, (byte) 0xFE, 0, (byte) 0xEE });
+        buffer.put(namespace);
+        buffer.put(new byte[] { 1, 2, 3, 4, 5, 6, 0, 0 });
+        return buffer.array();
+    }
+
+    static byte[] advertisingEvent(byte[]... reportData) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0x04);
+        out.write(0x3E);
+        out.write(0);
+        out.write(0x02);
+        out.write(reportData.length);
+
+        for (int i = 0; i < reportData.length; i++) {
+            out.write(0);
+            out.write(1);
+            out.write(new byte[] { (byte) i, 0x55, 0x44, 0x33, 0x22, 0x11 }, 0, 6);
+            out.write(reportData[i].length);
+            out.write(reportData[i], 0, reportData[i].length);
+            out.write(-40 - i);
+        }
+
+        final byte[] result = out.toByteArray();
+        result[2] = (byte) (result.length - 3);
+        return result;
+    }
+
+    static byte[] btsnoop(List<byte[]> packets) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[16], 0, 16);
+        for (byte[] packet : packets) {
+            final ByteBuffer header = ByteBuffer.allocate(24);
+            header.putInt(packet.length);
+            header.putInt(packet.length);
+            out.write(header.array(), 0, 24);
+            out.write(packet, 0, packet.length);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testParseMultipleReports() {
+        final byte[] first = iBeaconData(IBEACON_UUID);
+        final byte[] second = eddystoneUidData(EDDYSTONE_NAMESPACE);
+        final ByteBuffer packet = ByteBuffer.wrap(advertisingEvent(first, second));
+
+        final AdvertisingReportParser parser = new AdvertisingReportParser();
+        assertTrue(parser.reset(packet));
+
+        assertTrue(parser.next());
+        assertEquals("11:22:33:44:55:00", parser.getAddress());
+        assertArrayEquals(first, parser.getReportData());
+        assertEquals(-40, parser.getRssi());
+
+        assertTrue(parser.next());
+        assertEquals("11:22:33:44:55:01", parser.getAddress());
+        assertArrayEquals(second, parser.getReportData());
+        assertEquals(-41, parser.getRssi());
+
+        assertFalse(parser.next());
+    }
+
+    @Test
+    public void testTruncatedReport() {
+        final byte[] event = advertisingEvent(iBeaconData(IBEACON_UUID));
+        final ByteBuffer packet = ByteBuffer.wrap(Arrays.copyOf(event, event.length - 1));
+
+        final AdvertisingReportParser parser = new AdvertisingReportParser();
+        assertTrue(parser.reset(packet));
+        assertFalse(parser.next());
+    }
+
+    @Test
+    public void testNotAnAdvertisingReport() {
+        final AdvertisingReportParser parser = new AdvertisingReportParser();
+        assertFalse(parser.reset(ByteBuffer.wrap(new byte[] { 0x04, 0x0E, 4, 1, 0x0A, 0x20, 0 })));
+        assertFalse(parser.next());
+    }
+
+    @Test
+    public void testParseLEAdvertisement() {
+        final byte[] data = iBeaconData(IBEACON_UUID);
+        final List<AdvertisingReportRecord> records = BluetoothLeUtil
+                .parseLEAdvertisement(advertisingEvent(data, data));
+
+        assertEquals(2, records.size());
+        assertEquals("11:22:33:44:55:01", records.get(1).getAddress());
+        assertArrayEquals(data, records.get(1).getReportData());
+        assertEquals(-41, records.get(1).getRssi());
+    }
+
+    @Test
+    public void testFilters() {
+        final ByteBuffer packet = ByteBuffer.wrap(advertisingEvent(iBeaconData(IBEACON_UUID),
+                iBeaconData(UUID.randomUUID()), eddystoneUidData(EDDYSTONE_NAMESPACE), eddystoneUidData(new byte[10])));
+
+        final AdvertisingDataFilter iBeaconFilter = AdvertisingDataFilters
+                .iBeaconUuids(Collections.singletonList(IBEACON_UUID));
+        final AdvertisingDataFilter eddystoneFilter = AdvertisingDataFilters
+                .eddystoneNamespaces(Collections.singletonList(EDDYSTONE_NAMESPACE));
+        final AdvertisingDataFilter anyFilter = AdvertisingDataFilters
+                .anyOf(Arrays.asList(iBeaconFilter, eddystoneFilter));
+
+        final boolean[][] expected = { { true, false, true }, { false, false, false }, { false, true, true },
+                { false, false, false } };
+
+        final AdvertisingReportParser parser = new AdvertisingReportParser();
+        parser.reset(packet);
+
+        for (boolean[] expectedResult : expected) {
+            assertTrue(parser.next());
+            assertEquals(expectedResult[0],
+                    iBeaconFilter.accept(packet, parser.getDataOffset(), parser.getDataLength()));
+            assertEquals(expectedResult[1],
+                    eddystoneFilter.accept(packet, parser.getDataOffset(), parser.getDataLength()));
+            assertEquals(expectedResult[2], anyFilter.accept(packet, parser.getDataOffset(), parser.getDataLength()));
+        }
+
+        assertSame(AdvertisingDataFilter.ACCEPT_ALL, AdvertisingDataFilters.anyOf(Collections.emptyList()));
+    }
+
+    @Test
+    public void testBTSnoopParserBufferReuse() throws IOException {
+        final byte[] small = advertisingEvent(iBeaconData(IBEACON_UUID));
+        final byte[] large = new byte[2000];
+        large[0] = 0x02;
+
+        final BTSnoopParser parser = new BTSnoopParser();
+        parser.setInputStream(new ByteArrayInputStream(btsnoop(Arrays.asList(small, large, small))));
+
+        final ByteBuffer first = parser.nextRecord();
+        assertEquals(small.length, first.remaining());
+        assertArrayEquals(small, Arrays.copyOf(first.array(), first.limit()));
+
+        assertEquals(large.length, parser.nextRecord().remaining());
+
+        final ByteBuffer third = parser.nextRecord();
+        assertEquals(small.length, third.remaining());
+        assertArrayEquals(small, Arrays.copyOf(third.array(), third.limit()));
+    }
+}
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.internal.ble.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.eclipse.kura.bluetooth.le.beacon.AdvertisingReportRecord;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replays a btsnoop capture through both the copying and the streaming advertisement parsing paths and logs their
+ * throughput.
+ * <p>
+ * A recorded capture (e.g. produced by {@code btmon -w}) can be used by setting the {@code btsnoop.replay.file} system
+ * property, otherwise a synthetic capture containing iBeacon advertisements from {@value #BEACON_COUNT} different
+ * UUIDs is generated.
+ */
+public class BTSnoopReplayTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BTSnoopReplayTest.class);
+
+    private static final int BEACON_COUNT = 200;
+    private static final int PACKET_COUNT = 20000;
+    private static final int REPORTS_PER_PACKET = 3;
+
+    private static byte[] createCapture(final List<UUID> uuids) {
+        final List<byte[]> packets = new ArrayList<>(PACKET_COUNT);
+
+        for (int i = 0; i < PACKET_COUNT; i++) {
+            final byte[][] reports = new byte[REPORTS_PER_PACKET][];
+            for (int j = 0; j < REPORTS_PER_PACKET; j++) {
+                reports[j] = AdvertisingReportParserTest
+                        .iBeaconData(uuids.get((i * REPORTS_PER_PACKET + j) % uuids.size()));
+            }
+            packets.add(AdvertisingReportParserTest.advertisingEvent(reports));
+        }
+
+        return AdvertisingReportParserTest.btsnoop(packets);
+    }
+
+    private static int replayCopying(final byte[] capture, final AdvertisingDataFilter filter) throws IOException {
+        final BTSnoopParser parser = new BTSnoopParser();
+        parser.setInputStream(new ByteArrayInputStream(capture));
+
+        int accepted = 0;
+
+        while (true) {
+            final byte[] record;
+            try {
+                record = parser.readRecord();
+            } catch (IOException e) {
+                break;
+            }
+            for (AdvertisingReportRecord report : BluetoothLeUtil.parseLEAdvertisement(record)) {
+                final byte[] data = report.getReportData();
+                if (filter.accept(ByteBuffer.wrap(data), 0, data.length)) {
+                    accepted++;
+                }
+            }
+        }
+
+        return accepted;
+    }
+
+    private static int replayStreaming(final byte[] capture, final AdvertisingDataFilter filter) throws IOException {
+        final BTSnoopParser parser = new BTSnoopParser();
+        parser.setInputStream(new ByteArrayInputStream(capture));
+
+        final AdvertisingReportParser reportParser = new AdvertisingReportParser();
+
+        int accepted = 0;
+
+        while (true) {
+            final ByteBuffer record;
+            try {
+                record = parser.nextRecord();
+            } catch (IOException e) {
+                break;
+            }
+            if (!reportParser.reset(record)) {
+                continue;
+            }
+            while (reportParser.next()) {
+                if (filter.accept(record, reportParser.getDataOffset(), reportParser.getDataLength())) {
+                    accepted++;
+                }
+            }
+        }
+
+        return accepted;
+    }
+
+    private static void measure(final String name, final Replay replay, final int expected) throws IOException {
+        // warm up
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected, replay.run());
+        }
+
+        final long start = System.nanoTime();
+        assertEquals(expected, replay.run());
+        final long elapsed = System.nanoTime() - start;
+
+        logger.info("{}: {} accepted reports, {} ms", name, expected, elapsed / 1000000);
+    }
+
+    @Test
+    public void testReplay() throws IOException {
+        final List<UUID> uuids = new ArrayList<>(BEACON_COUNT);
+        for (int i = 0; i < BEACON_COUNT; i++) {
+            uuids.add(UUID.randomUUID());
+        }
+
+        final String replayFile = System.getProperty("btsnoop.replay.file");
+        final byte[] capture;
+        final AdvertisingDataFilter filter;
+
+        if (replayFile != null) {
+            capture = Files.readAllBytes(Paths.get(replayFile));
+            filter = AdvertisingDataFilter.ACCEPT_ALL;
+        } else {
+            capture = createCapture(uuids);
+            filter = AdvertisingDataFilters.iBeaconUuids(Collections.singletonList(uuids.get(0)));
+        }
+
+        final int expected = replayCopying(capture, filter);
+        assertEquals(expected, replayStreaming(capture, filter));
+
+        if (replayFile == null) {
+            assertEquals(PACKET_COUNT * REPORTS_PER_PACKET / BEACON_COUNT, expected);
+        }
+
+        measure("copying", () -> replayCopying(capture, filter), expected);
+        measure("streaming", () -> replayStreaming(capture, filter), expected);
+    }
+
+    private interface Replay {
+
+        int run() throws IOException;
+    }
+}
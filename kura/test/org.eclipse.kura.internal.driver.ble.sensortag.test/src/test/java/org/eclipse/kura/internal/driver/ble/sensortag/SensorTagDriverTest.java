@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018 Eurotech and/or its affiliates and others
+ * Copyright (c) 2018, 2020 Eurotech and/or its affiliates and others
  *
  *   All rights reserved. This program and the accompanying materials
  *   are made available under the terms of the Eclipse Public License v1.0
@@ -11,6 +11,8 @@ package org.eclipse.kura.internal.driver.ble.sensortag;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -22,10 +24,12 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 import org.eclipse.kura.KuraBluetoothConnectionException;
 import org.eclipse.kura.KuraBluetoothDiscoveryException;
@@ -46,6 +50,7 @@ import org.eclipse.kura.type.BooleanValue;
 import org.eclipse.kura.type.DataType;
 import org.eclipse.kura.type.DoubleValue;
 import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.util.collection.NotificationCache;
 import org.junit.Test;
 
 public class SensorTagDriverTest {
@@ -357,60 +362,93 @@ public class SensorTagDriverTest {
         when(tist.readMagneticField()).thenReturn(new float[] { 1, 2, 3 });
         when(tist.readTemperature()).thenReturn(new double[] { 1, 2 });
 
+        SensorTagReadCycle cycle = new SensorTagReadCycle();
+
         try {
-            TestUtil.invokePrivate(svc, "getReadResult", SensorName.BUZZER, tist);
+            TestUtil.invokePrivate(svc, "getReadResult", SensorName.BUZZER, tist, cycle);
             fail("Exception was expected");
         } catch (KuraBluetoothIOException e) {
         }
 
         try {
-            TestUtil.invokePrivate(svc, "getReadResult", SensorName.GREEN_LED, tist);
+            TestUtil.invokePrivate(svc, "getReadResult", SensorName.GREEN_LED, tist, cycle);
             fail("Exception was expected");
         } catch (KuraBluetoothIOException e) {
         }
 
         try {
-            TestUtil.invokePrivate(svc, "getReadResult", SensorName.RED_LED, tist);
+            TestUtil.invokePrivate(svc, "getReadResult", SensorName.RED_LED, tist, cycle);
             fail("Exception was expected");
         } catch (KuraBluetoothIOException e) {
         }
 
-        TestUtil.invokePrivate(svc, "getReadResult", SensorName.TEMP_AMBIENT, tist);
+        TestUtil.invokePrivate(svc, "getReadResult", SensorName.TEMP_AMBIENT, tist, cycle);
 
-        TestUtil.invokePrivate(svc, "getReadResult", SensorName.TEMP_TARGET, tist);
-        verify(tist, times(2)).readTemperature();
+        TestUtil.invokePrivate(svc, "getReadResult", SensorName.TEMP_TARGET, tist, cycle);
+        verify(tist, times(1)).readTemperature();
 
-        TestUtil.invokePrivate(svc, "getReadResult", SensorName.HUMIDITY, tist);
+        TestUtil.invokePrivate(svc, "getReadResult", SensorName.HUMIDITY, tist, cycle);
         verify(tist, times(1)).readHumidity();
 
-        TestUtil.invokePrivate(svc, "getReadResult", SensorName.ACCELERATION_X, tist);
+        TestUtil.invokePrivate(svc, "getReadResult", SensorName.ACCELERATION_X, tist, cycle);
 
-        TestUtil.invokePrivate(svc, "getReadResult", SensorName.ACCELERATION_Y, tist);
+        TestUtil.invokePrivate(svc, "getReadResult", SensorName.ACCELERATION_Y, tist, cycle);
 
-        TestUtil.invokePrivate(svc, "getReadResult", SensorName.ACCELERATION_Z, tist);
-        verify(tist, times(3)).readAcceleration();
+        TestUtil.invokePrivate(svc, "getReadResult", SensorName.ACCELERATION_Z, tist, cycle);
+        verify(tist, times(1)).readAcceleration();
 
-        TestUtil.invokePrivate(svc, "getReadResult", SensorName.MAGNETIC_X, tist);
+        TestUtil.invokePrivate(svc, "getReadResult", SensorName.MAGNETIC_X, tist, cycle);
 
-        TestUtil.invokePrivate(svc, "getReadResult", SensorName.MAGNETIC_Y, tist);
+        TestUtil.invokePrivate(svc, "getReadResult", SensorName.MAGNETIC_Y, tist, cycle);
 
-        TestUtil.invokePrivate(svc, "getReadResult", SensorName.MAGNETIC_Z, tist);
-        verify(tist, times(3)).readMagneticField();
+        TestUtil.invokePrivate(svc, "getReadResult", SensorName.MAGNETIC_Z, tist, cycle);
+        verify(tist, times(1)).readMagneticField();
 
-        TestUtil.invokePrivate(svc, "getReadResult", SensorName.GYROSCOPE_X, tist);
+        TestUtil.invokePrivate(svc, "getReadResult", SensorName.GYROSCOPE_X, tist, cycle);
 
-        TestUtil.invokePrivate(svc, "getReadResult", SensorName.GYROSCOPE_Y, tist);
+        TestUtil.invokePrivate(svc, "getReadResult", SensorName.GYROSCOPE_Y, tist, cycle);
 
-        TestUtil.invokePrivate(svc, "getReadResult", SensorName.GYROSCOPE_Z, tist);
-        verify(tist, times(3)).readGyroscope();
+        TestUtil.invokePrivate(svc, "getReadResult", SensorName.GYROSCOPE_Z, tist, cycle);
+        verify(tist, times(1)).readGyroscope();
 
-        TestUtil.invokePrivate(svc, "getReadResult", SensorName.LIGHT, tist);
+        TestUtil.invokePrivate(svc, "getReadResult", SensorName.LIGHT, tist, cycle);
         verify(tist, times(1)).readLight();
 
-        TestUtil.invokePrivate(svc, "getReadResult", SensorName.PRESSURE, tist);
+        TestUtil.invokePrivate(svc, "getReadResult", SensorName.PRESSURE, tist, cycle);
         verify(tist, times(1)).readPressure();
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReadFromNotifyCache() throws Throwable {
+        SensorTagDriver svc = new SensorTagDriver();
+        TestUtil.setFieldValue(svc, "notifyCache", Optional.of(new NotificationCache<>(60000)));
+
+        TiSensorTag tist = mock(TiSensorTag.class);
+        when(tist.readAcceleration()).thenReturn(new double[] { 1, 2, 3 });
+
+        final List<Consumer<double[]>> consumers = new ArrayList<>();
+        doAnswer(invocation -> {
+            consumers.add((Consumer<double[]>) invocation.getArguments()[0]);
+            return null;
+        }).when(tist).enableAccelerationNotifications(anyObject());
+
+        // the first read subscribes and falls back to a synchronous read
+        assertEquals(1.0, TestUtil.invokePrivate(svc, "getReadResult", SensorName.ACCELERATION_X, tist,
+                new SensorTagReadCycle()));
+        assertEquals(1, consumers.size());
+        verify(tist, times(1)).readAcceleration();
+
+        consumers.get(0).accept(new double[] { 4, 5, 6 });
+
+        SensorTagReadCycle cycle = new SensorTagReadCycle();
+        assertEquals(4.0, TestUtil.invokePrivate(svc, "getReadResult", SensorName.ACCELERATION_X, tist, cycle));
+        assertEquals(6.0, TestUtil.invokePrivate(svc, "getReadResult", SensorName.ACCELERATION_Z, tist, cycle));
+
+        verify(tist, times(1)).readAcceleration();
+        verify(tist, times(1)).enableAccelerationNotifications(anyObject());
+    }
+
     @Test
     public void testWriteDoubleFailure()
             throws NoSuchFieldException, InterruptedException, ExecutionException, ConnectionException {
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.internal.driver.ble.xdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyByte;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.eclipse.kura.bluetooth.le.BluetoothLeService;
+import org.eclipse.kura.core.testutil.TestUtil;
+import org.eclipse.kura.internal.driver.ble.xdk.XdkReadCycle.Characteristic;
+import org.eclipse.kura.util.collection.NotificationCache;
+import org.junit.Test;
+
+public class XdkDriverTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReadHighDataFromNotifyCache() throws Throwable {
+        XdkDriver svc = new XdkDriver();
+        TestUtil.setFieldValue(svc, "notifyCache", Optional.of(new NotificationCache<>(60000)));
+
+        Xdk xdk = mock(Xdk.class);
+        when(xdk.readHighData()).thenReturn(new float[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 });
+
+        final List<Consumer<float[]>> consumers = new ArrayList<>();
+        doAnswer(invocation -> {
+            consumers.add((Consumer<float[]>) invocation.getArguments()[0]);
+            return null;
+        }).when(xdk).enableHighNotifications(any(Consumer.class));
+
+        // the first read subscribes and falls back to a synchronous read
+        assertEquals(1.0f, TestUtil.invokePrivate(svc, "getReadResult", SensorName.ACCELERATION_X, xdk,
+                new XdkReadCycle()));
+        assertEquals(1, consumers.size());
+        verify(xdk, times(1)).readHighData();
+
+        consumers.get(0).accept(new float[] { 11, 12, 13, 14, 15, 16, 17, 18, 19, 20 });
+
+        XdkReadCycle cycle = new XdkReadCycle();
+        assertEquals(11.0f, TestUtil.invokePrivate(svc, "getReadResult", SensorName.ACCELERATION_X, xdk, cycle));
+        assertEquals(16.0f, TestUtil.invokePrivate(svc, "getReadResult", SensorName.GYROSCOPE_Z, xdk, cycle));
+
+        verify(xdk, times(1)).readHighData();
+        verify(xdk, times(1)).enableHighNotifications(any(Consumer.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReadLowDataFromNotifyCache() throws Throwable {
+        XdkDriver svc = new XdkDriver();
+        TestUtil.setFieldValue(svc, "notifyCache", Optional.of(new NotificationCache<>(60000)));
+
+        Xdk xdk = mock(Xdk.class);
+        when(xdk.readLowData((byte) 0x01)).thenReturn(new Integer[] { 1, 2, 3, 4, 5, 6, 7 });
+
+        final List<Consumer<Integer[]>> consumers = new ArrayList<>();
+        doAnswer(invocation -> {
+            consumers.add((Consumer<Integer[]>) invocation.getArguments()[0]);
+            consumers.add((Consumer<Integer[]>) invocation.getArguments()[1]);
+            return null;
+        }).when(xdk).enableLowNotifications(any(Consumer.class), any(Consumer.class));
+
+        assertEquals(1, TestUtil.invokePrivate(svc, "getReadResult", SensorName.LIGHT, xdk, new XdkReadCycle()));
+        assertEquals(2, consumers.size());
+
+        // both messages are delivered by the same characteristic, a single subscription serves both of them
+        consumers.get(1).accept(new Integer[] { 21, 22, 23, 24, 25, 26 });
+
+        assertEquals(21,
+                TestUtil.invokePrivate(svc, "getReadResult", SensorName.MAGNETIC_X, xdk, new XdkReadCycle()));
+        verify(xdk, times(1)).enableLowNotifications(any(Consumer.class), any(Consumer.class));
+        verify(xdk, never()).readLowData((byte) 0x02);
+        verify(xdk, never()).enableLowNotifications(any(Consumer.class), anyByte());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReadWithoutNotifyCache() throws Throwable {
+        XdkDriver svc = new XdkDriver();
+
+        Xdk xdk = mock(Xdk.class);
+        when(xdk.readHighData()).thenReturn(new float[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 });
+
+        assertEquals(1.0f, TestUtil.invokePrivate(svc, "getReadResult", SensorName.ACCELERATION_X, xdk,
+                new XdkReadCycle()));
+        assertEquals(1.0f, TestUtil.invokePrivate(svc, "getReadResult", SensorName.ACCELERATION_X, xdk,
+                new XdkReadCycle()));
+
+        verify(xdk, times(2)).readHighData();
+        verify(xdk, never()).enableHighNotifications(any(Consumer.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUpdateClearsNotifyCache() throws Throwable {
+        XdkDriver svc = new XdkDriver();
+        svc.bindBluetoothLeService(mock(BluetoothLeService.class));
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("notify.cache.enabled", true);
+        svc.activate(properties);
+
+        Xdk xdk = mock(Xdk.class);
+        when(xdk.readHighData()).thenReturn(new float[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 });
+
+        final List<Consumer<float[]>> consumers = new ArrayList<>();
+        doAnswer(invocation -> {
+            consumers.add((Consumer<float[]>) invocation.getArguments()[0]);
+            return null;
+        }).when(xdk).enableHighNotifications(any(Consumer.class));
+
+        TestUtil.invokePrivate(svc, "getReadResult", SensorName.ACCELERATION_X, xdk, new XdkReadCycle());
+
+        final Optional<NotificationCache<Xdk, Characteristic>> notifyCache;
+        notifyCache = (Optional<NotificationCache<Xdk, Characteristic>>) TestUtil.getFieldValue(svc, "notifyCache");
+        final NotificationCache<Xdk, Characteristic> oldCache = notifyCache.get();
+        assertTrue(oldCache.isSubscribed(xdk, Characteristic.HIGH_PRIORITY_ARRAY));
+
+        svc.updated(properties);
+
+        // the previous cache has been cleared, the consumers created for it no longer update it
+        assertFalse(oldCache.isSubscribed(xdk, Characteristic.HIGH_PRIORITY_ARRAY));
+        assertEquals(1, consumers.size());
+    }
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.internal.driver.can;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.eclipse.kura.channel.ChannelFlag;
+import org.eclipse.kura.channel.ChannelRecord;
+import org.eclipse.kura.channel.listener.ChannelEvent;
+import org.eclipse.kura.channel.listener.ChannelListener;
+import org.eclipse.kura.core.testutil.TestUtil;
+import org.eclipse.kura.protocol.can.CanMessage;
+import org.eclipse.kura.protocol.can.CanReceiver;
+import org.eclipse.kura.type.DataType;
+import org.junit.Test;
+
+public class CanDriverTest {
+
+    private static Map<String, Object> channelConfig(int messageId, int startBit) {
+        final Map<String, Object> config = new HashMap<>();
+        config.put("+name", "channel" + startBit);
+        config.put("+value.type", "INTEGER");
+        config.put("message.id", messageId);
+        config.put("signal.start.bit", startBit);
+        config.put("signal.length", 8);
+        config.put("signal.byte.order", "LITTLE_ENDIAN");
+        config.put("signal.signed", false);
+        config.put("signal.factor", 1.0);
+        config.put("signal.offset", 0.0);
+        return config;
+    }
+
+    private static CanMessage message(int canId, long timestamp, int... data) {
+        final byte[] payload = new byte[data.length];
+        for (int i = 0; i < data.length; i++) {
+            payload[i] = (byte) data[i];
+        }
+
+        final CanMessage message = new CanMessage();
+        message.setCanId(canId);
+        message.setData(payload);
+        message.setTimestamp(timestamp);
+        return message;
+    }
+
+    @Test
+    public void testReadFromLatestMessages() throws Throwable {
+        final CanDriver driver = new CanDriver();
+        final CanReceiver receiver = mock(CanReceiver.class);
+        TestUtil.setFieldValue(driver, "receiver", receiver);
+
+        TestUtil.invokePrivate(driver, "onMessages",
+                Arrays.asList(message(0x100, 1000, 1, 2), message(0x100, 2000, 3, 4)));
+
+        final ChannelRecord first = ChannelRecord.createReadRecord("channel0", DataType.INTEGER);
+        first.setChannelConfig(channelConfig(0x100, 0));
+        final ChannelRecord second = ChannelRecord.createReadRecord("channel8", DataType.INTEGER);
+        second.setChannelConfig(channelConfig(0x100, 8));
+        final ChannelRecord missing = ChannelRecord.createReadRecord("channel0", DataType.INTEGER);
+        missing.setChannelConfig(channelConfig(0x200, 0));
+
+        driver.read(Arrays.asList(first, second, missing));
+
+        assertEquals(3, first.getValue().getValue());
+        assertEquals(2000, first.getTimestamp());
+        assertEquals(4, second.getValue().getValue());
+        assertEquals(ChannelFlag.FAILURE, missing.getChannelStatus().getChannelFlag());
+
+        verify(receiver, times(1)).setCanIds(anyObject());
+    }
+
+    @Test
+    public void testListenerReceivesLatestFrameOfBatch() throws Throwable {
+        final CanDriver driver = new CanDriver();
+        TestUtil.setFieldValue(driver, "receiver", mock(CanReceiver.class));
+
+        final ChannelEvent[] events = new ChannelEvent[2];
+        final int[] count = { 0 };
+        final ChannelListener listener = event -> events[count[0]++] = event;
+
+        driver.registerChannelListener(channelConfig(0x100, 0), listener);
+
+        TestUtil.invokePrivate(driver, "onMessages",
+                Arrays.asList(message(0x100, 1000, 1), message(0x101, 1500, 7), message(0x100, 2000, 5)));
+
+        assertEquals(1, count[0]);
+        assertEquals(5, events[0].getChannelRecord().getValue().getValue());
+
+        driver.unregisterChannelListener(listener);
+        TestUtil.invokePrivate(driver, "onMessages", Collections.singletonList(message(0x100, 3000, 6)));
+
+        assertEquals(1, count[0]);
+    }
+
+    @Test
+    public void testUnregisterNarrowsFilter() throws Throwable {
+        final CanDriver driver = new CanDriver();
+        final CanReceiver receiver = mock(CanReceiver.class);
+        TestUtil.setFieldValue(driver, "receiver", receiver);
+
+        final ChannelListener first = event -> {
+        };
+        final ChannelListener second = event -> {
+        };
+
+        driver.registerChannelListener(channelConfig(0x100, 0), first);
+        driver.registerChannelListener(channelConfig(0x200, 0), second);
+
+        verify(receiver, times(1)).setCanIds(Collections.singleton(0x100));
+        verify(receiver, times(1)).setCanIds(new HashSet<>(Arrays.asList(0x100, 0x200)));
+
+        driver.unregisterChannelListener(second);
+
+        verify(receiver, times(2)).setCanIds(Collections.singleton(0x100));
+
+        // without listeners the receiver would get every frame on the bus, it is closed instead
+        driver.unregisterChannelListener(first);
+
+        verify(receiver, times(1)).close();
+        assertNull(TestUtil.getFieldValue(driver, "receiver"));
+    }
+
+    @Test
+    public void testReadIdsKeptUntilDisconnect() throws Throwable {
+        final CanDriver driver = new CanDriver();
+        final CanReceiver receiver = mock(CanReceiver.class);
+        TestUtil.setFieldValue(driver, "receiver", receiver);
+
+        final ChannelRecord record = ChannelRecord.createReadRecord("channel0", DataType.INTEGER);
+        record.setChannelConfig(channelConfig(0x300, 0));
+        driver.read(Collections.singletonList(record));
+
+        final ChannelListener listener = event -> {
+        };
+        driver.registerChannelListener(channelConfig(0x100, 0), listener);
+        driver.unregisterChannelListener(listener);
+
+        // the id of the read channel is still needed by the next reads
+        verify(receiver, times(2)).setCanIds(Collections.singleton(0x300));
+        verify(receiver, times(0)).close();
+    }
+}
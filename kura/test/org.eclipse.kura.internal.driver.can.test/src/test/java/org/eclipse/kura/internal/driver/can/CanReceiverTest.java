@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.internal.driver.can;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.kura.core.testutil.TestUtil;
+import org.eclipse.kura.protocol.can.CanMessage;
+import org.eclipse.kura.protocol.can.CanReceiver;
+import org.junit.Test;
+
+public class CanReceiverTest {
+
+    private static final String VCAN = "vcan0";
+
+    private static int[] computeFilter(Integer... canIds) throws Throwable {
+        final CanReceiver receiver = new CanReceiver(VCAN, 1, messages -> {
+        });
+        return (int[]) TestUtil.invokePrivate(receiver, "computeFilter", new Class<?>[] { Collection.class },
+                new HashSet<>(Arrays.asList(canIds)));
+    }
+
+    private static void assumeVcan() {
+        assumeTrue(new File("/sys/class/net/" + VCAN).exists());
+
+        boolean cansend = false;
+        for (String dir : System.getenv("PATH").split(File.pathSeparator)) {
+            cansend |= new File(dir, "cansend").canExecute();
+        }
+        assumeTrue(cansend);
+    }
+
+    private static void send(int canId, int data) throws Exception {
+        final Process process = new ProcessBuilder("cansend", VCAN, String.format("%03X#%02X", canId, data)).start();
+        assertEquals(0, process.waitFor());
+    }
+
+    private static Thread findThread(String name, Set<Thread> excluded) {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (name.equals(thread.getName()) && !excluded.contains(thread)) {
+                return thread;
+            }
+        }
+        return null;
+    }
+
+    private static CanMessage receive(BlockingQueue<CanMessage> received) throws InterruptedException {
+        return received.poll(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testComputeFilterEmpty() throws Throwable {
+        assertNull(computeFilter());
+    }
+
+    @Test
+    public void testComputeFilterSingleId() throws Throwable {
+        assertArrayEquals(new int[] { 0x123, 0x1FFFFFFF }, computeFilter(0x123));
+    }
+
+    @Test
+    public void testComputeFilterMasksDifferentBits() throws Throwable {
+        // 0x100, 0x101 and 0x104 differ in bits 0 and 2
+        assertArrayEquals(new int[] { 0x100, 0x1FFFFFFA }, computeFilter(0x100, 0x101, 0x104));
+    }
+
+    @Test
+    public void testComputeFilterExtendedIds() throws Throwable {
+        assertArrayEquals(new int[] { 0x18FEF000, 0x1FFFFCFF }, computeFilter(0x18FEF100, 0x18FEF200));
+    }
+
+    @Test
+    public void testStartFailsOnMissingInterface() throws Throwable {
+        final CanReceiver receiver = new CanReceiver("nocan0", 1, messages -> {
+        });
+
+        try {
+            receiver.start();
+            fail("Exception expected");
+        } catch (IOException e) {
+            // expected
+        }
+
+        assertNull(TestUtil.getFieldValue(receiver, "running"));
+        assertNull(TestUtil.getFieldValue(receiver, "socket"));
+        assertNull(findThread("CanDispatcher-nocan0", Collections.emptySet()));
+
+        // closing a receiver that is not running has no effect
+        receiver.close();
+    }
+
+    @Test
+    public void testReceiveFilteredFramesOnVcan() throws Exception {
+        assumeVcan();
+
+        final BlockingQueue<CanMessage> received = new LinkedBlockingQueue<>();
+        final CanReceiver receiver = new CanReceiver(VCAN, 16, received::addAll);
+        receiver.setCanIds(Collections.singleton(0x123));
+
+        try {
+            receiver.start();
+
+            send(0x124, 1);
+            send(0x123, 2);
+
+            CanMessage message = receive(received);
+            assertEquals(0x123, message.getCanId());
+            assertArrayEquals(new byte[] { 2 }, message.getData());
+
+            // the new identifiers replace the previous ones
+            receiver.setCanIds(Collections.singleton(0x124));
+
+            send(0x123, 3);
+            send(0x124, 4);
+
+            message = receive(received);
+            assertEquals(0x124, message.getCanId());
+            assertArrayEquals(new byte[] { 4 }, message.getData());
+            assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+        } finally {
+            receiver.close();
+        }
+    }
+
+    @Test
+    public void testThreadLifecycleOnVcan() throws Exception {
+        assumeVcan();
+
+        final BlockingQueue<CanMessage> received = new LinkedBlockingQueue<>();
+        final CanReceiver receiver = new CanReceiver(VCAN, 16, received::addAll);
+        receiver.setCanIds(Collections.singleton(0x123));
+
+        // threads of other tests might still be waiting for a frame
+        final Set<Thread> previousThreads = new HashSet<>(Thread.getAllStackTraces().keySet());
+
+        receiver.start();
+        final Thread receiveThread = findThread("CanReceiver-" + VCAN, previousThreads);
+        final Thread dispatchThread = findThread("CanDispatcher-" + VCAN, previousThreads);
+
+        // starting a running receiver has no effect
+        receiver.start();
+        assertSame(dispatchThread, TestUtil.getFieldValue(receiver, "dispatchThread"));
+
+        receiver.close();
+        receiver.close();
+
+        dispatchThread.join(5000);
+        assertFalse(dispatchThread.isAlive());
+
+        // the receive thread terminates as soon as its pending receive call returns, the frame is not delivered
+        send(0x123, 1);
+        receiveThread.join(5000);
+        assertFalse(receiveThread.isAlive());
+        assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+
+        // the receiver can be restarted
+        try {
+            receiver.start();
+
+            send(0x123, 2);
+            assertArrayEquals(new byte[] { 2 }, receive(received).getData());
+        } finally {
+            receiver.close();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.internal.driver.can;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.kura.internal.driver.can.CanSignal.ByteOrder;
+import org.junit.Test;
+
+public class CanSignalTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testLittleEndian() {
+        final CanSignal signal = new CanSignal(4, 12, ByteOrder.LITTLE_ENDIAN, false, 1, 0);
+
+        assertEquals(0x123, signal.decodeRaw(new byte[] { 0x30, 0x12 }));
+    }
+
+    @Test
+    public void testBigEndian() {
+        assertEquals(0x1234,
+                new CanSignal(7, 16, ByteOrder.BIG_ENDIAN, false, 1, 0).decodeRaw(new byte[] { 0x12, 0x34 }));
+        assertEquals(0x5C3, new CanSignal(3, 12, ByteOrder.BIG_ENDIAN, false, 1, 0)
+                .decodeRaw(new byte[] { (byte) 0xA5, (byte) 0xC3 }));
+    }
+
+    @Test
+    public void testSignedScaled() {
+        final CanSignal signal = new CanSignal(8, 8, ByteOrder.LITTLE_ENDIAN, true, 0.5, 10);
+
+        assertEquals(-2, signal.decodeRaw(new byte[] { 0, (byte) 0xFE }));
+        assertEquals(9.0, signal.decode(new byte[] { 0, (byte) 0xFE }), DELTA);
+    }
+
+    @Test
+    public void testUnsigned64() {
+        final CanSignal signal = new CanSignal(0, 64, ByteOrder.LITTLE_ENDIAN, false, 1, 0);
+        final byte[] data = new byte[8];
+        data[7] = (byte) 0x80;
+
+        assertEquals(9.223372036854775808E18, signal.decode(data), DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortPayload() {
+        new CanSignal(8, 16, ByteOrder.LITTLE_ENDIAN, false, 1, 0).decode(new byte[] { 1, 2 });
+    }
+
+    @Test
+    public void testChannelConfig() {
+        final Map<String, Object> config = new HashMap<>();
+        config.put("message.id", "0x18FEF100");
+        config.put("signal.start.bit", 15);
+        config.put("signal.length", 16);
+        config.put("signal.byte.order", "BIG_ENDIAN");
+        config.put("signal.signed", false);
+        config.put("signal.factor", 0.1);
+        config.put("signal.offset", -40.0);
+
+        assertEquals(0x18FEF100, CanChannelDescriptor.getMessageId(config));
+        assertEquals(20.0, CanChannelDescriptor.getSignal(config).decode(new byte[] { 0, 0x02, 0x58 }), DELTA);
+    }
+}
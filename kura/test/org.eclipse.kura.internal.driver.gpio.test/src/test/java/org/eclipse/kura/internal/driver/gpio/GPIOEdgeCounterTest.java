@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.internal.driver.gpio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.kura.internal.driver.gpio.GPIOEdgeCounter.Snapshot;
+import org.junit.Test;
+
+public class GPIOEdgeCounterTest {
+
+    private static final long SECOND_NANOS = 1000000000L;
+
+    @Test
+    public void testCount() {
+        GPIOEdgeCounter counter = new GPIOEdgeCounter(0, 0);
+
+        assertTrue(counter.edge(true, 1000));
+        assertTrue(counter.edge(false, 2000));
+        assertTrue(counter.edge(true, 3000));
+
+        Snapshot snapshot = counter.snapshot(SECOND_NANOS);
+
+        assertTrue(snapshot.getState());
+        assertEquals(3000, snapshot.getLastEdgeMicros());
+        assertEquals(3, snapshot.getCount());
+        assertEquals(3, snapshot.getTotalCount());
+        assertEquals(3.0, snapshot.getFrequency(), 0.0001);
+    }
+
+    @Test
+    public void testSnapshotStartsNewInterval() {
+        GPIOEdgeCounter counter = new GPIOEdgeCounter(0, 0);
+
+        counter.edge(true, 1000);
+        counter.edge(false, 2000);
+        counter.snapshot(SECOND_NANOS);
+
+        counter.edge(true, 3000);
+        Snapshot snapshot = counter.snapshot(3 * SECOND_NANOS);
+
+        assertEquals(1, snapshot.getCount());
+        assertEquals(3, snapshot.getTotalCount());
+        assertEquals(0.5, snapshot.getFrequency(), 0.0001);
+
+        // no edges in the last interval, the state and the last edge timestamp are retained
+        snapshot = counter.snapshot(4 * SECOND_NANOS);
+
+        assertTrue(snapshot.getState());
+        assertEquals(3000, snapshot.getLastEdgeMicros());
+        assertEquals(0, snapshot.getCount());
+        assertEquals(3, snapshot.getTotalCount());
+        assertEquals(0.0, snapshot.getFrequency(), 0.0001);
+    }
+
+    @Test
+    public void testDebounce() {
+        GPIOEdgeCounter counter = new GPIOEdgeCounter(1000, 0);
+
+        // the first edge is always accepted
+        assertTrue(counter.edge(true, 10000));
+        // bounces closer than the debounce interval to the last accepted edge are discarded
+        assertFalse(counter.edge(false, 10200));
+        assertFalse(counter.edge(true, 10999));
+        assertTrue(counter.edge(false, 11000));
+        assertFalse(counter.edge(true, 11500));
+
+        Snapshot snapshot = counter.snapshot(SECOND_NANOS);
+
+        assertFalse(snapshot.getState());
+        assertEquals(11000, snapshot.getLastEdgeMicros());
+        assertEquals(2, snapshot.getCount());
+    }
+
+    @Test
+    public void testEmptyInterval() {
+        GPIOEdgeCounter counter = new GPIOEdgeCounter(0, SECOND_NANOS);
+
+        Snapshot snapshot = counter.snapshot(SECOND_NANOS);
+
+        assertFalse(snapshot.getState());
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getTotalCount());
+        assertEquals(0.0, snapshot.getFrequency(), 0.0001);
+    }
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.internal.driver.modbus;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.kura.channel.ChannelFlag;
+import org.eclipse.kura.channel.ChannelRecord;
+import org.eclipse.kura.driver.Driver.ConnectionException;
+import org.eclipse.kura.internal.driver.modbus.transport.ModbusRequest;
+import org.eclipse.kura.internal.driver.modbus.transport.ModbusTransport;
+import org.eclipse.kura.type.DataType;
+import org.junit.Test;
+
+public class ModbusDriverTest {
+
+    @Test
+    public void testReadFailsAllRecordsOnIOError() throws ConnectionException {
+        final AtomicInteger executions = new AtomicInteger();
+        final ModbusTransport transport = new ModbusTransport() {
+
+            @Override
+            public void connect() throws IOException {
+            }
+
+            @Override
+            public void disconnect() {
+            }
+
+            @Override
+            public boolean isConnected() {
+                return true;
+            }
+
+            @Override
+            public void execute(List<ModbusRequest> requests) throws IOException {
+                executions.incrementAndGet();
+                throw new IOException("link down");
+            }
+        };
+
+        final ModbusDriver driver = new ModbusDriver() {
+
+            @Override
+            protected ModbusTransport createTransport(ModbusDriverOptions options) {
+                return transport;
+            }
+        };
+        driver.activate(Collections.emptyMap());
+
+        // different unit ids, the records are read by different tasks
+        final List<ChannelRecord> records = Arrays.asList(createRecord("first", 1), createRecord("second", 2));
+
+        driver.read(records);
+
+        assertEquals(1, executions.get());
+        for (ChannelRecord record : records) {
+            assertEquals(ChannelFlag.FAILURE, record.getChannelStatus().getChannelFlag());
+        }
+    }
+
+    private static ChannelRecord createRecord(final String name, final int unitId) {
+        final ChannelRecord record = ChannelRecord.createReadRecord(name, DataType.INTEGER);
+        final Map<String, Object> config = new HashMap<>();
+        config.put(ModbusChannelDescriptor.UNIT_ID, unitId);
+        config.put(ModbusChannelDescriptor.PRIMARY_TABLE_ID, ModbusTable.HOLDING_REGISTERS.name());
+        config.put(ModbusChannelDescriptor.MEMORY_ADDRESS_ID, 0);
+        config.put(ModbusChannelDescriptor.DATA_TYPE_ID, ModbusDataType.INT16.name());
+        record.setChannelConfig(config);
+        return record;
+    }
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.internal.driver.modbus.task;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.eclipse.kura.driver.binary.ByteArrayBuffer;
+import org.eclipse.kura.driver.block.task.Mode;
+import org.eclipse.kura.internal.driver.modbus.ModbusDomain;
+import org.eclipse.kura.internal.driver.modbus.ModbusDriver;
+import org.eclipse.kura.internal.driver.modbus.ModbusTable;
+import org.eclipse.kura.internal.driver.modbus.transport.ModbusRequest;
+import org.junit.Test;
+
+public class ModbusToplevelBlockTaskTest {
+
+    private static int getShort(byte[] pdu, int offset) {
+        return (pdu[offset] & 0xff) << 8 | pdu[offset + 1] & 0xff;
+    }
+
+    @Test
+    public void testRegisterReadSplit() {
+        // 300 registers starting at register 10, addressed by byte
+        final ModbusToplevelBlockTask task = new ModbusToplevelBlockTask(null, Mode.READ,
+                new ModbusDomain(1, ModbusTable.HOLDING_REGISTERS), 20, 620);
+
+        final List<ModbusRequest> requests = task.prepareReadRequests();
+
+        assertEquals(3, requests.size());
+        assertEquals(10, getShort(requests.get(0).getPdu(), 1));
+        assertEquals(125, getShort(requests.get(0).getPdu(), 3));
+        assertEquals(135, getShort(requests.get(1).getPdu(), 1));
+        assertEquals(125, getShort(requests.get(1).getPdu(), 3));
+        assertEquals(260, getShort(requests.get(2).getPdu(), 1));
+        assertEquals(50, getShort(requests.get(2).getPdu(), 3));
+    }
+
+    @Test
+    public void testCoilReadSplit() {
+        final ModbusToplevelBlockTask task = new ModbusToplevelBlockTask(null, Mode.READ,
+                new ModbusDomain(1, ModbusTable.COILS), 0, 2001);
+
+        final List<ModbusRequest> requests = task.prepareReadRequests();
+
+        assertEquals(2, requests.size());
+        assertEquals(2000, getShort(requests.get(0).getPdu(), 3));
+        assertEquals(1, getShort(requests.get(1).getPdu(), 3));
+    }
+
+    @Test
+    public void testReadRegistersFromPreparedResponses() throws IOException {
+        final ModbusDriver driver = mock(ModbusDriver.class);
+        final ModbusToplevelBlockTask task = new ModbusToplevelBlockTask(driver, Mode.READ,
+                new ModbusDomain(1, ModbusTable.INPUT_REGISTERS), 0, 4);
+
+        final List<ModbusRequest> requests = task.prepareReadRequests();
+        requests.get(0).complete(new byte[] { 4, 4, 1, 2, 3, 4 });
+
+        task.processBuffer();
+
+        assertArrayEquals(new byte[] { 1, 2, 3, 4 }, ((ByteArrayBuffer) task.getBuffer()).getBackingArray());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testWriteCoils() throws IOException {
+        final ModbusDriver driver = mock(ModbusDriver.class);
+        final byte[][] sentPdu = new byte[1][];
+
+        doAnswer(invocation -> {
+            final ModbusRequest request = ((List<ModbusRequest>) invocation.getArguments()[0]).get(0);
+            sentPdu[0] = request.getPdu();
+            request.complete(new byte[] { 15, 0, 5, 0, 10 });
+            return null;
+        }).when(driver).execute(anyObject());
+
+        final ModbusToplevelBlockTask task = new ModbusToplevelBlockTask(driver, Mode.WRITE,
+                new ModbusDomain(1, ModbusTable.COILS), 5, 15);
+        final ByteArrayBuffer buffer = (ByteArrayBuffer) task.getBuffer();
+        buffer.put(0, (byte) 1);
+        buffer.put(2, (byte) 1);
+        buffer.put(9, (byte) 1);
+
+        task.processBuffer();
+
+        verify(driver).execute(anyObject());
+        assertArrayEquals(new byte[] { 15, 0, 5, 0, 10, 2, 0x05, 0x02 }, sentPdu[0]);
+    }
+}
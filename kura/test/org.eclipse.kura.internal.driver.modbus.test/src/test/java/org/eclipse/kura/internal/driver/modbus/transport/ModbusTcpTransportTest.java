@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.internal.driver.modbus.transport;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ModbusTcpTransportTest {
+
+    private ServerSocket serverSocket;
+    private Thread slave;
+    private final AtomicInteger maxObservedInFlight = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        this.serverSocket = new ServerSocket(0);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.serverSocket.close();
+        if (this.slave != null) {
+            this.slave.join(5000);
+        }
+    }
+
+    /**
+     * Starts a fake slave that waits for {@code window} requests and answers them in reverse order. Read holding
+     * register requests are answered with register values equal to their address, function code 0x10 requests get an
+     * illegal data address exception response.
+     */
+    private void startSlave(final int window, final int totalRequests) {
+        this.slave = new Thread(() -> {
+            try (Socket socket = this.serverSocket.accept()) {
+                final DataInputStream in = new DataInputStream(socket.getInputStream());
+                final OutputStream out = socket.getOutputStream();
+
+                int served = 0;
+                while (served < totalRequests) {
+                    final List<byte[]> frames = new ArrayList<>();
+                    final int batch = Math.min(window, totalRequests - served);
+                    for (int i = 0; i < batch; i++) {
+                        frames.add(readFrame(in));
+                    }
+                    this.maxObservedInFlight.accumulateAndGet(frames.size(), Math::max);
+                    Collections.reverse(frames);
+                    for (byte[] frame : frames) {
+                        out.write(answer(frame));
+                    }
+                    out.flush();
+                    served += batch;
+                }
+            } catch (IOException e) {
+                // test ended
+            }
+        });
+        this.slave.start();
+    }
+
+    private static byte[] readFrame(DataInputStream in) throws IOException {
+        final byte[] header = new byte[7];
+        in.readFully(header);
+        final int length = (header[4] & 0xff) << 8 | header[5] & 0xff;
+        final byte[] frame = Arrays.copyOf(header, 6 + length);
+        in.readFully(frame, 7, length - 1);
+        return frame;
+    }
+
+    private static byte[] answer(byte[] frame) {
+        final int functionCode = frame[7] & 0xff;
+        final byte[] pdu;
+
+        if (functionCode == 3) {
+            final int address = (frame[8] & 0xff) << 8 | frame[9] & 0xff;
+            final int count = (frame[10] & 0xff) << 8 | frame[11] & 0xff;
+            pdu = new byte[2 + count * 2];
+            pdu[0] = 3;
+            pdu[1] = (byte) (count * 2);
+            for (int i = 0; i < count; i++) {
+                pdu[2 + i * 2] = (byte) (address + i >> 8);
+                pdu[3 + i * 2] = (byte) (address + i);
+            }
+        } else {
+            pdu = new byte[] { (byte) (functionCode | 0x80), 2 };
+        }
+
+        final byte[] result = new byte[7 + pdu.length];
+        result[0] = frame[0];
+        result[1] = frame[1];
+        result[4] = (byte) (pdu.length + 1 >> 8);
+        result[5] = (byte) (pdu.length + 1);
+        result[6] = frame[6];
+        System.arraycopy(pdu, 0, result, 7, pdu.length);
+        return result;
+    }
+
+    @Test
+    public void testPipelinedOutOfOrderResponses() throws IOException {
+        startSlave(4, 10);
+
+        final ModbusTcpTransport transport = new ModbusTcpTransport("localhost", this.serverSocket.getLocalPort(),
+                5000, 4);
+
+        final List<ModbusRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            requests.add(ModbusRequest.read(1, 3, i * 10, 2));
+        }
+
+        transport.execute(requests);
+
+        for (int i = 0; i < 10; i++) {
+            final ModbusRequest request = requests.get(i);
+            assertTrue(request.isDone());
+            assertArrayEquals(new byte[] { 3, 4, 0, (byte) (i * 10), 0, (byte) (i * 10 + 1) }, request.getResponse());
+        }
+
+        assertEquals(4, this.maxObservedInFlight.get());
+
+        transport.disconnect();
+    }
+
+    @Test
+    public void testExceptionResponse() throws IOException {
+        startSlave(1, 2);
+
+        final ModbusTcpTransport transport = new ModbusTcpTransport("localhost", this.serverSocket.getLocalPort(),
+                5000, 1);
+
+        final ModbusRequest write = ModbusRequest.writeRegisters(1, 0, new byte[] { 0, 1 }, 0, 2);
+        final ModbusRequest read = ModbusRequest.read(1, 3, 0, 1);
+
+        transport.execute(Arrays.asList(write, read));
+
+        try {
+            write.getResponse();
+            fail("Exception expected");
+        } catch (ModbusException e) {
+            assertEquals(16, e.getFunctionCode());
+            assertEquals(2, e.getExceptionCode());
+        }
+
+        assertArrayEquals(new byte[] { 3, 2, 0, 0 }, read.getResponse());
+        assertTrue(transport.isConnected());
+
+        transport.disconnect();
+    }
+
+    @Test
+    public void testLinkFailure() throws IOException {
+        startSlave(1, 1);
+
+        final ModbusTcpTransport transport = new ModbusTcpTransport("localhost", this.serverSocket.getLocalPort(),
+                5000, 2);
+
+        final List<ModbusRequest> requests = Arrays.asList(ModbusRequest.read(1, 3, 0, 1),
+                ModbusRequest.read(1, 3, 1, 1), ModbusRequest.read(1, 3, 2, 1));
+
+        try {
+            transport.execute(requests);
+            fail("Exception expected");
+        } catch (IOException e) {
+            // expected, the slave closes the connection after the first request
+        }
+
+        for (ModbusRequest request : requests) {
+            assertTrue(request.isDone());
+        }
+        assertFalse(transport.isConnected());
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2019 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
  *
  *   All rights reserved. This program and the accompanying materials
  *   are made available under the terms of the Eclipse Public License v1.0
@@ -9,13 +9,18 @@
 package org.eclipse.kura.internal.driver.opcua;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +29,8 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import org.eclipse.kura.KuraException;
 import org.eclipse.kura.channel.ChannelFlag;
@@ -32,10 +39,15 @@ import org.eclipse.kura.core.testutil.TestUtil;
 import org.eclipse.kura.crypto.CryptoService;
 import org.eclipse.kura.driver.Driver.ConnectionException;
 import org.eclipse.kura.driver.PreparedRead;
+import org.eclipse.kura.internal.driver.opcua.request.ReadParams;
+import org.eclipse.kura.internal.driver.opcua.request.Request;
 import org.eclipse.kura.type.DataType;
 import org.eclipse.kura.type.TypedValue;
 import org.eclipse.milo.opcua.sdk.client.OpcUaClient;
 import org.eclipse.milo.opcua.sdk.client.api.AddressSpace;
+import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaMonitoredItem;
+import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaSubscription;
+import org.eclipse.milo.opcua.sdk.client.subscriptions.OpcUaSubscriptionManager;
 import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
 import org.eclipse.milo.opcua.stack.core.types.builtin.NodeId;
 import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
@@ -44,7 +56,9 @@ import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.IdType;
 import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
 import org.eclipse.milo.opcua.stack.core.types.structured.ReadResponse;
+import org.eclipse.milo.opcua.stack.core.types.structured.ReadValueId;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 public class OpcUaDriverTest {
@@ -257,11 +271,8 @@ public class OpcUaDriverTest {
         ReadResponse response = mock(ReadResponse.class);
         when(response.getResults()).thenReturn(new DataValue[] { value });
 
-        CompletableFuture<ReadResponse> futureValue = mock(CompletableFuture.class);
-        when(futureValue.get(1000, TimeUnit.MILLISECONDS)).thenReturn(response);
-
         when(clientMock.read(Mockito.eq(0.0), Mockito.eq(TimestampsToReturn.Both), anyObject()))
-                .thenReturn(futureValue);
+                .thenReturn(CompletableFuture.completedFuture(response));
     }
 
     @Test
@@ -300,4 +311,305 @@ public class OpcUaDriverTest {
         assertEquals(123, record.getValue().getValue());
     }
 
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testPipelinedRead() throws Exception {
+        // test that chunks are sent without waiting for the previous ones and that results are assigned in order
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("request.timeout", 5);
+        properties.put("max.request.items", 2);
+        properties.put("max.outstanding.requests", 2);
+        OpcUaOptions options = new OpcUaOptions(properties, mock(CryptoService.class));
+
+        OpcUaClient clientMock = mock(OpcUaClient.class);
+
+        ConnectionManager manager = new ConnectionManager(clientMock, options, (a, b) -> {
+        }, new ListenerRegistrationRegistry(), new ListenerRegistrationRegistry());
+
+        final List<CompletableFuture<ReadResponse>> pending = new ArrayList<>();
+        final List<List<ReadValueId>> sent = new ArrayList<>();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        when(clientMock.read(Mockito.eq(0.0), Mockito.eq(TimestampsToReturn.Both), anyObject()))
+                .thenAnswer(invocation -> {
+                    final CompletableFuture<ReadResponse> future = new CompletableFuture<>();
+                    synchronized (pending) {
+                        sent.add((List<ReadValueId>) invocation.getArgumentAt(2, List.class));
+                        pending.add(future);
+                        maxInFlight.set(Math.max(maxInFlight.get(),
+                                (int) pending.stream().filter(f -> !f.isDone()).count()));
+                        pending.notifyAll();
+                    }
+                    return future;
+                });
+
+        List<ChannelRecord> records = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ChannelRecord record = ChannelRecord.createReadRecord("ch" + i, DataType.INTEGER);
+            Map<String, Object> channelConfig = new HashMap<>();
+            channelConfig.put("node.namespace.index", "1");
+            channelConfig.put("node.id.type", "NUMERIC");
+            channelConfig.put("opcua.type", "DEFINED_BY_JAVA_TYPE");
+            channelConfig.put("node.id", Integer.toString(i));
+            channelConfig.put("attribute", "Value");
+            record.setChannelConfig(channelConfig);
+            records.add(record);
+        }
+
+        final List<Request<ReadParams>> requests = Request.extractReadRequests(records);
+        final CompletableFuture<Void> result = CompletableFuture.runAsync(() -> {
+            try {
+                manager.read(requests);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        synchronized (pending) {
+            while (pending.size() < 2) {
+                pending.wait(5000);
+            }
+        }
+
+        // the third chunk must wait for the first one to complete, completing the second one is not enough
+        complete(pending, 1, 2, 3);
+        complete(pending, 0, 0, 1);
+
+        synchronized (pending) {
+            while (pending.size() < 3) {
+                pending.wait(5000);
+            }
+        }
+
+        complete(pending, 2, 4);
+
+        result.get(5, TimeUnit.SECONDS);
+
+        assertEquals(3, sent.size());
+        assertEquals(2, maxInFlight.get());
+        assertEquals(2, sent.get(0).size());
+        assertEquals(2, sent.get(1).size());
+        assertEquals(1, sent.get(2).size());
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(ChannelFlag.SUCCESS, records.get(i).getChannelStatus().getChannelFlag());
+            assertEquals(i, records.get(i).getValue().getValue());
+        }
+        assertTrue(result.isDone());
+    }
+
+    @Test
+    public void testPipelinedReadFailure() throws Exception {
+        // test that the chunks still in flight do not fill the records after a failed read has returned
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("request.timeout", 5);
+        properties.put("max.request.items", 2);
+        properties.put("max.outstanding.requests", 2);
+        OpcUaOptions options = new OpcUaOptions(properties, mock(CryptoService.class));
+
+        OpcUaClient clientMock = mock(OpcUaClient.class);
+
+        ConnectionManager manager = new ConnectionManager(clientMock, options, (a, b) -> {
+        }, new ListenerRegistrationRegistry(), new ListenerRegistrationRegistry());
+
+        final List<CompletableFuture<ReadResponse>> pending = new ArrayList<>();
+
+        when(clientMock.read(Mockito.eq(0.0), Mockito.eq(TimestampsToReturn.Both), anyObject()))
+                .thenAnswer(invocation -> {
+                    final CompletableFuture<ReadResponse> future = new CompletableFuture<>();
+                    synchronized (pending) {
+                        pending.add(future);
+                        pending.notifyAll();
+                    }
+                    return future;
+                });
+
+        List<ChannelRecord> records = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ChannelRecord record = ChannelRecord.createReadRecord("ch" + i, DataType.INTEGER);
+            Map<String, Object> channelConfig = new HashMap<>();
+            channelConfig.put("node.namespace.index", "1");
+            channelConfig.put("node.id.type", "NUMERIC");
+            channelConfig.put("opcua.type", "DEFINED_BY_JAVA_TYPE");
+            channelConfig.put("node.id", Integer.toString(i));
+            channelConfig.put("attribute", "Value");
+            record.setChannelConfig(channelConfig);
+            records.add(record);
+        }
+
+        final List<Request<ReadParams>> requests = Request.extractReadRequests(records);
+        final CompletableFuture<Void> result = CompletableFuture.runAsync(() -> {
+            try {
+                manager.read(requests);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        synchronized (pending) {
+            while (pending.size() < 2) {
+                pending.wait(5000);
+            }
+        }
+
+        pending.get(0).completeExceptionally(new IllegalStateException("failed"));
+
+        try {
+            result.get(5, TimeUnit.SECONDS);
+            fail("Read should have failed");
+        } catch (ExecutionException e) {
+            // expected
+        }
+
+        // the response of the second chunk arrives after read() has thrown
+        complete(pending, 1, 2, 3);
+
+        assertEquals(2, pending.size());
+        assertNull(records.get(2).getValue());
+        assertNull(records.get(3).getValue());
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testSubscriptionBackedRead() throws Exception {
+        // test that reads are served from monitored item notifications while the subscription is alive
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("request.timeout", 5);
+        properties.put("read.cache.enabled", true);
+        properties.put("read.cache.max.age", 60000L);
+        OpcUaOptions options = new OpcUaOptions(properties, mock(CryptoService.class));
+
+        OpcUaClient clientMock = mock(OpcUaClient.class);
+        OpcUaSubscriptionManager subscriptionManagerMock = mock(OpcUaSubscriptionManager.class);
+        UaSubscription subscriptionMock = mock(UaSubscription.class);
+        UaMonitoredItem monitoredItemMock = mock(UaMonitoredItem.class);
+
+        when(clientMock.getSubscriptionManager()).thenReturn(subscriptionManagerMock);
+        when(clientMock.nextRequestHandle()).thenReturn(UInteger.valueOf(1));
+        when(subscriptionManagerMock.createSubscription(Mockito.anyDouble(), anyObject(), anyObject(), anyObject(),
+                Mockito.anyBoolean(), anyObject())).thenReturn(CompletableFuture.completedFuture(subscriptionMock));
+        when(subscriptionMock.getSubscriptionId()).thenReturn(UInteger.valueOf(1));
+        when(subscriptionMock.createMonitoredItems(Mockito.eq(TimestampsToReturn.Both), anyObject()))
+                .thenReturn(CompletableFuture.completedFuture(Collections.singletonList(monitoredItemMock)));
+        when(monitoredItemMock.getStatusCode()).thenReturn(StatusCode.GOOD);
+
+        final List<CompletableFuture<ReadResponse>> pending = new ArrayList<>();
+        when(clientMock.read(Mockito.eq(0.0), Mockito.eq(TimestampsToReturn.Both), anyObject()))
+                .thenAnswer(invocation -> {
+                    final CompletableFuture<ReadResponse> future = new CompletableFuture<>();
+                    pending.add(future);
+                    complete(pending, pending.size() - 1, 1);
+                    return future;
+                });
+
+        ConnectionManager manager = new ConnectionManager(clientMock, options, (a, b) -> {
+        }, new ListenerRegistrationRegistry(), new ListenerRegistrationRegistry());
+
+        ChannelRecord record = ChannelRecord.createReadRecord("ch1", DataType.INTEGER);
+        Map<String, Object> channelConfig = new HashMap<>();
+        channelConfig.put("node.namespace.index", "1");
+        channelConfig.put("node.id.type", "NUMERIC");
+        channelConfig.put("opcua.type", "DEFINED_BY_JAVA_TYPE");
+        channelConfig.put("node.id", "1");
+        channelConfig.put("attribute", "Value");
+        record.setChannelConfig(channelConfig);
+
+        final List<Request<ReadParams>> requests = Request.extractReadRequests(Collections.singletonList(record));
+
+        // no value available yet, the Read service is used and a monitored item is created
+        manager.read(requests);
+
+        assertEquals(1, pending.size());
+        assertEquals(1, record.getValue().getValue());
+
+        // a keep alive is requested every max age / 2 milliseconds
+        verify(subscriptionManagerMock).createSubscription(Mockito.eq(1000.0), Mockito.eq(UInteger.valueOf(90)),
+                Mockito.eq(UInteger.valueOf(30)), anyObject(), Mockito.anyBoolean(), anyObject());
+
+        ArgumentCaptor<Consumer> consumerCaptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(monitoredItemMock).setValueConsumer(consumerCaptor.capture());
+        ArgumentCaptor<ReadCache> listenerCaptor = ArgumentCaptor.forClass(ReadCache.class);
+        verify(subscriptionManagerMock).addSubscriptionListener(listenerCaptor.capture());
+
+        consumerCaptor.getValue().accept(new DataValue(new Variant(2), StatusCode.GOOD));
+
+        // the value is served from the cache
+        manager.read(requests);
+
+        assertEquals(1, pending.size());
+        assertEquals(2, record.getValue().getValue());
+
+        // the subscription is no longer known to be alive, fall back to the Read service
+        listenerCaptor.getValue().onNotificationDataLost(subscriptionMock);
+
+        manager.read(requests);
+
+        assertEquals(2, pending.size());
+        assertEquals(1, record.getValue().getValue());
+    }
+
+    @Test
+    public void testSubscriptionBackedReadZeroMaxAge() throws Exception {
+        // test that a max age of 0 disables subscription backed reads
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("request.timeout", 5);
+        properties.put("read.cache.enabled", true);
+        properties.put("read.cache.max.age", 0L);
+        OpcUaOptions options = new OpcUaOptions(properties, mock(CryptoService.class));
+
+        assertFalse(options.isReadCacheEnabled());
+
+        OpcUaClient clientMock = mock(OpcUaClient.class);
+        OpcUaSubscriptionManager subscriptionManagerMock = mock(OpcUaSubscriptionManager.class);
+        when(clientMock.getSubscriptionManager()).thenReturn(subscriptionManagerMock);
+
+        final List<CompletableFuture<ReadResponse>> pending = new ArrayList<>();
+        when(clientMock.read(Mockito.eq(0.0), Mockito.eq(TimestampsToReturn.Both), anyObject()))
+                .thenAnswer(invocation -> {
+                    final CompletableFuture<ReadResponse> future = new CompletableFuture<>();
+                    pending.add(future);
+                    complete(pending, pending.size() - 1, 1);
+                    return future;
+                });
+
+        ConnectionManager manager = new ConnectionManager(clientMock, options, (a, b) -> {
+        }, new ListenerRegistrationRegistry(), new ListenerRegistrationRegistry());
+
+        ChannelRecord record = ChannelRecord.createReadRecord("ch1", DataType.INTEGER);
+        Map<String, Object> channelConfig = new HashMap<>();
+        channelConfig.put("node.namespace.index", "1");
+        channelConfig.put("node.id.type", "NUMERIC");
+        channelConfig.put("opcua.type", "DEFINED_BY_JAVA_TYPE");
+        channelConfig.put("node.id", "1");
+        channelConfig.put("attribute", "Value");
+        record.setChannelConfig(channelConfig);
+
+        manager.read(Request.extractReadRequests(Collections.singletonList(record)));
+
+        assertEquals(1, pending.size());
+        assertEquals(1, record.getValue().getValue());
+        verify(subscriptionManagerMock, Mockito.never()).createSubscription(Mockito.anyDouble(), anyObject(),
+                anyObject(), anyObject(), Mockito.anyBoolean(), anyObject());
+    }
+
+    private static void complete(List<CompletableFuture<ReadResponse>> pending, int index, int... values) {
+        final DataValue[] results = new DataValue[values.length];
+        for (int i = 0; i < values.length; i++) {
+            results[i] = new DataValue(new Variant(values[i]), StatusCode.GOOD);
+        }
+
+        ReadResponse response = mock(ReadResponse.class);
+        when(response.getResults()).thenReturn(results);
+
+        final CompletableFuture<ReadResponse> future;
+        synchronized (pending) {
+            future = pending.get(index);
+        }
+        future.complete(response);
+    }
 }
@@ -11,6 +11,8 @@ package org.eclipse.kura.internal.driver.s7plc;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -19,12 +21,16 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.kura.KuraErrorCode;
 import org.eclipse.kura.KuraException;
+import org.eclipse.kura.channel.ChannelFlag;
+import org.eclipse.kura.channel.ChannelRecord;
 import org.eclipse.kura.core.testutil.TestUtil;
 import org.eclipse.kura.crypto.CryptoService;
 import org.eclipse.kura.driver.ChannelDescriptor;
@@ -33,10 +39,12 @@ import org.eclipse.kura.driver.block.BlockFactory;
 import org.eclipse.kura.driver.block.task.BlockTask;
 import org.eclipse.kura.driver.block.task.Mode;
 import org.eclipse.kura.driver.block.task.ToplevelBlockTask;
+import org.eclipse.kura.type.DataType;
 import org.junit.Test;
 
 import Moka7.S7;
 import Moka7.S7Client;
+import Moka7.S7DataItem;
 
 public class S7PlcDriverTest {
 
@@ -310,6 +318,47 @@ public class S7PlcDriverTest {
         verify(s7Mock, times(1)).Disconnect();
     }
 
+    @Test
+    public void testReadScatteredDbs() throws ConnectionException {
+        // test that blocks in different DBs are read using multi variable requests
+
+        S7Client s7Mock = mock(S7Client.class);
+        S7PlcDriver svc = createTestDriver(s7Mock);
+        svc.activate(Collections.emptyMap());
+
+        when(s7Mock.PDULength()).thenReturn(480);
+        when(s7Mock.ReadMultiVars(anyObject(), anyInt())).thenAnswer(invocation -> {
+            S7DataItem[] items = (S7DataItem[]) invocation.getArguments()[0];
+            int count = (Integer) invocation.getArguments()[1];
+            for (int i = 0; i < count; i++) {
+                S7.SetDIntAt(items[i].Data, 0, items[i].DBNumber);
+                items[i].Result = 0;
+            }
+            return 0;
+        });
+
+        List<ChannelRecord> records = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            ChannelRecord record = ChannelRecord.createReadRecord("ch" + i, DataType.INTEGER);
+            Map<String, Object> config = new HashMap<>();
+            config.put("data.block.no", i + 1);
+            config.put("offset", 10);
+            config.put("s7.data.type", "DINT");
+            record.setChannelConfig(config);
+            records.add(record);
+        }
+
+        svc.read(records);
+
+        verify(s7Mock, times(2)).ReadMultiVars(anyObject(), anyInt());
+        verify(s7Mock, times(0)).ReadArea(anyInt(), anyInt(), anyInt(), anyInt(), anyObject());
+
+        for (ChannelRecord record : records) {
+            assertEquals(ChannelFlag.SUCCESS, record.getChannelStatus().getChannelFlag());
+            assertEquals(Integer.parseInt(record.getChannelName().substring(2)) + 1, record.getValue().getValue());
+        }
+    }
+
     @Test(expected = IOException.class)
     public void testWrite() throws NoSuchFieldException, IOException, ConnectionException {
         // test that exception is thrown as a result of an unsuccessful write
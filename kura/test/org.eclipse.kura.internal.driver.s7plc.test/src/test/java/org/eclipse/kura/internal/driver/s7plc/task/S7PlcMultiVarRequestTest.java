@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.internal.driver.s7plc.task;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.kura.driver.block.task.Mode;
+import org.junit.Test;
+
+public class S7PlcMultiVarRequestTest {
+
+    private static List<S7PlcToplevelBlockTask> createTasks(Mode mode, int count, int length) {
+        final List<S7PlcToplevelBlockTask> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new S7PlcToplevelBlockTask(null, mode, i + 1, 0, length));
+        }
+        return tasks;
+    }
+
+    @Test
+    public void testPackReadLimitedByItemCount() {
+        // 40 scattered DBs with a 480 bytes PDU, at most 20 items per request
+
+        final List<S7PlcMultiVarRequest> requests = S7PlcMultiVarRequest.pack(createTasks(Mode.READ, 40, 4),
+                Mode.READ, 480);
+
+        assertEquals(2, requests.size());
+        assertEquals(20, requests.get(0).getTasks().size());
+        assertEquals(20, requests.get(1).getTasks().size());
+    }
+
+    @Test
+    public void testPackReadLimitedByPduSize() {
+        // response size: 14 + n * (4 + 4) <= 240 -> 28 items, request size: 12 + n * 12 <= 240 -> 19 items
+
+        final List<S7PlcMultiVarRequest> requests = S7PlcMultiVarRequest.pack(createTasks(Mode.READ, 40, 4),
+                Mode.READ, 240);
+
+        assertEquals(3, requests.size());
+        assertEquals(19, requests.get(0).getTasks().size());
+        assertEquals(19, requests.get(1).getTasks().size());
+        assertEquals(2, requests.get(2).getTasks().size());
+
+        // response size: 14 + n * (4 + 100) <= 240 -> 2 items
+
+        assertEquals(5, S7PlcMultiVarRequest.pack(createTasks(Mode.READ, 10, 100), Mode.READ, 240).size());
+    }
+
+    @Test
+    public void testPackWrite() {
+        // request size: 12 + n * (12 + 4 + 10) <= 240 -> 8 items
+
+        final List<S7PlcMultiVarRequest> requests = S7PlcMultiVarRequest.pack(createTasks(Mode.WRITE, 10, 10),
+                Mode.WRITE, 240);
+
+        assertEquals(2, requests.size());
+        assertEquals(8, requests.get(0).getTasks().size());
+        assertEquals(2, requests.get(1).getTasks().size());
+    }
+
+    @Test
+    public void testPackSkipsTasksLargerThanPdu() {
+        final List<S7PlcToplevelBlockTask> tasks = Arrays.asList(new S7PlcToplevelBlockTask(null, Mode.READ, 1, 0, 4),
+                new S7PlcToplevelBlockTask(null, Mode.READ, 2, 0, 1000),
+                new S7PlcToplevelBlockTask(null, Mode.READ, 3, 0, 4));
+
+        final List<S7PlcMultiVarRequest> requests = S7PlcMultiVarRequest.pack(tasks, Mode.READ, 240);
+
+        assertEquals(1, requests.size());
+        assertEquals(2, requests.get(0).getTasks().size());
+        assertTrue(requests.get(0).getTasks().contains(tasks.get(0)));
+        assertTrue(requests.get(0).getTasks().contains(tasks.get(2)));
+
+        assertTrue(S7PlcMultiVarRequest.pack(tasks, Mode.READ, 0).isEmpty());
+    }
+}
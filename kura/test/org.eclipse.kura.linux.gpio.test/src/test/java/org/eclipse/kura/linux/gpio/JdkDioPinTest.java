@@ -32,6 +32,7 @@ import org.junit.Test;
 import jdk.dio.ClosedDeviceException;
 import jdk.dio.UnavailableDeviceException;
 import jdk.dio.gpio.GPIOPin;
+import jdk.dio.gpio.PinEvent;
 import jdk.dio.gpio.PinListener;
 
 
@@ -179,6 +180,25 @@ public class JdkDioPinTest {
         verify(pinMock, times(1)).setInputListener(null);
     }
 
+    @Test
+    public void testStatusListenerTimestamp() throws Throwable {
+        String index = "1";
+        String description = "name:name,deviceType:gpio.GPIOPin,direction:1,mode:8,trigger:0";
+
+        JdkDioPin pin = JdkDioPin.parseFromProperty(index, description);
+
+        GPIOPin pinMock = mock(GPIOPin.class);
+        TestUtil.setFieldValue(pin, "thePin", pinMock);
+
+        PinStatusListener listener = mock(PinStatusListener.class);
+        pin.addPinStatusListener(listener);
+
+        PinListener pinListener = (PinListener) TestUtil.getFieldValue(pin, "privateListener");
+        pinListener.valueChanged(new PinEvent(pinMock, true, 1500000000123L, 456));
+
+        verify(listener, times(1)).pinStatusChange(true, 1500000000123456L);
+    }
+
     @Test
     public void testStatusListenersExceptions() throws KuraClosedDeviceException, IOException, NoSuchFieldException {
         String index = "1";
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.linux.net.iptables;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+public class IptablesDeltaTest {
+
+    private static final String LO = "-A INPUT -i lo -j ACCEPT";
+    private static final String SSH = "-A INPUT -p tcp -s 0.0.0.0/0 -m tcp --dport 22 -j ACCEPT";
+    private static final String HTTP = "-A INPUT -p tcp -s 0.0.0.0/0 -m tcp --dport 80 -j ACCEPT";
+    private static final String HTTPS = "-A INPUT -p tcp -s 0.0.0.0/0 -m tcp --dport 443 -j ACCEPT";
+    private static final String FWD_OUT = "-A FORWARD -i eth0 -o wlan0 -p tcp -m tcp --dport 1234 -j ACCEPT";
+    private static final String FWD_IN = "-A FORWARD -i wlan0 -o eth0 -p tcp -m state --state RELATED,ESTABLISHED "
+            + "-j ACCEPT";
+    private static final String MASQUERADE = "-A POSTROUTING -o wlan0 -j MASQUERADE";
+
+    private static Map<String, List<String>> rules(List<String> filter, List<String> nat) {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("filter", filter);
+        rules.put("nat", nat);
+        return rules;
+    }
+
+    /*
+     * Applies the changes to a copy of the rules the same way iptables-restore --noflush does, the rules of the
+     * result are sorted by chain
+     */
+    private static Map<String, List<String>> apply(Map<String, List<String>> rules, String changes) {
+        Map<String, Map<String, List<String>>> chains = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : rules.entrySet()) {
+            Map<String, List<String>> tableChains = new TreeMap<>();
+            for (String rule : entry.getValue()) {
+                String[] tokens = rule.split(" ", 3);
+                tableChains.computeIfAbsent(tokens[1], k -> new ArrayList<>()).add(tokens[2]);
+            }
+            chains.put(entry.getKey(), tableChains);
+        }
+
+        String table = null;
+        for (String line : changes.split("\n")) {
+            if (line.isEmpty() || "COMMIT".equals(line)) {
+                continue;
+            }
+            if (line.startsWith("*")) {
+                table = line.substring(1);
+                continue;
+            }
+            String[] tokens = line.split(" ", 4);
+            List<String> chain = chains.get(table).computeIfAbsent(tokens[1], k -> new ArrayList<>());
+            int position = Integer.parseInt(tokens[2]) - 1;
+            if ("-D".equals(tokens[0])) {
+                chain.remove(position);
+            } else {
+                assertEquals("-I", tokens[0]);
+                chain.add(position, tokens[3]);
+            }
+        }
+
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        for (String tableName : rules.keySet()) {
+            List<String> tableRules = new ArrayList<>();
+            for (Map.Entry<String, List<String>> chain : chains.get(tableName).entrySet()) {
+                for (String rule : chain.getValue()) {
+                    tableRules.add("-A " + chain.getKey() + " " + rule);
+                }
+            }
+            result.put(tableName, tableRules);
+        }
+        return result;
+    }
+
+    private static void assertChanges(Map<String, List<String>> applied, Map<String, List<String>> desired,
+            String expected) {
+        String changes = IptablesDelta.compute(applied, desired);
+        if (expected != null) {
+            assertEquals(expected, changes);
+        }
+        assertEquals(apply(desired, ""), apply(applied, changes));
+    }
+
+    @Test
+    public void testUnchanged() {
+        Map<String, List<String>> rules = rules(Arrays.asList(LO, SSH, FWD_OUT, FWD_IN),
+                Collections.singletonList(MASQUERADE));
+
+        assertEquals("", IptablesDelta.compute(rules, rules(new ArrayList<>(rules.get("filter")),
+                new ArrayList<>(rules.get("nat")))));
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        Map<String, List<String>> applied = rules(Arrays.asList(LO, SSH, HTTP, FWD_OUT, FWD_IN),
+                Collections.<String> emptyList());
+
+        assertChanges(applied, rules(Arrays.asList(LO, SSH, HTTP, HTTPS, FWD_OUT, FWD_IN), Arrays.asList(MASQUERADE)),
+                "*filter\n-I INPUT 4 -p tcp -s 0.0.0.0/0 -m tcp --dport 443 -j ACCEPT\nCOMMIT\n"
+                        + "*nat\n-I POSTROUTING 1 -o wlan0 -j MASQUERADE\nCOMMIT\n");
+        assertChanges(applied, rules(Arrays.asList(LO, HTTP), Collections.<String> emptyList()),
+                "*filter\n-D INPUT 2\n-D FORWARD 1\n-D FORWARD 1\nCOMMIT\n");
+        assertChanges(applied, rules(Arrays.asList(LO, HTTPS, HTTP, FWD_OUT, FWD_IN), Collections.<String> emptyList()),
+                "*filter\n-D INPUT 2\n-I INPUT 2 -p tcp -s 0.0.0.0/0 -m tcp --dport 443 -j ACCEPT\nCOMMIT\n");
+    }
+
+    @Test
+    public void testDuplicatedRules() {
+        // port forward rules between the same interfaces share the same return rule
+        Map<String, List<String>> applied = rules(Arrays.asList(LO, FWD_OUT, FWD_IN, FWD_OUT, FWD_IN),
+                Collections.<String> emptyList());
+
+        assertChanges(applied, rules(Arrays.asList(LO, FWD_OUT, FWD_IN), Collections.<String> emptyList()),
+                "*filter\n-D FORWARD 3\n-D FORWARD 3\nCOMMIT\n");
+        assertChanges(applied, rules(Arrays.asList(LO, FWD_IN, FWD_IN, FWD_OUT, FWD_OUT, FWD_IN),
+                Collections.<String> emptyList()), null);
+    }
+
+    @Test
+    public void testRandomChanges() {
+        List<String> pool = Arrays.asList(LO, SSH, HTTP, HTTPS, FWD_OUT, FWD_IN);
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            assertChanges(rules(randomRules(pool, random), Collections.<String> emptyList()),
+                    rules(randomRules(pool, random), Collections.<String> emptyList()), null);
+        }
+    }
+
+    private static List<String> randomRules(List<String> pool, Random random) {
+        List<String> rules = new ArrayList<>();
+        int size = random.nextInt(12);
+        for (int i = 0; i < size; i++) {
+            rules.add(pool.get(random.nextInt(pool.size())));
+        }
+        return rules;
+    }
+
+    @Test
+    public void testInvalidRule() {
+        assertNull(IptablesDelta.compute(rules(Arrays.asList(LO), Collections.<String> emptyList()),
+                rules(Arrays.asList("-I INPUT 1 -j DROP"), Collections.<String> emptyList())));
+    }
+}
@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.linux.net.util;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.kura.net.NetInterfaceType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LinuxInterfaceStatusProviderTest {
+
+    private Path sysfsNetRoot;
+    private Path procfsNetRoot;
+
+    @Before
+    public void setUp() throws IOException {
+        this.sysfsNetRoot = Files.createTempDirectory("sysfs");
+        this.procfsNetRoot = Files.createTempDirectory("procfs");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(this.sysfsNetRoot.toFile());
+        FileUtils.deleteDirectory(this.procfsNetRoot.toFile());
+    }
+
+    private void addInterface(String name, int index, int type, String flags, String operstate, String carrier,
+            String address) throws IOException {
+        Path interfaceDir = Files.createDirectories(this.sysfsNetRoot.resolve(name));
+        write(interfaceDir.resolve("ifindex"), index + "\n");
+        write(interfaceDir.resolve("type"), type + "\n");
+        write(interfaceDir.resolve("flags"), flags + "\n");
+        write(interfaceDir.resolve("operstate"), operstate + "\n");
+        write(interfaceDir.resolve("mtu"), "1500\n");
+        write(interfaceDir.resolve("address"), address + "\n");
+        write(interfaceDir.resolve("carrier_changes"), "3\n");
+        if (carrier != null) {
+            write(interfaceDir.resolve("carrier"), carrier + "\n");
+        }
+    }
+
+    private static void write(Path path, String content) throws IOException {
+        Files.write(path, content.getBytes(US_ASCII));
+    }
+
+    private LinuxInterfaceStatusProvider createProvider(long maxAgeMs) {
+        return new LinuxInterfaceStatusProvider(this.sysfsNetRoot, this.procfsNetRoot, maxAgeMs) {
+
+            @Override
+            protected void readInet4Addresses(Map<String, LinuxInterfaceStatus> statuses) {
+                LinuxInterfaceStatus eth0 = statuses.get("eth0");
+                if (eth0 != null) {
+                    eth0.setInetAddress("192.168.1.10");
+                    eth0.setInetMask("255.255.255.0");
+                    eth0.setInetBcast("192.168.1.255");
+                }
+            }
+        };
+    }
+
+    @Test
+    public void testInterfaceState() throws IOException {
+        addInterface("ppp0", 5, 512, "0x1091", "unknown", "1", "");
+        addInterface("eth0", 2, 1, "0x1003", "up", "1", "b8:27:eb:ed:9c:83");
+        addInterface("lo", 1, 772, "0x9", "unknown", "1", "00:00:00:00:00:00");
+        addInterface("wlan0", 3, 1, "0x1002", "down", null, "b8:27:eb:00:00:01");
+        write(this.sysfsNetRoot.resolve("bonding_masters"), "\n");
+
+        LinuxInterfaceStatusProvider provider = createProvider(10000);
+        Map<String, LinuxInterfaceStatus> statuses = provider.getAll();
+
+        assertTrue(provider.isAvailable());
+        assertEquals(Arrays.asList("lo", "eth0", "wlan0", "ppp0"), new ArrayList<>(statuses.keySet()));
+
+        LinuxInterfaceStatus eth0 = statuses.get("eth0");
+        assertEquals(2, eth0.getIndex());
+        assertEquals(NetInterfaceType.ETHERNET, eth0.getType());
+        assertTrue(eth0.isUp());
+        assertTrue(eth0.isMulticast());
+        assertTrue(eth0.isLinkUp());
+        assertTrue(eth0.hasCarrier());
+        assertEquals(3, eth0.getCarrierChanges());
+        assertEquals(1500, eth0.getMtu());
+        assertEquals("b8:27:eb:ed:9c:83", eth0.getMacAddress());
+        assertEquals("192.168.1.10", eth0.getInetAddress());
+
+        LinuxInterfaceStatus wlan0 = statuses.get("wlan0");
+        assertFalse(wlan0.isUp());
+        assertFalse(wlan0.isLinkUp());
+        assertFalse(wlan0.hasCarrier());
+
+        LinuxInterfaceStatus ppp0 = statuses.get("ppp0");
+        assertEquals(NetInterfaceType.MODEM, ppp0.getType());
+        assertTrue(ppp0.isLinkUp());
+        assertNull(ppp0.getMacAddress());
+
+        assertEquals(NetInterfaceType.LOOPBACK, statuses.get("lo").getType());
+    }
+
+    @Test
+    public void testProcNet() throws IOException {
+        addInterface("eth0", 2, 1, "0x1003", "up", "1", "b8:27:eb:ed:9c:83");
+        addInterface("wlan0", 3, 1, "0x1003", "up", "1", "b8:27:eb:00:00:01");
+
+        write(this.procfsNetRoot.resolve("dev"),
+                "Inter-|   Receive                                                |  Transmit\n"
+                        + " face |bytes    packets errs drop fifo frame compressed multicast|bytes    packets errs "
+                        + "drop fifo colls carrier compressed\n"
+                        + "  eth0: 1234567      100    1    2    0     0          0         0   7654321     200    3 "
+                        + "   4    0     0       0          0\n"
+                        + "wlan0:0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0\n");
+        write(this.procfsNetRoot.resolve("route"),
+                "Iface\tDestination\tGateway \tFlags\tRefCnt\tUse\tMetric\tMask\t\tMTU\tWindow\tIRTT\n"
+                        + "eth0\t00000000\t0101A8C0\t0003\t0\t0\t200\t00000000\t0\t0\t0\n"
+                        + "eth0\t00000000\t0201A8C0\t0003\t0\t0\t100\t00000000\t0\t0\t0\n"
+                        + "eth0\t0001A8C0\t00000000\t0001\t0\t0\t0\t00FFFFFF\t0\t0\t0\n");
+        write(this.procfsNetRoot.resolve("if_inet6"), "fe800000000000000000000000000001 02 40 20 80     eth0\n"
+                + "00000000000000000000000000000001 01 80 10 80       lo\n");
+
+        Map<String, LinuxInterfaceStatus> statuses = createProvider(10000).getAll();
+
+        LinuxInterfaceStatus eth0 = statuses.get("eth0");
+        assertEquals(1234567, eth0.getRxBytes());
+        assertEquals(100, eth0.getRxPackets());
+        assertEquals(1, eth0.getRxErrors());
+        assertEquals(2, eth0.getRxDropped());
+        assertEquals(7654321, eth0.getTxBytes());
+        assertEquals(200, eth0.getTxPackets());
+        assertEquals(3, eth0.getTxErrors());
+        assertEquals(4, eth0.getTxDropped());
+        assertEquals("192.168.1.2", eth0.getDefaultGateway());
+        assertEquals(Arrays.asList("fe80:0:0:0:0:0:0:1/64"), eth0.getInet6Addresses());
+
+        LinuxInterfaceStatus wlan0 = statuses.get("wlan0");
+        assertEquals(0, wlan0.getRxBytes());
+        assertNull(wlan0.getDefaultGateway());
+        assertTrue(wlan0.getInet6Addresses().isEmpty());
+    }
+
+    @Test
+    public void testIfconfig() throws IOException {
+        addInterface("eth0", 2, 1, "0x1003", "up", "1", "b8:27:eb:ed:9c:83");
+
+        LinuxIfconfig config = createProvider(10000).getStatus("eth0").toIfconfig();
+
+        assertEquals("eth0", config.getName());
+        assertEquals(NetInterfaceType.ETHERNET, config.getType());
+        assertEquals("b8:27:eb:ed:9c:83", config.getMacAddress());
+        assertEquals("192.168.1.10", config.getInetAddress());
+        assertEquals("255.255.255.0", config.getInetMask());
+        assertEquals("192.168.1.255", config.getInetBcast());
+        assertEquals(1500, config.getMtu());
+        assertTrue(config.isUp());
+        assertTrue(config.isLinkUp());
+        assertTrue(config.isMulticast());
+    }
+
+    @Test
+    public void testCaching() throws IOException {
+        addInterface("eth0", 2, 1, "0x1003", "up", "1", "b8:27:eb:ed:9c:83");
+
+        LinuxInterfaceStatusProvider provider = createProvider(10000);
+        Map<String, LinuxInterfaceStatus> statuses = provider.getAll();
+
+        addInterface("eth1", 3, 1, "0x1003", "up", "1", "b8:27:eb:ed:9c:84");
+        assertSame(statuses, provider.getAll());
+        assertNull(provider.getStatus("eth1"));
+
+        provider.invalidate();
+        Map<String, LinuxInterfaceStatus> refreshed = provider.getAll();
+        assertNotSame(statuses, refreshed);
+        assertEquals(2, refreshed.size());
+
+        provider = createProvider(0);
+        assertNotSame(provider.getAll(), provider.getAll());
+    }
+
+    @Test
+    public void testChangeNotifications() throws IOException {
+        addInterface("eth0", 2, 1, "0x1003", "up", "1", "b8:27:eb:ed:9c:83");
+
+        // the snapshot would expire immediately without change notifications
+        LinuxInterfaceStatusProvider provider = createProvider(0);
+        Map<String, LinuxInterfaceStatus> statuses = provider.getAll();
+
+        provider.setChangeNotificationsEnabled(true);
+        assertTrue(provider.isChangeNotificationsEnabled());
+
+        // changes could have been missed before enabling the notifications
+        Map<String, LinuxInterfaceStatus> notified = provider.getAll();
+        assertNotSame(statuses, notified);
+        assertSame(notified, provider.getAll());
+
+        addInterface("eth1", 3, 1, "0x1003", "up", "1", "b8:27:eb:ed:9c:84");
+        assertNull(provider.getStatus("eth1"));
+
+        provider.invalidate();
+        assertEquals(2, provider.getAll().size());
+
+        provider.setChangeNotificationsEnabled(false);
+        assertFalse(provider.isChangeNotificationsEnabled());
+        assertNotSame(provider.getAll(), provider.getAll());
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2018 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
  *
  *   All rights reserved. This program and the accompanying materials
  *   are made available under the terms of the Eclipse Public License v1.0
@@ -13,6 +13,8 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.nio.charset.StandardCharsets;
+
 import org.eclipse.kura.linux.position.NMEAParser.ParseException;
 import org.junit.Test;
 
@@ -261,6 +263,15 @@ public class NMEAParserTest {
         fail("Exception expected");
     }
 
+    @Test
+    public void testSingleDigitChecksum() throws ParseException {
+        NMEAParser parser = new NMEAParser();
+
+        // the leading zero of the checksum can be omitted
+        parser.parseSentence("$GNVTG,1.5,T,,M,,N,10.2,K,A*A\n");
+        assertEquals(10.2 / 3.6, parser.getSpeedNmea(), EPS);
+    }
+
     @Test
     public void testInvalidSentence() {
         NMEAParser parser = new NMEAParser();
@@ -286,4 +297,79 @@ public class NMEAParserTest {
         }
         fail("Exception expected");
     }
+
+    @Test
+    public void testParseSentenceFromBuffer() throws ParseException {
+        NMEAParser parser = new NMEAParser();
+
+        final byte[] sentence = "garbage$GPGGA,121041.000,4655.3772,N,01513.6390,E,1,06,1.7,478.3,M,44.7,M,,0000*5d\r\n"
+                .getBytes(StandardCharsets.US_ASCII);
+
+        assertTrue(parser.parseSentence(sentence, 7, sentence.length - 7));
+        assertEquals("121041.000", parser.getTimeNmea());
+        assertEquals(46.922953, parser.getLatNmea(), EPS);
+        assertEquals('N', parser.getLatitudeHemisphere());
+        assertEquals(478.3, parser.getAltNmea(), EPS);
+
+        // the buffer is not retained
+        sentence[8] = 'X';
+        assertEquals("121041.000", parser.getTimeNmea());
+    }
+
+    @Test
+    public void testParseSentenceWithoutLineTerminator() throws ParseException {
+        NMEAParser parser = new NMEAParser();
+
+        assertTrue(parser.parseSentence("$GPGLL,4655.3772,N,01513.6390,E,121041.000,A,*16"));
+        assertEquals(15.227317, parser.getLongNmea(), EPS);
+    }
+
+    @Test
+    public void testParseSentenceGSVManyTokens() throws ParseException {
+        NMEAParser parser = new NMEAParser();
+
+        StringBuilder body = new StringBuilder("GPGSV,3,1,12");
+        for (int i = 0; i < 40; i++) {
+            body.append(",").append(i);
+        }
+        int checksum = 0;
+        for (int i = 0; i < body.length(); i++) {
+            checksum ^= body.charAt(i);
+        }
+
+        assertFalse(parser.parseSentence("$" + body + "*" + Integer.toHexString(checksum) + "\n"));
+    }
+
+    @Test
+    public void testParseNumbers() {
+        final String[] values = { "0", "-0.5", "+12.25", "4655.3772", "0.000001", "123456789.123456789",
+                "12345678901234567890", "1e3", "0.1234567890123456789012345" };
+
+        for (String value : values) {
+            final byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(value, Double.parseDouble(value), NMEAParser.parseDouble(bytes, 0, bytes.length), 0);
+        }
+
+        final byte[] intBytes = "-1234".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(-1234, NMEAParser.parseInt(intBytes, 0, intBytes.length));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseNumberInvalid() {
+        final byte[] bytes = "1.2.3".getBytes(StandardCharsets.US_ASCII);
+        NMEAParser.parseDouble(bytes, 0, bytes.length);
+    }
+
+    @Test
+    public void testMissingChecksum() {
+        NMEAParser parser = new NMEAParser();
+
+        try {
+            parser.parseSentence("$GNVTG,,,,,,,12.34,,,,\n");
+        } catch (ParseException e) {
+            assertEquals(NMEAParser.Code.BAD_CHECKSUM, e.getCode());
+            return;
+        }
+        fail("Exception expected");
+    }
 }
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.linux.position;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.kura.linux.position.NMEAParser.ParseException;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replays a NMEA log with the parser splitting the sentences, {@link SplitNMEAParser}, and with the parser reading
+ * them in place from the receive buffer as {@link GpsDevice} does, checks that they produce the same results and logs
+ * their timings.
+ * <p>
+ * The class is not matched by the default test includes, since the timings depend on the build machine. It can be
+ * run with {@code -Dtest=NMEAReplayBenchmark}. A recorded log can be used by setting the {@code nmea.replay.file}
+ * system property, otherwise the synthetic log of {@link NMEAReplayTest} is generated.
+ */
+public class NMEAReplayBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(NMEAReplayBenchmark.class);
+
+    private static final int EPOCH_COUNT = 20000;
+    private static final int WARM_UP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+    private static final double EPS = 0.000001;
+
+    private static int replaySplit(final byte[] log, final SplitNMEAParser parser) throws IOException {
+        final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(log), StandardCharsets.ISO_8859_1));
+
+        int parsed = 0;
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            try {
+                parser.parseSentence(line + "\n");
+                parsed++;
+            } catch (RuntimeException e) {
+                // skip
+            }
+        }
+
+        return parsed;
+    }
+
+    private static int replayBuffer(final byte[] log, final NMEAParser parser) {
+        int parsed = 0;
+        int start = 0;
+
+        for (int i = 0; i < log.length; i++) {
+            if (log[i] != '\n') {
+                continue;
+            }
+
+            // skip the carriage return, as GpsDevice does
+            final int end = i > start && log[i - 1] == '\r' ? i - 1 : i;
+
+            try {
+                parser.parseSentence(log, start, end - start);
+                parsed++;
+            } catch (ParseException | RuntimeException e) {
+                // skip
+            }
+
+            start = i + 1;
+        }
+
+        return parsed;
+    }
+
+    /**
+     * Returns the shortest time of the measured runs, in nanoseconds.
+     */
+    private static long measure(final Replay replay, final int expected) throws IOException {
+        for (int i = 0; i < WARM_UP_RUNS; i++) {
+            assertEquals(expected, replay.run());
+        }
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            final long start = System.nanoTime();
+            assertEquals(expected, replay.run());
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    @Test
+    public void testReplay() throws IOException {
+        final String replayFile = System.getProperty("nmea.replay.file");
+        final byte[] log = replayFile != null ? Files.readAllBytes(Paths.get(replayFile))
+                : NMEAReplayTest.createLog(EPOCH_COUNT);
+
+        final SplitNMEAParser splitParser = new SplitNMEAParser();
+        final NMEAParser bufferParser = new NMEAParser();
+
+        final int expected = replaySplit(log, splitParser);
+        assertEquals(expected, replayBuffer(log, bufferParser));
+
+        assertEquals(splitParser.isValidPosition(), bufferParser.isValidPosition());
+        assertEquals(splitParser.getTimeNmea(), bufferParser.getTimeNmea());
+        assertEquals(splitParser.getDateNmea(), bufferParser.getDateNmea());
+        assertEquals(splitParser.getLatNmea(), bufferParser.getLatNmea(), EPS);
+        assertEquals(splitParser.getLongNmea(), bufferParser.getLongNmea(), EPS);
+        assertEquals(splitParser.getAltNmea(), bufferParser.getAltNmea(), EPS);
+        assertEquals(splitParser.getSpeedNmea(), bufferParser.getSpeedNmea(), EPS);
+        assertEquals(splitParser.getTrackNmea(), bufferParser.getTrackNmea(), EPS);
+        assertEquals(splitParser.getPDOPNmea(), bufferParser.getPDOPNmea(), EPS);
+        assertEquals(splitParser.getHDOPNmea(), bufferParser.getHDOPNmea(), EPS);
+        assertEquals(splitParser.getVDOPNmea(), bufferParser.getVDOPNmea(), EPS);
+        assertEquals(splitParser.getFix3DNmea(), bufferParser.getFix3DNmea());
+        assertEquals(splitParser.getFixQuality(), bufferParser.getFixQuality());
+        assertEquals(splitParser.getNrSatellites(), bufferParser.getNrSatellites());
+
+        if (replayFile == null) {
+            assertEquals(EPOCH_COUNT * NMEAReplayTest.EPOCH_TEMPLATE.length, expected);
+        }
+
+        final long splitNanos = measure(() -> replaySplit(log, new SplitNMEAParser()), expected);
+        final long bufferNanos = measure(() -> replayBuffer(log, new NMEAParser()), expected);
+
+        logger.info("replay of {} sentences, split: {} ms, in place: {} ms, speedup: {}x", expected,
+                TimeUnit.NANOSECONDS.toMillis(splitNanos), TimeUnit.NANOSECONDS.toMillis(bufferNanos),
+                String.format("%.2f", (double) splitNanos / bufferNanos));
+    }
+
+    private interface Replay {
+
+        int run() throws IOException;
+    }
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.linux.position;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.eclipse.kura.linux.position.NMEAParser.ParseException;
+import org.junit.Test;
+
+/**
+ * Replays a NMEA log through both the line based and the buffer based parsing paths and checks that they produce the
+ * same results.
+ * <p>
+ * A recorded log (e.g. captured with {@code cat /dev/ttyACM0 > nmea.log}) can be used by setting the
+ * {@code nmea.replay.file} system property, otherwise a synthetic log emulating a 10 Hz multi constellation receiver
+ * is generated. The throughput of the parser is measured by {@link NMEAReplayBenchmark}.
+ */
+public class NMEAReplayTest {
+
+    private static final int EPOCH_COUNT = 100;
+    private static final double EPS = 0.000001;
+
+    static final String[] EPOCH_TEMPLATE = {
+            "$GNRMC,%s,A,4655.3772,N,01513.6390,E,0.31,319.55,220517,,,A",
+            "$GNVTG,319.55,T,,M,0.31,N,0.57,K,A", //
+            "$GNGGA,%s,4655.3772,N,01513.6390,E,1,12,0.9,478.3,M,44.7,M,,",
+            "$GNGSA,A,3,25,23,07,27,20,04,10,16,,,,,1.6,0.9,1.3",
+            "$GNGSA,A,3,71,72,81,82,,,,,,,,,1.6,0.9,1.3",
+            "$GPGSV,3,1,10,04,36,062,43,07,61,181,45,10,17,041,38,16,33,298,41",
+            "$GPGSV,3,2,10,20,41,251,44,23,12,131,35,25,71,102,47,27,19,315,39",
+            "$GPGSV,3,3,10,29,05,201,,30,03,154,", //
+            "$GLGSV,2,1,06,71,54,303,42,72,22,354,37,81,46,089,44,82,71,184,46",
+            "$GLGSV,2,2,06,83,24,231,33,88,15,044,", //
+            "$GNGLL,4655.3772,N,01513.6390,E,%s,A,A" };
+
+    private static String withChecksum(final String body) {
+        int checksum = 0;
+        for (int i = 1; i < body.length(); i++) {
+            checksum ^= body.charAt(i);
+        }
+        return String.format("%s*%02X\r\n", body, checksum);
+    }
+
+    /**
+     * Returns a synthetic log with the sentences sent by the receiver in the given number of epochs.
+     */
+    static byte[] createLog(final int epochCount) {
+        final StringBuilder log = new StringBuilder();
+
+        for (int i = 0; i < epochCount; i++) {
+            final int tenths = i % 36000;
+            final String time = String.format("12%02d%02d.%d00", tenths / 600, tenths / 10 % 60, tenths % 10);
+
+            for (String template : EPOCH_TEMPLATE) {
+                log.append(withChecksum(String.format(template, time)));
+            }
+        }
+
+        return log.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static boolean parse(final NMEAParser parser, final String sentence) {
+        try {
+            return parser.parseSentence(sentence);
+        } catch (ParseException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static boolean parse(final NMEAParser parser, final byte[] sentence) {
+        try {
+            return parser.parseSentence(sentence, 0, sentence.length);
+        } catch (ParseException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static void assertSameState(final String sentence, final NMEAParser expected, final NMEAParser actual) {
+        assertEquals(sentence, expected.isValidPosition(), actual.isValidPosition());
+        assertEquals(sentence, expected.getTimeNmea(), actual.getTimeNmea());
+        assertEquals(sentence, expected.getDateNmea(), actual.getDateNmea());
+        assertEquals(sentence, expected.getLatNmea(), actual.getLatNmea(), EPS);
+        assertEquals(sentence, expected.getLongNmea(), actual.getLongNmea(), EPS);
+        assertEquals(sentence, expected.getAltNmea(), actual.getAltNmea(), EPS);
+        assertEquals(sentence, expected.getSpeedNmea(), actual.getSpeedNmea(), EPS);
+        assertEquals(sentence, expected.getTrackNmea(), actual.getTrackNmea(), EPS);
+        assertEquals(sentence, expected.getHDOPNmea(), actual.getHDOPNmea(), EPS);
+        assertEquals(sentence, expected.getPDOPNmea(), actual.getPDOPNmea(), EPS);
+        assertEquals(sentence, expected.getVDOPNmea(), actual.getVDOPNmea(), EPS);
+        assertEquals(sentence, expected.getFix3DNmea(), actual.getFix3DNmea());
+        assertEquals(sentence, expected.getFixQuality(), actual.getFixQuality());
+        assertEquals(sentence, expected.getNrSatellites(), actual.getNrSatellites());
+    }
+
+    @Test
+    public void testReplay() throws IOException {
+        final String replayFile = System.getProperty("nmea.replay.file");
+        final byte[] log = replayFile != null ? Files.readAllBytes(Paths.get(replayFile)) : createLog(EPOCH_COUNT);
+
+        final NMEAParser lineParser = new NMEAParser();
+        final NMEAParser bufferParser = new NMEAParser();
+
+        final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(log), StandardCharsets.ISO_8859_1));
+
+        int parsed = 0;
+        String line;
+
+        // both paths must accept the same sentences and leave the parsers in the same state after each of them
+        while ((line = reader.readLine()) != null) {
+            final boolean lineResult = parse(lineParser, line + "\n");
+            final boolean bufferResult = parse(bufferParser, line.getBytes(StandardCharsets.ISO_8859_1));
+
+            assertEquals(line, lineResult, bufferResult);
+            assertSameState(line, lineParser, bufferParser);
+            parsed++;
+        }
+
+        if (replayFile == null) {
+            assertEquals(EPOCH_COUNT * EPOCH_TEMPLATE.length, parsed);
+            assertEquals("120009.900", bufferParser.getTimeNmea());
+            assertEquals(46.922953, bufferParser.getLatNmea(), EPS);
+        }
+    }
+}
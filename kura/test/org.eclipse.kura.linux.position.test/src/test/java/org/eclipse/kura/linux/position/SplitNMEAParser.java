@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.linux.position;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The NMEA parser as it was before the sentences were parsed in place: the sentences are split with
+ * {@link String#split(String)} and the numbers are parsed with {@link Double#parseDouble(String)}. It is the reference
+ * for {@link NMEAReplayBenchmark}.
+ */
+final class SplitNMEAParser {
+
+    private int fixQuality;
+    private String timeNmea;
+    private String dateNmea;
+    private double longNmea;
+    private double latNmea;
+    private double speedNmea;
+    private double altNmea;
+    private double trackNmea;
+    private double pdopNmea;
+    private double hdopNmea;
+    private double vdopNmea;
+    private int fix3DNmea;
+    private int nrSatellites;
+    private boolean validPosition;
+
+    /**
+     * @throws IllegalArgumentException
+     *             if the sentence is not valid or not recognized
+     */
+    boolean parseSentence(String sentence) {
+        if (!computeNMEACksum(sentence)) {
+            throw new IllegalArgumentException("Bad checksum");
+        }
+
+        int starpos = sentence.indexOf('*');
+        final List<String> tokens = Arrays.asList(sentence.substring(0, starpos).split(","));
+
+        if (!tokens.get(0).startsWith("$G")) {
+            throw new IllegalArgumentException("Invalid sentence");
+        }
+
+        if (tokens.get(0).endsWith("GGA")) {
+            parseGGASentence(tokens);
+        } else if (tokens.get(0).endsWith("GLL")) {
+            parseGLLSentence(tokens);
+        } else if (tokens.get(0).endsWith("RMC")) {
+            parseRMCSentence(tokens);
+        } else if (tokens.get(0).endsWith("GSA")) {
+            parseGSASentence(tokens);
+        } else if (tokens.get(0).endsWith("VTG")) {
+            parseVTGSentence(tokens);
+        } else if (!tokens.get(0).endsWith("GSV") && sentence.indexOf("FOM") == -1 && sentence.indexOf("PPS") == -1) {
+            throw new IllegalArgumentException("Unrecognized sentence");
+        }
+
+        return this.validPosition;
+    }
+
+    private void parseVTGSentence(List<String> tokens) {
+        if (tokens.size() > 7 && !tokens.get(7).isEmpty()) {
+            this.speedNmea = Double.parseDouble(tokens.get(7)) * 0.277777778;
+        }
+    }
+
+    private void parseGSASentence(List<String> tokens) {
+        if (tokens.size() > 5) {
+            checkPosition(tokens.subList(tokens.size() - 3, tokens.size()), 3);
+            if (!tokens.get(2).isEmpty()) {
+                this.fix3DNmea = Integer.parseInt(tokens.get(2));
+                if (this.fix3DNmea == 1) {
+                    this.validPosition = false;
+                }
+            }
+            int index = tokens.size() - 3;
+            if (!tokens.get(index).isEmpty()) {
+                this.pdopNmea = Double.parseDouble(tokens.get(index));
+            }
+            if (!tokens.get(index + 1).isEmpty()) {
+                this.hdopNmea = Double.parseDouble(tokens.get(index + 1));
+            }
+            if (!tokens.get(index + 2).isEmpty()) {
+                this.vdopNmea = Double.parseDouble(tokens.get(index + 2));
+            }
+        } else {
+            this.validPosition = false;
+        }
+    }
+
+    private void parseRMCSentence(List<String> tokens) {
+        if (tokens.size() > 9) {
+            if (!tokens.get(1).isEmpty()) {
+                this.timeNmea = tokens.get(1);
+            }
+            this.validPosition = "A".equals(tokens.get(2));
+            if (!tokens.get(3).isEmpty() && !tokens.get(4).isEmpty()) {
+                this.latNmea = convertPosition(tokens.get(3), tokens.get(4), 2);
+            }
+            if (!tokens.get(5).isEmpty() && !tokens.get(6).isEmpty()) {
+                this.longNmea = convertPosition(tokens.get(5), tokens.get(6), 3);
+            }
+            if (!tokens.get(7).isEmpty()) {
+                this.speedNmea = Double.parseDouble(tokens.get(7)) / 1.94384449;
+            }
+            if (!tokens.get(8).isEmpty()) {
+                this.trackNmea = Double.parseDouble(tokens.get(8));
+            }
+            if (!tokens.get(9).isEmpty()) {
+                this.dateNmea = tokens.get(9);
+            }
+        } else {
+            this.validPosition = false;
+        }
+    }
+
+    private void parseGLLSentence(List<String> tokens) {
+        if (tokens.size() > 6) {
+            checkPosition(tokens, 7);
+            if (!tokens.get(1).isEmpty() && !tokens.get(2).isEmpty()) {
+                this.latNmea = convertPosition(tokens.get(1), tokens.get(2), 2);
+            }
+            if (!tokens.get(3).isEmpty() && !tokens.get(4).isEmpty()) {
+                this.longNmea = convertPosition(tokens.get(3), tokens.get(4), 3);
+            }
+            if (!tokens.get(5).isEmpty()) {
+                this.timeNmea = tokens.get(5);
+            }
+            if (!tokens.get(6).isEmpty() && !"A".equals(tokens.get(6))) {
+                this.validPosition = false;
+            }
+        } else {
+            this.validPosition = false;
+        }
+    }
+
+    private void parseGGASentence(List<String> tokens) {
+        if (tokens.size() > 9) {
+            checkPosition(tokens, 10);
+            if (!tokens.get(1).isEmpty()) {
+                this.timeNmea = tokens.get(1);
+            }
+            if (!tokens.get(2).isEmpty() && !tokens.get(3).isEmpty()) {
+                this.latNmea = convertPosition(tokens.get(2), tokens.get(3), 2);
+            }
+            if (!tokens.get(4).isEmpty() && !tokens.get(5).isEmpty()) {
+                this.longNmea = convertPosition(tokens.get(4), tokens.get(5), 3);
+            }
+            if (!tokens.get(6).isEmpty()) {
+                this.fixQuality = Integer.parseInt(tokens.get(6));
+                if (this.fixQuality == 0) {
+                    this.validPosition = false;
+                }
+            }
+            if (!tokens.get(7).isEmpty()) {
+                this.nrSatellites = Integer.parseInt(tokens.get(7));
+            }
+            if (!tokens.get(9).isEmpty()) {
+                this.altNmea = Double.parseDouble(tokens.get(9));
+            }
+        } else {
+            this.validPosition = false;
+        }
+    }
+
+    private void checkPosition(List<String> tokens, int size) {
+        this.validPosition = tokens.stream().limit(size).noneMatch(String::isEmpty);
+    }
+
+    private static double convertPosition(String pos, String direction, int degChars) {
+        if (pos.length() < 6) {
+            return 0;
+        }
+
+        double deg = Double.parseDouble(pos.substring(0, degChars));
+        double min = Double.parseDouble(pos.substring(degChars));
+        deg = deg + min / 60;
+        if (direction.contains("S") || direction.contains("W")) {
+            deg = -deg;
+        }
+        return deg;
+    }
+
+    private static boolean computeNMEACksum(String nmeaMessageIn) {
+        final int starpos = nmeaMessageIn.indexOf('*');
+        final String strChecksum = nmeaMessageIn.substring(starpos + 1, nmeaMessageIn.length() - 1);
+        final int parsedChecksum = Integer.parseInt(strChecksum, 16);
+
+        int actualChecksum = 0;
+        for (int i = 1; i < starpos; i++) {
+            actualChecksum ^= nmeaMessageIn.charAt(i);
+        }
+
+        return actualChecksum == parsedChecksum;
+    }
+
+    String getTimeNmea() {
+        return this.timeNmea;
+    }
+
+    int getFixQuality() {
+        return this.fixQuality;
+    }
+
+    String getDateNmea() {
+        return this.dateNmea;
+    }
+
+    double getLongNmea() {
+        return this.longNmea;
+    }
+
+    double getLatNmea() {
+        return this.latNmea;
+    }
+
+    double getSpeedNmea() {
+        return this.speedNmea;
+    }
+
+    double getAltNmea() {
+        return this.altNmea;
+    }
+
+    double getTrackNmea() {
+        return this.trackNmea;
+    }
+
+    double getPDOPNmea() {
+        return this.pdopNmea;
+    }
+
+    double getHDOPNmea() {
+        return this.hdopNmea;
+    }
+
+    double getVDOPNmea() {
+        return this.vdopNmea;
+    }
+
+    int getFix3DNmea() {
+        return this.fix3DNmea;
+    }
+
+    int getNrSatellites() {
+        return this.nrSatellites;
+    }
+
+    boolean isValidPosition() {
+        return this.validPosition;
+    }
+}
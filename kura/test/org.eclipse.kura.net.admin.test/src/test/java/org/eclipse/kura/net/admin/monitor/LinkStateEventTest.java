@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.net.admin.monitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LinkStateEventTest {
+
+    @Test
+    public void testLink() {
+        LinkStateEvent event = LinkStateEvent.parse(
+                "2: eth0: <NO-CARRIER,BROADCAST,MULTICAST,UP> mtu 1500 qdisc pfifo_fast state DOWN group default "
+                        + "\\    link/ether b8:27:eb:ed:9c:83 brd ff:ff:ff:ff:ff:ff");
+
+        assertEquals(LinkStateEvent.Kind.LINK, event.getKind());
+        assertEquals("eth0", event.getInterfaceName());
+        assertFalse(event.isDeleted());
+    }
+
+    @Test
+    public void testDeletedVirtualLink() {
+        LinkStateEvent event = LinkStateEvent
+                .parse("Deleted 7: eth0.100@eth0: <BROADCAST,MULTICAST> mtu 1500 qdisc noop state DOWN");
+
+        assertEquals(LinkStateEvent.Kind.LINK, event.getKind());
+        assertEquals("eth0.100", event.getInterfaceName());
+        assertTrue(event.isDeleted());
+    }
+
+    @Test
+    public void testAddress() {
+        LinkStateEvent event = LinkStateEvent.parse(
+                "3: wlan0    inet 172.16.1.1/24 brd 172.16.1.255 scope global wlan0\\       valid_lft forever "
+                        + "preferred_lft forever");
+
+        assertEquals(LinkStateEvent.Kind.ADDRESS, event.getKind());
+        assertEquals("wlan0", event.getInterfaceName());
+        assertFalse(event.isDeleted());
+
+        event = LinkStateEvent.parse("Deleted 4: ppp0    inet 10.64.64.64 peer 10.112.112.112/32 scope global ppp0");
+
+        assertEquals(LinkStateEvent.Kind.ADDRESS, event.getKind());
+        assertEquals("ppp0", event.getInterfaceName());
+        assertTrue(event.isDeleted());
+    }
+
+    @Test
+    public void testRoute() {
+        LinkStateEvent event = LinkStateEvent.parse("default via 192.168.1.1 dev eth0 proto dhcp metric 100");
+
+        assertEquals(LinkStateEvent.Kind.ROUTE, event.getKind());
+        assertEquals("eth0", event.getInterfaceName());
+        assertFalse(event.isDeleted());
+
+        event = LinkStateEvent.parse("Deleted 192.168.1.0/24 dev eth1 proto kernel scope link src 192.168.1.10");
+
+        assertEquals(LinkStateEvent.Kind.ROUTE, event.getKind());
+        assertEquals("eth1", event.getInterfaceName());
+        assertTrue(event.isDeleted());
+    }
+
+    @Test
+    public void testIgnored() {
+        assertNull(LinkStateEvent.parse(""));
+        assertNull(LinkStateEvent.parse("unreachable 10.0.0.0/8 proto static"));
+        assertNull(LinkStateEvent.parse("Timestamp: Mon Jun  1 10:00:00 2020 123456 usec"));
+    }
+}
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.net.admin.monitor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.kura.executor.Command;
+import org.eclipse.kura.executor.CommandExecutorService;
+import org.eclipse.kura.executor.CommandStatus;
+import org.eclipse.kura.executor.ExitStatus;
+import org.eclipse.kura.executor.Pid;
+import org.eclipse.kura.executor.Signal;
+import org.eclipse.kura.linux.net.util.LinuxNetworkUtil;
+import org.junit.Test;
+
+public class LinkStateWatcherTest {
+
+    private static final String LINK_LINE = "2: eth0: <NO-CARRIER,BROADCAST,MULTICAST,UP> mtu 1500 qdisc pfifo_fast "
+            + "state DOWN group default \\    link/ether b8:27:eb:ed:9c:83 brd ff:ff:ff:ff:ff:ff";
+
+    private static final long MIN_RESTART_DELAY = 100;
+    private static final long MAX_RESTART_DELAY = 300;
+
+    private final FakeExecutorService executorService = new FakeExecutorService();
+    private final LinkStateWatcher watcher = new LinkStateWatcher(tool -> true, MIN_RESTART_DELAY,
+            MAX_RESTART_DELAY);
+
+    @Test
+    public void testNotStartedWithoutIp() {
+        LinkStateWatcher noIpWatcher = new LinkStateWatcher(tool -> false, MIN_RESTART_DELAY, MAX_RESTART_DELAY);
+
+        noIpWatcher.addListener(events -> {
+        }, this.executorService);
+
+        assertFalse(noIpWatcher.isRunning());
+        assertTrue(this.executorService.launched.isEmpty());
+    }
+
+    @Test
+    public void testStartAndStop() throws Exception {
+        BlockingQueue<List<LinkStateEvent>> received = new LinkedBlockingQueue<>();
+        LinkStateWatcher.Listener first = received::add;
+        LinkStateWatcher.Listener second = events -> {
+        };
+
+        this.watcher.addListener(first, this.executorService);
+        this.watcher.addListener(second, this.executorService);
+
+        // a single process is shared by the listeners
+        FakeProcess process = this.executorService.launched.poll();
+        assertNotNull(process);
+        assertTrue(this.executorService.launched.isEmpty());
+        assertArrayEquals(LinkStateWatcher.IP_MONITOR_COMMAND, process.command.getCommandLine());
+        assertTrue(this.watcher.isRunning());
+        assertTrue(LinuxNetworkUtil.getInterfaceStatusProvider().isChangeNotificationsEnabled());
+
+        process.output(LINK_LINE);
+        process.output("not an event");
+        process.output(LINK_LINE);
+
+        // the events are delivered in a single batch after the settle time
+        List<LinkStateEvent> events = received.poll(5, TimeUnit.SECONDS);
+        assertEquals(2, events.size());
+        assertEquals("eth0", events.get(0).getInterfaceName());
+
+        this.watcher.removeListener(first);
+        assertTrue(this.watcher.isRunning());
+
+        this.watcher.removeListener(second);
+        assertFalse(this.watcher.isRunning());
+        assertFalse(process.isAlive());
+        assertFalse(LinuxNetworkUtil.getInterfaceStatusProvider().isChangeNotificationsEnabled());
+
+        // a process killed on purpose is not restarted
+        assertNull(this.executorService.launched.poll(MIN_RESTART_DELAY * 3, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testRestartWithBackoff() throws Exception {
+        BlockingQueue<List<LinkStateEvent>> received = new LinkedBlockingQueue<>();
+        LinkStateWatcher.Listener listener = received::add;
+        this.watcher.addListener(listener, this.executorService);
+
+        FakeProcess first = this.executorService.launched.poll();
+        first.exit(1);
+        assertFalse(this.watcher.isRunning());
+        assertFalse(LinuxNetworkUtil.getInterfaceStatusProvider().isChangeNotificationsEnabled());
+
+        FakeProcess second = this.executorService.launched.poll(5, TimeUnit.SECONDS);
+        assertNotNull(second);
+        assertTrue(this.watcher.isRunning());
+        assertTrue(LinuxNetworkUtil.getInterfaceStatusProvider().isChangeNotificationsEnabled());
+        second.exit(1);
+
+        FakeProcess third = this.executorService.launched.poll(5, TimeUnit.SECONDS);
+        assertNotNull(third);
+
+        // the delay doubles on consecutive failures
+        long firstDelay = second.launchTime - first.exitTime;
+        long secondDelay = third.launchTime - second.exitTime;
+        assertTrue(firstDelay >= TimeUnit.MILLISECONDS.toNanos(MIN_RESTART_DELAY));
+        assertTrue(secondDelay >= TimeUnit.MILLISECONDS.toNanos(MIN_RESTART_DELAY * 2));
+
+        // the output of a terminated process is ignored
+        first.output(LINK_LINE);
+        third.output(LINK_LINE);
+        assertEquals(1, received.poll(5, TimeUnit.SECONDS).size());
+
+        this.watcher.removeListener(listener);
+        assertFalse(third.isAlive());
+    }
+
+    @Test
+    public void testStopDuringRestartDelay() throws Exception {
+        LinkStateWatcher.Listener listener = events -> {
+        };
+        this.watcher.addListener(listener, this.executorService);
+
+        this.executorService.launched.poll().exit(1);
+        this.watcher.removeListener(listener);
+
+        assertNull(this.executorService.launched.poll(MIN_RESTART_DELAY * 3, TimeUnit.MILLISECONDS));
+        assertFalse(this.watcher.isRunning());
+    }
+
+    private static final class FakeProcess {
+
+        private final FakeExecutorService executorService;
+        private final Command command;
+        private final Consumer<CommandStatus> callback;
+        private final long launchTime = System.nanoTime();
+        private long exitTime;
+
+        FakeProcess(FakeExecutorService executorService, Command command, Consumer<CommandStatus> callback) {
+            this.executorService = executorService;
+            this.command = command;
+            this.callback = callback;
+        }
+
+        void output(String line) throws IOException {
+            this.command.getOutputStream().write((line + "\n").getBytes(UTF_8));
+        }
+
+        boolean isAlive() {
+            return this.executorService.running == this;
+        }
+
+        void exit(int exitCode) {
+            synchronized (this.executorService) {
+                if (this.executorService.running == this) {
+                    this.executorService.running = null;
+                }
+            }
+            this.exitTime = System.nanoTime();
+            this.callback.accept(new CommandStatus(this.command, new ExitStatus() {
+
+                @Override
+                public int getExitCode() {
+                    return exitCode;
+                }
+
+                @Override
+                public boolean isSuccessful() {
+                    return exitCode == 0;
+                }
+            }));
+        }
+    }
+
+    private static final class FakeExecutorService implements CommandExecutorService {
+
+        private final BlockingQueue<FakeProcess> launched = new LinkedBlockingQueue<>();
+        private volatile FakeProcess running;
+
+        @Override
+        public CommandStatus execute(Command command) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void execute(Command command, Consumer<CommandStatus> callback) {
+            FakeProcess process = new FakeProcess(this, command, callback);
+            this.running = process;
+            this.launched.add(process);
+        }
+
+        @Override
+        public boolean stop(Pid pid, Signal signal) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean kill(String[] commandLine, Signal signal) {
+            FakeProcess process = this.running;
+            if (process != null) {
+                process.exit(143);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isRunning(Pid pid) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isRunning(String[] commandLine) {
+            return this.running != null;
+        }
+
+        @Override
+        public Map<String, Pid> getPids(String[] commandLine) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
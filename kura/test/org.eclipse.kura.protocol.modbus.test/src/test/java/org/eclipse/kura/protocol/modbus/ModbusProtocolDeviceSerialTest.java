@@ -0,0 +1,292 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+
+package org.eclipse.kura.protocol.modbus;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Properties;
+
+import javax.microedition.io.Connection;
+
+import org.eclipse.kura.comm.CommConnection;
+import org.eclipse.kura.comm.CommURI;
+import org.junit.Test;
+import org.osgi.service.io.ConnectionFactory;
+
+public class ModbusProtocolDeviceSerialTest {
+
+    private static final int SILENCE = 5;
+
+    @Test
+    public void testReceiveTimeoutFromBaudRate() throws Exception {
+        // the t3.5 interval is shorter than the default inter-character timeout
+        assertEquals(100, openDevice(1200, 1000, new SerialLine()).uri.getReceiveTimeout());
+        assertEquals(100, openDevice(115200, 1000, new SerialLine()).uri.getReceiveTimeout());
+
+        assertEquals(33, openDevice(1200, 1000, 10, new SerialLine()).uri.getReceiveTimeout());
+        assertEquals(10, openDevice(9600, 1000, 10, new SerialLine()).uri.getReceiveTimeout());
+        assertEquals(2, openDevice(115200, 1000, 0, new SerialLine()).uri.getReceiveTimeout());
+    }
+
+    @Test
+    public void testReadHoldingRegistersWithIntraFrameGap() throws Exception {
+        // a USB serial adapter delivers the response with a gap much longer than the t3.5 interval
+        byte[] response = withCrc(new byte[] { 1, 3, 2, 0, 42 });
+        SerialLine line = new SerialLine(Arrays.copyOfRange(response, 0, 3), gap(30),
+                Arrays.copyOfRange(response, 3, response.length));
+        ModbusProtocolDevice device = openDevice(115200, 1000, line).device;
+
+        assertArrayEquals(new int[] { 42 }, device.readHoldingRegisters(1, 0, 1));
+    }
+
+    @Test
+    public void testIntraFrameGapLongerThanInterCharacterTimeout() throws Exception {
+        byte[] response = withCrc(new byte[] { 1, 3, 2, 0, 42 });
+        SerialLine line = new SerialLine(Arrays.copyOfRange(response, 0, 3), gap(30),
+                Arrays.copyOfRange(response, 3, response.length));
+        ModbusProtocolDevice device = openDevice(115200, 1000, 10, line).device;
+
+        try {
+            device.readHoldingRegisters(1, 0, 1);
+            fail("Exception expected");
+        } catch (ModbusProtocolException e) {
+            assertEquals(ModbusProtocolErrorCode.RESPONSE_TIMEOUT, e.getCode());
+        }
+    }
+
+    @Test
+    public void testReadHoldingRegistersSplitResponse() throws Exception {
+        // the response is preceded by a stray byte and received in several bursts separated by silent periods
+        byte[] response = withCrc(new byte[] { 1, 3, 2, 0, 42 });
+        SerialLine line = new SerialLine(new byte[] { 0x55, 1, 3 }, null, Arrays.copyOfRange(response, 2, 4),
+                Arrays.copyOfRange(response, 4, response.length));
+        ModbusProtocolDevice device = openDevice(9600, 1000, line).device;
+
+        int[] registers = device.readHoldingRegisters(1, 0, 1);
+
+        assertArrayEquals(new int[] { 42 }, registers);
+        assertArrayEquals(withCrc(new byte[] { 1, 3, 0, 0, 0, 1 }), line.sent.toByteArray());
+    }
+
+    @Test
+    public void testResponseTimeout() throws Exception {
+        ModbusProtocolDevice device = openDevice(9600, 100, new SerialLine()).device;
+
+        long start = System.nanoTime();
+        try {
+            device.readHoldingRegisters(1, 0, 1);
+            fail("Exception expected");
+        } catch (ModbusProtocolException e) {
+            assertEquals(ModbusProtocolErrorCode.RESPONSE_TIMEOUT, e.getCode());
+        }
+        assertTrue(System.nanoTime() - start >= 100000000L);
+    }
+
+    private static byte[] withCrc(byte[] message) {
+        byte[] result = Arrays.copyOf(message, message.length + 2);
+        int crc = Crc16.getCrc16(message, message.length, 0xffff);
+        result[message.length] = (byte) crc;
+        result[message.length + 1] = (byte) (crc >> 8);
+        return result;
+    }
+
+    private static Integer gap(int millis) {
+        return millis;
+    }
+
+    private static OpenedDevice openDevice(int baudRate, int respTimeout, SerialLine line) throws Exception {
+        return openDevice(baudRate, respTimeout, null, line);
+    }
+
+    private static OpenedDevice openDevice(int baudRate, int respTimeout, Integer interCharacterTimeout,
+            SerialLine line) throws Exception {
+        OpenedDevice opened = new OpenedDevice();
+        opened.device = new ModbusProtocolDevice();
+        opened.device.setConnectionFactory(new ConnectionFactory() {
+
+            @Override
+            public Connection createConnection(String name, int mode, boolean timeouts) throws IOException {
+                try {
+                    opened.uri = CommURI.parseString(name);
+                    line.receiveTimeout = opened.uri.getReceiveTimeout();
+                } catch (Exception e) {
+                    throw new IOException(e);
+                }
+                return line;
+            }
+        });
+
+        Properties connectionConfig = new Properties();
+        connectionConfig.setProperty("connectionType", ModbusProtocolDevice.PROTOCOL_CONNECTION_TYPE_SERIAL);
+        connectionConfig.setProperty("port", "/dev/null");
+        connectionConfig.setProperty("baudRate", Integer.toString(baudRate));
+        connectionConfig.setProperty("stopBits", "1");
+        connectionConfig.setProperty("parity", "0");
+        connectionConfig.setProperty("bitsPerWord", "8");
+        connectionConfig.setProperty("respTimeout", Integer.toString(respTimeout));
+        connectionConfig.setProperty("transmissionMode", ModbusTransmissionMode.RTU);
+        if (interCharacterTimeout != null) {
+            connectionConfig.setProperty("interCharacterTimeout", interCharacterTimeout.toString());
+        }
+        opened.device.configureConnection(connectionConfig);
+        opened.device.connect();
+        return opened;
+    }
+
+    private static final class OpenedDevice {
+
+        ModbusProtocolDevice device;
+        CommURI uri;
+    }
+
+    /**
+     * Simulates a serial line with a receive timeout: the response bursts are received after the request has been
+     * sent, a null burst is a silent period and an {@link Integer} is a gap of the given milliseconds, that makes a
+     * read return nothing if longer than the receive timeout.
+     */
+    private static final class SerialLine implements CommConnection {
+
+        final LinkedList<Object> pending = new LinkedList<>();
+        final Object[] response;
+        final ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        volatile int receiveTimeout;
+
+        SerialLine(Object... response) {
+            this.response = response;
+        }
+
+        @Override
+        public InputStream openInputStream() {
+            return new InputStream() {
+
+                @Override
+                public int available() {
+                    synchronized (SerialLine.this.pending) {
+                        Object head = SerialLine.this.pending.peek();
+                        return head instanceof byte[] ? ((byte[]) head).length : 0;
+                    }
+                }
+
+                @Override
+                public int read() throws IOException {
+                    byte[] b = new byte[1];
+                    return read(b, 0, 1) == 1 ? b[0] & 0xff : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    Object head;
+                    synchronized (SerialLine.this.pending) {
+                        head = SerialLine.this.pending.poll();
+                        if (head instanceof Integer) {
+                            int gap = (Integer) head;
+                            if (gap > SerialLine.this.receiveTimeout) {
+                                // the receive timeout expires before the end of the gap
+                                SerialLine.this.pending.addFirst(gap - SerialLine.this.receiveTimeout);
+                                head = SerialLine.this.receiveTimeout;
+                            } else {
+                                sleep(gap);
+                                head = SerialLine.this.pending.poll();
+                            }
+                        }
+                    }
+                    if (head instanceof Integer) {
+                        sleep((Integer) head);
+                        return 0;
+                    }
+                    if (head == null) {
+                        sleep(SILENCE);
+                        return 0;
+                    }
+                    byte[] burst = (byte[]) head;
+                    System.arraycopy(burst, 0, b, off, burst.length);
+                    return burst.length;
+                }
+
+                private void sleep(int millis) throws IOException {
+                    try {
+                        Thread.sleep(millis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return new OutputStream() {
+
+                @Override
+                public void write(int b) {
+                    SerialLine.this.sent.write(b);
+                }
+
+                @Override
+                public void flush() {
+                    synchronized (SerialLine.this.pending) {
+                        SerialLine.this.pending.addAll(Arrays.asList(SerialLine.this.response));
+                    }
+                }
+            };
+        }
+
+        @Override
+        public DataInputStream openDataInputStream() {
+            return new DataInputStream(openInputStream());
+        }
+
+        @Override
+        public DataOutputStream openDataOutputStream() {
+            return new DataOutputStream(openOutputStream());
+        }
+
+        @Override
+        public CommURI getURI() {
+            return null;
+        }
+
+        @Override
+        public void sendMessage(byte[] message) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public byte[] sendCommand(byte[] command, int timeout) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public byte[] sendCommand(byte[] command, int timeout, int demark) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public byte[] flushSerialBuffer() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.internal.rest.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.kura.db.DbCallerStatistics;
+import org.eclipse.kura.db.DbLatencyHistogram;
+import org.eclipse.kura.db.H2DbService;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceReference;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+public class DbRestServiceTest {
+
+    private static final long[] UPPER_BOUNDS = { 100, Long.MAX_VALUE };
+
+    private final BundleContext context = mock(BundleContext.class);
+    private final Collection<ServiceReference<H2DbService>> references = new ArrayList<>();
+    private final DbRestService service = new DbRestService() {
+
+        @Override
+        protected BundleContext getBundleContext() {
+            return DbRestServiceTest.this.context;
+        }
+    };
+
+    @Before
+    public void setup() throws InvalidSyntaxException {
+        when(this.context.getServiceReferences(H2DbService.class, null)).thenReturn(this.references);
+    }
+
+    @Test
+    public void testGetAllStatistics() throws InvalidSyntaxException {
+        addDbService("db1", statistics("caller1"));
+        addDbService("db2", statistics("caller2"), statistics("caller3"));
+
+        JsonObject result = this.service.getStatistics();
+
+        assertEquals(2, result.size());
+        assertEquals("caller1", result.getAsJsonArray("db1").get(0).getAsJsonObject().get("callerId").getAsString());
+        assertEquals(2, result.getAsJsonArray("db2").size());
+    }
+
+    @Test
+    public void testGetStatisticsByPid() throws InvalidSyntaxException {
+        addDbService("db1", statistics("caller1"));
+        ServiceReference<H2DbService> reference = addDbService("db2", statistics("caller2"));
+
+        JsonArray result = this.service.getStatistics("db2");
+
+        assertEquals(1, result.size());
+        JsonObject caller = result.get(0).getAsJsonObject();
+        assertEquals("caller2", caller.get("callerId").getAsString());
+        assertEquals(3, caller.get("activeConnections").getAsLong());
+        assertEquals(4, caller.get("failures").getAsLong());
+        assertEquals(2, caller.getAsJsonObject("connectionAcquisition").get("count").getAsLong());
+
+        JsonObject lockHold = caller.getAsJsonObject("lockHold");
+        assertEquals(2, lockHold.get("count").getAsLong());
+        assertEquals(1000, lockHold.get("maxTimeMicros").getAsLong());
+        JsonArray buckets = lockHold.getAsJsonArray("buckets");
+        assertEquals(100, buckets.get(0).getAsJsonObject().get("upperBoundMicros").getAsLong());
+        assertFalse(buckets.get(1).getAsJsonObject().has("upperBoundMicros"));
+
+        verify(this.context).ungetService(reference);
+    }
+
+    @Test
+    public void testGetStatisticsNotFound() throws InvalidSyntaxException {
+        addDbService("db1", statistics("caller1"));
+
+        assertStatus(Response.Status.NOT_FOUND, "db2");
+    }
+
+    @Test
+    public void testGetStatisticsFilterCharacters() throws InvalidSyntaxException {
+        // the pid is not interpreted as a filter
+        ServiceReference<H2DbService> reference = addDbService("db1", statistics("caller1"));
+
+        assertStatus(Response.Status.NOT_FOUND, "*");
+        assertStatus(Response.Status.NOT_FOUND, "db1)(kura.service.pid=*");
+        assertStatus(Response.Status.NOT_FOUND, "db1)");
+
+        verify(this.context, never()).getService(reference);
+    }
+
+    @Test
+    public void testGetStatisticsEmptyPid() throws InvalidSyntaxException {
+        assertStatus(Response.Status.BAD_REQUEST, "");
+        assertStatus(Response.Status.BAD_REQUEST, " ");
+    }
+
+    private void assertStatus(Response.Status status, String pid) throws InvalidSyntaxException {
+        try {
+            this.service.getStatistics(pid);
+            fail("Exception expected for pid: " + pid);
+        } catch (WebApplicationException e) {
+            assertEquals(status.getStatusCode(), e.getResponse().getStatus());
+        }
+    }
+
+    private ServiceReference<H2DbService> addDbService(String pid, DbCallerStatistics... statistics) {
+        ServiceReference<H2DbService> reference = mock(ServiceReference.class);
+        when(reference.getProperty("kura.service.pid")).thenReturn(pid);
+
+        H2DbService dbService = mock(H2DbService.class);
+        when(dbService.getStatistics()).thenReturn(Arrays.asList(statistics));
+        when(this.context.getService(reference)).thenReturn(dbService);
+
+        this.references.add(reference);
+        return reference;
+    }
+
+    private static DbCallerStatistics statistics(String callerId) {
+        DbLatencyHistogram histogram = new DbLatencyHistogram(UPPER_BOUNDS, new long[] { 1, 1 }, 1050, 1000);
+        DbLatencyHistogram empty = new DbLatencyHistogram(UPPER_BOUNDS, new long[] { 0, 0 }, 0, 0);
+        return new DbCallerStatistics(callerId, histogram, empty, empty, histogram, 3, 4);
+    }
+}
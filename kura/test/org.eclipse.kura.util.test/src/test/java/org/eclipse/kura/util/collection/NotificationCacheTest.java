@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ *
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   which accompanies this distribution, and is available at
+ *   http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.kura.util.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+public class NotificationCacheTest {
+
+    @Test
+    public void testReadWithoutSubscription() {
+        final NotificationCache<String, String> cache = new NotificationCache<>(60000);
+        final Reader reader = new Reader(1);
+
+        assertFalse(cache.isSubscribed("device", "key"));
+        assertEquals(1, (int) cache.get("device", "key", reader));
+        assertEquals(1, (int) cache.get("device", "key", reader));
+        assertEquals(2, reader.count.get());
+    }
+
+    @Test
+    public void testReadFromNotifications() {
+        final NotificationCache<String, String> cache = new NotificationCache<>(60000);
+        final Reader reader = new Reader(1);
+
+        final Consumer<Integer> consumer = cache.subscribe("device", "key");
+        assertTrue(cache.isSubscribed("device", "key"));
+
+        // no value received yet, the synchronous read result is cached
+        assertEquals(1, (int) cache.get("device", "key", reader));
+        assertEquals(1, (int) cache.get("device", "key", reader));
+        assertEquals(1, reader.count.get());
+
+        consumer.accept(2);
+
+        assertEquals(2, (int) cache.get("device", "key", reader));
+        assertEquals(1, reader.count.get());
+    }
+
+    @Test
+    public void testStaleValue() throws InterruptedException {
+        final NotificationCache<String, String> cache = new NotificationCache<>(0);
+        final Reader reader = new Reader(1);
+
+        cache.subscribe("device", "key").accept(2);
+        Thread.sleep(1);
+
+        assertEquals(1, (int) cache.get("device", "key", reader));
+        assertEquals(1, reader.count.get());
+    }
+
+    @Test
+    public void testDownstream() {
+        final NotificationCache<String, String> cache = new NotificationCache<>(60000);
+        final List<Integer> received = new ArrayList<>();
+
+        final Consumer<Integer> consumer = cache.subscribe("device", "key", received::add);
+        consumer.accept(2);
+
+        assertEquals(1, received.size());
+        assertEquals(2, (int) cache.get("device", "key", new Reader(1)));
+    }
+
+    @Test
+    public void testInvalidatedConsumer() {
+        final NotificationCache<String, String> cache = new NotificationCache<>(60000);
+        final Reader reader = new Reader(1);
+        final List<Integer> received = new ArrayList<>();
+
+        final Consumer<Integer> first = cache.subscribe("device", "key", received::add);
+        final Consumer<Integer> second = cache.subscribe("device", "other");
+
+        cache.invalidate("device", "key");
+        assertFalse(cache.isSubscribed("device", "key"));
+        assertTrue(cache.isSubscribed("device", "other"));
+
+        cache.clear();
+        assertFalse(cache.isSubscribed("device", "other"));
+
+        // the consumers still forward the values but no longer update the cache
+        first.accept(2);
+        second.accept(2);
+
+        assertEquals(1, received.size());
+        cache.subscribe("device", "key");
+        cache.subscribe("device", "other");
+        assertEquals(1, (int) cache.get("device", "key", reader));
+        assertEquals(1, (int) cache.get("device", "other", reader));
+    }
+
+    @Test
+    public void testReplacedConsumer() {
+        final NotificationCache<String, String> cache = new NotificationCache<>(60000);
+
+        final Consumer<Integer> first = cache.subscribe("device", "key");
+        final Consumer<Integer> second = cache.subscribe("device", "key");
+
+        second.accept(2);
+        first.accept(3);
+
+        assertEquals(2, (int) cache.get("device", "key", new Reader(1)));
+    }
+
+    private static final class Reader implements Supplier<Integer> {
+
+        private final int value;
+        private final AtomicInteger count = new AtomicInteger();
+
+        Reader(final int value) {
+            this.value = value;
+        }
+
+        @Override
+        public Integer get() {
+            this.count.incrementAndGet();
+            return this.value;
+        }
+    }
+}
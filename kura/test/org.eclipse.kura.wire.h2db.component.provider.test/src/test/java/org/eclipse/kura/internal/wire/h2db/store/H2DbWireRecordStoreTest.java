@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2018 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
  *
  *   All rights reserved. This program and the accompanying materials
  *   are made available under the terms of the Eclipse Public License v1.0
@@ -9,6 +9,7 @@
 package org.eclipse.kura.internal.wire.h2db.store;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.mock;
@@ -24,6 +25,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.kura.db.H2DbService;
 import org.eclipse.kura.type.BooleanValue;
@@ -435,4 +437,270 @@ public class H2DbWireRecordStoreTest {
         connection.prepareStatement("SHUTDOWN").execute();
     }
 
+    @Test
+    public void testPartitionedSequence() throws SQLException {
+        // store records in hourly partitions, check that the view contains all of them and that the cleanup drops
+        // the oldest partition
+
+        Connection connection = getConnection();
+
+        H2DbService dbServiceMock = createMockH2DbService(connection);
+
+        AtomicLong now = new AtomicLong(1577836800000L); // 2020-01-01 00:00 UTC
+        H2DbWireRecordStore store = new H2DbWireRecordStore() {
+
+            @Override
+            protected void restartDbServiceTracker() {
+                bindDbService(dbServiceMock);
+            }
+
+            @Override
+            protected long currentTimeMillis() {
+                return now.get();
+            }
+        };
+
+        WireHelperService whsMock = mock(WireHelperService.class);
+        WireSupport wireSupportMock = mock(WireSupport.class);
+        when(whsMock.newWireSupport(store, null)).thenReturn(wireSupportMock);
+
+        store.bindWireHelperService(whsMock);
+
+        ComponentContext ctx = mock(ComponentContext.class);
+        Map<String, Object> props = new HashMap<String, Object>();
+        String tableName = "H2_STORE_PARTITIONED_TEST";
+        props.put("table.name", tableName);
+        props.put("cleanup.records.keep", 3);
+        props.put("maximum.table.size", 5);
+        props.put("partition.interval.minutes", 60);
+
+        // init
+        store.activate(ctx, props);
+
+        List<WireRecord> wireRecords = new ArrayList<WireRecord>();
+        Map<String, TypedValue<?>> recordProps = new HashMap<String, TypedValue<?>>();
+        recordProps.put("key", new StringValue("val"));
+        wireRecords.add(new WireRecord(recordProps));
+        WireEnvelope wireEvelope = new WireEnvelope("emitter", wireRecords);
+
+        // two records per hour, in three hours
+        for (int i = 0; i < 6; i++) {
+            now.set(1577836800000L + i / 2 * 3600000L + i);
+            store.onWireReceive(wireEvelope);
+        }
+
+        // the cleanup has been triggered by the last record, dropping the first partition
+        DatabaseMetaData metaData = connection.getMetaData();
+        ResultSet tables = metaData.getTables(null, null, tableName + "\\_P%", new String[] { "TABLE" });
+        assertTrue(tables.next());
+        assertEquals(tableName + "_P202001010100", tables.getString("TABLE_NAME"));
+        assertTrue(tables.next());
+        assertEquals(tableName + "_P202001010200", tables.getString("TABLE_NAME"));
+        assertFalse(tables.next());
+
+        ResultSet resultSet = connection.prepareStatement("SELECT count(*) FROM " + tableName).executeQuery();
+        resultSet.next();
+        assertEquals("Unexpected number of records", 4, resultSet.getInt(1));
+
+        resultSet = connection
+                .prepareStatement("SELECT count(*) FROM " + tableName + " WHERE TIMESTAMP >= 1577844000000")
+                .executeQuery();
+        resultSet.next();
+        assertEquals("Unexpected number of records", 2, resultSet.getInt(1));
+
+        // a new column is added to the current partition only
+        recordProps = new HashMap<String, TypedValue<?>>();
+        recordProps.put("intkey", new IntegerValue(1234));
+        wireRecords = new ArrayList<WireRecord>();
+        wireRecords.add(new WireRecord(recordProps));
+        store.onWireReceive(new WireEnvelope("emitter", wireRecords));
+
+        resultSet = connection.prepareStatement("SELECT count(\"intkey\") FROM " + tableName).executeQuery();
+        resultSet.next();
+        assertEquals("Unexpected number of records", 1, resultSet.getInt(1));
+
+        // deinit
+        store.deactivate(null);
+        connection.prepareStatement("SHUTDOWN").execute();
+    }
+
+    @Test
+    public void testMigratedTableIds() throws SQLException {
+        // store records in a table, enable the partitioning and check that the migrated table and the new partitions
+        // do not generate the same IDs
+
+        Connection connection = getConnection();
+
+        H2DbService dbServiceMock = createMockH2DbService(connection);
+
+        AtomicLong now = new AtomicLong(1577836800000L); // 2020-01-01 00:00 UTC
+        H2DbWireRecordStore store = new H2DbWireRecordStore() {
+
+            @Override
+            protected void restartDbServiceTracker() {
+                bindDbService(dbServiceMock);
+            }
+
+            @Override
+            protected long currentTimeMillis() {
+                return now.get();
+            }
+        };
+
+        WireHelperService whsMock = mock(WireHelperService.class);
+        WireSupport wireSupportMock = mock(WireSupport.class);
+        when(whsMock.newWireSupport(store, null)).thenReturn(wireSupportMock);
+
+        store.bindWireHelperService(whsMock);
+
+        ComponentContext ctx = mock(ComponentContext.class);
+        Map<String, Object> props = new HashMap<String, Object>();
+        String tableName = "H2_STORE_MIGRATED_TEST";
+        props.put("table.name", tableName);
+        props.put("cleanup.records.keep", 5);
+        props.put("maximum.table.size", 10);
+        props.put("partition.interval.minutes", 0);
+
+        // init
+        store.activate(ctx, props);
+
+        List<WireRecord> wireRecords = new ArrayList<WireRecord>();
+        Map<String, TypedValue<?>> recordProps = new HashMap<String, TypedValue<?>>();
+        recordProps.put("key", new StringValue("val"));
+        wireRecords.add(new WireRecord(recordProps));
+        WireEnvelope wireEvelope = new WireEnvelope("emitter", wireRecords);
+
+        for (int i = 0; i < 3; i++) {
+            now.incrementAndGet();
+            store.onWireReceive(wireEvelope);
+        }
+
+        // the table becomes the first partition, the records are added to it and then to a new partition
+        props.put("partition.interval.minutes", 60);
+        store.updated(props);
+
+        now.incrementAndGet();
+        store.onWireReceive(wireEvelope);
+        now.set(1577840400000L);
+        store.onWireReceive(wireEvelope);
+
+        // the reconciliation of already migrated partitions is not affected
+        store.updated(props);
+        store.onWireReceive(wireEvelope);
+
+        DatabaseMetaData metaData = connection.getMetaData();
+        ResultSet tables = metaData.getTables(null, null, tableName + "\\_P%", new String[] { "TABLE" });
+        assertTrue(tables.next());
+        assertEquals(tableName + "_P202001010000", tables.getString("TABLE_NAME"));
+        assertTrue(tables.next());
+        assertEquals(tableName + "_P202001010100", tables.getString("TABLE_NAME"));
+        assertFalse(tables.next());
+
+        ResultSet resultSet = connection
+                .prepareStatement("SELECT count(*), count(DISTINCT ID), max(ID) FROM " + tableName).executeQuery();
+        resultSet.next();
+        assertEquals("Unexpected number of records", 6, resultSet.getInt(1));
+        assertEquals("Duplicated IDs", 6, resultSet.getInt(2));
+        assertEquals(6, resultSet.getLong(3));
+
+        // deinit
+        store.deactivate(null);
+        connection.prepareStatement("SHUTDOWN").execute();
+    }
+
+    @Test
+    public void testPartitionsMerged() throws SQLException {
+        // store records in hourly partitions, disable the partitioning and check that the partitions are merged
+        // into a single table
+
+        Connection connection = getConnection();
+
+        H2DbService dbServiceMock = createMockH2DbService(connection);
+
+        AtomicLong now = new AtomicLong(1577836800000L); // 2020-01-01 00:00 UTC
+        H2DbWireRecordStore store = new H2DbWireRecordStore() {
+
+            @Override
+            protected void restartDbServiceTracker() {
+                bindDbService(dbServiceMock);
+            }
+
+            @Override
+            protected long currentTimeMillis() {
+                return now.get();
+            }
+        };
+
+        WireHelperService whsMock = mock(WireHelperService.class);
+        WireSupport wireSupportMock = mock(WireSupport.class);
+        when(whsMock.newWireSupport(store, null)).thenReturn(wireSupportMock);
+
+        store.bindWireHelperService(whsMock);
+
+        ComponentContext ctx = mock(ComponentContext.class);
+        Map<String, Object> props = new HashMap<String, Object>();
+        String tableName = "H2_STORE_MERGED_TEST";
+        props.put("table.name", tableName);
+        props.put("cleanup.records.keep", 5);
+        props.put("maximum.table.size", 10);
+        props.put("partition.interval.minutes", 60);
+
+        // init
+        store.activate(ctx, props);
+
+        // two records in the first hour, two records with a different column in the second hour
+        List<WireRecord> wireRecords = new ArrayList<WireRecord>();
+        Map<String, TypedValue<?>> recordProps = new HashMap<String, TypedValue<?>>();
+        recordProps.put("key", new StringValue("val"));
+        wireRecords.add(new WireRecord(recordProps));
+        store.onWireReceive(new WireEnvelope("emitter", wireRecords));
+        now.incrementAndGet();
+        store.onWireReceive(new WireEnvelope("emitter", wireRecords));
+
+        recordProps = new HashMap<String, TypedValue<?>>();
+        recordProps.put("intkey", new IntegerValue(1234));
+        wireRecords = new ArrayList<WireRecord>();
+        wireRecords.add(new WireRecord(recordProps));
+        now.set(1577840400000L);
+        store.onWireReceive(new WireEnvelope("emitter", wireRecords));
+        now.incrementAndGet();
+        store.onWireReceive(new WireEnvelope("emitter", wireRecords));
+
+        DatabaseMetaData metaData = connection.getMetaData();
+        ResultSet tables = metaData.getTables(null, null, tableName + "\\_P%", new String[] { "TABLE" });
+        assertTrue(tables.next());
+        assertTrue(tables.next());
+        assertFalse(tables.next());
+
+        props.put("partition.interval.minutes", 0);
+        store.updated(props);
+
+        tables = metaData.getTables(null, null, tableName + "%", null);
+        assertTrue(tables.next());
+        assertEquals(tableName, tables.getString("TABLE_NAME"));
+        assertEquals("TABLE", tables.getString("TABLE_TYPE"));
+        assertFalse(tables.next());
+
+        ResultSet resultSet = connection
+                .prepareStatement("SELECT count(*), count(\"key\"), count(\"intkey\") FROM " + tableName)
+                .executeQuery();
+        resultSet.next();
+        assertEquals("Unexpected number of records", 4, resultSet.getInt(1));
+        assertEquals("Unexpected number of records", 2, resultSet.getInt(2));
+        assertEquals("Unexpected number of records", 2, resultSet.getInt(3));
+
+        // the new records get the IDs following the merged ones
+        store.onWireReceive(new WireEnvelope("emitter", wireRecords));
+
+        resultSet = connection.prepareStatement("SELECT count(DISTINCT ID), max(ID) FROM " + tableName)
+                .executeQuery();
+        resultSet.next();
+        assertEquals("Duplicated IDs", 5, resultSet.getInt(1));
+        assertEquals(5, resultSet.getLong(2));
+
+        // deinit
+        store.deactivate(null);
+        connection.prepareStatement("SHUTDOWN").execute();
+    }
+
 }
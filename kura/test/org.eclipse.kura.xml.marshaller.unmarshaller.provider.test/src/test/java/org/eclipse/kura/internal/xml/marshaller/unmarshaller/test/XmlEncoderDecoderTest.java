@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
  *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
@@ -8,15 +8,26 @@
  *******************************************************************************/
 package org.eclipse.kura.internal.xml.marshaller.unmarshaller.test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.eclipse.kura.KuraErrorCode;
+import org.eclipse.kura.KuraException;
 import org.eclipse.kura.configuration.ComponentConfiguration;
 import org.eclipse.kura.configuration.Password;
 import org.eclipse.kura.core.configuration.ComponentConfigurationImpl;
@@ -24,7 +35,9 @@ import org.eclipse.kura.core.configuration.ConfigurationServiceImpl;
 import org.eclipse.kura.core.configuration.XmlComponentConfigurations;
 import org.eclipse.kura.core.configuration.XmlSnapshotIdResult;
 import org.eclipse.kura.core.configuration.metatype.Tad;
+import org.eclipse.kura.core.configuration.metatype.Ticon;
 import org.eclipse.kura.core.configuration.metatype.Tocd;
+import org.eclipse.kura.core.configuration.metatype.Toption;
 import org.eclipse.kura.core.configuration.metatype.Tscalar;
 import org.eclipse.kura.core.configuration.util.ComponentUtil;
 import org.eclipse.kura.core.deployment.xml.XmlBundle;
@@ -41,6 +54,8 @@ public class XmlEncoderDecoderTest {
     
     private static final Logger logger = LoggerFactory.getLogger(XmlEncoderDecoderTest.class);
 
+    private static final String COMPONENT_CONFIGURATIONS_FILE = "target/test-classes/component_configurations.xml";
+
     private static final String stringWriter = "String Writer";
     private static final String string = "String";
     private static final String pid = "Pid";
@@ -421,4 +436,94 @@ public class XmlEncoderDecoderTest {
         Map<String, Object> properties1 = config1.getConfigurations().get(0).getConfigurationProperties();
         assertEquals(properties, properties1);
     }
+
+    @Test
+    public void testUnmarshalInvalidXmlKeepsCause() {
+        XmlMarshallUnmarshallImpl xmlMarshallerImpl = new XmlMarshallUnmarshallImpl();
+        String invalid = "<esf:configurations xmlns:esf=\"http://eurotech.com/esf/2.0\"><esf:configuration";
+
+        // the StAX and the DOM parsing paths
+        for (Class<?> clazz : new Class<?>[] { XmlComponentConfigurations.class, XmlSnapshotIdResult.class }) {
+            try {
+                xmlMarshallerImpl.unmarshal(invalid, clazz);
+                fail("Exception expected for " + clazz.getSimpleName());
+            } catch (KuraException e) {
+                assertEquals(KuraErrorCode.DECODER_ERROR, e.getCode());
+                assertNotNull(e.getCause());
+            }
+        }
+    }
+
+    @Test
+    public void testStreamMarshallUnmarshall() throws Exception {
+        XmlMarshallUnmarshallImpl xmlMarshallerImpl = new XmlMarshallUnmarshallImpl();
+        XmlComponentConfigurations xcc = getSampleStreamXmlComponentConfigurationsObject();
+
+        // the fixture has been produced by the DOM based marshaller
+        byte[] expected = Files.readAllBytes(Paths.get(COMPONENT_CONFIGURATIONS_FILE));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        xmlMarshallerImpl.marshal(xcc, out);
+        assertArrayEquals(expected, out.toByteArray());
+        assertEquals(new String(expected, StandardCharsets.UTF_8), xmlMarshallerImpl.marshal(xcc));
+
+        XmlComponentConfigurations config1 = xmlMarshallerImpl.unmarshal(new ByteArrayInputStream(expected),
+                XmlComponentConfigurations.class);
+        List<ComponentConfiguration> configs = config1.getConfigurations();
+        assertEquals(4, configs.size());
+
+        Map<String, Object> properties = xcc.getConfigurations().get(0).getConfigurationProperties();
+        for (ComponentConfiguration config : configs.subList(0, 2)) {
+            Map<String, Object> properties1 = config.getConfigurationProperties();
+            assertEquals(properties.get("prop.multiline"), properties1.get("prop.multiline"));
+            assertEquals(properties.get("prop.integer"), properties1.get("prop.integer"));
+            assertArrayEquals((String[]) properties.get("prop.strings"), (String[]) properties1.get("prop.strings"));
+        }
+
+        assertEquals("pid.ocd", configs.get(1).getPid());
+        assertTrue(configs.get(2).getConfigurationProperties().isEmpty());
+        assertEquals("pid.none", configs.get(3).getPid());
+    }
+
+    private static XmlComponentConfigurations getSampleStreamXmlComponentConfigurationsObject() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("prop.multiline", "first line\r\nsecond line\n  indented <&> \u00e8\u20ac");
+        properties.put("prop.strings", new String[] { "a", "", "b" });
+        properties.put("prop.integer", Integer.MAX_VALUE);
+
+        Toption option = new Toption();
+        option.setLabel("one");
+        option.setValue("1");
+
+        Tad ad = new Tad();
+        ad.setId("prop.integer");
+        ad.setName("prop.integer");
+        ad.setType(Tscalar.INTEGER);
+        ad.setCardinality(0);
+        ad.setRequired(true);
+        ad.setDefault("1");
+        ad.setMin("0");
+        ad.setOption(option);
+
+        Ticon icon = new Ticon();
+        icon.setResource("icon.png");
+        icon.setSize(BigInteger.valueOf(32));
+
+        Tocd ocd = new Tocd();
+        ocd.setId("pid.ocd");
+        ocd.setName("OCD name");
+        ocd.setDescription("OCD description");
+        ocd.addAD(ad);
+        ocd.setIcon(icon);
+
+        List<ComponentConfiguration> ccis = new ArrayList<>();
+        ccis.add(new ComponentConfigurationImpl("pid.properties", null, properties));
+        ccis.add(new ComponentConfigurationImpl("pid.ocd", ocd, properties));
+        ccis.add(new ComponentConfigurationImpl("pid.empty", null, new HashMap<>()));
+        ccis.add(new ComponentConfigurationImpl("pid.none", null, null));
+
+        XmlComponentConfigurations xcc = new XmlComponentConfigurations();
+        xcc.setConfigurations(ccis);
+        return xcc;
+    }
 }
@@ -55,6 +55,8 @@ public class S7Client
     public static final int errS7BufferTooSmall    = 0x000C;
     public static final int errS7FunctionError     = 0x000D;
     public static final int errS7InvalidParams     = 0x000E;           
+    // Max number of variables that can be transferred by ReadMultiVars() and WriteMultiVars()
+    public static final int MaxVars = 20;
     
     // Public fields
     public boolean Connected = false;
@@ -800,6 +802,207 @@ public class S7Client
         return LastError;
     }
    
+    private int SetupMultiVarsItems(S7DataItem[] Items, int ItemsCount)
+    {
+        int Address;
+        int Offset = 19;
+        for (int c = 0; c < ItemsCount; c++)
+        {
+            S7DataItem Item = Items[c];
+            // Only byte addressed areas are supported
+            if ((Item.Area==S7.S7AreaCT) || (Item.Area==S7.S7AreaTM) || (Item.Amount<1))
+                return errS7InvalidParams;
+            System.arraycopy(S7_RW, 19, PDU, Offset, 12);
+            // Num elements
+            S7.SetWordAt(PDU,Offset+4,Item.Amount);
+            // Set DB Number
+            if (Item.Area==S7.S7AreaDB)
+                S7.SetWordAt(PDU,Offset+6,Item.DBNumber);
+            // Set Area
+            PDU[Offset+8] = (byte) Item.Area;
+            // Address into the PLC (only 3 bytes)
+            Address = Item.Start<<3;
+            PDU[Offset+11] = (byte) (Address & 0x0FF);
+            Address = Address >> 8;
+            PDU[Offset+10] = (byte) (Address & 0x0FF);
+            Address = Address >> 8;
+            PDU[Offset+9] = (byte) (Address & 0x0FF);
+            Offset+=12;
+        }
+        return 0;
+    }
+
+    public int ReadMultiVars(S7DataItem[] Items, int ItemsCount)
+    {
+        int IsoSize;
+        int Length;
+        int Offset;
+        int ItemSize;
+
+        LastError=0;
+
+        if ((ItemsCount<1) || (ItemsCount>MaxVars) || (ItemsCount>Items.length))
+        {
+            LastError = errS7InvalidParams;
+            return LastError;
+        }
+
+        IsoSize = 19 + ItemsCount*12;
+        if (IsoSize-IsoHSize > _PDULength)
+        {
+            LastError = errS7InvalidParams;
+            return LastError;
+        }
+
+        // Setup the telegram
+        System.arraycopy(S7_RW, 0, PDU, 0, 19);
+        // Whole telegram Size
+        S7.SetWordAt(PDU,2,IsoSize);
+        // Parameters Length
+        S7.SetWordAt(PDU,13,ItemsCount*12+2);
+        // Items count
+        PDU[18] = (byte) ItemsCount;
+
+        LastError = SetupMultiVarsItems(Items, ItemsCount);
+        if (LastError!=0)
+            return LastError;
+
+        SendPacket(PDU, IsoSize);
+        if (LastError==0)
+        {
+            Length=RecvIsoPacket();
+            if (LastError==0)
+            {
+                if (Length<21)
+                    LastError = errS7InvalidPDU;
+                else if ((S7.GetWordAt(PDU,17)!=0) || ((PDU[20] & 0xFF)!=ItemsCount))
+                    LastError = errS7DataRead;
+                else
+                {
+                    Offset = 21;
+                    for (int c = 0; c < ItemsCount; c++)
+                    {
+                        S7DataItem Item = Items[c];
+                        if (Offset+4>Length)
+                        {
+                            LastError = errS7InvalidPDU;
+                            break;
+                        }
+                        if (PDU[Offset]==(byte)0xFF)
+                        {
+                            ItemSize = S7.GetWordAt(PDU,Offset+2);
+                            // Length is in bits unless the transport size is octet string, real or bit
+                            if ((PDU[Offset+1]!=0x09) && (PDU[Offset+1]!=0x07) && (PDU[Offset+1]!=0x03))
+                                ItemSize = ItemSize >> 3;
+                            if ((ItemSize==Item.Amount) && (Offset+4+ItemSize<=Length))
+                            {
+                                System.arraycopy(PDU, Offset+4, Item.Data, 0, ItemSize);
+                                Item.Result = 0;
+                            }
+                            else
+                                Item.Result = errS7DataRead;
+                            // Items are aligned to even offsets
+                            Offset += 4 + ItemSize + (ItemSize % 2);
+                        }
+                        else
+                        {
+                            Item.Result = errS7DataRead;
+                            Offset += 4;
+                        }
+                    }
+                }
+            }
+        }
+        return LastError;
+    }
+
+    public int WriteMultiVars(S7DataItem[] Items, int ItemsCount)
+    {
+        int IsoSize;
+        int ParLength;
+        int DataLength = 0;
+        int Length;
+        int Offset;
+
+        LastError=0;
+
+        if ((ItemsCount<1) || (ItemsCount>MaxVars) || (ItemsCount>Items.length))
+        {
+            LastError = errS7InvalidParams;
+            return LastError;
+        }
+
+        ParLength = ItemsCount*12+2;
+        for (int c = 0; c < ItemsCount; c++)
+        {
+            DataLength += 4 + Items[c].Amount;
+            // Items are aligned to even offsets, the last one is not padded
+            if ((c<ItemsCount-1) && (Items[c].Amount % 2 != 0))
+                DataLength++;
+        }
+
+        IsoSize = 17 + ParLength + DataLength;
+        if (IsoSize-IsoHSize > _PDULength)
+        {
+            LastError = errS7InvalidParams;
+            return LastError;
+        }
+
+        // Setup the telegram
+        System.arraycopy(S7_RW, 0, PDU, 0, 19);
+        // Whole telegram Size
+        S7.SetWordAt(PDU,2,IsoSize);
+        // Parameters Length
+        S7.SetWordAt(PDU,13,ParLength);
+        // Data Length
+        S7.SetWordAt(PDU,15,DataLength);
+        // Function
+        PDU[17] = (byte) 0x05;
+        // Items count
+        PDU[18] = (byte) ItemsCount;
+
+        LastError = SetupMultiVarsItems(Items, ItemsCount);
+        if (LastError!=0)
+            return LastError;
+
+        Offset = 17 + ParLength;
+        for (int c = 0; c < ItemsCount; c++)
+        {
+            S7DataItem Item = Items[c];
+            PDU[Offset] = (byte) 0x00;   // Reserved
+            PDU[Offset+1] = (byte) 0x04; // Transport size
+            S7.SetWordAt(PDU,Offset+2,Item.Amount<<3);
+            System.arraycopy(Item.Data, 0, PDU, Offset+4, Item.Amount);
+            Offset += 4 + Item.Amount;
+            if ((c<ItemsCount-1) && (Item.Amount % 2 != 0))
+                PDU[Offset++] = (byte) 0x00;
+        }
+
+        SendPacket(PDU, IsoSize);
+        if (LastError==0)
+        {
+            Length=RecvIsoPacket();
+            if (LastError==0)
+            {
+                if (Length<21+ItemsCount)
+                    LastError = errS7InvalidPDU;
+                else if ((S7.GetWordAt(PDU,17)!=0) || ((PDU[20] & 0xFF)!=ItemsCount))
+                    LastError = errS7DataWrite;
+                else
+                {
+                    for (int c = 0; c < ItemsCount; c++)
+                    {
+                        if (PDU[21+c]==(byte)0xFF)
+                            Items[c].Result = 0;
+                        else
+                            Items[c].Result = errS7DataWrite;
+                    }
+                }
+            }
+        }
+        return LastError;
+    }
+
     public int GetAgBlockInfo(int BlockType, int BlockNumber, S7BlockInfo Block)
     {
     	int Length;